@@ -0,0 +1,13 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.services.escalation.AlertEscalationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the alert escalation SLAs and scheduler settings (medical-alerts.escalation.*)
+ */
+@Configuration
+@EnableConfigurationProperties(AlertEscalationProperties.class)
+public class AlertEscalationConfig {
+}
@@ -0,0 +1,13 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.services.rules.AlertRuleProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the alert rule definitions (alert-rules.*) evaluated by AlertRuleEngine
+ */
+@Configuration
+@EnableConfigurationProperties(AlertRuleProperties.class)
+public class AlertRulesConfig {
+}
@@ -0,0 +1,24 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.services.ingestion.AnalysisIngestionProperties;
+import com.medinsights.patient_service.services.ingestion.DocumentTextExtractor;
+import com.medinsights.patient_service.services.ingestion.StubDocumentTextExtractor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the document ingestion settings (medical-analyses.ingestion.*) and provides the
+ * local text extractor unless a real OCR integration declares its own DocumentTextExtractor
+ */
+@Configuration
+@EnableConfigurationProperties(AnalysisIngestionProperties.class)
+public class AnalysisIngestionConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(DocumentTextExtractor.class)
+    public DocumentTextExtractor documentTextExtractor() {
+        return new StubDocumentTextExtractor();
+    }
+}
@@ -0,0 +1,13 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.services.documents.DocumentStoreProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the document store location and upload limits (documents.*)
+ */
+@Configuration
+@EnableConfigurationProperties(DocumentStoreProperties.class)
+public class DocumentStoreConfig {
+}
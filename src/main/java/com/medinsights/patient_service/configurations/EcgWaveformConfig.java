@@ -0,0 +1,13 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.services.cardiovascular.EcgWaveformProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the ECG waveform store location and limits (cardiovascular-exams.waveforms.*)
+ */
+@Configuration
+@EnableConfigurationProperties(EcgWaveformProperties.class)
+public class EcgWaveformConfig {
+}
@@ -0,0 +1,56 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.services.access.PatientAccessGuard;
+import com.medinsights.patient_service.services.access.PatientAccessGuard.RecordType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces patient ownership on every endpoint addressing a patient or one of its records by path
+ * variable ({patientId}, {treatmentId}, {examId}, ...), before the controller runs.
+ * Ids in request bodies and queries across patients are checked by the services themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientAccessInterceptor implements HandlerInterceptor {
+
+    private static final Map<String, RecordType> RECORD_TYPES = Arrays.stream(RecordType.values())
+            .collect(Collectors.toUnmodifiableMap(RecordType::pathVariable, Function.identity()));
+
+    private final PatientAccessGuard accessGuard;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.isEmpty()) {
+            return true;
+        }
+        UUID userId = (UUID) request.getAttribute("userId");
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            RecordType type = RECORD_TYPES.get(variable.getKey());
+            if (type == null) {
+                continue;
+            }
+            Object id;
+            try {
+                id = type.parseId(variable.getValue());
+            } catch (IllegalArgumentException ex) {
+                continue; // rejected with 400 when the controller argument is converted
+            }
+            accessGuard.check(userId, type, List.of(id));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,12 @@
+package com.medinsights.patient_service.configurations;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (vital signs archival, ...)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package com.medinsights.patient_service.configurations;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,6 +32,8 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/actuator/health/**"
                         ).permitAll()
+                        // Completion of SSE streams re-dispatches the already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // All other requests require authentication
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,27 @@
+package com.medinsights.patient_service.configurations;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executor for Server-Sent Events delivery.
+ * Open streams hold no thread; a pool thread is only borrowed while a subscriber's buffer is drained.
+ */
+@Configuration
+public class StreamingConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService sseExecutor(@Value("${streaming.sse.threads:4}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
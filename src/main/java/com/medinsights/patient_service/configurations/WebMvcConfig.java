@@ -0,0 +1,21 @@
+package com.medinsights.patient_service.configurations;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC interceptors: patient ownership is checked on every API request before the controller runs.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final PatientAccessInterceptor patientAccessInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(patientAccessInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -1,21 +1,33 @@
 package com.medinsights.patient_service.controllers;
 
+import com.medinsights.patient_service.dto.BatchCreateResultDTO;
 import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamCreateRequest;
 import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamResponse;
 import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamUpdateRequest;
+import com.medinsights.patient_service.dto.cardiovascular.CardiovascularMeasurementResponse;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformInfo;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformSlice;
+import com.medinsights.patient_service.services.cardiovascular.CardiovascularMeasurementService;
+import com.medinsights.patient_service.services.documents.DocumentDownloads;
 import com.medinsights.patient_service.services.impl.CardiovascularExamServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -32,6 +44,7 @@ import java.util.UUID;
 public class CardiovascularExamController {
 
     private final CardiovascularExamServiceImpl cardiovascularExamService;
+    private final CardiovascularMeasurementService measurementService;
 
     /**
      * Create a new cardiovascular exam
@@ -45,15 +58,37 @@ public class CardiovascularExamController {
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Cardiovascular exam created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "403", description = "Patient of another user"),
             @ApiResponse(responseCode = "404", description = "Patient not found")
     })
     public ResponseEntity<CardiovascularExamResponse> createExam(
-            @Valid @RequestBody CardiovascularExamCreateRequest request
+            @Valid @RequestBody CardiovascularExamCreateRequest request,
+            @RequestAttribute("userId") UUID userId
     ) {
-        CardiovascularExamResponse response = cardiovascularExamService.create(request);
+        CardiovascularExamResponse response = cardiovascularExamService.create(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Create several cardiovascular exams in one request
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create cardiovascular exams in batch",
+            description = "Create up to 1000 exams, possibly for different patients. Items are validated and saved independently: " +
+                    "the response lists the created ids and the failures, by position in the request."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see failed for rejected items"),
+            @ApiResponse(responseCode = "400", description = "Empty batch or more than 1000 items")
+    })
+    public ResponseEntity<BatchCreateResultDTO> createExams(
+            @RequestBody List<CardiovascularExamCreateRequest> requests,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        return ResponseEntity.ok(cardiovascularExamService.createBatch(requests, userId));
+    }
+
     /**
      * Update an existing cardiovascular exam
      */
@@ -94,6 +129,122 @@ public class CardiovascularExamController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Upload the exam report document
+     */
+    @PostMapping(value = "/{examId}/document", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Upload cardiovascular exam report",
+            description = "Attach the report PDF or tracing image to an exam; its name is stored as pdfFile. Identical files are stored once."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Document attached"),
+            @ApiResponse(responseCode = "400", description = "Empty, too large or unsupported document"),
+            @ApiResponse(responseCode = "404", description = "Cardiovascular exam not found")
+    })
+    public ResponseEntity<CardiovascularExamResponse> uploadDocument(
+            @Parameter(description = "Exam UUID") @PathVariable UUID examId,
+            @Parameter(description = "PDF, PNG, JPEG or TIFF file") @RequestPart("file") MultipartFile file,
+            @RequestAttribute("userId") UUID userId
+    ) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            CardiovascularExamResponse response = cardiovascularExamService.attachDocument(examId, content,
+                    file.getOriginalFilename(), file.getContentType(), userId);
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    /**
+     * Download the exam report document
+     */
+    @GetMapping("/{examId}/document")
+    @Operation(
+            summary = "Download cardiovascular exam report",
+            description = "Stream the document attached to an exam. Supports single byte ranges (Range, If-Range) and ETag revalidation."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Document content"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range"),
+            @ApiResponse(responseCode = "304", description = "Not modified"),
+            @ApiResponse(responseCode = "404", description = "Cardiovascular exam or document not found"),
+            @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+    })
+    public void downloadDocument(
+            @Parameter(description = "Exam UUID") @PathVariable UUID examId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        DocumentDownloads.send(cardiovascularExamService.getDocument(examId), request, response);
+    }
+
+    /**
+     * Upload the raw ECG trace of an exam
+     */
+    @PutMapping(value = "/{examId}/waveform", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Upload ECG waveform",
+            description = "Store the raw trace of an exam, replacing any previous one. The body is little-endian int16 samples, " +
+                    "interleaved by frame (one sample of each lead, in the order of the leads parameter)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Waveform stored"),
+            @ApiResponse(responseCode = "400", description = "Invalid leads, sample rate or body size"),
+            @ApiResponse(responseCode = "404", description = "Cardiovascular exam not found")
+    })
+    public ResponseEntity<EcgWaveformInfo> uploadWaveform(
+            @Parameter(description = "Exam UUID") @PathVariable UUID examId,
+            @Parameter(description = "Lead names in frame order, e.g. I,II,III,aVR,aVL,aVF,V1,V2,V3,V4,V5,V6") @RequestParam List<String> leads,
+            @Parameter(description = "Samples per second and lead") @RequestParam double sampleRate,
+            @Parameter(description = "Amplitude of one sample unit in microvolts") @RequestParam(defaultValue = "1") double microvoltsPerUnit,
+            HttpServletRequest request
+    ) throws IOException {
+        try (InputStream content = request.getInputStream()) {
+            return ResponseEntity.ok(cardiovascularExamService.attachWaveform(examId, content, leads, sampleRate, microvoltsPerUnit));
+        }
+    }
+
+    /**
+     * Describe the ECG trace of an exam
+     */
+    @GetMapping("/{examId}/waveform")
+    @Operation(
+            summary = "Get ECG waveform description",
+            description = "Leads, sample rate, gain and length of the raw trace stored for an exam"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Waveform description"),
+            @ApiResponse(responseCode = "404", description = "Cardiovascular exam or waveform not found")
+    })
+    public ResponseEntity<EcgWaveformInfo> getWaveformInfo(
+            @Parameter(description = "Exam UUID") @PathVariable UUID examId
+    ) {
+        return ResponseEntity.ok(cardiovascularExamService.getWaveformInfo(examId));
+    }
+
+    /**
+     * Read a window of the ECG trace of an exam
+     */
+    @GetMapping("/{examId}/waveform/samples")
+    @Operation(
+            summary = "Read ECG waveform samples",
+            description = "Samples of some leads over a time window, in sample units. Windows longer than two samples per pixel " +
+                    "of width are returned as a min/max envelope per pixel, so whole recordings can be scrolled at any zoom."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Waveform window"),
+            @ApiResponse(responseCode = "400", description = "Unknown lead, empty window or invalid width"),
+            @ApiResponse(responseCode = "404", description = "Cardiovascular exam or waveform not found")
+    })
+    public ResponseEntity<EcgWaveformSlice> getWaveform(
+            @Parameter(description = "Exam UUID") @PathVariable UUID examId,
+            @Parameter(description = "Leads to return, all if omitted") @RequestParam(required = false) List<String> leads,
+            @Parameter(description = "Window start in seconds, 0 if omitted") @RequestParam(required = false) Double from,
+            @Parameter(description = "Window end in seconds, end of recording if omitted") @RequestParam(required = false) Double to,
+            @Parameter(description = "Pixel width of the plot") @RequestParam(defaultValue = "1000") int width
+    ) {
+        return ResponseEntity.ok(cardiovascularExamService.getWaveform(examId, leads, from, to, width));
+    }
+
     /**
      * Get all cardiovascular exams for a patient
      */
@@ -176,6 +327,74 @@ public class CardiovascularExamController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the latest value of every measurement of a patient
+     */
+    @GetMapping("/patients/{patientId}/measurements/latest")
+    @Operation(
+            summary = "Get the latest measurements of a patient",
+            description = "Most recent value of every metric (LVEF, QT, QTC, PR, QRS, HEART_RATE) extracted from the patient's exams"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Latest measurements retrieved successfully")
+    })
+    public ResponseEntity<List<CardiovascularMeasurementResponse>> getLatestMeasurements(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId
+    ) {
+        return ResponseEntity.ok(measurementService.getLatest(patientId));
+    }
+
+    /**
+     * Get the trend of one measurement of a patient
+     */
+    @GetMapping("/patients/{patientId}/measurements/{metric}")
+    @Operation(
+            summary = "Get the trend of a measurement",
+            description = "Values of one metric extracted from the patient's exams, oldest first. Intervals are in ms, " +
+                    "LVEF in %, heart rate in bpm. The metric may be given as a code (QTC) or as reported (\"FEVG\")."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Measurements retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown metric or invalid date range")
+    })
+    public ResponseEntity<List<CardiovascularMeasurementResponse>> getMeasurementTrend(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @Parameter(description = "Metric code or name") @PathVariable String metric,
+            @Parameter(description = "First exam date (yyyy-MM-dd HH:mm:ss), unbounded if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @Parameter(description = "Last exam date (yyyy-MM-dd HH:mm:ss), unbounded if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to
+    ) {
+        return ResponseEntity.ok(measurementService.getTrend(patientId, metric, from, to));
+    }
+
+    /**
+     * Find measurements within a range across the user's patients
+     */
+    @GetMapping("/measurements/{metric}")
+    @Operation(
+            summary = "Search measurements by value",
+            description = "Values of one metric within [min, max] across the current user's patients, lowest first, e.g. " +
+                    "/measurements/LVEF?max=40 for reduced ejection fractions. At least one bound is required."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Measurements retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown metric, missing bounds or invalid range")
+    })
+    public ResponseEntity<List<CardiovascularMeasurementResponse>> searchMeasurements(
+            @Parameter(description = "Metric code or name") @PathVariable String metric,
+            @Parameter(description = "Lowest value (inclusive)") @RequestParam(required = false) Double min,
+            @Parameter(description = "Highest value (inclusive)") @RequestParam(required = false) Double max,
+            @Parameter(description = "First exam date (yyyy-MM-dd HH:mm:ss), unbounded if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @Parameter(description = "Last exam date (yyyy-MM-dd HH:mm:ss), unbounded if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
+            @Parameter(description = "Maximum number of results (1-1000)") @RequestParam(defaultValue = "100") int limit,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        return ResponseEntity.ok(measurementService.findInRange(metric, min, max, from, to, limit, userId));
+    }
+
     /**
      * Get latest cardiovascular exam for patient
      */
@@ -1,8 +1,13 @@
 package com.medinsights.patient_service.controllers;
 
+import com.medinsights.patient_service.dto.AlertCountsDTO;
+import com.medinsights.patient_service.dto.AlertTriagePageDTO;
+import com.medinsights.patient_service.dto.BulkAlertActionDTO;
+import com.medinsights.patient_service.dto.BulkAlertActionResultDTO;
 import com.medinsights.patient_service.dto.CreateMedicalAlertDTO;
 import com.medinsights.patient_service.dto.MedicalAlertDTO;
 import com.medinsights.patient_service.services.MedicalAlertService;
+import com.medinsights.patient_service.services.MedicalAlertStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,10 +16,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -28,6 +36,7 @@ import java.util.UUID;
 public class MedicalAlertController {
     
     private final MedicalAlertService alertService;
+    private final MedicalAlertStreamService alertStreamService;
     
     @GetMapping("/patients/{patientId}/alerts")
     @Operation(
@@ -78,6 +87,80 @@ public class MedicalAlertController {
         return ResponseEntity.ok(count);
     }
     
+    @GetMapping("/patients/{patientId}/alerts/counts")
+    @Operation(
+        summary = "Count active alerts by severity",
+        description = "Get the number of active alerts of a patient, in total and per severity level"
+    )
+    public ResponseEntity<AlertCountsDTO> getAlertCounts(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId) {
+        AlertCountsDTO counts = alertService.getAlertCounts(patientId);
+        return ResponseEntity.ok(counts);
+    }
+    
+    @PostMapping("/alerts/counts")
+    @Operation(
+        summary = "Count active alerts of many patients",
+        description = "Get active alert counts by severity for up to 1000 patients at once, keyed by patient id",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Counts retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Too many patients requested"),
+            @ApiResponse(responseCode = "403", description = "Some patients belong to another user")
+        }
+    )
+    public ResponseEntity<Map<UUID, AlertCountsDTO>> getAlertCountsBatch(
+            @RequestBody List<UUID> patientIds,
+            @RequestAttribute("userId") UUID userId) {
+        Map<UUID, AlertCountsDTO> counts = alertService.getAlertCounts(patientIds, userId);
+        return ResponseEntity.ok(counts);
+    }
+    
+    @GetMapping("/alerts/counts")
+    @Operation(
+        summary = "Count active alerts of the current user's patients",
+        description = "Get active alert counts by severity summed over all patients owned by the current user"
+    )
+    public ResponseEntity<AlertCountsDTO> getOwnerAlertCounts(@RequestAttribute("userId") UUID userId) {
+        AlertCountsDTO counts = alertService.getOwnerAlertCounts(userId);
+        return ResponseEntity.ok(counts);
+    }
+    
+    @GetMapping("/alerts/triage")
+    @Operation(
+        summary = "Get the alert triage queue",
+        description = "Active alerts of the current user's patients ordered by severity (CRITICAL > HIGH > MEDIUM > LOW), then oldest first. " +
+                "Pass the returned nextCursor to fetch the following page.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Triage page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+        }
+    )
+    public ResponseEntity<AlertTriagePageDTO> getTriageQueue(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 200)") @RequestParam(defaultValue = "50") int limit,
+            @RequestAttribute("userId") UUID userId) {
+        AlertTriagePageDTO page = alertService.getTriageQueue(cursor, limit, userId);
+        return ResponseEntity.ok(page);
+    }
+    
+    @GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream alert changes",
+        description = "Server-Sent Events stream emitting an 'alert' event each time an alert of one of the user's patients " +
+                "is created, re-occurs, is escalated, resolved, dismissed or deleted. Reconnecting with Last-Event-ID replays missed " +
+                "events, whichever instance sent them, or emits 'alerts-reset' when they are no longer available and active alerts must be re-fetched.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams")
+        }
+    )
+    public SseEmitter streamAlerts(
+            @RequestAttribute("userId") UUID userId,
+            @Parameter(description = "Id of the last event received before reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return alertStreamService.subscribe(userId, lastEventId);
+    }
+    
     @PostMapping("/patients/{patientId}/alerts")
     @Operation(
         summary = "Create a new alert",
@@ -122,6 +205,42 @@ public class MedicalAlertController {
         return ResponseEntity.ok(dismissedAlert);
     }
     
+    @PostMapping("/alerts/bulk/resolve")
+    @Operation(
+        summary = "Resolve alerts in bulk",
+        description = "Resolve all active alerts of the current user's patients given by id, or matching a filter " +
+                "(patient, type, severity, older than)",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Alerts resolved, returns the number of updated alerts"),
+            @ApiResponse(responseCode = "400", description = "Neither ids nor filter, or both, were given"),
+            @ApiResponse(responseCode = "403", description = "The patient filter names a patient of another user")
+        }
+    )
+    public ResponseEntity<BulkAlertActionResultDTO> bulkResolve(
+            @Valid @RequestBody BulkAlertActionDTO selection,
+            @RequestAttribute("userId") UUID userId) {
+        BulkAlertActionResultDTO result = alertService.bulkResolve(selection, userId);
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping("/alerts/bulk/dismiss")
+    @Operation(
+        summary = "Dismiss alerts in bulk",
+        description = "Dismiss all active alerts of the current user's patients given by id, or matching a filter " +
+                "(patient, type, severity, older than)",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Alerts dismissed, returns the number of updated alerts"),
+            @ApiResponse(responseCode = "400", description = "Neither ids nor filter, or both, were given"),
+            @ApiResponse(responseCode = "403", description = "The patient filter names a patient of another user")
+        }
+    )
+    public ResponseEntity<BulkAlertActionResultDTO> bulkDismiss(
+            @Valid @RequestBody BulkAlertActionDTO selection,
+            @RequestAttribute("userId") UUID userId) {
+        BulkAlertActionResultDTO result = alertService.bulkDismiss(selection, userId);
+        return ResponseEntity.ok(result);
+    }
+    
     @DeleteMapping("/alerts/{alertId}")
     @Operation(
         summary = "Delete an alert",
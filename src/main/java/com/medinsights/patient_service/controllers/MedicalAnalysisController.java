@@ -1,9 +1,18 @@
 package com.medinsights.patient_service.controllers;
 
+import com.medinsights.patient_service.dto.BatchCreateResultDTO;
+import com.medinsights.patient_service.dto.analysis.AnalysisIngestionJobResponse;
+import com.medinsights.patient_service.dto.analysis.LabResultResponse;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisCreateRequest;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisResponse;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisSearchHit;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisUpdateRequest;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisView;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisWorklistPage;
 import com.medinsights.patient_service.services.MedicalAnalysisService;
+import com.medinsights.patient_service.services.analysis.LabResultService;
+import com.medinsights.patient_service.services.documents.DocumentDownloads;
+import com.medinsights.patient_service.services.ingestion.AnalysisIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,14 +20,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -35,6 +50,8 @@ import java.util.UUID;
 public class MedicalAnalysisController {
 
     private final MedicalAnalysisService medicalAnalysisService;
+    private final LabResultService labResultService;
+    private final AnalysisIngestionService analysisIngestionService;
 
     @PostMapping("/patients/{patientId}")
     @Operation(
@@ -61,6 +78,81 @@ public class MedicalAnalysisController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create medical analyses in batch",
+            description = "Record up to 1000 analyses, possibly for different patients (patientId of each item). Items are " +
+                    "validated and saved independently: the response lists the created ids and the failures, by position " +
+                    "in the request. Doctor only."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed, see failed for rejected items",
+                    content = @Content(schema = @Schema(implementation = BatchCreateResultDTO.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Empty batch or more than 1000 items"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid")
+    })
+    public ResponseEntity<BatchCreateResultDTO> createMedicalAnalyses(
+            @RequestBody List<MedicalAnalysisCreateRequest> requests,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("POST /api/medical-analyses/batch - Creating {} medical analyses", requests.size());
+        return ResponseEntity.ok(medicalAnalysisService.createBatch(requests, userId));
+    }
+
+    @PostMapping(value = "/patients/{patientId}/ingest", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Ingest an analysis document",
+            description = "Upload a report PDF or scan: a PENDING analysis is created with the document attached and its text " +
+                    "is extracted in the background, after which ocrText is filled and the status becomes COMPLETED. " +
+                    "Poll the returned job for progress."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Document stored and extraction queued",
+                    content = @Content(schema = @Schema(implementation = AnalysisIngestionJobResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Empty, too large or unsupported document"),
+            @ApiResponse(responseCode = "404", description = "Patient not found"),
+            @ApiResponse(responseCode = "503", description = "Ingestion queue is full, retry later"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<AnalysisIngestionJobResponse> ingestDocument(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @Parameter(description = "PDF, PNG, JPEG or TIFF file") @RequestPart("file") MultipartFile file,
+            @Parameter(description = "Analysis type (BLOOD_TEST, URINE_TEST, X_RAY...)") @RequestParam String analysisType,
+            @Parameter(description = "Analysis date (ISO format: yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate analysisDate,
+            @Parameter(description = "Lab or healthcare facility") @RequestParam(required = false) String performedBy,
+            @RequestAttribute("userId") UUID userId
+    ) throws IOException {
+        log.info("POST /api/medical-analyses/patients/{}/ingest - {} ({} bytes)", patientId, file.getOriginalFilename(), file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            AnalysisIngestionJobResponse job = analysisIngestionService.submit(patientId, analysisType, analysisDate, performedBy,
+                    content, file.getOriginalFilename(), file.getContentType(), userId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
+    }
+
+    @GetMapping("/ingestion-jobs/{jobId}")
+    @Operation(
+            summary = "Get an ingestion job",
+            description = "Progress of a document ingestion: QUEUED, RUNNING, SUCCEEDED or FAILED, with attempts and last error"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ingestion job found"),
+            @ApiResponse(responseCode = "404", description = "Ingestion job not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<AnalysisIngestionJobResponse> getIngestionJob(
+            @Parameter(description = "Ingestion job UUID") @PathVariable UUID jobId
+    ) {
+        log.info("GET /api/medical-analyses/ingestion-jobs/{}", jobId);
+        return ResponseEntity.ok(analysisIngestionService.getJob(jobId));
+    }
+
     @PutMapping("/{analysisId}")
     @Operation(
             summary = "Update a medical analysis",
@@ -108,10 +200,131 @@ public class MedicalAnalysisController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/{analysisId}/document", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Upload the analysis document",
+            description = "Attach the report PDF or scan to an analysis. Identical files are stored once. Doctor only."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Document attached",
+                    content = @Content(schema = @Schema(implementation = MedicalAnalysisResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Empty, too large or unsupported document"),
+            @ApiResponse(responseCode = "404", description = "Medical analysis not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<MedicalAnalysisResponse> uploadDocument(
+            @Parameter(description = "Medical Analysis UUID") @PathVariable UUID analysisId,
+            @Parameter(description = "PDF, PNG, JPEG or TIFF file") @RequestPart("file") MultipartFile file,
+            @RequestAttribute("userId") UUID userId
+    ) throws IOException {
+        log.info("POST /api/medical-analyses/{}/document - Uploading {} ({} bytes)", analysisId, file.getOriginalFilename(), file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            MedicalAnalysisResponse response = medicalAnalysisService.attachDocument(analysisId, content,
+                    file.getOriginalFilename(), file.getContentType(), userId);
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    @GetMapping("/{analysisId}/document")
+    @Operation(
+            summary = "Download the analysis document",
+            description = "Stream the document attached to an analysis. Supports single byte ranges (Range, If-Range) and ETag revalidation."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Document content"),
+            @ApiResponse(responseCode = "206", description = "Requested byte range"),
+            @ApiResponse(responseCode = "304", description = "Not modified"),
+            @ApiResponse(responseCode = "404", description = "Medical analysis or document not found"),
+            @ApiResponse(responseCode = "416", description = "Range not satisfiable"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public void downloadDocument(
+            @Parameter(description = "Medical Analysis UUID") @PathVariable UUID analysisId,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        log.info("GET /api/medical-analyses/{}/document", analysisId);
+        DocumentDownloads.send(medicalAnalysisService.getDocument(analysisId), request, response);
+    }
+
+    @GetMapping("/worklist")
+    @Operation(
+            summary = "Get the analysis worklist",
+            description = "Analyses of the current user's patients in a status (PENDING by default), most recent first, " +
+                    "without their text content. Pass the returned nextCursor to fetch the following page and " +
+                    "open a single analysis by id to read its full content."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Worklist page retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = MedicalAnalysisWorklistPage.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<MedicalAnalysisWorklistPage> getWorklist(
+            @Parameter(description = "Analysis status") @RequestParam(defaultValue = "PENDING") String status,
+            @Parameter(description = "Analysis type filter") @RequestParam(required = false) String analysisType,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 200)") @RequestParam(defaultValue = "50") int limit,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("GET /api/medical-analyses/worklist - Status: {}, type: {}", status, analysisType);
+        MedicalAnalysisWorklistPage page = medicalAnalysisService.getWorklist(userId, status, analysisType, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search the analyses of the current user's patients",
+            description = "Full-text search (French and English stemming) over OCR text, interpretation and recommendations " +
+                    "of the analyses of all patients owned by the current user, best match first, with highlighted snippets"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed"),
+            @ApiResponse(responseCode = "400", description = "Missing or too long query"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<List<MedicalAnalysisSearchHit>> searchMedicalAnalyses(
+            @Parameter(description = "Search terms; supports \"quoted phrases\", OR and -excluded words") @RequestParam String q,
+            @Parameter(description = "Maximum number of hits (max 100)") @RequestParam(defaultValue = "20") int limit,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("GET /api/medical-analyses/search - Searching analyses of patients owned by {}", userId);
+        List<MedicalAnalysisSearchHit> hits = medicalAnalysisService.searchByOwner(userId, q, limit);
+        return ResponseEntity.ok(hits);
+    }
+
+    @GetMapping("/patients/{patientId}/search")
+    @Operation(
+            summary = "Search the analyses of a patient",
+            description = "Full-text search (French and English stemming) over OCR text, interpretation and recommendations " +
+                    "of a patient's analyses, best match first, with highlighted snippets"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search completed"),
+            @ApiResponse(responseCode = "400", description = "Missing or too long query"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<List<MedicalAnalysisSearchHit>> searchPatientMedicalAnalyses(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @Parameter(description = "Search terms; supports \"quoted phrases\", OR and -excluded words") @RequestParam String q,
+            @Parameter(description = "Maximum number of hits (max 100)") @RequestParam(defaultValue = "20") int limit
+    ) {
+        log.info("GET /api/medical-analyses/patients/{}/search - Searching analyses", patientId);
+        List<MedicalAnalysisSearchHit> hits = medicalAnalysisService.searchByPatientId(patientId, q, limit);
+        return ResponseEntity.ok(hits);
+    }
+
     @GetMapping({"/patients/{patientId}", "/patients/{patientId}/analyses"})
     @Operation(
             summary = "Get all medical analyses for a patient",
-            description = "Retrieve all medical analysis records for a specific patient, ordered by analysis date (most recent first)"
+            description = "Retrieve all medical analysis records for a specific patient, ordered by analysis date (most recent first). " +
+                    "Text content is only included with view=DETAILS."
     )
     @ApiResponses({
             @ApiResponse(
@@ -122,17 +335,19 @@ public class MedicalAnalysisController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     public ResponseEntity<List<MedicalAnalysisResponse>> getPatientMedicalAnalyses(
-            @Parameter(description = "Patient UUID") @PathVariable UUID patientId
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @Parameter(description = "SUMMARY (default, without text content) or DETAILS") @RequestParam(defaultValue = "SUMMARY") MedicalAnalysisView view
     ) {
         log.info("GET /api/medical-analyses/patients/{} - Fetching all analyses", patientId);
-        List<MedicalAnalysisResponse> analyses = medicalAnalysisService.findByPatientId(patientId);
+        List<MedicalAnalysisResponse> analyses = medicalAnalysisService.findByPatientId(patientId, view);
         return ResponseEntity.ok(analyses);
     }
 
     @GetMapping("/patients/{patientId}/alerts")
     @Operation(
             summary = "Get analyses with alerts for a patient",
-            description = "Retrieve only medical analyses that have alerts or anomalies for a specific patient"
+            description = "Retrieve only medical analyses that have alerts or anomalies for a specific patient. " +
+                    "Text content is only included with view=DETAILS."
     )
     @ApiResponses({
             @ApiResponse(
@@ -143,17 +358,19 @@ public class MedicalAnalysisController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     public ResponseEntity<List<MedicalAnalysisResponse>> getAnalysesWithAlerts(
-            @Parameter(description = "Patient UUID") @PathVariable UUID patientId
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @Parameter(description = "SUMMARY (default, without text content) or DETAILS") @RequestParam(defaultValue = "SUMMARY") MedicalAnalysisView view
     ) {
         log.info("GET /api/medical-analyses/patients/{}/alerts - Fetching analyses with alerts", patientId);
-        List<MedicalAnalysisResponse> analyses = medicalAnalysisService.findWithAlertsByPatientId(patientId);
+        List<MedicalAnalysisResponse> analyses = medicalAnalysisService.findWithAlertsByPatientId(patientId, view);
         return ResponseEntity.ok(analyses);
     }
 
     @GetMapping("/patients/{patientId}/date-range")
     @Operation(
             summary = "Get medical analyses by date range",
-            description = "Retrieve medical analyses for a patient within a specific date range"
+            description = "Retrieve medical analyses for a patient within a specific date range. " +
+                    "Text content is only included with view=DETAILS."
     )
     @ApiResponses({
             @ApiResponse(
@@ -167,13 +384,53 @@ public class MedicalAnalysisController {
     public ResponseEntity<List<MedicalAnalysisResponse>> getAnalysesByDateRange(
             @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
             @Parameter(description = "Start date (ISO format: yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @Parameter(description = "End date (ISO format: yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+            @Parameter(description = "End date (ISO format: yyyy-MM-dd)") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "SUMMARY (default, without text content) or DETAILS") @RequestParam(defaultValue = "SUMMARY") MedicalAnalysisView view
     ) {
         log.info("GET /api/medical-analyses/patients/{}/date-range - Start: {}, End: {}", patientId, startDate, endDate);
-        List<MedicalAnalysisResponse> analyses = medicalAnalysisService.findByPatientIdAndDateRange(patientId, startDate, endDate);
+        List<MedicalAnalysisResponse> analyses = medicalAnalysisService.findByPatientIdAndDateRange(patientId, startDate, endDate, view);
         return ResponseEntity.ok(analyses);
     }
 
+    @GetMapping("/patients/{patientId}/lab-results/latest")
+    @Operation(
+            summary = "Get the latest lab values of a patient",
+            description = "Most recent value of every analyte extracted from the patient's analysis results"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Latest lab values retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<List<LabResultResponse>> getLatestLabResults(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId
+    ) {
+        log.info("GET /api/medical-analyses/patients/{}/lab-results/latest", patientId);
+        List<LabResultResponse> results = labResultService.getLatest(patientId);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/patients/{patientId}/lab-results/{analyte}")
+    @Operation(
+            summary = "Get the trend of a lab value",
+            description = "Values of one analyte extracted from the patient's analysis results, oldest first. " +
+                    "The analyte may be given as a code (HBA1C, GLUCOSE, LDL...) or as reported (\"Glycémie à jeun\")."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lab values retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid analyte or date range"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<List<LabResultResponse>> getLabResultTrend(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @Parameter(description = "Analyte code or name") @PathVariable String analyte,
+            @Parameter(description = "First date (ISO format: yyyy-MM-dd), unbounded if omitted") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last date (ISO format: yyyy-MM-dd), unbounded if omitted") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        log.info("GET /api/medical-analyses/patients/{}/lab-results/{} - From: {}, To: {}", patientId, analyte, from, to);
+        List<LabResultResponse> results = labResultService.getTrend(patientId, analyte, from, to);
+        return ResponseEntity.ok(results);
+    }
+
     @DeleteMapping("/{analysisId}")
     @Operation(
             summary = "Delete a medical analysis",
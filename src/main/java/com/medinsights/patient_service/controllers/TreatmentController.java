@@ -1,9 +1,13 @@
 package com.medinsights.patient_service.controllers;
 
+import com.medinsights.patient_service.dto.treatment.AdherenceRecordRequest;
+import com.medinsights.patient_service.dto.treatment.AdherenceSummaryResponse;
+import com.medinsights.patient_service.dto.treatment.DoseTimelineResponse;
 import com.medinsights.patient_service.dto.treatment.TreatmentCreateRequest;
 import com.medinsights.patient_service.dto.treatment.TreatmentResponse;
 import com.medinsights.patient_service.dto.treatment.TreatmentUpdateRequest;
 import com.medinsights.patient_service.services.TreatmentService;
+import com.medinsights.patient_service.services.treatment.TreatmentAdherenceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -35,6 +40,7 @@ import java.util.UUID;
 public class TreatmentController {
 
     private final TreatmentService treatmentService;
+    private final TreatmentAdherenceService adherenceService;
 
     @PostMapping("/patients/{patientId}")
     @Operation(
@@ -208,4 +214,84 @@ public class TreatmentController {
         long count = treatmentService.countByPatientId(patientId);
         return ResponseEntity.ok(count);
     }
+
+    @GetMapping("/{treatmentId}/doses")
+    @Operation(
+            summary = "Get the dose timeline of a treatment",
+            description = "Doses scheduled from the treatment's frequency and dates within [from, to), with their status: " +
+                    "TAKEN, MISSED, UNRECORDED or UPCOMING. When the window holds more than limit doses, nextFrom " +
+                    "gives the from of the next page."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Doses retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = DoseTimelineResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Frequency not understood, invalid window or limit"),
+            @ApiResponse(responseCode = "404", description = "Treatment not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<DoseTimelineResponse> getDoseTimeline(
+            @Parameter(description = "Treatment UUID") @PathVariable UUID treatmentId,
+            @Parameter(description = "Window start (yyyy-MM-dd HH:mm:ss), the treatment start if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @Parameter(description = "Window end, exclusive (yyyy-MM-dd HH:mm:ss), 30 days after from if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to,
+            @Parameter(description = "Maximum number of doses (1-1000)") @RequestParam(defaultValue = "200") int limit
+    ) {
+        log.info("GET /api/treatments/{}/doses - From: {}, To: {}", treatmentId, from, to);
+        return ResponseEntity.ok(adherenceService.getDoses(treatmentId, from, to, limit));
+    }
+
+    @GetMapping("/{treatmentId}/adherence")
+    @Operation(
+            summary = "Get adherence to a treatment",
+            description = "Doses due within [from, to) and how many were recorded as taken or missed"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Adherence retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AdherenceSummaryResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Frequency not understood or invalid window"),
+            @ApiResponse(responseCode = "404", description = "Treatment not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<AdherenceSummaryResponse> getAdherence(
+            @Parameter(description = "Treatment UUID") @PathVariable UUID treatmentId,
+            @Parameter(description = "Window start (yyyy-MM-dd HH:mm:ss), the treatment start if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @Parameter(description = "Window end, exclusive (yyyy-MM-dd HH:mm:ss), now if omitted")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to
+    ) {
+        log.info("GET /api/treatments/{}/adherence - From: {}, To: {}", treatmentId, from, to);
+        return ResponseEntity.ok(adherenceService.getAdherence(treatmentId, from, to));
+    }
+
+    @PostMapping("/{treatmentId}/adherence")
+    @Operation(
+            summary = "Record doses as taken or missed",
+            description = "Record scheduled doses, identified by their time in the dose timeline, as taken or missed. " +
+                    "Returns the adherence since the treatment start."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Doses recorded successfully",
+                    content = @Content(schema = @Schema(implementation = AdherenceSummaryResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "No dose scheduled at a given time, or treatment taken as needed"),
+            @ApiResponse(responseCode = "404", description = "Treatment not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<AdherenceSummaryResponse> recordAdherence(
+            @Parameter(description = "Treatment UUID") @PathVariable UUID treatmentId,
+            @Valid @RequestBody AdherenceRecordRequest request,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("POST /api/treatments/{}/adherence - Recording {} doses", treatmentId, request.doses().size());
+        return ResponseEntity.ok(adherenceService.record(treatmentId, request, userId));
+    }
 }
@@ -1,8 +1,12 @@
 package com.medinsights.patient_service.controllers;
 
 import com.medinsights.patient_service.dto.vitalsigns.VitalSignsCreateRequest;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsPanelDistributionResponse;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsPanelPercentilesResponse;
 import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
 import com.medinsights.patient_service.services.VitalSignsService;
+import com.medinsights.patient_service.services.vitalsigns.VitalSignsPanelStatistics;
+import com.medinsights.patient_service.services.vitalsigns.VitalSignsStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,11 +19,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -34,6 +41,8 @@ import java.util.UUID;
 public class VitalSignsController {
 
     private final VitalSignsService vitalSignsService;
+    private final VitalSignsPanelStatistics panelStatistics;
+    private final VitalSignsStreamService streamService;
 
     @PostMapping({"/patients/{patientId}", "/patients/{patientId}/constantes"})
     @Operation(
@@ -184,4 +193,89 @@ public class VitalSignsController {
         long count = vitalSignsService.countByPatientId(patientId);
         return ResponseEntity.ok(count);
     }
+
+    @GetMapping("/panel/distribution")
+    @Operation(
+            summary = "Get vital signs distribution across the doctor's panel",
+            description = "Per-metric quantiles of the latest vital signs of all patients owned by the current user, " +
+                    "archived readings included"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Distribution retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = VitalSignsPanelDistributionResponse.class))
+            ),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<VitalSignsPanelDistributionResponse> getPanelDistribution(
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("GET /api/vital-signs/panel/distribution - Owner: {}", userId);
+        return ResponseEntity.ok(panelStatistics.getDistribution(userId));
+    }
+
+    @GetMapping("/patients/{patientId}/panel-percentiles")
+    @Operation(
+            summary = "Get patient percentiles within the doctor's panel",
+            description = "Percentile rank of the patient's latest vital signs among the latest readings of the owner's patients"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Percentiles retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = VitalSignsPanelPercentilesResponse.class))
+            ),
+            @ApiResponse(responseCode = "403", description = "Patient belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Patient or vital signs not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public ResponseEntity<VitalSignsPanelPercentilesResponse> getPanelPercentiles(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("GET /api/vital-signs/patients/{}/panel-percentiles", patientId);
+        return ResponseEntity.ok(panelStatistics.getPercentiles(patientId, userId));
+    }
+
+    @GetMapping(value = "/patients/{patientId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream new vital signs of a patient",
+            description = "Server-Sent Events stream emitting a 'vital-signs' event for each reading recorded for the patient"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "403", description = "Patient belongs to another user"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public SseEmitter streamPatientVitalSigns(
+            @Parameter(description = "Patient UUID") @PathVariable UUID patientId,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("GET /api/vital-signs/patients/{}/stream - Opening stream", patientId);
+        return streamService.subscribeToPatients(Set.of(patientId), userId);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream new vital signs of several patients",
+            description = "Server-Sent Events stream for the given patients, or for all patients of the current user when no patient id is given"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "400", description = "Too many patients requested"),
+            @ApiResponse(responseCode = "403", description = "A patient belongs to another user"),
+            @ApiResponse(responseCode = "503", description = "Too many open streams"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    public SseEmitter streamVitalSigns(
+            @Parameter(description = "Patient UUIDs (comma-separated)") @RequestParam(required = false) Set<UUID> patientIds,
+            @RequestAttribute("userId") UUID userId
+    ) {
+        log.info("GET /api/vital-signs/stream - Patients: {}", patientIds != null ? patientIds.size() : "all");
+        return patientIds == null || patientIds.isEmpty()
+                ? streamService.subscribeToOwnPatients(userId)
+                : streamService.subscribeToPatients(patientIds, userId);
+    }
 }
@@ -0,0 +1,15 @@
+package com.medinsights.patient_service.dto;
+
+/**
+ * Number of active alerts, in total and per severity level
+ */
+public record AlertCountsDTO(
+        long active,
+        long low,
+        long medium,
+        long high,
+        long critical
+) {
+
+    public static final AlertCountsDTO NONE = new AlertCountsDTO(0, 0, 0, 0, 0);
+}
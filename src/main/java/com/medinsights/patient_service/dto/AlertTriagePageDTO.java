@@ -0,0 +1,15 @@
+package com.medinsights.patient_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of the alert triage queue
+ *
+ * @param items      active alerts, most urgent first
+ * @param nextCursor opaque cursor of the next page, null on the last page
+ */
+public record AlertTriagePageDTO(
+        List<MedicalAlertDTO> items,
+        String nextCursor
+) {
+}
@@ -0,0 +1,24 @@
+package com.medinsights.patient_service.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a batch create: every item of the request is either created or failed
+ *
+ * @param requested number of items sent
+ * @param created   ids of the created records, by position in the request
+ * @param failed    items that were not created, by position in the request, with the reason
+ */
+public record BatchCreateResultDTO(
+        int requested,
+        List<CreatedItem> created,
+        List<FailedItem> failed
+) {
+
+    public record CreatedItem(int index, UUID id) {
+    }
+
+    public record FailedItem(int index, String error) {
+    }
+}
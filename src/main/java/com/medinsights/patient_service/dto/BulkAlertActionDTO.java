@@ -0,0 +1,34 @@
+package com.medinsights.patient_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selection of active alerts for a bulk resolve/dismiss: either explicit ids, or a filter
+ * combining any of patient, type, severity and creation time (at least one criterion).
+ * Only alerts of the caller's own patients are ever selected.
+ */
+public record BulkAlertActionDTO(
+        @Size(max = 50000, message = "At most 50000 alert ids per request")
+        List<UUID> alertIds,
+        UUID patientId,
+        @Size(max = 100, message = "Alert type cannot exceed 100 characters")
+        String alertType,
+        @Size(max = 20, message = "Severity level cannot exceed 20 characters")
+        String severityLevel,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+        Instant olderThan
+) {
+
+    public boolean hasIds() {
+        return alertIds != null && !alertIds.isEmpty();
+    }
+
+    public boolean hasFilter() {
+        return patientId != null || alertType != null || severityLevel != null || olderThan != null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.medinsights.patient_service.dto;
+
+/**
+ * Outcome of a bulk resolve/dismiss
+ *
+ * @param status    status applied to the alerts (resolved, dismissed)
+ * @param requested number of ids sent, null for a filter
+ * @param updated   number of active alerts actually changed
+ */
+public record BulkAlertActionResultDTO(
+        String status,
+        Integer requested,
+        int updated
+) {
+}
@@ -45,6 +45,16 @@ public class MedicalAlertDTO {
     
     private UUID resolvedBy;
     
+    private Integer occurrenceCount;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    private Instant lastOccurrenceAt;
+    
+    private Integer escalationLevel;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    private Instant escalatedAt;
+    
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     private Instant createdAt;
     
@@ -0,0 +1,32 @@
+package com.medinsights.patient_service.dto.analysis;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of a document ingestion job
+ *
+ * @param status        QUEUED, RUNNING, SUCCEEDED or FAILED
+ * @param nextAttemptAt when a queued job will next be tried
+ * @param lastError     cause of the last failed attempt
+ */
+public record AnalysisIngestionJobResponse(
+        UUID id,
+        UUID analysisId,
+        String status,
+        int attempts,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+        Instant nextAttemptAt,
+
+        String lastError,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+        Instant createdAt,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+        Instant completedAt
+) {
+}
@@ -0,0 +1,25 @@
+package com.medinsights.patient_service.dto.analysis;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Numeric lab value extracted from an analysis
+ *
+ * @param analyte     normalised analyte code, e.g. HBA1C
+ * @param analyteName analyte name as reported by the lab
+ * @param flag        HIGH, LOW, NORMAL, ABNORMAL, or null when neither reported nor derivable from the range
+ */
+public record LabResultResponse(
+        UUID id,
+        UUID analysisId,
+        String analyte,
+        String analyteName,
+        double value,
+        String unit,
+        Double referenceLow,
+        Double referenceHigh,
+        String flag,
+        LocalDate measuredOn
+) {
+}
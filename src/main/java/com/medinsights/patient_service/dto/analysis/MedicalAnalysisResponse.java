@@ -9,6 +9,8 @@ import java.util.UUID;
 /**
  * Response DTO for medical analysis information
  * Supports US-1.3: Medical History & Follow-up
+ *
+ * In the SUMMARY view (see MedicalAnalysisView) the text fields are null; hasAnomalies is always set.
  */
 public record MedicalAnalysisResponse(
         UUID id,
@@ -16,10 +18,12 @@ public record MedicalAnalysisResponse(
         String analysisType,
         LocalDate analysisDate,
         String fileName,
+        String documentId,
         String ocrText,
         String results,
         String interpretation,
         String alertsAndAnomalies,
+        boolean hasAnomalies,
         String recommendations,
         String performedBy,
         String interpretedBy,
@@ -0,0 +1,21 @@
+package com.medinsights.patient_service.dto.analysis;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Full-text search match on an analysis report
+ *
+ * @param rank    relevance, higher is better
+ * @param snippet HTML-escaped excerpts of the report with matched terms wrapped in &lt;mark&gt;
+ */
+public record MedicalAnalysisSearchHit(
+        UUID id,
+        UUID patientId,
+        String analysisType,
+        LocalDate analysisDate,
+        String status,
+        double rank,
+        String snippet
+) {
+}
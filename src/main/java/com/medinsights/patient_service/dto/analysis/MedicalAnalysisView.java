@@ -0,0 +1,11 @@
+package com.medinsights.patient_service.dto.analysis;
+
+/**
+ * Fields returned by analysis list reads
+ */
+public enum MedicalAnalysisView {
+    /** Metadata only: OCR text, results, interpretation, anomalies and recommendations are left out (null) */
+    SUMMARY,
+    /** Every field, including the text content */
+    DETAILS
+}
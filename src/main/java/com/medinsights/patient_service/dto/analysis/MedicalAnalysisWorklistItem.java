@@ -0,0 +1,26 @@
+package com.medinsights.patient_service.dto.analysis;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Lightweight worklist row of a medical analysis, without its text content
+ * (fetch the full analysis by id to read OCR text, results, interpretation...)
+ */
+public record MedicalAnalysisWorklistItem(
+        UUID id,
+        UUID patientId,
+        String patientFirstName,
+        String patientLastName,
+        String analysisType,
+        LocalDate analysisDate,
+        String status,
+        boolean hasAnomalies,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+        Instant createdAt
+) {
+}
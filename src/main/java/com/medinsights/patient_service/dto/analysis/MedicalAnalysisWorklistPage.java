@@ -0,0 +1,15 @@
+package com.medinsights.patient_service.dto.analysis;
+
+import java.util.List;
+
+/**
+ * One page of the analysis worklist
+ *
+ * @param items      analyses, most recent analysis date first
+ * @param nextCursor opaque cursor of the next page, null on the last page
+ */
+public record MedicalAnalysisWorklistPage(
+        List<MedicalAnalysisWorklistItem> items,
+        String nextCursor
+) {
+}
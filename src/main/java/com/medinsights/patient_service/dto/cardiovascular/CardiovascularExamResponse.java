@@ -22,6 +22,7 @@ public record CardiovascularExamResponse(
         String measuredValues,
         String abnormalities,
         String pdfFile,
+        String documentId,
         String notes,
         String status,
         
@@ -0,0 +1,27 @@
+package com.medinsights.patient_service.dto.cardiovascular;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Typed measurement extracted from a cardiovascular exam
+ *
+ * @param metric     LVEF, QT, QTC, PR, QRS or HEART_RATE
+ * @param value      in the metric's canonical unit
+ * @param unit       %, ms or bpm
+ * @param measuredAt exam date
+ */
+public record CardiovascularMeasurementResponse(
+        UUID id,
+        UUID examId,
+        UUID patientId,
+        String metric,
+        double value,
+        String unit,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime measuredAt
+) {
+}
@@ -0,0 +1,22 @@
+package com.medinsights.patient_service.dto.cardiovascular;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Description of the ECG waveform stored for an exam
+ *
+ * @param leads             lead names in storage order, e.g. I, II, III, aVR ... V6
+ * @param sampleRate        samples per second and lead
+ * @param microvoltsPerUnit amplitude of one sample unit
+ * @param samplesPerLead    recording length in samples
+ */
+public record EcgWaveformInfo(
+        UUID examId,
+        List<String> leads,
+        double sampleRate,
+        double microvoltsPerUnit,
+        long samplesPerLead,
+        double durationSeconds
+) {
+}
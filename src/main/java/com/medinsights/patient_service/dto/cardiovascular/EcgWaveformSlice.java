@@ -0,0 +1,31 @@
+package com.medinsights.patient_service.dto.cardiovascular;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Part of an ECG waveform, as raw samples or as a min/max envelope sized to a pixel budget
+ *
+ * @param fromSample first sample of the window (inclusive)
+ * @param toSample   end of the window (exclusive)
+ * @param envelope   true when each point summarises several samples by their min and max
+ * @param points     number of values (raw) or min/max pairs (envelope) per lead
+ */
+public record EcgWaveformSlice(
+        UUID examId,
+        double sampleRate,
+        double microvoltsPerUnit,
+        long fromSample,
+        long toSample,
+        boolean envelope,
+        int points,
+        List<LeadTrace> leads
+) {
+
+    /**
+     * Values of one lead, in sample units: {@code samples} for raw slices, {@code min} and
+     * {@code max} per point for envelopes (the other fields are null)
+     */
+    public record LeadTrace(String lead, short[] samples, short[] min, short[] max) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.medinsights.patient_service.dto.treatment;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Doses of a treatment recorded as taken or missed. Recording a dose again replaces its status.
+ */
+public record AdherenceRecordRequest(
+        @NotEmpty(message = "At least one dose is required")
+        @Size(max = 1000, message = "At most 1000 doses per request")
+        List<@Valid @NotNull DoseRecord> doses
+) {
+
+    /**
+     * @param scheduledAt time of a scheduled dose, as listed by the dose timeline
+     */
+    public record DoseRecord(
+            @NotNull(message = "Scheduled time is required")
+            @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+            LocalDateTime scheduledAt,
+
+            @NotNull(message = "Taken is required")
+            Boolean taken
+    ) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.medinsights.patient_service.dto.treatment;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Adherence to a treatment over the doses due within [from, to)
+ *
+ * @param due           doses scheduled in the window and no longer upcoming
+ * @param unrecorded    due doses recorded neither as taken nor as missed
+ * @param adherenceRate taken / (taken + missed), null when no dose is recorded
+ */
+public record AdherenceSummaryResponse(
+        UUID treatmentId,
+        String schedule,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime from,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime to,
+
+        long due,
+        long taken,
+        long missed,
+        long unrecorded,
+        Double adherenceRate
+) {
+}
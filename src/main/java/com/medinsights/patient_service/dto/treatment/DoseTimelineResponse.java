@@ -0,0 +1,38 @@
+package com.medinsights.patient_service.dto.treatment;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Scheduled doses of a treatment over a window, in time order
+ *
+ * @param schedule canonical schedule the dose numbers refer to, e.g. "PT24H 08:00,20:00"
+ * @param nextFrom start of the next page when the window holds more doses than the limit, otherwise null
+ */
+public record DoseTimelineResponse(
+        UUID treatmentId,
+        String frequency,
+        String schedule,
+        List<DoseEvent> doses,
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime nextFrom
+) {
+
+    /**
+     * @param number position of the dose in the treatment, from 0
+     * @param status TAKEN, MISSED, UNRECORDED (due but not recorded) or UPCOMING
+     */
+    public record DoseEvent(
+            long number,
+
+            @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+            LocalDateTime scheduledAt,
+
+            String status
+    ) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.medinsights.patient_service.dto.vitalsigns;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Distribution of the latest vital signs across all patients of a doctor's panel
+ */
+public record VitalSignsPanelDistributionResponse(
+        UUID ownerId,
+        int patientCount,
+        List<MetricDistribution> metrics
+) {
+
+    /**
+     * Quantiles of one metric over the panel (values are bucket centres)
+     */
+    public record MetricDistribution(
+            String metric,
+            String unit,
+            long count,
+            Double min,
+            Double p10,
+            Double p25,
+            Double median,
+            Double p75,
+            Double p90,
+            Double max
+    ) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.medinsights.patient_service.dto.vitalsigns;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Where a patient's latest vital signs sit within their doctor's panel
+ */
+public record VitalSignsPanelPercentilesResponse(
+        UUID patientId,
+        List<MetricPercentile> metrics
+) {
+
+    /**
+     * Percentile rank (0-100) of the patient's latest value among the panel
+     */
+    public record MetricPercentile(
+            String metric,
+            String unit,
+            double value,
+            double percentile,
+            long panelSize
+    ) {
+    }
+}
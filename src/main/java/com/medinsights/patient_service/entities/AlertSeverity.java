@@ -0,0 +1,37 @@
+package com.medinsights.patient_service.entities;
+
+import java.util.Locale;
+
+/**
+ * Alert severity levels with their triage rank (higher = more urgent)
+ */
+public enum AlertSeverity {
+    LOW(1),
+    MEDIUM(2),
+    HIGH(3),
+    CRITICAL(4);
+
+    private final int rank;
+
+    AlertSeverity(int rank) {
+        this.rank = rank;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Rank of a free-text severity level; 0 for missing or unknown levels
+     */
+    public static int rankOf(String severityLevel) {
+        if (severityLevel == null) {
+            return 0;
+        }
+        try {
+            return valueOf(severityLevel.trim().toUpperCase(Locale.ROOT)).rank;
+        } catch (IllegalArgumentException ex) {
+            return 0;
+        }
+    }
+}
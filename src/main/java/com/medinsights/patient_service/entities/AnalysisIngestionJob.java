@@ -0,0 +1,72 @@
+package com.medinsights.patient_service.entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Text extraction job for the document of a MedicalAnalysis (see AnalysisIngestionService)
+ */
+@Entity
+@Table(name = "analysis_ingestion_jobs", indexes = {
+        @Index(name = "idx_analysis_ingestion_jobs_analysis", columnList = "analysis_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisIngestionJob {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "analysis_id", nullable = false)
+    private MedicalAnalysis analysis;
+
+    @Column(name = "document_sha256", nullable = false, length = 64)
+    private String documentSha256;
+
+    @Column(nullable = false, length = 20)
+    private String status = QUEUED; // QUEUED, RUNNING, SUCCEEDED, FAILED
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt; // When a QUEUED job may run, or when a RUNNING job's lease expires
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private UUID createdBy;
+
+    @CreationTimestamp
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column
+    private Instant completedAt;
+}
@@ -65,7 +65,10 @@ public class CardiovascularExam {
     private String abnormalities; // anomalies - detected abnormalities
 
     @Column(name = "pdf_file", length = 500)
-    private String pdfFile; // fichier_pdf - path/URL to PDF report
+    private String pdfFile; // fichier_pdf - path/URL to PDF report, or name of the uploaded document
+
+    @Column(name = "document_sha256", length = 64)
+    private String documentSha256; // Uploaded report in the DocumentStore, if any
 
     @Column(length = 500)
     private String notes; // Additional notes
@@ -73,6 +76,9 @@ public class CardiovascularExam {
     @Column(length = 50)
     private String status = "COMPLETED"; // PENDING, IN_PROGRESS, COMPLETED, REVIEWED
 
+    @Column(nullable = false)
+    private Short measurementExtractionVersion = 0; // CardiovascularMeasurementParser version of the extracted measurements
+
     @CreationTimestamp
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     @Column(nullable = false, updatable = false)
@@ -0,0 +1,60 @@
+package com.medinsights.patient_service.entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One typed measurement extracted from the measured values of a CardiovascularExam.
+ * Rows are replaced as a whole whenever the exam's measured values are re-extracted.
+ *
+ * Threshold searches across an owner's patients read idx_cardiovascular_measurements_owner_value
+ * (owner_id, metric, value), created by migration V21. owner_id is the patient's createdBy, set by a
+ * database trigger and not mapped here.
+ */
+@Entity
+@Table(name = "cardiovascular_measurements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cardiovascular_measurements_exam_metric", columnNames = {"exam_id", "metric"}),
+        indexes = {
+                @Index(name = "idx_cardiovascular_measurements_patient", columnList = "patient_id, metric, measuredAt")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardiovascularMeasurement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "exam_id", nullable = false)
+    private CardiovascularExam exam;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(nullable = false, length = 20)
+    private String metric; // CardiovascularMetric name, e.g. LVEF, QTC, HEART_RATE
+
+    @Column(nullable = false)
+    private Double value; // In the metric's canonical unit (%, ms, bpm)
+
+    @Column(nullable = false)
+    private LocalDateTime measuredAt; // Exam date
+
+    @CreationTimestamp
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,70 @@
+package com.medinsights.patient_service.entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One numeric value extracted from the results of a MedicalAnalysis.
+ * Rows are replaced as a whole whenever the analysis' results are re-extracted.
+ */
+@Entity
+@Table(name = "lab_results", indexes = {
+        @Index(name = "idx_lab_results_patient_analyte", columnList = "patient_id, analyte, measuredOn"),
+        @Index(name = "idx_lab_results_analysis", columnList = "analysis_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "analysis_id", nullable = false)
+    private MedicalAnalysis analysis;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(nullable = false, length = 50)
+    private String analyte; // Normalised code, e.g. HBA1C, GLUCOSE, LDL
+
+    @Column(nullable = false, length = 100)
+    private String analyteName; // Name as reported by the lab
+
+    @Column(nullable = false)
+    private Double value;
+
+    @Column(length = 30)
+    private String unit;
+
+    @Column
+    private Double referenceLow;
+
+    @Column
+    private Double referenceHigh;
+
+    @Column(length = 10)
+    private String flag; // HIGH, LOW, NORMAL, ABNORMAL
+
+    @Column(nullable = false)
+    private LocalDate measuredOn; // Analysis date
+
+    @CreationTimestamp
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -17,6 +17,11 @@ import java.util.UUID;
 /**
  * Medical Alert entity for tracking patient health alerts
  * Used for critical values, drug interactions, follow-up reminders, etc.
+ *
+ * Active alerts are served in triage order from the partial index idx_alert_triage
+ * (owner_id, (-severity_rank), created_at, id) WHERE status = 'active', created by migrations V4, V17
+ * and V21. owner_id is the patient's createdBy, set by a database trigger and not mapped here.
+ * Pending escalations are read from idx_alert_escalation (escalate_at), created by migration V7.
  */
 @Entity
 @Table(name = "medical_alerts", indexes = {
@@ -47,6 +52,9 @@ public class MedicalAlert {
     @Column(name = "severity_level", length = 20)
     private String severityLevel; // LOW, MEDIUM, HIGH, CRITICAL
 
+    @Column(name = "severity_rank", nullable = false)
+    private Integer severityRank = 0; // Derived from severityLevel, see AlertSeverity
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -68,6 +76,23 @@ public class MedicalAlert {
     @Column
     private UUID resolvedBy; // userId who resolved the alert
 
+    @Column(name = "occurrence_count", nullable = false)
+    private Integer occurrenceCount = 1; // Duplicates coalesced into this alert, including the first
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(name = "last_occurrence_at", nullable = false)
+    private Instant lastOccurrenceAt;
+
+    @Column(name = "escalation_level", nullable = false)
+    private Integer escalationLevel = 0; // Times the alert was escalated while unresolved
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(name = "escalated_at")
+    private Instant escalatedAt;
+
+    @Column(name = "escalate_at")
+    private Instant escalateAt; // Next escalation if still active, null when none is due
+
     @CreationTimestamp
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -77,4 +102,10 @@ public class MedicalAlert {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     @Column(name = "updated_at")
     private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void updateSeverityRank() {
+        this.severityRank = AlertSeverity.rankOf(severityLevel);
+    }
 }
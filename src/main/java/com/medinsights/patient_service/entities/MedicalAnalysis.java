@@ -24,7 +24,8 @@ import java.util.UUID;
 @Table(name = "medical_analyses", indexes = {
         @Index(name = "idx_medical_analysis_patient", columnList = "patient_id"),
         @Index(name = "idx_medical_analysis_type", columnList = "analysisType"),
-        @Index(name = "idx_medical_analysis_date", columnList = "analysisDate")
+        @Index(name = "idx_medical_analysis_date", columnList = "analysisDate"),
+        @Index(name = "idx_medical_analysis_worklist", columnList = "owner_id, status, analysisDate DESC, id DESC")
 })
 @Getter
 @Setter
@@ -41,6 +42,9 @@ public class MedicalAnalysis {
     @JoinColumn(name = "patient_id", nullable = false)
     private Patient patient;
 
+    @Column(name = "owner_id", insertable = false, updatable = false)
+    private UUID ownerId; // Patient's createdBy, set by a database trigger (V23)
+
     @NotBlank(message = "Analysis type is required")
     @Size(max = 100, message = "Analysis type cannot exceed 100 characters")
     @Column(nullable = false, length = 100)
@@ -54,6 +58,9 @@ public class MedicalAnalysis {
     @Column(length = 200)
     private String fileName; // Original document filename
 
+    @Column(length = 64)
+    private String documentSha256; // Uploaded document in the DocumentStore, if any
+
     @Column(columnDefinition = "TEXT")
     private String ocrText; // texte_ocr from chatbot - extracted text from PDF/image
 
@@ -81,6 +88,9 @@ public class MedicalAnalysis {
     @Column(length = 1000)
     private String notes;
 
+    @Column(nullable = false)
+    private Short labExtractionVersion = 0; // LabResultParser version the lab_results rows come from
+
     @CreationTimestamp
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     @Column(nullable = false, updatable = false)
@@ -149,6 +149,10 @@ public class Patient {
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<VitalSigns> vitalSigns = new ArrayList<>();
 
+    @JsonIgnore
+    @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<VitalSignsArchiveBlock> vitalSignsArchive = new ArrayList<>();
+
     @JsonIgnore
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MedicalAnalysis> medicalAnalyses = new ArrayList<>();
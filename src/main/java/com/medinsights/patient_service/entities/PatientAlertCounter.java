@@ -0,0 +1,38 @@
+package com.medinsights.patient_service.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+/**
+ * Active alert counts of one patient by severity.
+ * Maintained by database triggers on medical_alerts (see V6__alert_counters.sql), read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "patient_alert_counters")
+@Getter
+@NoArgsConstructor
+public class PatientAlertCounter {
+
+    @Id
+    private UUID patientId;
+
+    @Column(nullable = false)
+    private int activeCount;
+
+    @Column(nullable = false)
+    private int lowCount;
+
+    @Column(nullable = false)
+    private int mediumCount;
+
+    @Column(nullable = false)
+    private int highCount;
+
+    @Column(nullable = false)
+    private int criticalCount;
+}
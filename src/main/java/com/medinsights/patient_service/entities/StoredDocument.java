@@ -0,0 +1,39 @@
+package com.medinsights.patient_service.entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Metadata of a file held in the document store, identified by the SHA-256 of its content.
+ * Rows are only ever inserted (see StoredDocumentRepository#insertIfAbsent), read-only here.
+ */
+@Entity
+@Immutable
+@Table(name = "documents")
+@Getter
+@NoArgsConstructor
+public class StoredDocument {
+
+    @Id
+    @Column(length = 64)
+    private String sha256; // Lowercase hex
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column
+    private UUID createdBy; // User who first uploaded this content
+}
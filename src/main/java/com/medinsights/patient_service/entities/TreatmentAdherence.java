@@ -0,0 +1,53 @@
+package com.medinsights.patient_service.entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Adherence of one treatment under one schedule: bit n of {@code taken} or {@code missed} is set
+ * once dose number n (see DoseSchedule) is recorded as taken or missed, in BitSet byte order.
+ */
+@Entity
+@Table(name = "treatment_adherence", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_treatment_adherence_schedule", columnNames = {"treatment_id", "schedule", "startDate"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreatmentAdherence {
+
+    @Id
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "treatment_id", nullable = false)
+    private Treatment treatment;
+
+    @Column(nullable = false, length = 200)
+    private String schedule; // Canonical FrequencyExpression, e.g. "PT24H 08:00,20:00"
+
+    @Column(nullable = false)
+    private LocalDate startDate; // Treatment start date the dose numbers count from
+
+    @Column(nullable = false)
+    private byte[] taken;
+
+    @Column(nullable = false)
+    private byte[] missed;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column
+    private UUID updatedBy;
+}
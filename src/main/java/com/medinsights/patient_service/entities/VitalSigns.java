@@ -20,11 +20,13 @@ import java.util.UUID;
 /**
  * VitalSigns entity representing patient vital measurements
  * Supports US-1.3: Medical History & Follow-up
+ *
+ * The table is range-partitioned by month on measurement_date (V3 migration);
+ * queries should bound measurementDate directly so partitions are pruned.
  */
 @Entity
 @Table(name = "vital_signs", indexes = {
-        @Index(name = "idx_vital_signs_patient", columnList = "patient_id"),
-        @Index(name = "idx_vital_signs_measurement_date", columnList = "measurementDate")
+        @Index(name = "idx_vital_signs_patient_date", columnList = "patient_id, measurementDate")
 })
 @Getter
 @Setter
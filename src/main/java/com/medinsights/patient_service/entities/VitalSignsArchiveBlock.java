@@ -0,0 +1,69 @@
+package com.medinsights.patient_service.entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Compressed block of archived vital signs for one patient and one calendar month.
+ * The payload is produced by VitalSignsBlockCodec; first/last measurement dates
+ * allow range reads to skip blocks without decoding them.
+ */
+@Entity
+@Table(name = "vital_signs_archive", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vital_signs_archive_patient_period", columnNames = {"patient_id", "periodStart"})
+}, indexes = {
+        @Index(name = "idx_vital_signs_archive_patient_last", columnList = "patient_id, lastMeasurementDate")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class VitalSignsArchiveBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private Patient patient;
+
+    @Column(nullable = false)
+    private LocalDate periodStart; // First day of the archived month
+
+    @Column(nullable = false)
+    private LocalDateTime firstMeasurementDate;
+
+    @Column(nullable = false)
+    private LocalDateTime lastMeasurementDate;
+
+    @Column(nullable = false)
+    private Integer sampleCount;
+
+    @Column(nullable = false)
+    private Short encodingVersion;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @CreationTimestamp
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
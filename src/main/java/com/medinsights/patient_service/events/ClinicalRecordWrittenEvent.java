@@ -0,0 +1,28 @@
+package com.medinsights.patient_service.events;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a clinical record (analysis, cardiovascular exam, treatment) is created or updated.
+ * Vital signs have their own VitalSignsRecordedEvent.
+ *
+ * @param source     kind of record
+ * @param patientId  patient the record belongs to
+ * @param record     the persisted record as returned by the service (response DTO)
+ * @param occurredAt clinical time of the record (exam/analysis date, start date, ...)
+ */
+public record ClinicalRecordWrittenEvent(
+        Source source,
+        UUID patientId,
+        Object record,
+        LocalDateTime occurredAt
+) {
+
+    public enum Source {
+        VITAL_SIGNS,
+        MEDICAL_ANALYSIS,
+        CARDIOVASCULAR_EXAM,
+        TREATMENT
+    }
+}
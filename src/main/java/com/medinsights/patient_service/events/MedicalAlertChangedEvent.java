@@ -0,0 +1,25 @@
+package com.medinsights.patient_service.events;
+
+import com.medinsights.patient_service.dto.MedicalAlertDTO;
+
+import java.util.UUID;
+
+/**
+ * Published by MedicalAlertService whenever an alert is created, coalesced, escalated, closed or deleted.
+ *
+ * @param change    CREATED, OCCURRED (duplicate coalesced), ESCALATED, RESOLVED, DISMISSED or DELETED
+ * @param ownerId   userId owning the patient (Patient.createdBy)
+ * @param alertId   the alert
+ * @param patientId patient of the alert
+ * @param status    alert status after the change
+ * @param alert     full alert, null for bulk changes
+ */
+public record MedicalAlertChangedEvent(
+        String change,
+        UUID ownerId,
+        UUID alertId,
+        UUID patientId,
+        String status,
+        MedicalAlertDTO alert
+) {
+}
@@ -0,0 +1,14 @@
+package com.medinsights.patient_service.events;
+
+import java.util.List;
+
+/**
+ * Published by MedicalAlertService once per chunk of a bulk change, instead of one
+ * MedicalAlertChangedEvent per alert, so listeners can handle the chunk set-based.
+ *
+ * @param changes one change per alert of the chunk, without the full alert
+ */
+public record MedicalAlertsChangedEvent(
+        List<MedicalAlertChangedEvent> changes
+) {
+}
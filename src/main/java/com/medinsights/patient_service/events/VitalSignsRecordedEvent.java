@@ -0,0 +1,19 @@
+package com.medinsights.patient_service.events;
+
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+
+import java.util.UUID;
+
+/**
+ * Published by VitalSignsServiceImpl when a new vital signs reading is recorded.
+ * Listeners bound to the transaction commit (anomaly detection, live streams, ...)
+ * receive the persisted reading without re-querying the database.
+ *
+ * @param vitalSigns the persisted reading
+ * @param ownerId    userId owning the patient (Patient.createdBy)
+ */
+public record VitalSignsRecordedEvent(
+        VitalSignsResponse vitalSigns,
+        UUID ownerId
+) {
+}
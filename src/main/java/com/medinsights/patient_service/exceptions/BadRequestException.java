@@ -0,0 +1,7 @@
+package com.medinsights.patient_service.exceptions;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
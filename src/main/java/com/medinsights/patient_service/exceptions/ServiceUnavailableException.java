@@ -0,0 +1,7 @@
+package com.medinsights.patient_service.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,63 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.AnalysisIngestionJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for AnalysisIngestionJob entity
+ */
+@Repository
+public interface AnalysisIngestionJobRepository extends JpaRepository<AnalysisIngestionJob, UUID> {
+
+    /**
+     * Claim up to limit due jobs (queued, or running with an expired lease) that have attempts left:
+     * they become RUNNING with a lease until leaseUntil. Jobs claimed by other replicas are skipped.
+     */
+    @Query(value = "UPDATE analysis_ingestion_jobs SET status = 'RUNNING', attempts = attempts + 1, " +
+            "next_attempt_at = :leaseUntil, updated_at = :now " +
+            "WHERE id IN (SELECT id FROM analysis_ingestion_jobs WHERE status IN ('QUEUED', 'RUNNING') " +
+            "AND next_attempt_at <= :now AND attempts < :maxAttempts " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id AS \"id\", analysis_id AS \"analysisId\", document_sha256 AS \"documentSha256\", attempts AS \"attempts\"",
+            nativeQuery = true)
+    List<ClaimedJobView> claimDue(
+            @Param("now") Instant now,
+            @Param("leaseUntil") Instant leaseUntil,
+            @Param("maxAttempts") int maxAttempts,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Fail running jobs whose lease expired on their last allowed attempt (their worker was lost)
+     */
+    @Modifying
+    @Query(value = "UPDATE analysis_ingestion_jobs SET status = 'FAILED', last_error = 'Worker lost during the last attempt', " +
+            "updated_at = :now, completed_at = :now " +
+            "WHERE status = 'RUNNING' AND next_attempt_at <= :now AND attempts >= :maxAttempts",
+            nativeQuery = true)
+    int failAbandoned(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM AnalysisIngestionJob j WHERE j.id = :id")
+    Optional<AnalysisIngestionJob> findByIdForUpdate(@Param("id") UUID id);
+
+    long countByStatus(String status);
+
+    interface ClaimedJobView {
+        UUID getId();
+        UUID getAnalysisId();
+        String getDocumentSha256();
+        int getAttempts();
+    }
+}
@@ -2,11 +2,13 @@ package com.medinsights.patient_service.repositories;
 
 import com.medinsights.patient_service.entities.CardiovascularExam;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -68,4 +70,39 @@ public interface CardiovascularExamRepository extends JpaRepository<Cardiovascul
     @Query("SELECT ce FROM CardiovascularExam ce WHERE ce.patient.id = :patientId " +
             "ORDER BY ce.examDate DESC LIMIT 1")
     CardiovascularExam findLatestByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Next exams after the given id whose measurements were extracted by an older parser version,
+     * read from the partial index idx_cardiovascular_exams_measurement_extraction_pending.
+     * Rows locked by another replica's backfill are skipped rather than waited for.
+     */
+    @Query(value = "SELECT id FROM cardiovascular_exams WHERE measurement_extraction_version < :version AND id > :afterId " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockPendingMeasurementExtractions(
+            @Param("version") short version,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * What measurement extraction needs of the given exams, without their other text columns
+     */
+    @Query("SELECT ce.id AS id, ce.patient.id AS patientId, ce.examDate AS examDate, ce.measuredValues AS measuredValues " +
+            "FROM CardiovascularExam ce WHERE ce.id IN :ids ORDER BY ce.id")
+    List<MeasurementExtractionSourceView> findMeasurementExtractionSources(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Record the parser version the measurements of these exams were extracted with
+     */
+    @Modifying
+    @Query("UPDATE CardiovascularExam ce SET ce.measurementExtractionVersion = :version WHERE ce.id IN :ids")
+    int markMeasurementsExtracted(@Param("ids") Collection<UUID> ids, @Param("version") short version);
+
+    interface MeasurementExtractionSourceView {
+        UUID getId();
+        UUID getPatientId();
+        LocalDateTime getExamDate();
+        String getMeasuredValues();
+    }
 }
@@ -0,0 +1,79 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.CardiovascularMeasurement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for CardiovascularMeasurement entity
+ */
+@Repository
+public interface CardiovascularMeasurementRepository extends JpaRepository<CardiovascularMeasurement, UUID> {
+
+    /**
+     * Values of one metric for a patient measured between two instants (inclusive), oldest first
+     */
+    @Query("SELECT m FROM CardiovascularMeasurement m WHERE m.patient.id = :patientId AND m.metric = :metric " +
+            "AND m.measuredAt BETWEEN :from AND :to ORDER BY m.measuredAt, m.createdAt")
+    List<CardiovascularMeasurement> findTrend(
+            @Param("patientId") UUID patientId,
+            @Param("metric") String metric,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Most recent value of every metric measured for a patient
+     */
+    @Query(value = "SELECT DISTINCT ON (metric) * FROM cardiovascular_measurements WHERE patient_id = :patientId " +
+            "ORDER BY metric, measured_at DESC, created_at DESC",
+            nativeQuery = true)
+    List<CardiovascularMeasurement> findLatestByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Values of one metric within [min, max], across the patients of an owner, measured between two instants
+     * (inclusive), lowest first. Reads a range of idx_cardiovascular_measurements_owner_value, which includes
+     * every column selected here, so the table is not visited.
+     */
+    @Query(value = "SELECT id AS \"id\", exam_id AS \"examId\", patient_id AS \"patientId\", metric AS \"metric\", " +
+            "value AS \"value\", measured_at AS \"measuredAt\" FROM cardiovascular_measurements " +
+            "WHERE owner_id = :ownerId AND metric = :metric AND value BETWEEN :min AND :max " +
+            "AND measured_at BETWEEN :from AND :to " +
+            "ORDER BY value, measured_at DESC LIMIT :limit",
+            nativeQuery = true)
+    List<MeasurementValueView> findInRange(
+            @Param("metric") String metric,
+            @Param("min") double min,
+            @Param("max") double max,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("ownerId") UUID ownerId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Columns of a measurement returned by a threshold search
+     */
+    interface MeasurementValueView {
+        UUID getId();
+        UUID getExamId();
+        UUID getPatientId();
+        String getMetric();
+        Double getValue();
+        LocalDateTime getMeasuredAt();
+    }
+
+    /**
+     * Remove the measurements extracted from an exam, before re-extracting them
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CardiovascularMeasurement m WHERE m.exam.id = :examId")
+    int deleteByExamId(@Param("examId") UUID examId);
+}
@@ -0,0 +1,46 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.LabResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for LabResult entity
+ */
+@Repository
+public interface LabResultRepository extends JpaRepository<LabResult, UUID> {
+
+    /**
+     * Values of one analyte for a patient measured between two dates (inclusive), oldest first
+     */
+    @Query("SELECT l FROM LabResult l WHERE l.patient.id = :patientId AND l.analyte = :analyte " +
+            "AND l.measuredOn BETWEEN :from AND :to ORDER BY l.measuredOn, l.createdAt")
+    List<LabResult> findTrend(
+            @Param("patientId") UUID patientId,
+            @Param("analyte") String analyte,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Most recent value of every analyte measured for a patient
+     */
+    @Query(value = "SELECT DISTINCT ON (analyte) * FROM lab_results WHERE patient_id = :patientId " +
+            "ORDER BY analyte, measured_on DESC, created_at DESC",
+            nativeQuery = true)
+    List<LabResult> findLatestByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Remove the values extracted from an analysis, before re-extracting them
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM LabResult l WHERE l.analysis.id = :analysisId")
+    int deleteByAnalysisId(@Param("analysisId") UUID analysisId);
+}
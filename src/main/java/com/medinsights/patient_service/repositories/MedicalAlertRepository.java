@@ -1,10 +1,18 @@
 package com.medinsights.patient_service.repositories;
 
 import com.medinsights.patient_service.entities.MedicalAlert;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -42,4 +50,138 @@ public interface MedicalAlertRepository extends JpaRepository<MedicalAlert, UUID
      * Find alerts by patient and severity
      */
     List<MedicalAlert> findByPatientIdAndSeverityLevel(UUID patientId, String severityLevel);
+    
+    /**
+     * Find the most recently seen alert of a given type and severity for a patient (uses idx_alert_patient_status)
+     */
+    Optional<MedicalAlert> findFirstByPatientIdAndStatusAndAlertTypeAndSeverityLevelOrderByLastOccurrenceAtDesc(
+            UUID patientId, String status, String alertType, String severityLevel);
+    
+    /**
+     * Count one more occurrence on an alert if it is still active and was last seen after windowStart.
+     * Leaves the persistence context alone: a caller holding the alert must refresh it.
+     *
+     * @return 1 if the alert was updated, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE MedicalAlert a SET a.occurrenceCount = a.occurrenceCount + 1, a.lastOccurrenceAt = :now, a.updatedAt = :now " +
+            "WHERE a.id = :id AND a.status = 'active' AND a.lastOccurrenceAt > :windowStart")
+    int recordOccurrence(@Param("id") UUID id, @Param("now") Instant now, @Param("windowStart") Instant windowStart);
+    
+    /**
+     * Load an alert and lock its row until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM MedicalAlert a WHERE a.id = :id")
+    Optional<MedicalAlert> findByIdForUpdate(@Param("id") UUID id);
+    
+    /**
+     * Active alerts whose escalation falls due in [from, until), served by idx_alert_escalation
+     */
+    @Query("SELECT a.id AS id, a.escalateAt AS escalateAt FROM MedicalAlert a " +
+            "WHERE a.status = 'active' AND a.escalateAt >= :from AND a.escalateAt < :until")
+    List<PendingEscalationView> findPendingEscalations(@Param("from") Instant from, @Param("until") Instant until);
+    
+    /**
+     * Give never-escalated active alerts of a severity rank an escalation due time of created_at + SLA
+     */
+    @Modifying
+    @Query(value = "UPDATE medical_alerts SET escalate_at = created_at + make_interval(secs => :slaSeconds) " +
+            "WHERE status = 'active' AND escalate_at IS NULL AND escalation_level = 0 AND severity_rank = :rank",
+            nativeQuery = true)
+    int scheduleMissingEscalations(@Param("rank") int rank, @Param("slaSeconds") long slaSeconds);
+    
+    interface PendingEscalationView {
+        UUID getId();
+        Instant getEscalateAt();
+    }
+    
+    /**
+     * Transaction-scoped advisory lock, released at commit/rollback
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:namespace, :key)", nativeQuery = true)
+    int advisoryXactLock(@Param("namespace") int namespace, @Param("key") int key);
+
+    /**
+     * First page of the triage queue: active alerts of an owner's patients by severity rank, then oldest first
+     */
+    @Query(value = "SELECT * FROM medical_alerts WHERE status = 'active' " + OWNED_BY +
+            "ORDER BY -severity_rank, created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<MedicalAlert> findTriageQueue(@Param("ownerId") UUID ownerId, @Param("limit") int limit);
+
+    /**
+     * Next page of the triage queue after the given (-rank, createdAt, id) position. The row comparison
+     * matches the order of idx_alert_triage after its leading owner_id, so the index scan starts right
+     * after the cursor within the owner's alerts.
+     */
+    @Query(value = "SELECT * FROM medical_alerts WHERE status = 'active' " +
+            "AND (-severity_rank, created_at, id) > (:negRank, :createdAt, :id) " +
+            OWNED_BY + "ORDER BY -severity_rank, created_at, id LIMIT :limit",
+            nativeQuery = true)
+    List<MedicalAlert> findTriageQueueAfter(
+            @Param("ownerId") UUID ownerId,
+            @Param("negRank") int negRank,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Close the given alerts that are still active and belong to patients of the user, returning the closed rows
+     */
+    @Query(value = "UPDATE medical_alerts SET status = :status, resolved_by = :userId, updated_at = :now, " +
+            "resolution_date = COALESCE(CAST(:resolutionDate AS timestamptz), resolution_date) " +
+            "WHERE id IN (:ids) AND status = 'active' AND owner_id = :userId " + CLOSED_ALERT_COLUMNS,
+            nativeQuery = true)
+    List<ClosedAlertView> closeActiveByIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") String status,
+            @Param("userId") UUID userId,
+            @Param("now") Instant now,
+            @Param("resolutionDate") Instant resolutionDate
+    );
+
+    /**
+     * Close up to chunkSize active alerts of the user's patients matching the filter (null criteria are ignored),
+     * returning the closed rows
+     */
+    @Query(value = "UPDATE medical_alerts SET status = :status, resolved_by = :userId, updated_at = :now, " +
+            "resolution_date = COALESCE(CAST(:resolutionDate AS timestamptz), resolution_date) " +
+            "WHERE id IN (SELECT id FROM medical_alerts WHERE status = 'active' " +
+            "AND (CAST(:patientId AS uuid) IS NULL OR patient_id = CAST(:patientId AS uuid)) " +
+            "AND (CAST(:alertType AS text) IS NULL OR alert_type = CAST(:alertType AS text)) " +
+            "AND (CAST(:severityLevel AS text) IS NULL OR severity_level = CAST(:severityLevel AS text)) " +
+            "AND (CAST(:olderThan AS timestamptz) IS NULL OR created_at < CAST(:olderThan AS timestamptz)) " +
+            "AND owner_id = :userId " +
+            "LIMIT :chunkSize) AND status = 'active' " + CLOSED_ALERT_COLUMNS,
+            nativeQuery = true)
+    List<ClosedAlertView> closeActiveMatching(
+            @Param("patientId") UUID patientId,
+            @Param("alertType") String alertType,
+            @Param("severityLevel") String severityLevel,
+            @Param("olderThan") Instant olderThan,
+            @Param("chunkSize") int chunkSize,
+            @Param("status") String status,
+            @Param("userId") UUID userId,
+            @Param("now") Instant now,
+            @Param("resolutionDate") Instant resolutionDate
+    );
+
+    String OWNED_BY = "AND owner_id = :ownerId ";
+
+    String CLOSED_ALERT_COLUMNS = "RETURNING id AS \"id\", patient_id AS \"patientId\", " +
+            "alert_type AS \"alertType\", severity_level AS \"severityLevel\", " +
+            "owner_id AS \"ownerId\"";
+
+    /**
+     * Key columns of an alert closed by a bulk update
+     */
+    interface ClosedAlertView {
+        UUID getId();
+        UUID getPatientId();
+        String getAlertType();
+        String getSeverityLevel();
+        UUID getOwnerId();
+    }
 }
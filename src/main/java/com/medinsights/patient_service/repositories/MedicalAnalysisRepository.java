@@ -1,12 +1,17 @@
 package com.medinsights.patient_service.repositories;
 
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisWorklistItem;
 import com.medinsights.patient_service.entities.MedicalAnalysis;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +22,40 @@ import java.util.UUID;
 @Repository
 public interface MedicalAnalysisRepository extends JpaRepository<MedicalAnalysis, UUID> {
 
+    String WORKLIST_SELECT = "SELECT new com.medinsights.patient_service.dto.analysis.MedicalAnalysisWorklistItem(" +
+            "m.id, p.id, p.firstName, p.lastName, m.analysisType, m.analysisDate, m.status, " +
+            "(CASE WHEN m.alertsAndAnomalies IS NOT NULL AND m.alertsAndAnomalies <> '' THEN true ELSE false END), m.createdAt) " +
+            "FROM MedicalAnalysis m JOIN m.patient p " +
+            "WHERE m.ownerId = :ownerId AND m.status = :status " +
+            "AND (:analysisType IS NULL OR m.analysisType = :analysisType) ";
+    String WORKLIST_ORDER = "ORDER BY m.analysisDate DESC, m.id DESC";
+    String SUMMARY_SELECT = "SELECT m.id AS id, m.patient.id AS patientId, m.analysisType AS analysisType, " +
+            "m.analysisDate AS analysisDate, m.fileName AS fileName, m.documentSha256 AS documentSha256, m.performedBy AS performedBy, " +
+            "m.interpretedBy AS interpretedBy, m.status AS status, m.notes AS notes, " +
+            "(CASE WHEN m.alertsAndAnomalies IS NOT NULL AND m.alertsAndAnomalies <> '' THEN true ELSE false END) AS hasAnomalies, " +
+            "m.createdAt AS createdAt, m.updatedAt AS updatedAt, m.createdBy AS createdBy, m.updatedBy AS updatedBy " +
+            "FROM MedicalAnalysis m ";
+
+    /**
+     * Full-text search: the best matches of a websearch-style query (French or English stemming),
+     * then highlighted snippets for those rows only. The scope condition on m/p goes between
+     * SEARCH_MATCHES and SEARCH_RESULTS. Matched terms are wrapped in chr(2)/chr(3).
+     */
+    String HEADLINE_OPTIONS = "'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxFragments=3, MaxWords=25, MinWords=8'";
+    String SEARCH_MATCHES = "WITH q AS (SELECT websearch_to_tsquery('french', :query) AS fr, " +
+            "websearch_to_tsquery('english', :query) AS en), " +
+            "hits AS (SELECT m.id, ts_rank_cd(m.search_vector, q.fr || q.en) AS rank " +
+            "FROM medical_analyses m JOIN patients p ON p.id = m.patient_id CROSS JOIN q " +
+            "WHERE m.search_vector @@ (q.fr || q.en) AND ";
+    String SEARCH_RESULTS = " ORDER BY rank DESC, m.id LIMIT :limit) " +
+            "SELECT h.id AS \"id\", h.rank::float8 AS \"rank\", " +
+            "CASE WHEN strpos(fr.snippet, chr(2)) > 0 THEN fr.snippet " +
+            "ELSE ts_headline('english', d.doc, q.en, " + HEADLINE_OPTIONS + ") END AS \"snippet\" " +
+            "FROM hits h JOIN medical_analyses m ON m.id = h.id CROSS JOIN q " +
+            "CROSS JOIN LATERAL (SELECT concat_ws(' ... ', m.interpretation, m.recommendations, m.ocr_text) AS doc) d " +
+            "CROSS JOIN LATERAL (SELECT ts_headline('french', d.doc, q.fr, " + HEADLINE_OPTIONS + ") AS snippet) fr " +
+            "ORDER BY h.rank DESC, h.id";
+
     /**
      * Find all medical analyses for a specific patient
      */
@@ -48,6 +87,102 @@ public interface MedicalAnalysisRepository extends JpaRepository<MedicalAnalysis
     @Query("SELECT m FROM MedicalAnalysis m WHERE m.patient.id = :patientId AND m.alertsAndAnomalies IS NOT NULL AND m.alertsAndAnomalies != '' ORDER BY m.analysisDate DESC")
     List<MedicalAnalysis> findWithAlertsByPatientId(@Param("patientId") UUID patientId);
 
+    /**
+     * All analyses of a patient without their text columns, most recent first
+     */
+    @Query(SUMMARY_SELECT + "WHERE m.patient.id = :patientId ORDER BY m.analysisDate DESC")
+    List<AnalysisSummaryView> findSummariesByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Analyses of a patient with alerts or anomalies, without their text columns
+     */
+    @Query(SUMMARY_SELECT + "WHERE m.patient.id = :patientId AND m.alertsAndAnomalies IS NOT NULL " +
+            "AND m.alertsAndAnomalies != '' ORDER BY m.analysisDate DESC")
+    List<AnalysisSummaryView> findSummariesWithAlertsByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Analyses of a patient within a date range, without their text columns
+     */
+    @Query(SUMMARY_SELECT + "WHERE m.patient.id = :patientId AND m.analysisDate BETWEEN :startDate AND :endDate " +
+            "ORDER BY m.analysisDate DESC")
+    List<AnalysisSummaryView> findSummariesByPatientIdAndDateRange(
+            @Param("patientId") UUID patientId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Summaries of the given analyses (any order)
+     */
+    @Query(SUMMARY_SELECT + "WHERE m.id IN :ids")
+    List<AnalysisSummaryView> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Full-text search within one patient's analyses
+     */
+    @Query(value = SEARCH_MATCHES + "m.patient_id = :patientId" + SEARCH_RESULTS, nativeQuery = true)
+    List<SearchMatchView> searchByPatientId(
+            @Param("patientId") UUID patientId,
+            @Param("query") String query,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Full-text search across the analyses of every patient owned by a user
+     */
+    @Query(value = SEARCH_MATCHES + "p.created_by = :ownerId" + SEARCH_RESULTS, nativeQuery = true)
+    List<SearchMatchView> searchByOwner(
+            @Param("ownerId") UUID ownerId,
+            @Param("query") String query,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Recompute the full-text document of an analysis from its current text columns
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE medical_analyses SET search_vector = " +
+            "medical_analysis_search_vector(ocr_text, interpretation, recommendations) WHERE id = :id",
+            nativeQuery = true)
+    int refreshSearchVector(@Param("id") UUID id);
+
+    /**
+     * Recompute the full-text documents of several analyses at once
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE medical_analyses SET search_vector = " +
+            "medical_analysis_search_vector(ocr_text, interpretation, recommendations) WHERE id IN (:ids)",
+            nativeQuery = true)
+    int refreshSearchVectors(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Next analyses after the given id whose lab values were extracted by an older parser version,
+     * read from the partial index idx_medical_analyses_lab_extraction_pending.
+     * Rows locked by another replica's backfill are skipped rather than waited for.
+     */
+    @Query(value = "SELECT id FROM medical_analyses WHERE lab_extraction_version < :version AND id > :afterId " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<UUID> lockPendingLabExtractions(
+            @Param("version") short version,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * What lab value extraction needs of the given analyses, without their other text columns
+     */
+    @Query("SELECT m.id AS id, m.patient.id AS patientId, m.analysisDate AS analysisDate, m.results AS results " +
+            "FROM MedicalAnalysis m WHERE m.id IN :ids ORDER BY m.id")
+    List<LabExtractionSourceView> findLabExtractionSources(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Record the parser version the lab values of these analyses were extracted with
+     */
+    @Modifying
+    @Query("UPDATE MedicalAnalysis m SET m.labExtractionVersion = :version WHERE m.id IN :ids")
+    int markLabExtracted(@Param("ids") Collection<UUID> ids, @Param("version") short version);
+
     /**
      * Count analyses for a patient
      */
@@ -57,4 +192,65 @@ public interface MedicalAnalysisRepository extends JpaRepository<MedicalAnalysis
      * Find analyses by patient and created by user
      */
     List<MedicalAnalysis> findByPatientIdAndCreatedByOrderByAnalysisDateDesc(UUID patientId, UUID createdBy);
+
+    /**
+     * Analysis metadata without the (potentially large) TEXT columns
+     */
+    interface AnalysisSummaryView {
+        UUID getId();
+        UUID getPatientId();
+        String getAnalysisType();
+        LocalDate getAnalysisDate();
+        String getFileName();
+        String getDocumentSha256();
+        String getPerformedBy();
+        String getInterpretedBy();
+        String getStatus();
+        String getNotes();
+        boolean getHasAnomalies();
+        Instant getCreatedAt();
+        Instant getUpdatedAt();
+        UUID getCreatedBy();
+        UUID getUpdatedBy();
+    }
+
+    interface LabExtractionSourceView {
+        UUID getId();
+        UUID getPatientId();
+        LocalDate getAnalysisDate();
+        String getResults();
+    }
+
+    interface SearchMatchView {
+        UUID getId();
+        double getRank();
+        String getSnippet();
+    }
+
+    /**
+     * First worklist page: analyses of the owner's patients in a status, without text columns.
+     * Served by idx_medical_analysis_worklist (owner_id, status, analysis_date DESC, id DESC).
+     */
+    @Query(WORKLIST_SELECT + WORKLIST_ORDER)
+    List<MedicalAnalysisWorklistItem> findWorklist(
+            @Param("ownerId") UUID ownerId,
+            @Param("status") String status,
+            @Param("analysisType") String analysisType,
+            Limit limit
+    );
+
+    /**
+     * Next worklist page, after the (analysisDate, id) position of the previous page's last row
+     */
+    @Query(WORKLIST_SELECT +
+            "AND (m.analysisDate < :afterDate OR (m.analysisDate = :afterDate AND m.id < :afterId)) " +
+            WORKLIST_ORDER)
+    List<MedicalAnalysisWorklistItem> findWorklistAfter(
+            @Param("ownerId") UUID ownerId,
+            @Param("status") String status,
+            @Param("analysisType") String analysisType,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterId") UUID afterId,
+            Limit limit
+    );
 }
@@ -0,0 +1,58 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.PatientAlertCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the trigger-maintained PatientAlertCounter rows
+ */
+@Repository
+public interface PatientAlertCounterRepository extends JpaRepository<PatientAlertCounter, UUID> {
+
+    /**
+     * Active alert counts of the given patients with their owner, zero for patients without a counter row
+     */
+    @Query(value = "SELECT p.id AS \"patientId\", p.created_by AS \"ownerId\", " +
+            "coalesce(c.active_count, 0) AS \"activeCount\", " +
+            "coalesce(c.low_count, 0) AS \"lowCount\", " +
+            "coalesce(c.medium_count, 0) AS \"mediumCount\", " +
+            "coalesce(c.high_count, 0) AS \"highCount\", " +
+            "coalesce(c.critical_count, 0) AS \"criticalCount\" " +
+            "FROM patients p LEFT JOIN patient_alert_counters c ON c.patient_id = p.id " +
+            "WHERE p.id IN (:patientIds)",
+            nativeQuery = true)
+    List<PatientCountsView> findCountsByPatientIdIn(@Param("patientIds") Collection<UUID> patientIds);
+
+    /**
+     * Active alert counts summed over all patients owned by a user
+     */
+    @Query(value = "SELECT coalesce(sum(c.active_count), 0) AS \"activeCount\", " +
+            "coalesce(sum(c.low_count), 0) AS \"lowCount\", " +
+            "coalesce(sum(c.medium_count), 0) AS \"mediumCount\", " +
+            "coalesce(sum(c.high_count), 0) AS \"highCount\", " +
+            "coalesce(sum(c.critical_count), 0) AS \"criticalCount\" " +
+            "FROM patient_alert_counters c JOIN patients p ON p.id = c.patient_id " +
+            "WHERE p.created_by = :ownerId",
+            nativeQuery = true)
+    CountsView sumByOwner(@Param("ownerId") UUID ownerId);
+
+    interface CountsView {
+        long getActiveCount();
+        long getLowCount();
+        long getMediumCount();
+        long getHighCount();
+        long getCriticalCount();
+    }
+
+    interface PatientCountsView extends CountsView {
+        UUID getPatientId();
+        UUID getOwnerId();
+    }
+}
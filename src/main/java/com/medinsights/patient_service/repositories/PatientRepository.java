@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,4 +29,6 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
     @Query("SELECT COUNT(p) FROM Patient p WHERE p.createdBy = :userId AND p.active = true")
     long countActivePatientsByUser(@Param("userId") UUID userId);
+
+    long countByIdInAndCreatedBy(Collection<UUID> ids, UUID createdBy);
 }
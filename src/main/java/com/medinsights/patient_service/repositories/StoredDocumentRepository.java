@@ -0,0 +1,33 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.StoredDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Repository for StoredDocument entity
+ */
+@Repository
+public interface StoredDocumentRepository extends JpaRepository<StoredDocument, String> {
+
+    /**
+     * Record a document unless the same content is already known; concurrent uploads of one file are fine
+     */
+    @Modifying
+    @Query(value = "INSERT INTO documents (sha256, size_bytes, content_type, created_at, created_by) " +
+            "VALUES (:sha256, :sizeBytes, :contentType, :createdAt, :createdBy) ON CONFLICT (sha256) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("sha256") String sha256,
+            @Param("sizeBytes") long sizeBytes,
+            @Param("contentType") String contentType,
+            @Param("createdAt") Instant createdAt,
+            @Param("createdBy") UUID createdBy
+    );
+}
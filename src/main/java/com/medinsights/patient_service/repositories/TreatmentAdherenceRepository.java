@@ -0,0 +1,51 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.TreatmentAdherence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for TreatmentAdherence entity
+ */
+@Repository
+public interface TreatmentAdherenceRepository extends JpaRepository<TreatmentAdherence, UUID> {
+
+    Optional<TreatmentAdherence> findByTreatmentIdAndScheduleAndStartDate(UUID treatmentId, String schedule, LocalDate startDate);
+
+    /**
+     * Create the empty bitmaps of a schedule unless they exist; concurrent first recordings are fine
+     */
+    @Modifying
+    @Query(value = "INSERT INTO treatment_adherence (id, treatment_id, schedule, start_date, taken, missed, updated_at) " +
+            "VALUES (:id, :treatmentId, :schedule, :startDate, CAST('' AS bytea), CAST('' AS bytea), :now) " +
+            "ON CONFLICT (treatment_id, schedule, start_date) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(
+            @Param("id") UUID id,
+            @Param("treatmentId") UUID treatmentId,
+            @Param("schedule") String schedule,
+            @Param("startDate") LocalDate startDate,
+            @Param("now") Instant now
+    );
+
+    /**
+     * Bitmaps of a schedule, locked until the end of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM TreatmentAdherence a WHERE a.treatment.id = :treatmentId AND a.schedule = :schedule AND a.startDate = :startDate")
+    Optional<TreatmentAdherence> findForUpdate(
+            @Param("treatmentId") UUID treatmentId,
+            @Param("schedule") String schedule,
+            @Param("startDate") LocalDate startDate
+    );
+}
@@ -2,10 +2,13 @@ package com.medinsights.patient_service.repositories;
 
 import com.medinsights.patient_service.entities.Treatment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -49,12 +52,26 @@ public interface TreatmentRepository extends JpaRepository<Treatment, UUID> {
     @Query("SELECT t FROM Treatment t WHERE t.patient.id = :patientId AND t.startDate BETWEEN :startDate AND :endDate ORDER BY t.startDate DESC")
     List<Treatment> findByPatientIdAndDateRange(
             @Param("patientId") UUID patientId,
-            @Param("startDate") java.time.LocalDate startDate,
-            @Param("endDate") java.time.LocalDate endDate
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
     );
 
     /**
      * Count treatments for a patient
      */
     long countByPatientId(UUID patientId);
+
+    /**
+     * Mark up to {@code limit} active treatments that ended before {@code today} as COMPLETED, skipping
+     * rows locked by concurrent edits. The expiry expression matches idx_treatment_active_expiry.
+     *
+     * @return Number of treatments completed
+     */
+    @Modifying
+    @Query(value = "UPDATE treatments SET status = 'COMPLETED', updated_at = :now WHERE id IN (" +
+            "SELECT id FROM treatments WHERE status = 'ACTIVE' " +
+            "AND COALESCE(end_date, start_date + duration_days - 1) < :today " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int completeExpired(@Param("today") LocalDate today, @Param("now") Instant now, @Param("limit") int limit);
 }
@@ -0,0 +1,81 @@
+package com.medinsights.patient_service.repositories;
+
+import com.medinsights.patient_service.entities.VitalSignsArchiveBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for archived (compressed) vital signs blocks
+ */
+@Repository
+public interface VitalSignsArchiveBlockRepository extends JpaRepository<VitalSignsArchiveBlock, UUID> {
+
+    /**
+     * Find all archive blocks of a patient, newest period first
+     */
+    List<VitalSignsArchiveBlock> findByPatientIdOrderByPeriodStartDesc(UUID patientId);
+
+    /**
+     * Find the block of a patient for a given period
+     */
+    Optional<VitalSignsArchiveBlock> findByPatientIdAndPeriodStart(UUID patientId, LocalDate periodStart);
+
+    /**
+     * Find blocks overlapping [from, to)
+     */
+    @Query("SELECT b FROM VitalSignsArchiveBlock b WHERE b.patient.id = :patientId " +
+            "AND b.lastMeasurementDate >= :from AND b.firstMeasurementDate < :to " +
+            "ORDER BY b.periodStart DESC")
+    List<VitalSignsArchiveBlock> findOverlapping(
+            @Param("patientId") UUID patientId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Find the most recent block of a patient
+     */
+    @Query("SELECT b FROM VitalSignsArchiveBlock b WHERE b.patient.id = :patientId " +
+            "ORDER BY b.lastMeasurementDate DESC LIMIT 1")
+    Optional<VitalSignsArchiveBlock> findLatestByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Newest block of every patient whose readings are all archived, with the patient's owner
+     */
+    @Query(value = "SELECT p.id AS \"patientId\", p.created_by AS \"ownerId\", b.payload AS \"payload\" " +
+            "FROM patients p CROSS JOIN LATERAL (" +
+            "SELECT a.payload FROM vital_signs_archive a WHERE a.patient_id = p.id " +
+            "ORDER BY a.last_measurement_date DESC LIMIT 1) b " +
+            "WHERE NOT EXISTS (SELECT 1 FROM vital_signs v WHERE v.patient_id = p.id)",
+            nativeQuery = true)
+    List<LatestBlockView> findLatestBlockOfFullyArchivedPatients();
+
+    /**
+     * Total number of archived readings for a patient
+     */
+    @Query("SELECT COALESCE(SUM(b.sampleCount), 0) FROM VitalSignsArchiveBlock b WHERE b.patient.id = :patientId")
+    long sumSampleCountByPatientId(@Param("patientId") UUID patientId);
+
+    /**
+     * Transaction-scoped advisory lock so that only one replica archives a given patient at a time
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:namespace, :key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("namespace") int namespace, @Param("key") int key);
+
+    /**
+     * Newest archive block of a patient with the patient's owner
+     */
+    interface LatestBlockView {
+        UUID getPatientId();
+        UUID getOwnerId();
+        byte[] getPayload();
+    }
+}
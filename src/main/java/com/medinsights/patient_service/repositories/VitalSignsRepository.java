@@ -1,12 +1,13 @@
 package com.medinsights.patient_service.repositories;
 
 import com.medinsights.patient_service.entities.VitalSigns;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,13 +31,13 @@ public interface VitalSignsRepository extends JpaRepository<VitalSigns, UUID> {
     Optional<VitalSigns> findLatestByPatientId(@Param("patientId") UUID patientId);
 
     /**
-     * Find vital signs within a date range
+     * Find vital signs measured in [start, end). Compares the raw column so partitions are pruned.
      */
-    @Query("SELECT v FROM VitalSigns v WHERE v.patient.id = :patientId AND DATE(v.measurementDate) BETWEEN :startDate AND :endDate ORDER BY v.measurementDate DESC")
+    @Query("SELECT v FROM VitalSigns v WHERE v.patient.id = :patientId AND v.measurementDate >= :start AND v.measurementDate < :end ORDER BY v.measurementDate DESC")
     List<VitalSigns> findByPatientIdAndDateRange(
             @Param("patientId") UUID patientId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end
     );
 
     /**
@@ -48,4 +49,52 @@ public interface VitalSignsRepository extends JpaRepository<VitalSigns, UUID> {
      * Find vital signs recorded by a specific user
      */
     List<VitalSigns> findByCreatedByOrderByMeasurementDateDesc(UUID createdBy);
+
+    /**
+     * Find patients having readings older than a cutoff (archival candidates)
+     */
+    @Query("SELECT DISTINCT v.patient.id FROM VitalSigns v WHERE v.measurementDate < :cutoff")
+    List<UUID> findPatientIdsWithReadingsBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Find readings of a patient older than a cutoff, oldest first
+     */
+    @Query("SELECT v FROM VitalSigns v WHERE v.patient.id = :patientId AND v.measurementDate < :cutoff ORDER BY v.measurementDate ASC")
+    List<VitalSigns> findByPatientIdBefore(
+            @Param("patientId") UUID patientId,
+            @Param("cutoff") LocalDateTime cutoff,
+            Limit limit
+    );
+
+    /**
+     * Latest reading of every patient with its owner, one index probe per patient
+     */
+    @Query(value = "SELECT p.id AS \"patientId\", p.created_by AS \"ownerId\", " +
+            "CAST(EXTRACT(EPOCH FROM v.measurement_date) AS bigint) AS \"measuredAt\", " +
+            "v.systolicbp AS \"systolicBP\", v.diastolicbp AS \"diastolicBP\", v.heart_rate AS \"heartRate\", " +
+            "v.temperature AS \"temperature\", v.respiratory_rate AS \"respiratoryRate\", " +
+            "v.oxygen_saturation AS \"oxygenSaturation\", v.blood_glucose AS \"bloodGlucose\", " +
+            "v.weight AS \"weight\", v.bmi AS \"bmi\" " +
+            "FROM patients p CROSS JOIN LATERAL (" +
+            "SELECT * FROM vital_signs vs WHERE vs.patient_id = p.id ORDER BY vs.measurement_date DESC LIMIT 1) v",
+            nativeQuery = true)
+    List<LatestReadingView> findLatestReadingOfEachPatient();
+
+    /**
+     * Projection of a patient's latest reading used to seed panel statistics
+     */
+    interface LatestReadingView {
+        UUID getPatientId();
+        UUID getOwnerId();
+        Long getMeasuredAt();
+        Integer getSystolicBP();
+        Integer getDiastolicBP();
+        Integer getHeartRate();
+        Double getTemperature();
+        Integer getRespiratoryRate();
+        Integer getOxygenSaturation();
+        Double getBloodGlucose();
+        Double getWeight();
+        Double getBmi();
+    }
 }
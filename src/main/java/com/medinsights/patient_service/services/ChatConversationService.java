@@ -7,6 +7,7 @@ import com.medinsights.patient_service.dto.chatconversation.ChatConversationResp
 import com.medinsights.patient_service.dto.chatconversation.CreateConversationRequest;
 import com.medinsights.patient_service.entities.ChatConversation;
 import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
 import com.medinsights.patient_service.repositories.ChatConversationRepository;
 import com.medinsights.patient_service.repositories.PatientRepository;
 import lombok.RequiredArgsConstructor;
@@ -39,7 +40,7 @@ public class ChatConversationService {
 
         // Validate patient exists
         Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new RuntimeException("Patient not found: " + patientId));
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found: " + patientId));
 
         // Check if session ID already exists
         if (conversationRepository.existsBySessionId(request.getSessionId())) {
@@ -73,7 +74,7 @@ public class ChatConversationService {
         log.info("Fetching conversation: {}", conversationId);
         
         ChatConversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new RuntimeException("Conversation not found: " + conversationId));
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found: " + conversationId));
         
         return toResponse(conversation);
     }
@@ -86,7 +87,7 @@ public class ChatConversationService {
         log.info("Fetching conversation by session: {}", sessionId);
         
         ChatConversation conversation = conversationRepository.findBySessionId(sessionId)
-                .orElseThrow(() -> new RuntimeException("Conversation not found for session: " + sessionId));
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found for session: " + sessionId));
         
         return toResponse(conversation);
     }
@@ -118,7 +119,7 @@ public class ChatConversationService {
         log.info("Adding message to conversation {} with role {}", conversationId, request.getRole());
 
         ChatConversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new RuntimeException("Conversation not found: " + conversationId));
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found: " + conversationId));
 
         // Parse existing messages
         List<Map<String, Object>> messages = parseMessages(conversation.getMessages());
@@ -157,7 +158,7 @@ public class ChatConversationService {
         log.info("Archiving conversation: {}", conversationId);
 
         ChatConversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new RuntimeException("Conversation not found: " + conversationId));
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found: " + conversationId));
 
         conversation.setStatus("ARCHIVED");
         ChatConversation saved = conversationRepository.save(conversation);
@@ -174,7 +175,7 @@ public class ChatConversationService {
         log.info("Deleting conversation: {}", conversationId);
 
         if (!conversationRepository.existsById(conversationId)) {
-            throw new RuntimeException("Conversation not found: " + conversationId);
+            throw new ResourceNotFoundException("Conversation not found: " + conversationId);
         }
 
         conversationRepository.deleteById(conversationId);
@@ -1,20 +1,55 @@
 package com.medinsights.patient_service.services;
 
+import com.medinsights.patient_service.dto.AlertCountsDTO;
+import com.medinsights.patient_service.dto.AlertTriagePageDTO;
+import com.medinsights.patient_service.dto.BulkAlertActionDTO;
+import com.medinsights.patient_service.dto.BulkAlertActionResultDTO;
 import com.medinsights.patient_service.dto.CreateMedicalAlertDTO;
 import com.medinsights.patient_service.dto.MedicalAlertDTO;
+import com.medinsights.patient_service.entities.AlertSeverity;
 import com.medinsights.patient_service.entities.MedicalAlert;
 import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.entities.PatientAlertCounter;
+import com.medinsights.patient_service.events.MedicalAlertChangedEvent;
+import com.medinsights.patient_service.events.MedicalAlertsChangedEvent;
+import com.medinsights.patient_service.exceptions.BadRequestException;
 import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.exceptions.UnauthorizedException;
 import com.medinsights.patient_service.repositories.MedicalAlertRepository;
+import com.medinsights.patient_service.repositories.MedicalAlertRepository.ClosedAlertView;
+import com.medinsights.patient_service.repositories.PatientAlertCounterRepository;
+import com.medinsights.patient_service.repositories.PatientAlertCounterRepository.CountsView;
+import com.medinsights.patient_service.repositories.PatientAlertCounterRepository.PatientCountsView;
 import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.services.access.PatientAccessGuard;
+import com.medinsights.patient_service.services.escalation.AlertEscalationProperties;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -25,8 +60,37 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MedicalAlertService {
     
+    /**
+     * createdBy/resolvedBy used for alerts raised automatically by the service itself
+     */
+    public static final UUID SYSTEM_USER_ID = new UUID(0L, 0L);
+    
+    private static final int MAX_TRIAGE_PAGE_SIZE = 200;
+    private static final int MAX_COUNTS_BATCH_SIZE = 1000;
+    private static final int COALESCING_LOCK_NAMESPACE = 0x4d414c43; // "MALC"
+    
     private final MedicalAlertRepository alertRepository;
     private final PatientRepository patientRepository;
+    private final PatientAlertCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AlertEscalationProperties escalationProperties;
+    private final PatientAccessGuard accessGuard;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Open alerts by (patient, type, severity), filled after commit. Only a hint: every hit is
+     * confirmed by a conditional UPDATE against the row, so a stale entry never hides a new alert.
+     */
+    private final ConcurrentMap<CoalescingKey, OpenAlert> openAlerts = new ConcurrentHashMap<>();
+    
+    @Value("${medical-alerts.coalescing.window:PT30M}")
+    private Duration coalescingWindow;
+    
+    @Value("${medical-alerts.bulk-chunk-size:1000}")
+    private int bulkChunkSize;
     
     /**
      * Get all alerts for a patient
@@ -65,10 +129,103 @@ public class MedicalAlertService {
     }
     
     /**
-     * Create a new alert
+     * Page through active alerts of a user's patients, most severe first and oldest first within a severity.
+     * Served by keyset pagination on idx_alert_triage, which leads with owner_id: a page seeks to the cursor
+     * within the user's active alerts and reads only the next limit + 1 of them, however deep it is and
+     * however many alerts other users have.
+     */
+    @Transactional(readOnly = true)
+    public AlertTriagePageDTO getTriageQueue(String cursor, int limit, UUID ownerId) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_TRIAGE_PAGE_SIZE));
+        List<MedicalAlert> alerts;
+        if (cursor == null || cursor.isBlank()) {
+            alerts = alertRepository.findTriageQueue(ownerId, pageSize + 1);
+        } else {
+            TriageCursor position = TriageCursor.decode(cursor);
+            alerts = alertRepository.findTriageQueueAfter(ownerId, -position.rank(), position.createdAt(), position.id(), pageSize + 1);
+        }
+        
+        String nextCursor = null;
+        if (alerts.size() > pageSize) {
+            alerts = alerts.subList(0, pageSize);
+            MedicalAlert last = alerts.get(pageSize - 1);
+            nextCursor = new TriageCursor(last.getSeverityRank(), last.getCreatedAt(), last.getId()).encode();
+        }
+        return new AlertTriagePageDTO(alerts.stream().map(this::toDTO).collect(Collectors.toList()), nextCursor);
+    }
+    
+    /**
+     * Create a new alert.
+     * A duplicate of an open alert (same patient, type and severity) seen within the coalescing
+     * window is folded into that alert: its occurrence count and last occurrence are bumped instead.
      */
     @Transactional
     public MedicalAlertDTO createAlert(CreateMedicalAlertDTO dto, UUID createdBy) {
+        return raise(dto, createdBy).alert();
+    }
+    
+    /**
+     * Raise an alert on behalf of the system (monitoring, rules, ...), coalesced like createAlert
+     */
+    @Transactional
+    public MedicalAlertDTO raiseSystemAlert(UUID patientId, String alertType, String severityLevel,
+                                            String description, String requiredAction) {
+        CreateMedicalAlertDTO dto = new CreateMedicalAlertDTO(patientId, alertType, severityLevel, description, requiredAction);
+        return raise(dto, SYSTEM_USER_ID).alert();
+    }
+    
+    /**
+     * Raise several system alerts in one transaction, coalesced like createAlert
+     *
+     * @return number of alerts actually created
+     */
+    @Transactional
+    public int raiseSystemAlerts(List<CreateMedicalAlertDTO> alerts) {
+        int created = 0;
+        for (CreateMedicalAlertDTO alert : alerts) {
+            if (raise(alert, SYSTEM_USER_ID).created()) {
+                created++;
+            }
+        }
+        return created;
+    }
+    
+    private RaiseResult raise(CreateMedicalAlertDTO dto, UUID createdBy) {
+        CoalescingKey key = new CoalescingKey(dto.getPatientId(), dto.getAlertType(), dto.getSeverityLevel());
+        Instant now = Instant.now();
+        Instant windowStart = now.minus(coalescingWindow);
+        
+        // Fast path: a single conditional UPDATE on the cached open alert. It matches nothing if the
+        // alert was resolved meanwhile (e.g. by another instance) or went quiet for longer than the window.
+        OpenAlert cached = openAlerts.get(key);
+        if (cached != null) {
+            if (cached.lastOccurrenceAt().isAfter(windowStart)
+                    && alertRepository.recordOccurrence(cached.alertId(), now, windowStart) == 1) {
+                afterCommit(() -> openAlerts.put(key, new OpenAlert(cached.alertId(), now)));
+                log.debug("Coalesced {} alert for patient {} into {}", key.alertType(), key.patientId(), cached.alertId());
+                MedicalAlert alert = alertRepository.findById(cached.alertId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Alert not found with id: " + cached.alertId()));
+                // The bulk UPDATE bypassed the persistence context, which may hold this alert from earlier
+                entityManager.refresh(alert);
+                return new RaiseResult(publishChange("OCCURRED", alert), false);
+            }
+            openAlerts.remove(key, cached);
+        }
+        
+        // Slow path: serialize first occurrences of the key across threads and instances until commit
+        alertRepository.advisoryXactLock(COALESCING_LOCK_NAMESPACE, key.lockKey());
+        Optional<MedicalAlert> open = alertRepository.findFirstByPatientIdAndStatusAndAlertTypeAndSeverityLevelOrderByLastOccurrenceAtDesc(
+                key.patientId(), "active", key.alertType(), key.severityLevel());
+        if (open.isPresent() && open.get().getLastOccurrenceAt().isAfter(windowStart)) {
+            MedicalAlert alert = open.get();
+            alert.setOccurrenceCount(alert.getOccurrenceCount() + 1);
+            alert.setLastOccurrenceAt(now);
+            MedicalAlert savedAlert = alertRepository.save(alert);
+            afterCommit(() -> openAlerts.put(key, new OpenAlert(savedAlert.getId(), now)));
+            log.debug("Coalesced {} alert for patient {} into {}", key.alertType(), key.patientId(), savedAlert.getId());
+            return new RaiseResult(publishChange("OCCURRED", savedAlert), false);
+        }
+        
         log.info("Creating alert for patient: {}", dto.getPatientId());
         
         Patient patient = patientRepository.findById(dto.getPatientId())
@@ -82,11 +239,71 @@ public class MedicalAlertService {
         alert.setRequiredAction(dto.getRequiredAction());
         alert.setStatus("active");
         alert.setCreatedBy(createdBy);
+        alert.setOccurrenceCount(1);
+        alert.setLastOccurrenceAt(now);
+        alert.setEscalateAt(escalationProperties.deadline(dto.getSeverityLevel(), now));
         
         MedicalAlert savedAlert = alertRepository.save(alert);
+        afterCommit(() -> openAlerts.put(key, new OpenAlert(savedAlert.getId(), now)));
         log.info("Alert created successfully with id: {}", savedAlert.getId());
         
-        return toDTO(savedAlert);
+        return new RaiseResult(publishChange("CREATED", savedAlert), true);
+    }
+    
+    /**
+     * Drop cached open alerts whose window has passed
+     */
+    @Scheduled(fixedDelayString = "${medical-alerts.coalescing.sweep-interval:PT1M}")
+    public void evictExpiredOpenAlerts() {
+        Instant windowStart = Instant.now().minus(coalescingWindow);
+        openAlerts.values().removeIf(open -> !open.lastOccurrenceAt().isAfter(windowStart));
+    }
+    
+    /**
+     * Escalate an alert still active at its due time: raise its severity one level (CRITICAL alerts
+     * stay CRITICAL and are re-notified) and schedule the next escalation, up to the configured maximum.
+     *
+     * @param dueAt escalate_at the caller scheduled for; anything else means the alert changed meanwhile
+     * @return whether the alert was escalated
+     */
+    @Transactional
+    public boolean escalateAlert(UUID alertId, Instant dueAt) {
+        MedicalAlert alert = alertRepository.findByIdForUpdate(alertId).orElse(null);
+        if (alert == null || !"active".equals(alert.getStatus()) || !dueAt.equals(alert.getEscalateAt())) {
+            return false;
+        }
+        
+        Instant now = Instant.now();
+        String previousSeverity = alert.getSeverityLevel();
+        int rank = AlertSeverity.rankOf(previousSeverity);
+        if (rank > 0 && rank < AlertSeverity.CRITICAL.getRank()) {
+            alert.setSeverityLevel(AlertSeverity.values()[rank].name());
+        }
+        int level = alert.getEscalationLevel() + 1;
+        alert.setEscalationLevel(level);
+        alert.setEscalatedAt(now);
+        alert.setEscalateAt(level < escalationProperties.maxLevel()
+                ? escalationProperties.deadline(alert.getSeverityLevel(), now)
+                : null);
+        
+        MedicalAlert savedAlert = alertRepository.save(alert);
+        evictOpenAlert(new CoalescingKey(savedAlert.getPatient().getId(), savedAlert.getAlertType(), previousSeverity), alertId);
+        log.info("Escalated alert {} from {} to {} (level {})", alertId, previousSeverity, savedAlert.getSeverityLevel(), level);
+        publishChange("ESCALATED", savedAlert);
+        return true;
+    }
+    
+    /**
+     * Give active alerts that never had an escalation due time one, based on their creation time
+     * (alerts created before escalation was enabled, or before an SLA was configured)
+     */
+    @Transactional
+    public int scheduleMissingEscalations() {
+        int scheduled = 0;
+        for (var sla : escalationProperties.sla().entrySet()) {
+            scheduled += alertRepository.scheduleMissingEscalations(sla.getKey().getRank(), sla.getValue().toSeconds());
+        }
+        return scheduled;
     }
     
     /**
@@ -104,9 +321,10 @@ public class MedicalAlertService {
         alert.setResolvedBy(resolvedBy);
         
         MedicalAlert savedAlert = alertRepository.save(alert);
+        evictOpenAlert(savedAlert);
         log.info("Alert resolved successfully: {}", alertId);
         
-        return toDTO(savedAlert);
+        return publishChange("RESOLVED", savedAlert);
     }
     
     /**
@@ -123,9 +341,77 @@ public class MedicalAlertService {
         alert.setResolvedBy(dismissedBy);
         
         MedicalAlert savedAlert = alertRepository.save(alert);
+        evictOpenAlert(savedAlert);
         log.info("Alert dismissed successfully: {}", alertId);
         
-        return toDTO(savedAlert);
+        return publishChange("DISMISSED", savedAlert);
+    }
+    
+    /**
+     * Resolve many active alerts of the user's patients at once, selected by ids or by filter
+     */
+    public BulkAlertActionResultDTO bulkResolve(BulkAlertActionDTO selection, UUID userId) {
+        return bulkClose(selection, "resolved", "RESOLVED", userId);
+    }
+    
+    /**
+     * Dismiss many active alerts of the user's patients at once, selected by ids or by filter
+     */
+    public BulkAlertActionResultDTO bulkDismiss(BulkAlertActionDTO selection, UUID userId) {
+        return bulkClose(selection, "dismissed", "DISMISSED", userId);
+    }
+    
+    /**
+     * Set-based close in chunks of bulk-chunk-size rows, one short transaction per chunk,
+     * so large selections neither load entities nor hold locks on every row until the end.
+     * Alerts that are no longer active, or of patients of other users, are left untouched.
+     */
+    private BulkAlertActionResultDTO bulkClose(BulkAlertActionDTO selection, String status, String change, UUID userId) {
+        if (selection.hasIds() == selection.hasFilter()) {
+            throw new BadRequestException("Select alerts either by alertIds or by at least one filter criterion");
+        }
+        if (selection.patientId() != null) {
+            accessGuard.checkPatient(userId, selection.patientId());
+        }
+        Instant now = Instant.now();
+        Instant resolutionDate = "resolved".equals(status) ? now : null;
+        int updated = 0;
+        
+        if (selection.hasIds()) {
+            List<UUID> ids = List.copyOf(new LinkedHashSet<>(selection.alertIds()));
+            for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+                List<UUID> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+                updated += closeChunk(change, status, () -> alertRepository.closeActiveByIds(chunk, status, userId, now, resolutionDate));
+            }
+            log.info("Bulk {} {} of {} alerts", status, updated, selection.alertIds().size());
+            return new BulkAlertActionResultDTO(status, selection.alertIds().size(), updated);
+        }
+        
+        int closed;
+        do {
+            closed = closeChunk(change, status, () -> alertRepository.closeActiveMatching(
+                    selection.patientId(), selection.alertType(), selection.severityLevel(), selection.olderThan(),
+                    bulkChunkSize, status, userId, now, resolutionDate));
+            updated += closed;
+        } while (closed == bulkChunkSize);
+        log.info("Bulk {} {} alerts matching {}", status, updated, selection);
+        return new BulkAlertActionResultDTO(status, null, updated);
+    }
+    
+    private int closeChunk(String change, String status, Supplier<List<ClosedAlertView>> update) {
+        List<ClosedAlertView> closed = transactionTemplate.execute(tx -> {
+            List<ClosedAlertView> rows = update.get();
+            afterCommit(() -> rows.forEach(row -> openAlerts.computeIfPresent(
+                    new CoalescingKey(row.getPatientId(), row.getAlertType(), row.getSeverityLevel()),
+                    (k, open) -> open.alertId().equals(row.getId()) ? null : open)));
+            if (!rows.isEmpty()) {
+                eventPublisher.publishEvent(new MedicalAlertsChangedEvent(rows.stream()
+                        .map(row -> new MedicalAlertChangedEvent(change, row.getOwnerId(), row.getId(), row.getPatientId(), status, null))
+                        .toList()));
+            }
+            return rows;
+        });
+        return closed != null ? closed.size() : 0;
     }
     
     /**
@@ -135,20 +421,150 @@ public class MedicalAlertService {
     public void deleteAlert(UUID alertId) {
         log.info("Deleting alert: {}", alertId);
         
-        if (!alertRepository.existsById(alertId)) {
-            throw new ResourceNotFoundException("Alert not found with id: " + alertId);
-        }
+        MedicalAlert alert = alertRepository.findById(alertId)
+                .orElseThrow(() -> new ResourceNotFoundException("Alert not found with id: " + alertId));
         
-        alertRepository.deleteById(alertId);
+        MedicalAlertDTO deleted = toDTO(alert);
+        UUID ownerId = alert.getPatient().getCreatedBy();
+        alertRepository.delete(alert);
+        evictOpenAlert(alert);
+        eventPublisher.publishEvent(new MedicalAlertChangedEvent(
+                "DELETED", ownerId, alertId, deleted.getPatientId(), deleted.getStatus(), deleted));
         log.info("Alert deleted successfully: {}", alertId);
     }
     
     /**
-     * Count active alerts for a patient
+     * Count active alerts for a patient (single-row lookup of the maintained counters)
      */
     @Transactional(readOnly = true)
     public long countActiveAlerts(UUID patientId) {
-        return alertRepository.countByPatientIdAndStatus(patientId, "active");
+        return counterRepository.findById(patientId).map(PatientAlertCounter::getActiveCount).orElse(0);
+    }
+    
+    /**
+     * Active alerts of a patient per severity
+     */
+    @Transactional(readOnly = true)
+    public AlertCountsDTO getAlertCounts(UUID patientId) {
+        return counterRepository.findById(patientId).map(this::toCountsDTO).orElse(AlertCountsDTO.NONE);
+    }
+    
+    /**
+     * Active alerts per severity of many patients of a user in one query, keyed by patient id in request order.
+     * The query also reads the owner of each patient, so ownership costs no extra round trip.
+     *
+     * @throws UnauthorizedException if any of the patients belongs to another user
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, AlertCountsDTO> getAlertCounts(Collection<UUID> patientIds, UUID userId) {
+        if (patientIds.size() > MAX_COUNTS_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_COUNTS_BATCH_SIZE + " patients can be counted at once");
+        }
+        Map<UUID, AlertCountsDTO> counts = new LinkedHashMap<>();
+        patientIds.forEach(id -> counts.put(id, AlertCountsDTO.NONE));
+        if (counts.isEmpty()) {
+            return counts;
+        }
+        for (PatientCountsView row : counterRepository.findCountsByPatientIdIn(counts.keySet())) {
+            if (userId == null || !userId.equals(row.getOwnerId())) {
+                throw new UnauthorizedException("You are not authorized to access this patient");
+            }
+            counts.put(row.getPatientId(), new AlertCountsDTO(row.getActiveCount(), row.getLowCount(),
+                    row.getMediumCount(), row.getHighCount(), row.getCriticalCount()));
+        }
+        return counts;
+    }
+    
+    /**
+     * Active alerts per severity over all patients owned by a user
+     */
+    @Transactional(readOnly = true)
+    public AlertCountsDTO getOwnerAlertCounts(UUID ownerId) {
+        CountsView sums = counterRepository.sumByOwner(ownerId);
+        return new AlertCountsDTO(sums.getActiveCount(), sums.getLowCount(), sums.getMediumCount(),
+                sums.getHighCount(), sums.getCriticalCount());
+    }
+    
+    /**
+     * Position in the triage queue, exchanged with clients as an opaque base64 token
+     */
+    private record TriageCursor(int rank, Instant createdAt, UUID id) {
+        
+        String encode() {
+            String raw = rank + ":" + createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static TriageCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                return new TriageCursor(
+                        Integer.parseInt(parts[0]),
+                        Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2])),
+                        UUID.fromString(parts[3]));
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid triage cursor");
+            }
+        }
+    }
+    
+    private void evictOpenAlert(MedicalAlert alert) {
+        evictOpenAlert(new CoalescingKey(alert.getPatient().getId(), alert.getAlertType(), alert.getSeverityLevel()), alert.getId());
+    }
+    
+    private void evictOpenAlert(CoalescingKey key, UUID alertId) {
+        afterCommit(() -> openAlerts.computeIfPresent(key, (k, open) -> open.alertId().equals(alertId) ? null : open));
+    }
+    
+    /**
+     * Announce a change to listeners (delivered to them after commit) and return the alert as DTO
+     */
+    private MedicalAlertDTO publishChange(String change, MedicalAlert alert) {
+        MedicalAlertDTO dto = toDTO(alert);
+        eventPublisher.publishEvent(new MedicalAlertChangedEvent(
+                change, alert.getPatient().getCreatedBy(), dto.getId(), dto.getPatientId(), dto.getStatus(), dto));
+        return dto;
+    }
+    
+    /**
+     * Run once the current transaction has committed, so the coalescing cache never sees rolled back rows
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private record CoalescingKey(UUID patientId, String alertType, String severityLevel) {
+        
+        /**
+         * Advisory lock key, identical on every replica: built from the UUID bits and String.hashCode,
+         * whose values are specified, rather than from the record's unspecified hashCode
+         */
+        int lockKey() {
+            long bits = patientId.getMostSignificantBits() ^ patientId.getLeastSignificantBits();
+            int key = (int) (bits ^ (bits >>> 32));
+            key = 31 * key + (alertType != null ? alertType.hashCode() : 0);
+            return 31 * key + (severityLevel != null ? severityLevel.hashCode() : 0);
+        }
+    }
+    
+    private record OpenAlert(UUID alertId, Instant lastOccurrenceAt) {
+    }
+    
+    private record RaiseResult(MedicalAlertDTO alert, boolean created) {
+    }
+    
+    private AlertCountsDTO toCountsDTO(PatientAlertCounter counter) {
+        return new AlertCountsDTO(counter.getActiveCount(), counter.getLowCount(), counter.getMediumCount(),
+                counter.getHighCount(), counter.getCriticalCount());
     }
     
     /**
@@ -166,6 +582,10 @@ public class MedicalAlertService {
         dto.setRequiredAction(entity.getRequiredAction());
         dto.setCreatedBy(entity.getCreatedBy());
         dto.setResolvedBy(entity.getResolvedBy());
+        dto.setOccurrenceCount(entity.getOccurrenceCount());
+        dto.setLastOccurrenceAt(entity.getLastOccurrenceAt());
+        dto.setEscalationLevel(entity.getEscalationLevel());
+        dto.setEscalatedAt(entity.getEscalatedAt());
         dto.setCreatedAt(entity.getCreatedAt());
         dto.setUpdatedAt(entity.getUpdatedAt());
         return dto;
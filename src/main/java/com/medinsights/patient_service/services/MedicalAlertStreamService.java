@@ -0,0 +1,247 @@
+package com.medinsights.patient_service.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medinsights.patient_service.events.MedicalAlertChangedEvent;
+import com.medinsights.patient_service.events.MedicalAlertsChangedEvent;
+import com.medinsights.patient_service.services.streaming.ClusterEventChannel;
+import com.medinsights.patient_service.services.streaming.SseBroadcaster;
+import com.medinsights.patient_service.services.streaming.SseMessage;
+import com.medinsights.patient_service.services.streaming.StreamEventIds;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Live push of alert changes to the users owning the patients, over Server-Sent Events.
+ *
+ * Every change is written to alert_stream_events in the transaction that makes it, and its id
+ * is sent to all replicas on commit through the ClusterEventChannel (a chunk of a bulk change
+ * with one statement and one message); each replica loads the change and fans it out to its
+ * own subscribers. Event ids are those log ids, so they mean the same on every replica: a
+ * client reconnecting anywhere with Last-Event-ID receives the changes it missed, or a single
+ * 'alerts-reset' event telling it to re-fetch when they are no longer in the log or are too
+ * many to replay.
+ *
+ * Fan-out runs on the channel's listener thread only and takes no lock; a reconnecting client
+ * is registered first and its replay is read afterwards, on its own request thread, the live
+ * changes it receives meanwhile being delivered after the replay without those it contains.
+ * Ids are allocated at insert, not at commit: a replay straddling two concurrent changes may
+ * miss the one with the lower id if it committed last. Live delivery follows commit order.
+ */
+@Service
+@Slf4j
+public class MedicalAlertStreamService {
+
+    static final String EVENT_NAME = "alert";
+    static final String RESET_EVENT_NAME = "alerts-reset";
+    static final String STREAM = "alerts";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ClusterEventChannel channel;
+    private final ObjectMapper objectMapper;
+    private final SseBroadcaster broadcaster;
+    private final int replayCapacity;
+    private final Duration retention;
+
+    // Highest log id fanned out by this replica, written by the listener thread only
+    private volatile long lastDispatchedId = -1;
+    // Ids already delivered by the catch-up after a reconnect whose notifications may still arrive,
+    // used by the listener thread only
+    private final Set<Long> caughtUp = new HashSet<>();
+
+    public MedicalAlertStreamService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            ClusterEventChannel channel,
+            ObjectMapper objectMapper,
+            ScheduledExecutorService sseExecutor,
+            @Value("${streaming.sse.timeout:PT30M}") Duration timeout,
+            @Value("${streaming.sse.buffer-size:64}") int bufferSize,
+            @Value("${streaming.sse.heartbeat-interval:PT20S}") Duration heartbeatInterval,
+            @Value("${medical-alerts.stream.max-subscribers:5000}") int maxSubscribers,
+            @Value("${medical-alerts.stream.replay-capacity:10000}") int replayCapacity,
+            @Value("${medical-alerts.stream.retention:PT1H}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+        this.broadcaster = new SseBroadcaster("alerts", sseExecutor, timeout, bufferSize, maxSubscribers, heartbeatInterval);
+        this.replayCapacity = replayCapacity;
+        this.retention = retention;
+        channel.register(STREAM, new ClusterEventChannel.Listener() {
+            @Override
+            public void onMessages(List<String> payloads) {
+                dispatch(payloads);
+            }
+
+            @Override
+            public void onConnected() {
+                catchUp();
+            }
+        });
+    }
+
+    /**
+     * Stream alert changes of every patient owned by the user, replaying those after lastEventId if given
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return broadcaster.subscribe(List.of(userId));
+        }
+        // Read once registered: changes fanned out from then on are held and deduplicated against the replay
+        return broadcaster.subscribe(List.of(userId), () -> replay(userId, lastEventId));
+    }
+
+    /**
+     * Log the change in the transaction making it; it is announced to the replicas when that transaction commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAlertChanged(MedicalAlertChangedEvent event) {
+        logChanges(List.of(event));
+    }
+
+    /**
+     * Log a chunk of bulk changes with one statement, announced with one notification
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAlertsChanged(MedicalAlertsChangedEvent event) {
+        logChanges(event.changes());
+    }
+
+    private void logChanges(List<MedicalAlertChangedEvent> changes) {
+        List<MedicalAlertChangedEvent> owned = changes.stream().filter(change -> change.ownerId() != null).toList();
+        if (owned.isEmpty()) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(owned);
+        } catch (JsonProcessingException ex) {
+            log.error("Failed to serialize {} alert changes", owned.size(), ex);
+            return;
+        }
+        // One row per element of the array, ids allocated in array order
+        List<Long> ids = jdbcTemplate.queryForList(
+                "INSERT INTO alert_stream_events (owner_id, payload) " +
+                        "SELECT cast(e.change ->> 'ownerId' AS uuid), e.change " +
+                        "FROM jsonb_array_elements(cast(:changes AS jsonb)) WITH ORDINALITY AS e(change, n) " +
+                        "ORDER BY e.n RETURNING id",
+                Map.of("changes", payload), Long.class);
+        for (String message : StreamEventIds.encode(ids, channel.maxPayloadBytes(STREAM))) {
+            channel.publish(STREAM, message);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${medical-alerts.stream.prune-interval:PT5M}")
+    public void pruneLog() {
+        int deleted = jdbcTemplate.update("DELETE FROM alert_stream_events WHERE created_at < :cutoff",
+                Map.of("cutoff", Timestamp.from(Instant.now().minus(retention))));
+        if (deleted > 0) {
+            log.debug("Pruned {} alert stream events older than {}", deleted, retention);
+        }
+    }
+
+    private void dispatch(List<String> payloads) {
+        List<Long> ids = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            for (long id : StreamEventIds.decode(payload)) {
+                if (!caughtUp.remove(id)) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, StreamEvent> events = new HashMap<>();
+        jdbcTemplate.query("SELECT id, owner_id, payload FROM alert_stream_events WHERE id IN (:ids)",
+                Map.of("ids", ids), rs -> {
+                    StreamEvent event = new StreamEvent(rs.getLong(1), rs.getObject(2, UUID.class), rs.getString(3));
+                    events.put(event.id(), event);
+                });
+        // In notification order, which is commit order
+        for (Long id : ids) {
+            StreamEvent event = events.get(id);
+            if (event != null) {
+                publish(event);
+            }
+        }
+    }
+
+    /**
+     * Fan out the changes committed while this replica was not listening (none on the first connection)
+     */
+    private void catchUp() {
+        caughtUp.clear();
+        if (lastDispatchedId < 0) {
+            Long last = jdbcTemplate.queryForObject("SELECT max(id) FROM alert_stream_events", Map.of(), Long.class);
+            lastDispatchedId = last == null ? 0 : last;
+            return;
+        }
+        List<StreamEvent> missed = jdbcTemplate.query(
+                "SELECT id, owner_id, payload FROM alert_stream_events WHERE id > :after ORDER BY id LIMIT :limit",
+                Map.of("after", lastDispatchedId, "limit", replayCapacity),
+                (rs, n) -> new StreamEvent(rs.getLong(1), rs.getObject(2, UUID.class), rs.getString(3)));
+        for (StreamEvent event : missed) {
+            caughtUp.add(event.id());
+            publish(event);
+        }
+        log.info("Caught up {} alert stream events after reconnecting", missed.size());
+    }
+
+    private void publish(StreamEvent event) {
+        // Raised first, so a subscriber registering in between either replays the change or holds it
+        lastDispatchedId = Math.max(lastDispatchedId, event.id());
+        broadcaster.publish(List.of(event.ownerId()), new SseMessage(Long.toString(event.id()), EVENT_NAME, event.payload()));
+    }
+
+    private List<SseMessage> replay(UUID userId, String lastEventId) {
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            return List.of(reset());
+        }
+        Long oldest = jdbcTemplate.queryForObject("SELECT min(id) FROM alert_stream_events", Map.of(), Long.class);
+        if (oldest == null || lastId < oldest - 1) {
+            return List.of(reset());
+        }
+        // Changes after the last one dispatched here are still on their way and will arrive live
+        long until = lastDispatchedId;
+        List<SseMessage> missed = jdbcTemplate.query(
+                "SELECT id, payload FROM alert_stream_events " +
+                        "WHERE owner_id = :userId AND id > :after AND id <= :until ORDER BY id LIMIT :limit",
+                Map.of("userId", userId, "after", lastId, "until", until, "limit", replayCapacity + 1),
+                (rs, n) -> new SseMessage(Long.toString(rs.getLong(1)), EVENT_NAME, rs.getString(2)));
+        return missed.size() > replayCapacity ? List.of(reset()) : missed;
+    }
+
+    private SseMessage reset() {
+        return new SseMessage(Long.toString(Math.max(lastDispatchedId, 0)), RESET_EVENT_NAME, "re-fetch active alerts");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.close();
+    }
+
+    private record StreamEvent(long id, UUID ownerId, String payload) {
+    }
+}
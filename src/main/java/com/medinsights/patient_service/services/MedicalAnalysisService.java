@@ -1,9 +1,15 @@
 package com.medinsights.patient_service.services;
 
+import com.medinsights.patient_service.dto.BatchCreateResultDTO;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisCreateRequest;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisResponse;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisSearchHit;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisUpdateRequest;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisView;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisWorklistPage;
+import com.medinsights.patient_service.services.documents.DocumentFile;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +30,15 @@ public interface MedicalAnalysisService {
      */
     MedicalAnalysisResponse create(UUID patientId, MedicalAnalysisCreateRequest request, UUID userId);
 
+    /**
+     * Create many analyses at once (e.g. a lab's daily feed); invalid items are reported, not fatal
+     *
+     * @param requests Analyses to create, each naming its patient (at most 1000)
+     * @param userId   User creating the analyses
+     * @return Created ids and failures, by position in the request
+     */
+    BatchCreateResultDTO createBatch(List<MedicalAnalysisCreateRequest> requests, UUID userId);
+
     /**
      * Update an existing medical analysis
      *
@@ -46,17 +61,19 @@ public interface MedicalAnalysisService {
      * Find all analyses for a patient
      *
      * @param patientId Patient UUID
+     * @param view      Fields to load
      * @return List of analyses
      */
-    List<MedicalAnalysisResponse> findByPatientId(UUID patientId);
+    List<MedicalAnalysisResponse> findByPatientId(UUID patientId, MedicalAnalysisView view);
 
     /**
      * Find analyses with alerts/anomalies for a patient
      *
      * @param patientId Patient UUID
+     * @param view      Fields to load
      * @return List of analyses with alerts
      */
-    List<MedicalAnalysisResponse> findWithAlertsByPatientId(UUID patientId);
+    List<MedicalAnalysisResponse> findWithAlertsByPatientId(UUID patientId, MedicalAnalysisView view);
 
     /**
      * Find analyses by date range
@@ -64,9 +81,63 @@ public interface MedicalAnalysisService {
      * @param patientId Patient UUID
      * @param startDate Start date
      * @param endDate   End date
+     * @param view      Fields to load
      * @return List of analyses
      */
-    List<MedicalAnalysisResponse> findByPatientIdAndDateRange(UUID patientId, LocalDate startDate, LocalDate endDate);
+    List<MedicalAnalysisResponse> findByPatientIdAndDateRange(UUID patientId, LocalDate startDate, LocalDate endDate,
+                                                              MedicalAnalysisView view);
+
+    /**
+     * Page through the analyses of a user's patients in a status, without their text content
+     *
+     * @param ownerId      User owning the patients
+     * @param status       Analysis status (PENDING, COMPLETED, REVIEWED)
+     * @param analysisType Optional analysis type filter
+     * @param cursor       Cursor returned by the previous page, null for the first page
+     * @param limit        Page size
+     * @return Worklist page
+     */
+    MedicalAnalysisWorklistPage getWorklist(UUID ownerId, String status, String analysisType, String cursor, int limit);
+
+    /**
+     * Full-text search over the OCR text, interpretation and recommendations of a patient's analyses
+     *
+     * @param patientId Patient UUID
+     * @param query     Search terms (web search syntax: quoted phrases, OR, -excluded)
+     * @param limit     Maximum number of hits
+     * @return Hits, best match first
+     */
+    List<MedicalAnalysisSearchHit> searchByPatientId(UUID patientId, String query, int limit);
+
+    /**
+     * Full-text search over the analyses of all patients owned by a user
+     *
+     * @param ownerId User owning the patients
+     * @param query   Search terms (web search syntax: quoted phrases, OR, -excluded)
+     * @param limit   Maximum number of hits
+     * @return Hits, best match first
+     */
+    List<MedicalAnalysisSearchHit> searchByOwner(UUID ownerId, String query, int limit);
+
+    /**
+     * Attach the analysis document (report PDF or scan); the file goes to the document store
+     *
+     * @param analysisId  Analysis UUID
+     * @param content     Document bytes, streamed
+     * @param fileName    Original file name, stored as fileName
+     * @param contentType Declared media type
+     * @param userId      User uploading the document
+     * @return Updated analysis
+     */
+    MedicalAnalysisResponse attachDocument(UUID analysisId, InputStream content, String fileName, String contentType, UUID userId);
+
+    /**
+     * Document attached to an analysis
+     *
+     * @param analysisId Analysis UUID
+     * @return Stored document, under the analysis' file name
+     */
+    DocumentFile getDocument(UUID analysisId);
 
     /**
      * Delete a medical analysis
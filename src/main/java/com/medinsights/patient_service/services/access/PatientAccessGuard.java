@@ -0,0 +1,168 @@
+package com.medinsights.patient_service.services.access;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medinsights.patient_service.exceptions.UnauthorizedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Checks that the current user owns the patients, or the patients of the records, a request touches.
+ *
+ * The owner of a patient (created_by) and the patient of a record never change, so the owner of
+ * each patient and record is kept in a bounded cache once read: a check is a cache lookup, and
+ * only ids never seen before cost one query, a single join for all of them. Unknown ids pass, so
+ * the service answers 404.
+ */
+@Component
+public class PatientAccessGuard {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Cache<RecordKey, UUID> owners;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PatientAccessGuard(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${patient-access.owner-cache-size:50000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+        this.hits = Counter.builder("patient.access.owner.lookups").tag("result", "hit")
+                .description("Ownership checks answered from the owner cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("patient.access.owner.lookups").tag("result", "miss")
+                .description("Ownership checks that read the owner from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws UnauthorizedException if the patient exists and belongs to another user
+     */
+    public void checkPatient(UUID userId, UUID patientId) {
+        check(userId, RecordType.PATIENT, List.of(patientId));
+    }
+
+    /**
+     * @throws UnauthorizedException if any of the patients exists and belongs to another user
+     */
+    public void checkPatients(UUID userId, Collection<UUID> patientIds) {
+        check(userId, RecordType.PATIENT, patientIds);
+    }
+
+    /**
+     * @throws UnauthorizedException if any of the records exists and belongs to a patient of another user
+     */
+    public void check(UUID userId, RecordType type, Collection<?> ids) {
+        if (userId == null) {
+            throw new UnauthorizedException("You are not authorized to access this " + type.label());
+        }
+        List<Object> unknown = new ArrayList<>();
+        for (Object id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            UUID owner = owners.getIfPresent(new RecordKey(type, id));
+            if (owner == null) {
+                unknown.add(id);
+            } else {
+                hits.increment();
+                deny(userId, owner, type);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        misses.increment(unknown.size());
+        for (int from = 0; from < unknown.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Object> chunk = unknown.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, unknown.size()));
+            for (Map.Entry<Object, UUID> entry : load(type, chunk).entrySet()) {
+                owners.put(new RecordKey(type, entry.getKey()), entry.getValue());
+                deny(userId, entry.getValue(), type);
+            }
+        }
+    }
+
+    private Map<Object, UUID> load(RecordType type, List<Object> ids) {
+        Map<Object, UUID> found = new HashMap<>();
+        jdbcTemplate.query(type.ownerQuery(), Map.of("ids", ids),
+                rs -> { found.put(rs.getObject(1), rs.getObject(2, UUID.class)); });
+        return found;
+    }
+
+    private static void deny(UUID userId, UUID owner, RecordType type) {
+        if (!owner.equals(userId)) {
+            throw new UnauthorizedException("You are not authorized to access this " + type.label());
+        }
+    }
+
+    /**
+     * Records that belong to a patient, by the name of the path variable that identifies them
+     */
+    public enum RecordType {
+        PATIENT("patientId", "patient", "SELECT id, created_by FROM patients WHERE id IN (:ids)"),
+        TREATMENT("treatmentId", "treatment", joined("treatments", "id")),
+        CONSULTATION("consultationId", "consultation", joined("consultations", "id")),
+        VITAL_SIGNS("vitalSignsId", "vital signs record", joined("vital_signs", "id")),
+        MEDICAL_ANALYSIS("analysisId", "medical analysis", joined("medical_analyses", "id")),
+        CARDIOVASCULAR_EXAM("examId", "cardiovascular exam", joined("cardiovascular_exams", "id")),
+        CONVERSATION("conversationId", "conversation", joined("chat_conversations", "id")),
+        CONVERSATION_SESSION("sessionId", "conversation", joined("chat_conversations", "session_id")),
+        ALERT("alertId", "alert", "SELECT id, owner_id FROM medical_alerts WHERE id IN (:ids)"),
+        INGESTION_JOB("jobId", "ingestion job", "SELECT j.id, p.created_by FROM analysis_ingestion_jobs j " +
+                "JOIN medical_analyses r ON r.id = j.analysis_id JOIN patients p ON p.id = r.patient_id " +
+                "WHERE j.id IN (:ids)");
+
+        private final String pathVariable;
+        private final String label;
+        private final String ownerQuery;
+
+        RecordType(String pathVariable, String label, String ownerQuery) {
+            this.pathVariable = pathVariable;
+            this.label = label;
+            this.ownerQuery = ownerQuery;
+        }
+
+        public String pathVariable() {
+            return pathVariable;
+        }
+
+        String label() {
+            return label;
+        }
+
+        String ownerQuery() {
+            return ownerQuery;
+        }
+
+        /**
+         * Path variable value as the id type of the records: a UUID, except for session ids
+         *
+         * @throws IllegalArgumentException if the value is not a valid id
+         */
+        public Object parseId(String value) {
+            return this == CONVERSATION_SESSION ? value : UUID.fromString(value);
+        }
+
+        private static String joined(String table, String idColumn) {
+            return "SELECT r." + idColumn + ", p.created_by FROM " + table + " r " +
+                    "JOIN patients p ON p.id = r.patient_id WHERE r." + idColumn + " IN (:ids)";
+        }
+    }
+
+    private record RecordKey(RecordType type, Object id) {
+    }
+}
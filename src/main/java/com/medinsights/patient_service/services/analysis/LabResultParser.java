@@ -0,0 +1,289 @@
+package com.medinsights.patient_service.services.analysis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts numeric lab values from the free-form {@code results} of a MedicalAnalysis.
+ *
+ * JSON results are read as arrays of test objects ({"name", "value", "unit", "reference", "flag"}
+ * and French/English synonyms of these keys) or as objects mapping test names to values.
+ * Anything else is read line by line as "Name: value unit (low-high) flag". Analyte names are
+ * normalised to a code (accents, case and punctuation removed, common synonyms merged) so the
+ * same test reported by different labs lands in one time series. Units are kept as reported.
+ */
+final class LabResultParser {
+
+    /**
+     * Bumped whenever parsing changes, so the backfill job re-extracts older analyses.
+     * The predicate of idx_medical_analyses_lab_extraction_pending must be bumped with it.
+     */
+    static final short VERSION = 1;
+
+    private static final int MAX_ANALYTE_LENGTH = 50;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int MAX_UNIT_LENGTH = 30;
+
+    private static final List<String> NAME_KEYS = List.of("name", "test", "analyte", "parameter", "label", "examen", "nom", "parametre", "analyse");
+    private static final List<String> VALUE_KEYS = List.of("value", "result", "valeur", "resultat");
+    private static final List<String> UNIT_KEYS = List.of("unit", "units", "unite");
+    private static final List<String> RANGE_KEYS = List.of("reference", "referencerange", "range", "normalrange", "normes", "valeursdereference", "valeursnormales");
+    private static final List<String> LOW_KEYS = List.of("low", "min", "referencelow", "lowerlimit");
+    private static final List<String> HIGH_KEYS = List.of("high", "max", "referencehigh", "upperlimit");
+    private static final List<String> FLAG_KEYS = List.of("flag", "status", "indicateur", "anomalie");
+
+    private static final String NUMBER = "\\d+(?:[.,]\\d+)?";
+    private static final Pattern LINE = Pattern.compile(
+            "^\\s*(?<name>\\p{L}[\\p{L}\\p{N} ()'’/.+\\-]*?)\\s*(?::|=|\\t|\\s{2,})\\s*[<>≤≥]?\\s*(?<value>-?" + NUMBER + ")"
+                    + "\\s*(?<unit>[\\p{L}µ%][\\p{L}\\p{N}µ%/.^*]*|10\\^\\d+/\\p{L}+)?"
+                    + "\\s*(?:[(\\[]\\s*)?(?:(?<low>" + NUMBER + ")\\s*(?:-|–|à|to)\\s*(?<high>" + NUMBER + ")"
+                    + "|(?<bound>[<>≤≥])\\s*(?<limit>" + NUMBER + "))?\\s*[)\\]]?"
+                    + "\\s*(?<flag>\\*|↑|↓|\\+|-|H|L|HIGH|LOW|ÉLEVÉ|ELEVE|BAS)?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern RANGE = Pattern.compile(
+            "^\\s*(?:(?<low>" + NUMBER + ")\\s*(?:-|–|à|to)\\s*(?<high>" + NUMBER + ")|(?<bound>[<>≤≥])\\s*(?<limit>" + NUMBER + "))\\s*$");
+    private static final Pattern VALUE_WITH_UNIT = Pattern.compile(
+            "^\\s*[<>≤≥]?\\s*(?<value>-?" + NUMBER + ")\\s*(?<unit>\\S.*)?$");
+
+    private static final Map<String, String> SYNONYMS = new HashMap<>();
+
+    static {
+        synonyms("HBA1C", "HBA1C", "HEMOGLOBINEGLYQUEE", "HEMOGLOBINEGLYCOSYLEE", "GLYCATEDHEMOGLOBIN", "HEMOGLOBINA1C");
+        synonyms("GLUCOSE", "GLUCOSE", "GLYCEMIE", "GLYCEMIEAJEUN", "FASTINGGLUCOSE", "BLOODGLUCOSE");
+        synonyms("CHOLESTEROL_TOTAL", "CHOLESTEROL", "CHOLESTEROLTOTAL", "TOTALCHOLESTEROL");
+        synonyms("HDL", "HDL", "HDLC", "HDLCHOLESTEROL", "CHOLESTEROLHDL");
+        synonyms("LDL", "LDL", "LDLC", "LDLCHOLESTEROL", "CHOLESTEROLLDL");
+        synonyms("TRIGLYCERIDES", "TRIGLYCERIDES", "TRIGLYCERIDE", "TG");
+        synonyms("CREATININE", "CREATININE", "CREATININEMIE", "CREATININESERIQUE");
+        synonyms("HEMOGLOBIN", "HEMOGLOBINE", "HEMOGLOBIN", "HB", "HGB");
+        synonyms("POTASSIUM", "POTASSIUM", "K", "KALIEMIE");
+        synonyms("SODIUM", "SODIUM", "NA", "NATREMIE");
+        synonyms("TSH", "TSH", "THYREOSTIMULINE");
+        synonyms("CRP", "CRP", "PROTEINECREACTIVE", "CREACTIVEPROTEIN");
+    }
+
+    private final ObjectMapper objectMapper;
+
+    LabResultParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Lab values found in an analysis' results, in reading order; empty when none are recognised
+     */
+    List<ParsedLabValue> parse(String results) {
+        List<ParsedLabValue> values = new ArrayList<>();
+        if (results == null || results.isBlank()) {
+            return values;
+        }
+        String trimmed = results.strip();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            try {
+                readJson(null, objectMapper.readTree(trimmed), values);
+                return values;
+            } catch (JsonProcessingException ex) {
+                // Not actually JSON: fall back to text
+            }
+        }
+        trimmed.lines().forEach(line -> readLine(line, values));
+        return values;
+    }
+
+    /**
+     * Time series code of an analyte name, e.g. "Hémoglobine glyquée" and "HbA1c" both give HBA1C
+     */
+    static String analyteCode(String name) {
+        String key = normalizeKey(name);
+        String code = SYNONYMS.getOrDefault(key, key);
+        return code.length() > MAX_ANALYTE_LENGTH ? code.substring(0, MAX_ANALYTE_LENGTH) : code;
+    }
+
+    private void readJson(String name, JsonNode node, List<ParsedLabValue> values) {
+        if (node.isArray()) {
+            node.forEach(element -> readJson(name, element, values));
+        } else if (node.isObject()) {
+            JsonNode value = field(node, VALUE_KEYS);
+            String testName = text(field(node, NAME_KEYS));
+            if (value != null && (testName != null || name != null)) {
+                readTest(testName != null ? testName : name, node, value, values);
+                return;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> entry = fields.next();
+                readJson(entry.getKey(), entry.getValue(), values);
+            }
+        } else if (name != null && (node.isNumber() || node.isTextual())) {
+            Matcher matcher = VALUE_WITH_UNIT.matcher(node.asText());
+            if (matcher.matches()) {
+                add(values, name, number(matcher.group("value")), matcher.group("unit"), null, null, null);
+            }
+        }
+    }
+
+    private void readTest(String name, JsonNode test, JsonNode valueNode, List<ParsedLabValue> values) {
+        Double value;
+        String unit = text(field(test, UNIT_KEYS));
+        if (valueNode.isNumber()) {
+            value = valueNode.asDouble();
+        } else {
+            Matcher matcher = VALUE_WITH_UNIT.matcher(valueNode.asText());
+            if (!matcher.matches()) {
+                return;
+            }
+            value = number(matcher.group("value"));
+            if (unit == null) {
+                unit = matcher.group("unit");
+            }
+        }
+
+        Double low = number(field(test, LOW_KEYS));
+        Double high = number(field(test, HIGH_KEYS));
+        JsonNode range = field(test, RANGE_KEYS);
+        if (range != null && range.isObject()) {
+            low = number(field(range, LOW_KEYS));
+            high = number(field(range, HIGH_KEYS));
+        } else if (range != null) {
+            Matcher matcher = RANGE.matcher(range.asText());
+            if (matcher.matches()) {
+                low = matcher.group("low") != null ? number(matcher.group("low")) : lowerBound(matcher);
+                high = matcher.group("high") != null ? number(matcher.group("high")) : upperBound(matcher);
+            }
+        }
+        add(values, name, value, unit, low, high, text(field(test, FLAG_KEYS)));
+    }
+
+    private void readLine(String line, List<ParsedLabValue> values) {
+        Matcher matcher = LINE.matcher(line);
+        if (!matcher.matches()) {
+            return;
+        }
+        Double low = matcher.group("low") != null ? number(matcher.group("low")) : lowerBound(matcher);
+        Double high = matcher.group("high") != null ? number(matcher.group("high")) : upperBound(matcher);
+        add(values, matcher.group("name").strip(), number(matcher.group("value")), matcher.group("unit"),
+                low, high, matcher.group("flag"));
+    }
+
+    private static void add(List<ParsedLabValue> values, String name, Double value, String unit,
+                            Double low, Double high, String flag) {
+        if (value == null || name == null || normalizeKey(name).isEmpty()) {
+            return;
+        }
+        String label = name.strip();
+        String cleanUnit = unit == null || unit.isBlank() ? null : unit.strip();
+        values.add(new ParsedLabValue(
+                analyteCode(label),
+                label.length() > MAX_NAME_LENGTH ? label.substring(0, MAX_NAME_LENGTH) : label,
+                value,
+                cleanUnit != null && cleanUnit.length() > MAX_UNIT_LENGTH ? cleanUnit.substring(0, MAX_UNIT_LENGTH) : cleanUnit,
+                low,
+                high,
+                flag(flag, value, low, high)));
+    }
+
+    /**
+     * Flag as reported by the lab if recognised, otherwise from the reference range; null without either
+     */
+    private static String flag(String reported, double value, Double low, Double high) {
+        if (reported != null) {
+            switch (normalizeKey(reported)) {
+                case "H", "HIGH", "ELEVE", "HAUT" -> { return "HIGH"; }
+                case "L", "LOW", "BAS" -> { return "LOW"; }
+                case "N", "NORMAL" -> { return "NORMAL"; }
+                case "A", "ABNORMAL", "ANORMAL" -> { return "ABNORMAL"; }
+                default -> {
+                    String symbol = reported.strip();
+                    if (symbol.equals("↑") || symbol.equals("+")) return "HIGH";
+                    if (symbol.equals("↓") || symbol.equals("-")) return "LOW";
+                    if (symbol.equals("*")) return "ABNORMAL";
+                }
+            }
+        }
+        if (low == null && high == null) {
+            return null;
+        }
+        if (low != null && value < low) {
+            return "LOW";
+        }
+        if (high != null && value > high) {
+            return "HIGH";
+        }
+        return "NORMAL";
+    }
+
+    private static Double lowerBound(Matcher matcher) {
+        String bound = matcher.group("bound");
+        return bound != null && (bound.equals(">") || bound.equals("≥")) ? number(matcher.group("limit")) : null;
+    }
+
+    private static Double upperBound(Matcher matcher) {
+        String bound = matcher.group("bound");
+        return bound != null && (bound.equals("<") || bound.equals("≤")) ? number(matcher.group("limit")) : null;
+    }
+
+    private static JsonNode field(JsonNode object, List<String> keys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            if (keys.contains(normalizeKey(entry.getKey()).toLowerCase(Locale.ROOT)) && !entry.getValue().isNull()) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node) {
+        return node == null || node.isContainerNode() || node.asText().isBlank() ? null : node.asText();
+    }
+
+    private static Double number(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        return node.isNumber() ? Double.valueOf(node.asDouble()) : number(node.asText().strip());
+    }
+
+    private static Double number(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(text.replace(',', '.'));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String normalizeKey(String name) {
+        String ascii = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return ascii.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+    }
+
+    private static void synonyms(String code, String... keys) {
+        for (String key : keys) {
+            SYNONYMS.put(key, code);
+        }
+    }
+
+    /**
+     * One extracted value
+     *
+     * @param analyte normalised analyte code
+     * @param name    analyte name as reported
+     * @param flag    HIGH, LOW, NORMAL, ABNORMAL or null
+     */
+    record ParsedLabValue(String analyte, String name, double value, String unit,
+                          Double referenceLow, Double referenceHigh, String flag) {
+    }
+}
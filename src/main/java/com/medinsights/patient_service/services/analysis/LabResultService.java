@@ -0,0 +1,209 @@
+package com.medinsights.patient_service.services.analysis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medinsights.patient_service.dto.analysis.LabResultResponse;
+import com.medinsights.patient_service.entities.LabResult;
+import com.medinsights.patient_service.entities.MedicalAnalysis;
+import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.repositories.LabResultRepository;
+import com.medinsights.patient_service.repositories.MedicalAnalysisRepository;
+import com.medinsights.patient_service.repositories.MedicalAnalysisRepository.LabExtractionSourceView;
+import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.services.analysis.LabResultParser.ParsedLabValue;
+import com.medinsights.patient_service.services.batch.ExtractionBackfill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Numeric lab values of analyses as a queryable time series.
+ *
+ * The results of an analysis are parsed (see LabResultParser) into lab_results rows whenever
+ * they are written, in the same transaction. Analyses extracted by an older parser version,
+ * including those predating extraction, are processed by a background backfill.
+ */
+@Service
+@Slf4j
+public class LabResultService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final LabResultRepository labResultRepository;
+    private final MedicalAnalysisRepository medicalAnalysisRepository;
+    private final PatientRepository patientRepository;
+    private final ExtractionBackfill extractionBackfill;
+    private final LabResultParser parser;
+
+    @Value("${medical-analyses.lab-extraction.backfill-enabled:true}")
+    private boolean backfillEnabled;
+
+    @Value("${medical-analyses.lab-extraction.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${medical-analyses.lab-extraction.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    public LabResultService(LabResultRepository labResultRepository, MedicalAnalysisRepository medicalAnalysisRepository,
+                            PatientRepository patientRepository, ExtractionBackfill extractionBackfill,
+                            ObjectMapper objectMapper) {
+        this.labResultRepository = labResultRepository;
+        this.medicalAnalysisRepository = medicalAnalysisRepository;
+        this.patientRepository = patientRepository;
+        this.extractionBackfill = extractionBackfill;
+        this.parser = new LabResultParser(objectMapper);
+    }
+
+    /**
+     * Replace the lab values of an analysis with those parsed from its current results.
+     * Joins the caller's transaction, so the values are committed with the analysis.
+     *
+     * @return Number of values extracted
+     */
+    @Transactional
+    public int extract(MedicalAnalysis analysis) {
+        int extracted = replace(analysis, analysis.getPatient(), analysis.getAnalysisDate(), analysis.getResults());
+        analysis.setLabExtractionVersion(LabResultParser.VERSION);
+        return extracted;
+    }
+
+    /**
+     * Extract the lab values of analyses just inserted in the current transaction: they have none
+     * to delete, and their extraction version is recorded with one statement for all of them
+     *
+     * @return Number of values extracted
+     */
+    @Transactional
+    public int extractNew(List<MedicalAnalysis> analyses) {
+        List<LabResult> rows = new ArrayList<>();
+        for (MedicalAnalysis analysis : analyses) {
+            rows.addAll(toRows(analysis, analysis.getPatient(), analysis.getAnalysisDate(), analysis.getResults()));
+        }
+        labResultRepository.saveAll(rows);
+        medicalAnalysisRepository.markLabExtracted(analyses.stream().map(MedicalAnalysis::getId).toList(), LabResultParser.VERSION);
+        return rows.size();
+    }
+
+    /**
+     * Values of one analyte for a patient, oldest first
+     *
+     * @param analyte Analyte code or name as reported (e.g. "HbA1c", "Glycémie")
+     * @param from    First measurement date (inclusive), unbounded if null
+     * @param to      Last measurement date (inclusive), unbounded if null
+     */
+    @Transactional(readOnly = true)
+    public List<LabResultResponse> getTrend(UUID patientId, String analyte, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        String code = LabResultParser.analyteCode(analyte);
+        if (code.isEmpty()) {
+            throw new BadRequestException("Invalid analyte: " + analyte);
+        }
+        return labResultRepository.findTrend(patientId, code, start, end)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Most recent value of every analyte measured for a patient, by analyte code
+     */
+    @Transactional(readOnly = true)
+    public List<LabResultResponse> getLatest(UUID patientId) {
+        return labResultRepository.findLatestByPatientId(patientId)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Extract the lab values of analyses not yet processed by the current parser version
+     * (see ExtractionBackfill). Only the results column is read, never the full entities.
+     */
+    @Scheduled(cron = "${medical-analyses.lab-extraction.backfill-cron:0 */10 * * * *}")
+    public void backfill() {
+        if (!backfillEnabled) {
+            return;
+        }
+
+        ExtractionBackfill.Result result = extractionBackfill.run("analysis", chunkSize, maxChunksPerRun,
+                (afterId, limit) -> medicalAnalysisRepository.lockPendingLabExtractions(LabResultParser.VERSION, afterId, limit),
+                this::extractPending,
+                ids -> medicalAnalysisRepository.markLabExtracted(ids, LabResultParser.VERSION));
+        if (result.records() > 0) {
+            log.info("Extracted {} lab values from {} analyses", result.rows(), result.records());
+        }
+    }
+
+    private int extractPending(List<UUID> ids) {
+        int values = 0;
+        for (LabExtractionSourceView source : medicalAnalysisRepository.findLabExtractionSources(ids)) {
+            values += replace(medicalAnalysisRepository.getReferenceById(source.getId()),
+                    patientRepository.getReferenceById(source.getPatientId()),
+                    source.getAnalysisDate(), source.getResults());
+        }
+        return values;
+    }
+
+    private int replace(MedicalAnalysis analysis, Patient patient, LocalDate measuredOn, String results) {
+        labResultRepository.deleteByAnalysisId(analysis.getId());
+        List<LabResult> rows = toRows(analysis, patient, measuredOn, results);
+        labResultRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    private List<LabResult> toRows(MedicalAnalysis analysis, Patient patient, LocalDate measuredOn, String results) {
+        List<ParsedLabValue> parsed;
+        try {
+            parsed = parser.parse(results);
+        } catch (RuntimeException ex) {
+            // Unreadable results must not prevent the analysis from being stored
+            log.warn("Could not extract lab values of analysis {}", analysis.getId(), ex);
+            parsed = List.of();
+        }
+
+        return parsed.stream()
+                .map(value -> {
+                    LabResult row = new LabResult();
+                    row.setAnalysis(analysis);
+                    row.setPatient(patient);
+                    row.setAnalyte(value.analyte());
+                    row.setAnalyteName(value.name());
+                    row.setValue(value.value());
+                    row.setUnit(value.unit());
+                    row.setReferenceLow(value.referenceLow());
+                    row.setReferenceHigh(value.referenceHigh());
+                    row.setFlag(value.flag());
+                    row.setMeasuredOn(measuredOn);
+                    return row;
+                })
+                .toList();
+    }
+
+    private LabResultResponse toResponse(LabResult result) {
+        return new LabResultResponse(
+                result.getId(),
+                result.getAnalysis().getId(),
+                result.getAnalyte(),
+                result.getAnalyteName(),
+                result.getValue(),
+                result.getUnit(),
+                result.getReferenceLow(),
+                result.getReferenceHigh(),
+                result.getFlag(),
+                result.getMeasuredOn()
+        );
+    }
+}
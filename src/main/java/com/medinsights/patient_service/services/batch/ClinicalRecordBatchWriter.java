@@ -0,0 +1,154 @@
+package com.medinsights.patient_service.services.batch;
+
+import com.medinsights.patient_service.dto.BatchCreateResultDTO;
+import com.medinsights.patient_service.dto.BatchCreateResultDTO.CreatedItem;
+import com.medinsights.patient_service.dto.BatchCreateResultDTO.FailedItem;
+import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.repositories.PatientRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many patient records from one request, reporting per-item failures instead of
+ * rejecting the whole batch.
+ *
+ * Items are validated first, then all referenced patients are loaded with a single IN query, which
+ * also gives their owners: items for patients of other users fail like items for unknown patients.
+ * The valid items are persisted in chunks, one transaction each, so Hibernate sends them as JDBC
+ * batches (hibernate.jdbc.batch_size). If a chunk fails, its items are retried one per
+ * transaction to isolate the ones at fault.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClinicalRecordBatchWriter {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_ERROR_LENGTH = 300;
+
+    private final PatientRepository patientRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${clinical-records.batch.chunk-size:200}")
+    private int chunkSize;
+
+    /**
+     * Create one record per request; must not be called inside a transaction
+     *
+     * @param requests  items to create
+     * @param userId    user creating the records, who must own their patients
+     * @param patientId patient referenced by an item
+     * @param toEntity  builds the (unsaved) entity of an item for its patient
+     * @param persist   saves entities in the current transaction, returning their ids in order
+     */
+    public <R, E> BatchCreateResultDTO createAll(List<R> requests, UUID userId, Function<R, UUID> patientId,
+                                                 BiFunction<R, Patient, E> toEntity,
+                                                 Function<List<E>, List<UUID>> persist) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one item is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("At most " + MAX_BATCH_SIZE + " items can be created at once");
+        }
+
+        List<FailedItem> failed = new ArrayList<>();
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error != null) {
+                failed.add(new FailedItem(i, error));
+            } else {
+                valid.add(i);
+            }
+        }
+
+        Set<UUID> patientIds = valid.stream().map(i -> patientId.apply(requests.get(i))).collect(Collectors.toSet());
+        Map<UUID, Patient> patients = patientRepository.findAllById(patientIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        List<Pending<R>> pending = new ArrayList<>(valid.size());
+        for (int i : valid) {
+            UUID id = patientId.apply(requests.get(i));
+            Patient patient = patients.get(id);
+            if (patient == null) {
+                failed.add(new FailedItem(i, "Patient not found with id: " + id));
+            } else if (!userId.equals(patient.getCreatedBy())) {
+                failed.add(new FailedItem(i, "You are not authorized to access patient " + id));
+            } else {
+                pending.add(new Pending<>(i, requests.get(i), patient));
+            }
+        }
+
+        List<CreatedItem> created = new ArrayList<>(pending.size());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Pending<R>> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            try {
+                created.addAll(persistChunk(chunk, toEntity, persist));
+            } catch (RuntimeException ex) {
+                log.warn("Batch chunk of {} items failed, retrying them one by one: {}", chunk.size(), errorMessage(ex));
+                for (Pending<R> item : chunk) {
+                    try {
+                        created.addAll(persistChunk(List.of(item), toEntity, persist));
+                    } catch (RuntimeException itemEx) {
+                        failed.add(new FailedItem(item.index(), errorMessage(itemEx)));
+                    }
+                }
+            }
+        }
+
+        failed.sort(Comparator.comparingInt(FailedItem::index));
+        return new BatchCreateResultDTO(requests.size(), created, failed);
+    }
+
+    private <R, E> List<CreatedItem> persistChunk(List<Pending<R>> chunk, BiFunction<R, Patient, E> toEntity,
+                                                  Function<List<E>, List<UUID>> persist) {
+        List<UUID> ids = transactionTemplate.execute(status -> persist.apply(
+                chunk.stream().map(item -> toEntity.apply(item.request(), item.patient())).toList()));
+        List<CreatedItem> created = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            created.add(new CreatedItem(chunk.get(i).index(), ids.get(i)));
+        }
+        return created;
+    }
+
+    private String validate(Object request) {
+        if (request == null) {
+            return "Item is null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String errorMessage(RuntimeException ex) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(ex);
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private record Pending<R>(int index, R request, Patient patient) {
+    }
+}
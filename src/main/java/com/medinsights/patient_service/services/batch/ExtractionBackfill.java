@@ -0,0 +1,85 @@
+package com.medinsights.patient_service.services.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Extracts derived rows (lab values, cardiovascular measurements...) of records not yet processed
+ * by the current extractor version, in the background.
+ *
+ * Pending records are walked in id order, one chunk per transaction. A chunk's ids are locked with
+ * SKIP LOCKED, so replicas running the job concurrently split the work instead of repeating it;
+ * their rows are then extracted and the records marked with the current version. Pending records
+ * are read from a partial index holding only them, so a run with nothing to do costs one probe of
+ * an empty index: runs keep probing rather than stopping for good, as replicas still running an
+ * older version keep writing unextracted records during a rolling deploy.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExtractionBackfill {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Run one backfill pass of at most maxChunks chunks; must not be called inside a transaction
+     *
+     * @param name          records processed, for logs (e.g. "analysis")
+     * @param lockPending   locks and returns the ids of up to chunkSize pending records after an id, in id order
+     * @param extract       extracts the rows of the given records, returning the number of rows written
+     * @param markExtracted records the current extractor version on the given records
+     */
+    public Result run(String name, int chunkSize, int maxChunks,
+                      BiFunction<UUID, Integer, List<UUID>> lockPending,
+                      ToIntFunction<List<UUID>> extract,
+                      Consumer<List<UUID>> markExtracted) {
+        UUID after = FIRST_ID;
+        int records = 0;
+        int rows = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            UUID afterId = after;
+            Chunk result;
+            try {
+                result = transactionTemplate.execute(status -> {
+                    List<UUID> ids = lockPending.apply(afterId, chunkSize);
+                    if (ids.isEmpty()) {
+                        return null;
+                    }
+                    int written = extract.applyAsInt(ids);
+                    markExtracted.accept(ids);
+                    return new Chunk(ids.get(ids.size() - 1), ids.size(), written);
+                });
+            } catch (RuntimeException ex) {
+                log.error("Extraction backfill failed after {} {}", name, afterId, ex);
+                break;
+            }
+            if (result == null) {
+                break;
+            }
+            records += result.records();
+            rows += result.rows();
+            after = result.lastId();
+        }
+        return new Result(records, rows);
+    }
+
+    /**
+     * @param records records extracted by the pass
+     * @param rows    rows written for them
+     */
+    public record Result(int records, int rows) {
+    }
+
+    private record Chunk(UUID lastId, int records, int rows) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.medinsights.patient_service.services.cardiovascular;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts typed cardiovascular measurements from the free-form {@code measuredValues} of an exam.
+ *
+ * JSON is read as objects mapping metric names to values ({"FEVG": "35 %", "QTc": 452}), possibly
+ * nested, or as arrays of {"name", "value", "unit"} objects. Anything else is scanned as text for
+ * "name value unit" sequences ("FC 72 bpm, QTc = 0,45 s"), where the name is one to four words
+ * directly before the number. Values are converted to the metric's canonical unit: seconds to
+ * milliseconds, ejection fractions given as a ratio to percent. The first value of a metric wins.
+ */
+final class CardiovascularMeasurementParser {
+
+    /**
+     * Bumped whenever parsing changes, so the backfill job re-extracts older exams.
+     * The predicate of idx_cardiovascular_exams_measurement_extraction_pending must be bumped with it.
+     */
+    static final short VERSION = 1;
+
+    private static final int MAX_NAME_WORDS = 4;
+    private static final Set<String> CONNECTORS = Set.of("A", "DE", "EST", "IS", "OF", "AT", "ESTIMEE", "MESUREE", "ENVIRON");
+
+    private static final List<String> NAME_KEYS = List.of("name", "metric", "parameter", "label", "mesure", "parametre", "nom");
+    private static final List<String> VALUE_KEYS = List.of("value", "valeur", "result", "resultat");
+    private static final List<String> UNIT_KEYS = List.of("unit", "units", "unite");
+
+    private static final String NUMBER = "\\d+(?:[.,]\\d+)?";
+    private static final String UNIT = "%|ms|msec|s|sec|bpm|b/min|/min|cpm";
+    private static final Pattern TEXT = Pattern.compile(
+            "(?<![\\p{L}\\p{N}])(?<name>\\p{L}[\\p{L}\\p{N}]*(?:[ '’\\-]\\p{L}[\\p{L}\\p{N}]*){0," + (MAX_NAME_WORDS - 1) + "})"
+                    + "\\s*(?:\\([^)]{0,20}\\))?\\s*[:=]?\\s*[<>≤≥~≈]?\\s*(?<value>" + NUMBER + ")"
+                    + "\\s*(?<unit>" + UNIT + ")?(?![\\p{L}\\p{N}/])",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern VALUE_WITH_UNIT = Pattern.compile(
+            "^\\s*[<>≤≥~≈]?\\s*(?<value>" + NUMBER + ")\\s*(?<unit>\\S.*)?$");
+
+    private final ObjectMapper objectMapper;
+
+    CardiovascularMeasurementParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Measurements found in an exam's measured values, in canonical units; empty when none are recognised
+     */
+    Map<CardiovascularMetric, Double> parse(String measuredValues) {
+        Map<CardiovascularMetric, Double> values = new EnumMap<>(CardiovascularMetric.class);
+        if (measuredValues == null || measuredValues.isBlank()) {
+            return values;
+        }
+        String trimmed = measuredValues.strip();
+        if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+            try {
+                readJson(null, objectMapper.readTree(trimmed), values);
+                return values;
+            } catch (JsonProcessingException ex) {
+                // Not actually JSON: fall back to text
+            }
+        }
+        readText(trimmed, values);
+        return values;
+    }
+
+    private void readJson(String name, JsonNode node, Map<CardiovascularMetric, Double> values) {
+        if (node.isArray()) {
+            node.forEach(element -> readJson(name, element, values));
+        } else if (node.isObject()) {
+            JsonNode value = field(node, VALUE_KEYS);
+            JsonNode nameNode = field(node, NAME_KEYS);
+            String metricName = nameNode != null && nameNode.isTextual() ? nameNode.asText() : name;
+            if (value != null && metricName != null) {
+                JsonNode unit = field(node, UNIT_KEYS);
+                readValue(metricName, value, unit != null ? unit.asText() : null, values);
+                return;
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> entry = fields.next();
+                readJson(entry.getKey(), entry.getValue(), values);
+            }
+        } else if (name != null) {
+            readValue(name, node, null, values);
+        }
+    }
+
+    private void readValue(String name, JsonNode node, String unit, Map<CardiovascularMetric, Double> values) {
+        Optional<CardiovascularMetric> metric = CardiovascularMetric.fromName(name);
+        if (metric.isEmpty()) {
+            return;
+        }
+        if (node.isNumber()) {
+            add(values, metric.get(), node.asDouble(), unit);
+        } else if (node.isTextual()) {
+            Matcher matcher = VALUE_WITH_UNIT.matcher(node.asText());
+            if (matcher.matches()) {
+                add(values, metric.get(), number(matcher.group("value")), unit != null ? unit : matcher.group("unit"));
+            }
+        }
+    }
+
+    private void readText(String text, Map<CardiovascularMetric, Double> values) {
+        Matcher matcher = TEXT.matcher(text);
+        while (matcher.find()) {
+            metric(matcher.group("name")).ifPresent(metric ->
+                    add(values, metric, number(matcher.group("value")), matcher.group("unit")));
+        }
+    }
+
+    /**
+     * Metric named by the last words of a name, longest match first, ignoring trailing connectors:
+     * "rythme sinusal FC" and "FEVG estimée à" give HEART_RATE and LVEF
+     */
+    private static Optional<CardiovascularMetric> metric(String name) {
+        List<String> words = List.of(name.strip().split("[ '’\\-]+"));
+        int end = words.size();
+        while (end > 0 && CONNECTORS.contains(CardiovascularMetric.normalizeKey(words.get(end - 1)))) {
+            end--;
+        }
+        for (int count = end; count > 0; count--) {
+            Optional<CardiovascularMetric> metric = CardiovascularMetric.fromName(
+                    String.join(" ", words.subList(end - count, end)));
+            if (metric.isPresent()) {
+                return metric;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void add(Map<CardiovascularMetric, Double> values, CardiovascularMetric metric, Double value, String unit) {
+        if (value == null || values.containsKey(metric)) {
+            return;
+        }
+        double canonical = canonical(metric, value, unit == null ? "" : unit.strip().toLowerCase(Locale.ROOT));
+        if (metric.isPlausible(canonical)) {
+            values.put(metric, canonical);
+        }
+    }
+
+    private static double canonical(CardiovascularMetric metric, double value, String unit) {
+        if (metric.isInterval() && (unit.equals("s") || unit.equals("sec") || (unit.isEmpty() && value < 2))) {
+            return value * 1000;
+        }
+        if (metric == CardiovascularMetric.LVEF && !unit.equals("%") && value <= 1) {
+            return value * 100;
+        }
+        return value;
+    }
+
+    private static JsonNode field(JsonNode object, List<String> keys) {
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            String key = CardiovascularMetric.normalizeKey(entry.getKey()).toLowerCase(Locale.ROOT);
+            if (keys.contains(key) && !entry.getValue().isNull()) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Double number(String text) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(text.replace(',', '.'));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.medinsights.patient_service.services.cardiovascular;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medinsights.patient_service.dto.cardiovascular.CardiovascularMeasurementResponse;
+import com.medinsights.patient_service.entities.CardiovascularExam;
+import com.medinsights.patient_service.entities.CardiovascularMeasurement;
+import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.repositories.CardiovascularExamRepository;
+import com.medinsights.patient_service.repositories.CardiovascularExamRepository.MeasurementExtractionSourceView;
+import com.medinsights.patient_service.repositories.CardiovascularMeasurementRepository;
+import com.medinsights.patient_service.repositories.CardiovascularMeasurementRepository.MeasurementValueView;
+import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.services.batch.ExtractionBackfill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cardiovascular exam measurements (LVEF, QTc, PR, QRS, heart rate...) as typed, queryable values.
+ *
+ * The measured values of an exam are parsed (see CardiovascularMeasurementParser) into
+ * cardiovascular_measurements rows whenever they are written, in the same transaction. Exams
+ * extracted by an older parser version, including those predating extraction, are processed by a
+ * background backfill.
+ */
+@Service
+@Slf4j
+public class CardiovascularMeasurementService {
+
+    public static final int MAX_RANGE_RESULTS = 1000;
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final CardiovascularMeasurementRepository measurementRepository;
+    private final CardiovascularExamRepository examRepository;
+    private final PatientRepository patientRepository;
+    private final ExtractionBackfill extractionBackfill;
+    private final CardiovascularMeasurementParser parser;
+
+    @Value("${cardiovascular-exams.measurement-extraction.backfill-enabled:true}")
+    private boolean backfillEnabled;
+
+    @Value("${cardiovascular-exams.measurement-extraction.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${cardiovascular-exams.measurement-extraction.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    public CardiovascularMeasurementService(CardiovascularMeasurementRepository measurementRepository,
+                                            CardiovascularExamRepository examRepository,
+                                            PatientRepository patientRepository,
+                                            ExtractionBackfill extractionBackfill,
+                                            ObjectMapper objectMapper) {
+        this.measurementRepository = measurementRepository;
+        this.examRepository = examRepository;
+        this.patientRepository = patientRepository;
+        this.extractionBackfill = extractionBackfill;
+        this.parser = new CardiovascularMeasurementParser(objectMapper);
+    }
+
+    /**
+     * Replace the measurements of an exam with those parsed from its current measured values and date.
+     * Joins the caller's transaction, so the measurements are committed with the exam.
+     *
+     * @return Number of measurements extracted
+     */
+    @Transactional
+    public int extract(CardiovascularExam exam) {
+        measurementRepository.deleteByExamId(exam.getId());
+        List<CardiovascularMeasurement> rows = toRows(exam, exam.getPatient(), exam.getExamDate(), exam.getMeasuredValues());
+        measurementRepository.saveAll(rows);
+        exam.setMeasurementExtractionVersion(CardiovascularMeasurementParser.VERSION);
+        return rows.size();
+    }
+
+    /**
+     * Extract the measurements of exams just inserted in the current transaction: they have none
+     * to delete, and their extraction version is recorded with one statement for all of them
+     *
+     * @return Number of measurements extracted
+     */
+    @Transactional
+    public int extractNew(List<CardiovascularExam> exams) {
+        List<CardiovascularMeasurement> rows = new ArrayList<>();
+        for (CardiovascularExam exam : exams) {
+            rows.addAll(toRows(exam, exam.getPatient(), exam.getExamDate(), exam.getMeasuredValues()));
+        }
+        measurementRepository.saveAll(rows);
+        examRepository.markMeasurementsExtracted(exams.stream().map(CardiovascularExam::getId).toList(),
+                CardiovascularMeasurementParser.VERSION);
+        return rows.size();
+    }
+
+    /**
+     * Values of one metric for a patient, oldest first
+     *
+     * @param from First exam date (inclusive), unbounded if null
+     * @param to   Last exam date (inclusive), unbounded if null
+     */
+    @Transactional(readOnly = true)
+    public List<CardiovascularMeasurementResponse> getTrend(UUID patientId, String metric,
+                                                            LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LATEST;
+        checkOrder(start, end);
+        return measurementRepository.findTrend(patientId, metric(metric).name(), start, end)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Most recent value of every metric measured for a patient
+     */
+    @Transactional(readOnly = true)
+    public List<CardiovascularMeasurementResponse> getLatest(UUID patientId) {
+        return measurementRepository.findLatestByPatientId(patientId)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Values of one metric within a range, across the patients of a user, lowest first (e.g. LVEF below 40%)
+     *
+     * @param min   Lowest value (inclusive) in the metric's unit, unbounded if null
+     * @param max   Highest value (inclusive) in the metric's unit, unbounded if null
+     * @param from  First exam date (inclusive), unbounded if null
+     * @param to    Last exam date (inclusive), unbounded if null
+     * @param limit Maximum number of values returned, at most MAX_RANGE_RESULTS
+     * @param ownerId User whose patients are searched
+     */
+    @Transactional(readOnly = true)
+    public List<CardiovascularMeasurementResponse> findInRange(String metric, Double min, Double max,
+                                                               LocalDateTime from, LocalDateTime to, int limit,
+                                                               UUID ownerId) {
+        if (min == null && max == null) {
+            throw new BadRequestException("At least one of min and max is required");
+        }
+        double low = min != null ? min : -Double.MAX_VALUE;
+        double high = max != null ? max : Double.MAX_VALUE;
+        if (low > high) {
+            throw new BadRequestException("min must not be greater than max");
+        }
+        if (limit < 1 || limit > MAX_RANGE_RESULTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_RANGE_RESULTS);
+        }
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LATEST;
+        checkOrder(start, end);
+        return measurementRepository.findInRange(metric(metric).name(), low, high, start, end, ownerId, limit)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Extract the measurements of exams not yet processed by the current parser version
+     * (see ExtractionBackfill). Only the measured values column is read, never the full entities.
+     */
+    @Scheduled(cron = "${cardiovascular-exams.measurement-extraction.backfill-cron:0 5/10 * * * *}")
+    public void backfill() {
+        if (!backfillEnabled) {
+            return;
+        }
+
+        ExtractionBackfill.Result result = extractionBackfill.run("exam", chunkSize, maxChunksPerRun,
+                (afterId, limit) -> examRepository.lockPendingMeasurementExtractions(
+                        CardiovascularMeasurementParser.VERSION, afterId, limit),
+                this::extractPending,
+                ids -> examRepository.markMeasurementsExtracted(ids, CardiovascularMeasurementParser.VERSION));
+        if (result.records() > 0) {
+            log.info("Extracted {} cardiovascular measurements from {} exams", result.rows(), result.records());
+        }
+    }
+
+    private int extractPending(List<UUID> ids) {
+        List<CardiovascularMeasurement> rows = new ArrayList<>();
+        for (MeasurementExtractionSourceView source : examRepository.findMeasurementExtractionSources(ids)) {
+            measurementRepository.deleteByExamId(source.getId());
+            rows.addAll(toRows(examRepository.getReferenceById(source.getId()),
+                    patientRepository.getReferenceById(source.getPatientId()),
+                    source.getExamDate(), source.getMeasuredValues()));
+        }
+        measurementRepository.saveAll(rows);
+        return rows.size();
+    }
+
+    private List<CardiovascularMeasurement> toRows(CardiovascularExam exam, Patient patient,
+                                                   LocalDateTime measuredAt, String measuredValues) {
+        Map<CardiovascularMetric, Double> parsed;
+        try {
+            parsed = parser.parse(measuredValues);
+        } catch (RuntimeException ex) {
+            // Unreadable measured values must not prevent the exam from being stored
+            log.warn("Could not extract measurements of cardiovascular exam {}", exam.getId(), ex);
+            parsed = Map.of();
+        }
+
+        return parsed.entrySet().stream()
+                .map(entry -> {
+                    CardiovascularMeasurement row = new CardiovascularMeasurement();
+                    row.setExam(exam);
+                    row.setPatient(patient);
+                    row.setMetric(entry.getKey().name());
+                    row.setValue(entry.getValue());
+                    row.setMeasuredAt(measuredAt);
+                    return row;
+                })
+                .toList();
+    }
+
+    private static CardiovascularMetric metric(String name) {
+        return CardiovascularMetric.fromName(name)
+                .orElseThrow(() -> new BadRequestException("Unknown cardiovascular metric: " + name));
+    }
+
+    private static void checkOrder(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
+    }
+
+    private CardiovascularMeasurementResponse toResponse(CardiovascularMeasurement measurement) {
+        CardiovascularMetric metric = CardiovascularMetric.valueOf(measurement.getMetric());
+        return new CardiovascularMeasurementResponse(
+                measurement.getId(),
+                measurement.getExam().getId(),
+                measurement.getPatient().getId(),
+                metric.name(),
+                measurement.getValue(),
+                metric.getUnit(),
+                measurement.getMeasuredAt()
+        );
+    }
+
+    private CardiovascularMeasurementResponse toResponse(MeasurementValueView measurement) {
+        CardiovascularMetric metric = CardiovascularMetric.valueOf(measurement.getMetric());
+        return new CardiovascularMeasurementResponse(
+                measurement.getId(),
+                measurement.getExamId(),
+                measurement.getPatientId(),
+                metric.name(),
+                measurement.getValue(),
+                metric.getUnit(),
+                measurement.getMeasuredAt()
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package com.medinsights.patient_service.services.cardiovascular;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cardiovascular measurements stored as typed values, each in a single canonical unit.
+ *
+ * Names are matched after removing accents, case and punctuation, so "FEVG", "Fraction d'éjection"
+ * and "LVEF (Simpson)" all resolve to LVEF. Values outside the plausible range are treated as
+ * parsing noise rather than stored.
+ */
+public enum CardiovascularMetric {
+
+    LVEF("Left ventricular ejection fraction", "%", 5, 95,
+            "LVEF", "EF", "FE", "FEVG", "EJECTIONFRACTION", "FRACTIONDEJECTION", "LVEFSIMPSON", "FEVGSIMPSON", "FRACTIONEJECTION"),
+    QT("QT interval", "ms", 200, 700,
+            "QT", "QTINTERVAL", "INTERVALLEQT"),
+    QTC("Corrected QT interval", "ms", 250, 750,
+            "QTC", "QTCB", "QTCF", "QTCORRIGE", "CORRECTEDQT", "QTCINTERVAL"),
+    PR("PR interval", "ms", 60, 600,
+            "PR", "PQ", "PRINTERVAL", "INTERVALLEPR", "PQINTERVAL"),
+    QRS("QRS duration", "ms", 40, 300,
+            "QRS", "QRSDURATION", "DUREEQRS", "DUREEDUQRS", "LARGEURQRS"),
+    HEART_RATE("Heart rate", "bpm", 15, 350,
+            "HR", "HEARTRATE", "FC", "FREQUENCECARDIAQUE", "VENTRICULARRATE", "RATE", "PULSE");
+
+    private static final Map<String, CardiovascularMetric> BY_KEY = new HashMap<>();
+
+    static {
+        for (CardiovascularMetric metric : values()) {
+            BY_KEY.put(metric.name().replace("_", ""), metric);
+            metric.synonyms.forEach(key -> BY_KEY.put(key, metric));
+        }
+    }
+
+    private final String label;
+    private final String unit;
+    private final double plausibleMin;
+    private final double plausibleMax;
+    private final List<String> synonyms;
+
+    CardiovascularMetric(String label, String unit, double plausibleMin, double plausibleMax, String... synonyms) {
+        this.label = label;
+        this.unit = unit;
+        this.plausibleMin = plausibleMin;
+        this.plausibleMax = plausibleMax;
+        this.synonyms = List.of(synonyms);
+    }
+
+    /**
+     * Metric reported under the given name, e.g. "QTc", "Fréquence cardiaque" or "HEART_RATE"
+     */
+    public static Optional<CardiovascularMetric> fromName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(BY_KEY.get(normalizeKey(name)));
+    }
+
+    static String normalizeKey(String name) {
+        String ascii = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return ascii.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+    }
+
+    /**
+     * Whether the unit is milliseconds (intervals and durations)
+     */
+    boolean isInterval() {
+        return unit.equals("ms");
+    }
+
+    boolean isPlausible(double value) {
+        return value >= plausibleMin && value <= plausibleMax;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,22 @@
+package com.medinsights.patient_service.services.cardiovascular;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * ECG waveform store settings bound from {@code cardiovascular-exams.waveforms.*}
+ *
+ * @param root     directory holding one file per exam; must be shared by all replicas
+ * @param maxSize  largest accepted upload (a 24 h 12-lead Holter at 500 Hz is about 1 GB)
+ * @param maxWidth largest pixel budget a read may ask for
+ */
+@ConfigurationProperties(prefix = "cardiovascular-exams.waveforms")
+public record EcgWaveformProperties(
+        @DefaultValue("./data/waveforms") Path root,
+        @DefaultValue("2GB") DataSize maxSize,
+        @DefaultValue("10000") int maxWidth
+) {
+}
@@ -0,0 +1,392 @@
+package com.medinsights.patient_service.services.cardiovascular;
+
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformInfo;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformSlice;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformSlice.LeadTrace;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * File-backed store of raw ECG traces, one file per cardiovascular exam.
+ *
+ * A file is a fixed {@value #HEADER_SIZE}-byte header (lead names, sample rate, gain, length)
+ * followed by little-endian int16 samples stored lead after lead, so any lead and time window is
+ * one contiguous region. Uploads arrive interleaved (one sample of every lead per frame, as
+ * recorders write them) and are transposed through fixed buffers into a temporary file that then
+ * replaces the exam's file atomically. Reads memory-map only the requested region of each lead:
+ * the page cache, not the heap, holds the recording, and a min/max envelope per pixel column keeps
+ * responses proportional to the viewer's width whatever the window's length.
+ */
+@Service
+@Slf4j
+public class EcgWaveformStore {
+
+    public static final int MAX_LEADS = 16;
+    static final int HEADER_SIZE = 256;
+
+    private static final int MAGIC = 0x31474345; // "ECG1"
+    private static final short FORMAT_VERSION = 1;
+    private static final int LEAD_NAME_BYTES = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FRAMES_PER_CHUNK = 32 * 1024;
+    private static final double MAX_SAMPLE_RATE = 20_000;
+
+    private final EcgWaveformProperties properties;
+    private final Path root;
+    private final Path uploads;
+
+    public EcgWaveformStore(EcgWaveformProperties properties) {
+        this.properties = properties;
+        this.root = properties.root().toAbsolutePath().normalize();
+        this.uploads = root.resolve("tmp");
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Same file system as the waveforms, so completed uploads are moved with an atomic rename
+        Files.createDirectories(uploads);
+        log.info("ECG waveform store at {}", root);
+    }
+
+    /**
+     * Store the waveform of an exam, replacing any previous one
+     *
+     * @param content           interleaved little-endian int16 samples, read to the end but not closed
+     * @param leads             lead names, in the order of the samples within a frame
+     * @param sampleRate        samples per second and lead
+     * @param microvoltsPerUnit amplitude of one sample unit
+     */
+    public EcgWaveformInfo store(UUID examId, InputStream content, List<String> leads,
+                                 double sampleRate, double microvoltsPerUnit) {
+        checkLeads(leads);
+        if (!(sampleRate > 0 && sampleRate <= MAX_SAMPLE_RATE)) {
+            throw new BadRequestException("sampleRate must be between 0 and " + (int) MAX_SAMPLE_RATE + " Hz");
+        }
+        if (!(microvoltsPerUnit > 0 && microvoltsPerUnit <= 1000)) {
+            throw new BadRequestException("microvoltsPerUnit must be between 0 and 1000");
+        }
+
+        Path interleaved = null;
+        Path output = null;
+        try {
+            interleaved = Files.createTempFile(uploads, "upload-", ".part");
+            long size = copy(content, interleaved);
+            int frameBytes = Short.BYTES * leads.size();
+            if (size == 0 || size % frameBytes != 0) {
+                throw new BadRequestException("Waveform must contain whole frames of " + leads.size()
+                        + " int16 samples (" + frameBytes + " bytes), got " + size + " bytes");
+            }
+            Header header = new Header(List.copyOf(leads), sampleRate, microvoltsPerUnit, size / frameBytes);
+
+            output = Files.createTempFile(uploads, "waveform-", ".part");
+            try (FileChannel in = FileChannel.open(interleaved, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE)) {
+                writeFully(out, header.encode(), 0);
+                transpose(in, out, header);
+                out.force(true);
+            }
+            Path target = path(examId);
+            Files.createDirectories(target.getParent());
+            Files.move(output, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Stored ECG waveform of exam {}: {} leads, {} samples at {} Hz", examId, leads.size(),
+                    header.samples(), sampleRate);
+            return info(examId, header);
+        } catch (IOException ex) {
+            log.error("Failed to store ECG waveform of exam {}", examId, ex);
+            throw new ServiceUnavailableException("Waveform storage is unavailable");
+        } finally {
+            deleteQuietly(interleaved);
+            deleteQuietly(output);
+        }
+    }
+
+    /**
+     * Description of the waveform stored for an exam
+     */
+    public EcgWaveformInfo info(UUID examId) {
+        try (FileChannel channel = open(examId)) {
+            return info(examId, readHeader(examId, channel));
+        } catch (IOException ex) {
+            log.error("Failed to read ECG waveform of exam {}", examId, ex);
+            throw new ServiceUnavailableException("Waveform storage is unavailable");
+        }
+    }
+
+    /**
+     * A window of some leads, raw when it has no more than two samples per pixel column,
+     * otherwise as the min and max of the samples falling in each column
+     *
+     * @param leads       lead names to return, all leads if null or empty
+     * @param fromSeconds start of the window from the start of the recording, 0 if null
+     * @param toSeconds   end of the window, end of the recording if null
+     * @param width       pixel budget: an envelope has one min/max pair per column
+     */
+    public EcgWaveformSlice read(UUID examId, List<String> leads, Double fromSeconds, Double toSeconds, int width) {
+        if (width < 1 || width > properties.maxWidth()) {
+            throw new BadRequestException("width must be between 1 and " + properties.maxWidth());
+        }
+        try (FileChannel channel = open(examId)) {
+            Header header = readHeader(examId, channel);
+            List<Integer> selected = selectLeads(header, leads);
+            long from = fromSeconds != null ? Math.max(0, (long) Math.floor(fromSeconds * header.sampleRate())) : 0;
+            long to = toSeconds != null ? Math.min(header.samples(), (long) Math.ceil(toSeconds * header.sampleRate())) : header.samples();
+            if (from >= to) {
+                throw new BadRequestException("Empty window: recording has " + header.samples() + " samples per lead");
+            }
+            long length = to - from;
+            if (length * Short.BYTES > Integer.MAX_VALUE) {
+                throw new BadRequestException("Window is too long, read it in parts");
+            }
+
+            boolean envelope = length > 2L * width;
+            int points = envelope ? width : (int) length;
+            List<LeadTrace> traces = new ArrayList<>(selected.size());
+            for (int lead : selected) {
+                ShortBuffer samples = channel
+                        .map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (lead * header.samples() + from) * Short.BYTES, length * Short.BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asShortBuffer();
+                traces.add(envelope ? envelope(header.leads().get(lead), samples, width) : raw(header.leads().get(lead), samples));
+            }
+            return new EcgWaveformSlice(examId, header.sampleRate(), header.microvoltsPerUnit(), from, to, envelope, points, traces);
+        } catch (IOException ex) {
+            log.error("Failed to read ECG waveform of exam {}", examId, ex);
+            throw new ServiceUnavailableException("Waveform storage is unavailable");
+        }
+    }
+
+    /**
+     * Remove the waveform of an exam, if any
+     */
+    public void delete(UUID examId) {
+        try {
+            Files.deleteIfExists(path(examId));
+        } catch (IOException ex) {
+            log.warn("Could not delete ECG waveform of exam {}", examId, ex);
+        }
+    }
+
+    private static LeadTrace raw(String lead, ShortBuffer samples) {
+        short[] values = new short[samples.remaining()];
+        samples.get(values);
+        return new LeadTrace(lead, values, null, null);
+    }
+
+    /**
+     * Min and max of each of {@code width} equal slices of the samples, so peaks survive downsampling
+     */
+    private static LeadTrace envelope(String lead, ShortBuffer samples, int width) {
+        long length = samples.remaining();
+        short[] min = new short[width];
+        short[] max = new short[width];
+        int start = 0;
+        for (int column = 0; column < width; column++) {
+            int end = (int) ((column + 1) * length / width);
+            short low = Short.MAX_VALUE;
+            short high = Short.MIN_VALUE;
+            for (int i = start; i < end; i++) {
+                short value = samples.get(i);
+                if (value < low) low = value;
+                if (value > high) high = value;
+            }
+            min[column] = low;
+            max[column] = high;
+            start = end;
+        }
+        return new LeadTrace(lead, null, min, max);
+    }
+
+    /**
+     * Rewrite frame-interleaved samples lead after lead, one chunk of frames at a time
+     */
+    private static void transpose(FileChannel in, FileChannel out, Header header) throws IOException {
+        int leadCount = header.leads().size();
+        ByteBuffer frames = ByteBuffer.allocateDirect(FRAMES_PER_CHUNK * leadCount * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer lead = ByteBuffer.allocateDirect(FRAMES_PER_CHUNK * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long first = 0; first < header.samples(); first += FRAMES_PER_CHUNK) {
+            int count = (int) Math.min(FRAMES_PER_CHUNK, header.samples() - first);
+            frames.clear().limit(count * leadCount * Short.BYTES);
+            long position = first * leadCount * Short.BYTES;
+            while (frames.hasRemaining()) {
+                if (in.read(frames, position + frames.position()) < 0) {
+                    throw new IOException("Waveform upload is shorter than its size");
+                }
+            }
+            ShortBuffer samples = frames.flip().asShortBuffer();
+            for (int l = 0; l < leadCount; l++) {
+                lead.clear();
+                for (int frame = 0; frame < count; frame++) {
+                    lead.putShort(samples.get(frame * leadCount + l));
+                }
+                writeFully(out, lead.flip(), HEADER_SIZE + (l * header.samples() + first) * Short.BYTES);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += out.write(buffer, offset);
+        }
+    }
+
+    private long copy(InputStream content, Path file) throws IOException {
+        long maxSize = properties.maxSize().toBytes();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new BadRequestException("Waveform exceeds the maximum size of " + properties.maxSize());
+                }
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+            }
+        }
+        return size;
+    }
+
+    private FileChannel open(UUID examId) throws IOException {
+        try {
+            return FileChannel.open(path(examId), StandardOpenOption.READ);
+        } catch (NoSuchFileException ex) {
+            throw new ResourceNotFoundException("No waveform stored for cardiovascular exam: " + examId);
+        }
+    }
+
+    private static Header readHeader(UUID examId, FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Truncated waveform header for exam " + examId);
+            }
+        }
+        Header header = Header.decode(buffer.flip());
+        if (channel.size() != HEADER_SIZE + header.leads().size() * header.samples() * Short.BYTES) {
+            throw new IOException("Waveform of exam " + examId + " does not match its header");
+        }
+        return header;
+    }
+
+    private static List<Integer> selectLeads(Header header, List<String> leads) {
+        List<Integer> selected = new ArrayList<>();
+        if (leads == null || leads.isEmpty()) {
+            for (int i = 0; i < header.leads().size(); i++) {
+                selected.add(i);
+            }
+            return selected;
+        }
+        for (String lead : leads) {
+            int index = -1;
+            for (int i = 0; i < header.leads().size(); i++) {
+                if (header.leads().get(i).equalsIgnoreCase(lead.strip())) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                throw new BadRequestException("Unknown lead " + lead + ", recorded leads are " + header.leads());
+            }
+            selected.add(index);
+        }
+        return selected;
+    }
+
+    private static void checkLeads(List<String> leads) {
+        if (leads == null || leads.isEmpty() || leads.size() > MAX_LEADS) {
+            throw new BadRequestException("Between 1 and " + MAX_LEADS + " leads are required");
+        }
+        HashSet<String> seen = new HashSet<>();
+        for (String lead : leads) {
+            if (lead == null || !lead.matches("[A-Za-z0-9+\\-]{1," + LEAD_NAME_BYTES + "}")) {
+                throw new BadRequestException("Invalid lead name: " + lead);
+            }
+            if (!seen.add(lead.toUpperCase())) {
+                throw new BadRequestException("Duplicate lead: " + lead);
+            }
+        }
+    }
+
+    private static EcgWaveformInfo info(UUID examId, Header header) {
+        return new EcgWaveformInfo(examId, header.leads(), header.sampleRate(), header.microvoltsPerUnit(),
+                header.samples(), header.samples() / header.sampleRate());
+    }
+
+    private Path path(UUID examId) {
+        String name = examId.toString();
+        return root.resolve(name.substring(0, 2)).resolve(name + ".ecg");
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete temporary waveform file {}", file, ex);
+        }
+    }
+
+    /**
+     * File header: magic, format version, lead count, sample rate, gain, samples per lead, lead names
+     */
+    private record Header(List<String> leads, double sampleRate, double microvoltsPerUnit, long samples) {
+
+        ByteBuffer encode() {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) leads.size())
+                    .putDouble(sampleRate).putDouble(microvoltsPerUnit).putLong(samples);
+            for (String lead : leads) {
+                byte[] name = lead.getBytes(StandardCharsets.US_ASCII);
+                buffer.put(name).position(buffer.position() + LEAD_NAME_BYTES - name.length);
+            }
+            return buffer.clear();
+        }
+
+        static Header decode(ByteBuffer buffer) throws IOException {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+                throw new IOException("Not an ECG waveform file");
+            }
+            int leadCount = buffer.getShort();
+            double sampleRate = buffer.getDouble();
+            double microvoltsPerUnit = buffer.getDouble();
+            long samples = buffer.getLong();
+            if (leadCount < 1 || leadCount > MAX_LEADS || samples < 1) {
+                throw new IOException("Corrupt ECG waveform header");
+            }
+            List<String> leads = new ArrayList<>(leadCount);
+            byte[] name = new byte[LEAD_NAME_BYTES];
+            for (int i = 0; i < leadCount; i++) {
+                buffer.get(name);
+                leads.add(new String(name, StandardCharsets.US_ASCII).trim());
+            }
+            return new Header(List.copyOf(leads), sampleRate, microvoltsPerUnit, samples);
+        }
+    }
+}
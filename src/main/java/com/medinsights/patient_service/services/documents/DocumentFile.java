@@ -0,0 +1,13 @@
+package com.medinsights.patient_service.services.documents;
+
+import java.nio.file.Path;
+
+/**
+ * A stored document to be sent to a client
+ *
+ * @param sha256   content hash, also used as the ETag
+ * @param path     file in the document store
+ * @param fileName name to present in Content-Disposition, may be null
+ */
+public record DocumentFile(String sha256, String contentType, long size, Path path, String fileName) {
+}
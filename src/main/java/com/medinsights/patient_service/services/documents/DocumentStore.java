@@ -0,0 +1,176 @@
+package com.medinsights.patient_service.services.documents;
+
+import com.medinsights.patient_service.entities.StoredDocument;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.exceptions.ServiceUnavailableException;
+import com.medinsights.patient_service.repositories.StoredDocumentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Local file-backed store for analysis and exam documents, addressed by the SHA-256 of their content.
+ *
+ * An upload is streamed to a temporary file through a fixed buffer while it is hashed, then
+ * renamed to {@code root/ab/cd/abcd...} (first hash bytes as directories). Identical content
+ * therefore ends up in a single file and a single documents row, whoever uploads it. Files are
+ * never modified once in place; a failed transaction at worst leaves a file nobody references.
+ */
+@Service
+@Slf4j
+public class DocumentStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final DocumentStoreProperties properties;
+    private final StoredDocumentRepository documentRepository;
+    private final Path root;
+    private final Path uploads;
+
+    public DocumentStore(DocumentStoreProperties properties, StoredDocumentRepository documentRepository) {
+        this.properties = properties;
+        this.documentRepository = documentRepository;
+        this.root = properties.root().toAbsolutePath().normalize();
+        this.uploads = root.resolve("tmp");
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Same file system as the content, so completed uploads are moved with an atomic rename
+        Files.createDirectories(uploads);
+        log.info("Document store at {}", root);
+    }
+
+    /**
+     * Store a document, or find the identical one already stored
+     *
+     * @param content     document bytes, read to the end but not closed
+     * @param contentType declared media type, checked against documents.allowed-content-types
+     * @param userId      uploader, recorded if the content is new
+     */
+    @Transactional
+    public StoredDocument store(InputStream content, String contentType, UUID userId) {
+        String type = checkContentType(contentType);
+        Path upload = null;
+        try {
+            upload = Files.createTempFile(uploads, "upload-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = copy(content, upload, digest);
+            if (size == 0) {
+                throw new BadRequestException("Document is empty");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = path(sha256);
+            if (Files.exists(target)) {
+                log.debug("Document {} already stored", sha256);
+            } else {
+                Files.createDirectories(target.getParent());
+                // A concurrent upload of the same content may win the rename: it wrote the same bytes
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            documentRepository.insertIfAbsent(sha256, size, type, Instant.now(), userId);
+            return documentRepository.findById(sha256)
+                    .orElseThrow(() -> new IllegalStateException("Document " + sha256 + " vanished after insert"));
+        } catch (IOException ex) {
+            log.error("Failed to store document", ex);
+            throw new ServiceUnavailableException("Document storage is unavailable");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    /**
+     * A stored document ready to be sent, under the file name of the record it is attached to
+     */
+    @Transactional(readOnly = true)
+    public DocumentFile open(String sha256, String fileName) {
+        StoredDocument document = documentRepository.findById(sha256)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found: " + sha256));
+        Path path = path(sha256);
+        if (!Files.isReadable(path)) {
+            log.error("Document {} is missing from the store at {}", sha256, path);
+            throw new ServiceUnavailableException("Document content is unavailable");
+        }
+        return new DocumentFile(sha256, document.getContentType(), document.getSizeBytes(), path, fileName);
+    }
+
+    private Path path(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hex digest: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Copy the stream to the file and into the digest, enforcing the size limit; the file is synced before returning
+     */
+    private long copy(InputStream content, Path file, MessageDigest digest) throws IOException {
+        long maxSize = properties.maxSize().toBytes();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new BadRequestException("Document exceeds the maximum size of " + properties.maxSize());
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+            }
+            out.force(true);
+        }
+        return size;
+    }
+
+    private String checkContentType(String contentType) {
+        String type;
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            type = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid document content type: " + contentType);
+        }
+        if (!properties.allowedContentTypes().contains(type)) {
+            throw new BadRequestException("Unsupported document type: " + type);
+        }
+        return type;
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete temporary upload {}", file, ex);
+        }
+    }
+}
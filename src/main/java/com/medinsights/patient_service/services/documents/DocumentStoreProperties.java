@@ -0,0 +1,23 @@
+package com.medinsights.patient_service.services.documents;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Document store settings bound from {@code documents.*}
+ *
+ * @param root                directory holding the files; must be shared by all replicas
+ * @param maxSize             largest accepted document
+ * @param allowedContentTypes media types accepted on upload
+ */
+@ConfigurationProperties(prefix = "documents")
+public record DocumentStoreProperties(
+        @DefaultValue("./data/documents") Path root,
+        @DefaultValue("50MB") DataSize maxSize,
+        @DefaultValue({"application/pdf", "image/png", "image/jpeg", "image/tiff"}) Set<String> allowedContentTypes
+) {
+}
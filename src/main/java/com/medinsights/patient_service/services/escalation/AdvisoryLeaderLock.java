@@ -0,0 +1,110 @@
+package com.medinsights.patient_service.services.escalation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Leader election across replicas with a session-level Postgres advisory lock.
+ *
+ * The leader keeps the lock, and the dedicated pooled connection holding it, until it
+ * releases it or the connection dies; Postgres then frees the lock and another replica
+ * takes over at its next attempt. Not thread-safe: used from a single scheduler thread.
+ * Closing it gives up leadership, so a periodic job may also hold it for a single run.
+ */
+@Slf4j
+public final class AdvisoryLeaderLock implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final int namespace;
+    private final int key;
+    private Connection connection;
+
+    public AdvisoryLeaderLock(DataSource dataSource, int namespace, int key) {
+        this.dataSource = dataSource;
+        this.namespace = namespace;
+        this.key = key;
+    }
+
+    /**
+     * Acquire leadership, or confirm it is still held
+     *
+     * @return whether this instance is the leader
+     */
+    public boolean tryAcquire() {
+        try {
+            if (connection != null) {
+                if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    return true;
+                }
+                log.warn("Lost the connection holding leader lock {}:{}", namespace, key);
+                discard();
+            }
+
+            Connection candidate = dataSource.getConnection();
+            try (PreparedStatement statement = candidate.prepareStatement("SELECT pg_try_advisory_lock(?, ?)")) {
+                candidate.setAutoCommit(true);
+                statement.setInt(1, namespace);
+                statement.setInt(2, key);
+                try (ResultSet result = statement.executeQuery()) {
+                    if (result.next() && result.getBoolean(1)) {
+                        connection = candidate;
+                        return true;
+                    }
+                }
+            } catch (SQLException ex) {
+                candidate.close();
+                throw ex;
+            }
+            candidate.close();
+            return false;
+        } catch (SQLException ex) {
+            log.warn("Leader lock {}:{} check failed: {}", namespace, key, ex.getMessage());
+            discard();
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (connection == null) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?, ?)")) {
+            statement.setInt(1, namespace);
+            statement.setInt(2, key);
+            statement.execute();
+        } catch (SQLException ex) {
+            log.debug("Could not release leader lock {}:{}", namespace, key, ex);
+            discard();
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Could not close leader lock connection", ex);
+        }
+        connection = null;
+    }
+
+    /**
+     * Abort rather than return the connection to the pool, so a lock it may still hold dies with it
+     */
+    private void discard() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException ex) {
+            log.debug("Could not abort leader lock connection", ex);
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.medinsights.patient_service.services.escalation;
+
+import com.medinsights.patient_service.entities.AlertSeverity;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Alert escalation settings bound from {@code medical-alerts.escalation.*}
+ *
+ * @param sla           time an active alert of a severity may stay unresolved before it is escalated;
+ *                      severities without an SLA are never escalated
+ * @param maxLevel      escalations per alert, after which it is left alone
+ * @param tick          timing wheel resolution
+ * @param wheelSize     timing wheel slots (rounded up to a power of two)
+ * @param horizon       how far ahead due escalations are loaded into the wheel, kept below the smallest SLA
+ * @param leaderCheck   interval at which the leader lock is acquired or verified
+ */
+@ConfigurationProperties(prefix = "medical-alerts.escalation")
+public record AlertEscalationProperties(
+        @DefaultValue("true") boolean enabled,
+        Map<AlertSeverity, Duration> sla,
+        @DefaultValue("3") int maxLevel,
+        @DefaultValue("PT1S") Duration tick,
+        @DefaultValue("512") int wheelSize,
+        @DefaultValue("PT5M") Duration horizon,
+        @DefaultValue("PT10S") Duration leaderCheck
+) {
+
+    public AlertEscalationProperties {
+        sla = sla == null ? Map.of() : Map.copyOf(sla);
+    }
+
+    /**
+     * When an alert of the given severity, (re)started at {@code from}, is due for escalation; null if never
+     */
+    public Instant deadline(String severityLevel, Instant from) {
+        int rank = AlertSeverity.rankOf(severityLevel);
+        if (!enabled || rank == 0) {
+            return null;
+        }
+        Duration limit = sla.get(AlertSeverity.values()[rank - 1]);
+        return limit != null ? from.plus(limit) : null;
+    }
+}
@@ -0,0 +1,168 @@
+package com.medinsights.patient_service.services.escalation;
+
+import com.medinsights.patient_service.repositories.MedicalAlertRepository;
+import com.medinsights.patient_service.repositories.MedicalAlertRepository.PendingEscalationView;
+import com.medinsights.patient_service.services.MedicalAlertService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escalates alerts left active past their severity's SLA (see MedicalAlertService#escalateAlert).
+ *
+ * Only one replica, the holder of an advisory leader lock, runs escalations. The leader keeps
+ * the escalations due within the next {@code horizon} in a timing wheel, advanced every tick
+ * without touching the database, and loads the following window from idx_alert_escalation
+ * every half horizon. As the horizon is shorter than any SLA, alerts created on any replica are
+ * always due beyond the window already loaded. Resolved alerts are not removed from the wheel:
+ * escalateAlert re-checks each alert under a row lock when it comes due.
+ */
+@Service
+@Slf4j
+public class AlertEscalationScheduler {
+
+    private static final int LEADER_LOCK_NAMESPACE = 0x414c4553; // "ALES"
+    private static final int LEADER_LOCK_KEY = 1;
+
+    private final AlertEscalationProperties properties;
+    private final MedicalAlertService alertService;
+    private final MedicalAlertRepository alertRepository;
+    private final AdvisoryLeaderLock leaderLock;
+    private final Duration horizon;
+
+    // Confined to the scheduler thread
+    private final TimingWheel<DueEscalation> wheel;
+    private final Map<UUID, Instant> scheduled = new HashMap<>();
+    private Instant loadedUntil;
+    private Instant nextLoadAt = Instant.MIN;
+    private Instant nextLeaderCheckAt = Instant.MIN;
+    private boolean leader;
+    private ScheduledExecutorService executor;
+
+    public AlertEscalationScheduler(AlertEscalationProperties properties, MedicalAlertService alertService,
+                                    MedicalAlertRepository alertRepository, DataSource dataSource) {
+        this.properties = properties;
+        this.alertService = alertService;
+        this.alertRepository = alertRepository;
+        this.leaderLock = new AdvisoryLeaderLock(dataSource, LEADER_LOCK_NAMESPACE, LEADER_LOCK_KEY);
+        this.wheel = new TimingWheel<>(properties.tick().toMillis(), properties.wheelSize(), System.currentTimeMillis());
+
+        Duration shortestSla = properties.sla().values().stream().min(Duration::compareTo).orElse(properties.horizon());
+        this.horizon = shortestSla.compareTo(properties.horizon()) > 0 ? properties.horizon() : shortestSla.dividedBy(2);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled() || properties.sla().isEmpty()) {
+            log.info("Alert escalation disabled");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-escalation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = properties.tick().toMillis();
+        executor.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("Alert escalation started with SLAs {}, horizon {}", properties.sla(), horizon);
+    }
+
+    private void tick() {
+        try {
+            Instant now = Instant.now();
+            if (!now.isBefore(nextLeaderCheckAt)) {
+                nextLeaderCheckAt = now.plus(properties.leaderCheck());
+                updateLeadership();
+            }
+            if (!leader) {
+                return;
+            }
+            if (!now.isBefore(nextLoadAt)) {
+                load(now);
+            }
+            escalate(wheel.advance(now.toEpochMilli()));
+        } catch (RuntimeException ex) {
+            log.error("Alert escalation tick failed", ex);
+        }
+    }
+
+    private void updateLeadership() {
+        boolean held = leaderLock.tryAcquire();
+        if (held == leader) {
+            return;
+        }
+        leader = held;
+        wheel.clear();
+        scheduled.clear();
+        loadedUntil = null;
+        nextLoadAt = Instant.MIN;
+        if (leader) {
+            int assigned = alertService.scheduleMissingEscalations();
+            log.info("Became alert escalation leader, scheduled {} pending alerts", assigned);
+        } else {
+            log.info("No longer alert escalation leader");
+        }
+    }
+
+    /**
+     * Load escalations due up to now + horizon. Consecutive windows overlap by one horizon so an
+     * alert committed late is still picked up; already scheduled ones are skipped.
+     */
+    private void load(Instant now) {
+        Instant from = loadedUntil == null ? Instant.EPOCH : loadedUntil.minus(horizon);
+        Instant until = now.plus(horizon);
+        List<PendingEscalationView> due = alertRepository.findPendingEscalations(from, until);
+        int added = 0;
+        for (PendingEscalationView pending : due) {
+            if (!pending.getEscalateAt().equals(scheduled.put(pending.getId(), pending.getEscalateAt()))) {
+                wheel.schedule(new DueEscalation(pending.getId(), pending.getEscalateAt()), pending.getEscalateAt().toEpochMilli());
+                added++;
+            }
+        }
+        loadedUntil = until;
+        nextLoadAt = now.plus(horizon.dividedBy(2));
+        log.debug("Loaded {} alert escalations due before {} ({} pending)", added, until, wheel.size());
+    }
+
+    private void escalate(List<DueEscalation> due) {
+        for (DueEscalation escalation : due) {
+            scheduled.remove(escalation.alertId(), escalation.dueAt());
+            try {
+                alertService.escalateAlert(escalation.alertId(), escalation.dueAt());
+            } catch (RuntimeException ex) {
+                log.error("Failed to escalate alert {}", escalation.alertId(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        leaderLock.close();
+    }
+
+    private record DueEscalation(UUID alertId, Instant dueAt) {
+    }
+}
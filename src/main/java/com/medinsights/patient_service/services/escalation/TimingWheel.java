@@ -0,0 +1,86 @@
+package com.medinsights.patient_service.services.escalation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: O(1) scheduling, and advancing costs only the slots passed.
+ *
+ * Deadlines are rounded up to whole ticks, so items never expire early. Items further away
+ * than one revolution share slots with nearer ones and are skipped until their tick comes.
+ * There is no cancellation: callers re-check an item when it expires. Not thread-safe.
+ */
+final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final ArrayDeque<Entry<T>>[] slots;
+    private final int mask;
+    private final List<T> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        int slotCount = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayDeque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.mask = slotCount - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    void schedule(T item, long deadlineMillis) {
+        long tick = Math.ceilDiv(deadlineMillis, tickMillis);
+        if (tick <= currentTick) {
+            overdue.add(item);
+        } else {
+            slots[(int) (tick & mask)].add(new Entry<>(item, tick));
+        }
+        size++;
+    }
+
+    /**
+     * Move the wheel to {@code nowMillis} and return every item whose deadline has passed
+     */
+    List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        long target = nowMillis / tickMillis;
+        if (target > currentTick) {
+            // After a long pause every slot is visited once rather than once per missed tick
+            long steps = Math.min(target - currentTick, slots.length);
+            for (long step = 1; step <= steps; step++) {
+                Iterator<Entry<T>> entries = slots[(int) ((currentTick + step) & mask)].iterator();
+                while (entries.hasNext()) {
+                    Entry<T> entry = entries.next();
+                    if (entry.tick() <= target) {
+                        expired.add(entry.item());
+                        entries.remove();
+                    }
+                }
+            }
+            currentTick = target;
+        }
+        size -= expired.size();
+        return expired;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        for (ArrayDeque<Entry<T>> slot : slots) {
+            slot.clear();
+        }
+        overdue.clear();
+        size = 0;
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
@@ -1,17 +1,33 @@
 package com.medinsights.patient_service.services.impl;
 
+import com.medinsights.patient_service.dto.BatchCreateResultDTO;
 import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamCreateRequest;
 import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamResponse;
 import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamUpdateRequest;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformInfo;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformSlice;
 import com.medinsights.patient_service.entities.CardiovascularExam;
 import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.entities.StoredDocument;
+import com.medinsights.patient_service.events.ClinicalRecordWrittenEvent;
 import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.exceptions.UnauthorizedException;
 import com.medinsights.patient_service.repositories.CardiovascularExamRepository;
 import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.services.batch.ClinicalRecordBatchWriter;
+import com.medinsights.patient_service.services.cardiovascular.CardiovascularMeasurementService;
+import com.medinsights.patient_service.services.cardiovascular.EcgWaveformStore;
+import com.medinsights.patient_service.services.documents.DocumentFile;
+import com.medinsights.patient_service.services.documents.DocumentStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -27,16 +43,44 @@ public class CardiovascularExamServiceImpl {
 
     private final CardiovascularExamRepository cardiovascularExamRepository;
     private final PatientRepository patientRepository;
+    private final DocumentStore documentStore;
+    private final ClinicalRecordBatchWriter batchWriter;
+    private final CardiovascularMeasurementService measurementService;
+    private final EcgWaveformStore waveformStore;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Create a new cardiovascular exam for a patient
+     * Create a new cardiovascular exam for a patient of the user
      */
-    public CardiovascularExamResponse create(CardiovascularExamCreateRequest request) {
-        // Validate patient exists
+    public CardiovascularExamResponse create(CardiovascularExamCreateRequest request, UUID userId) {
+        // Validate patient exists and belongs to the user
         Patient patient = patientRepository.findById(request.patientId())
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + request.patientId()));
+        if (!userId.equals(patient.getCreatedBy())) {
+            throw new UnauthorizedException("You are not authorized to access this patient");
+        }
+
+        // Save and return
+        CardiovascularExam saved = cardiovascularExamRepository.save(newExam(patient, request));
+        measurementService.extract(saved);
+        return publishWritten(saved);
+    }
+
+    /**
+     * Create many exams at once; invalid items are reported by position instead of failing the batch
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchCreateResultDTO createBatch(List<CardiovascularExamCreateRequest> requests, UUID userId) {
+        return batchWriter.createAll(requests, userId, CardiovascularExamCreateRequest::patientId, this::newExam, exams -> {
+            List<CardiovascularExam> saved = cardiovascularExamRepository.saveAll(exams);
+            cardiovascularExamRepository.flush();
+            measurementService.extractNew(saved);
+            saved.forEach(this::publishWritten);
+            return saved.stream().map(CardiovascularExam::getId).toList();
+        });
+    }
 
-        // Create exam entity
+    private CardiovascularExam newExam(Patient patient, CardiovascularExamCreateRequest request) {
         CardiovascularExam exam = new CardiovascularExam();
         exam.setPatient(patient);
         exam.setExamType(request.examType());
@@ -48,10 +92,14 @@ public class CardiovascularExamServiceImpl {
         exam.setPdfFile(request.pdfFile());
         exam.setNotes(request.notes());
         exam.setStatus(request.status() != null ? request.status() : "COMPLETED");
+        return exam;
+    }
 
-        // Save and return
-        CardiovascularExam saved = cardiovascularExamRepository.save(exam);
-        return toResponse(saved);
+    private CardiovascularExamResponse publishWritten(CardiovascularExam exam) {
+        CardiovascularExamResponse response = toResponse(exam);
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.CARDIOVASCULAR_EXAM,
+                exam.getPatient().getId(), response, exam.getExamDate()));
+        return response;
     }
 
     /**
@@ -73,9 +121,16 @@ public class CardiovascularExamServiceImpl {
         if (request.notes() != null) exam.setNotes(request.notes());
         if (request.status() != null) exam.setStatus(request.status());
 
+        if (request.measuredValues() != null || request.examDate() != null) {
+            measurementService.extract(exam);
+        }
+
         // Save and return
         CardiovascularExam updated = cardiovascularExamRepository.save(exam);
-        return toResponse(updated);
+        CardiovascularExamResponse response = toResponse(updated);
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.CARDIOVASCULAR_EXAM,
+                response.patientId(), response, updated.getExamDate()));
+        return response;
     }
 
     /**
@@ -171,13 +226,81 @@ public class CardiovascularExamServiceImpl {
     }
 
     /**
-     * Delete a cardiovascular exam
+     * Attach the exam report: the file goes to the document store and its name to pdfFile
+     */
+    public CardiovascularExamResponse attachDocument(UUID examId, InputStream content, String fileName,
+                                                     String contentType, UUID userId) {
+        CardiovascularExam exam = cardiovascularExamRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cardiovascular exam not found with id: " + examId));
+
+        StoredDocument document = documentStore.store(content, contentType, userId);
+        exam.setDocumentSha256(document.getSha256());
+        if (fileName != null && !fileName.isBlank()) {
+            exam.setPdfFile(fileName.length() > 500 ? fileName.substring(0, 500) : fileName);
+        }
+        return toResponse(cardiovascularExamRepository.save(exam));
+    }
+
+    /**
+     * Report document attached to an exam
+     */
+    @Transactional(readOnly = true)
+    public DocumentFile getDocument(UUID examId) {
+        CardiovascularExam exam = cardiovascularExamRepository.findById(examId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cardiovascular exam not found with id: " + examId));
+        if (exam.getDocumentSha256() == null) {
+            throw new ResourceNotFoundException("No document attached to cardiovascular exam: " + examId);
+        }
+        return documentStore.open(exam.getDocumentSha256(), exam.getPdfFile());
+    }
+
+    /**
+     * Store the raw ECG trace of an exam, replacing any previous one.
+     * Runs outside a transaction: the upload may take minutes.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EcgWaveformInfo attachWaveform(UUID examId, InputStream content, List<String> leads,
+                                          double sampleRate, double microvoltsPerUnit) {
+        requireExam(examId);
+        return waveformStore.store(examId, content, leads, sampleRate, microvoltsPerUnit);
+    }
+
+    /**
+     * Description of the ECG trace of an exam
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EcgWaveformInfo getWaveformInfo(UUID examId) {
+        requireExam(examId);
+        return waveformStore.info(examId);
+    }
+
+    /**
+     * A window of the ECG trace of an exam, downsampled to the given width
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EcgWaveformSlice getWaveform(UUID examId, List<String> leads, Double from, Double to, int width) {
+        requireExam(examId);
+        return waveformStore.read(examId, leads, from, to, width);
+    }
+
+    /**
+     * Delete a cardiovascular exam, and its ECG trace once the deletion is committed
      */
     public void delete(UUID examId) {
+        requireExam(examId);
+        cardiovascularExamRepository.deleteById(examId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                waveformStore.delete(examId);
+            }
+        });
+    }
+
+    private void requireExam(UUID examId) {
         if (!cardiovascularExamRepository.existsById(examId)) {
             throw new ResourceNotFoundException("Cardiovascular exam not found with id: " + examId);
         }
-        cardiovascularExamRepository.deleteById(examId);
     }
 
     /**
@@ -202,6 +325,7 @@ public class CardiovascularExamServiceImpl {
                 exam.getMeasuredValues(),
                 exam.getAbnormalities(),
                 exam.getPdfFile(),
+                exam.getDocumentSha256(),
                 exam.getNotes(),
                 exam.getStatus(),
                 exam.getCreatedAt(),
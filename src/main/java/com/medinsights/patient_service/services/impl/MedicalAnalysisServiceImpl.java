@@ -1,22 +1,45 @@
 package com.medinsights.patient_service.services.impl;
 
+import com.medinsights.patient_service.dto.BatchCreateResultDTO;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisCreateRequest;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisResponse;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisSearchHit;
 import com.medinsights.patient_service.dto.analysis.MedicalAnalysisUpdateRequest;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisView;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisWorklistItem;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisWorklistPage;
 import com.medinsights.patient_service.entities.MedicalAnalysis;
 import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.entities.StoredDocument;
+import com.medinsights.patient_service.events.ClinicalRecordWrittenEvent;
+import com.medinsights.patient_service.exceptions.BadRequestException;
 import com.medinsights.patient_service.repositories.MedicalAnalysisRepository;
+import com.medinsights.patient_service.repositories.MedicalAnalysisRepository.AnalysisSummaryView;
+import com.medinsights.patient_service.repositories.MedicalAnalysisRepository.SearchMatchView;
 import com.medinsights.patient_service.repositories.PatientRepository;
 import com.medinsights.patient_service.services.MedicalAnalysisService;
+import com.medinsights.patient_service.services.analysis.LabResultService;
+import com.medinsights.patient_service.services.batch.ClinicalRecordBatchWriter;
+import com.medinsights.patient_service.services.documents.DocumentFile;
+import com.medinsights.patient_service.services.documents.DocumentStore;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -29,8 +52,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
 
+    private static final int MAX_WORKLIST_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_HITS = 100;
+    private static final int MAX_SEARCH_QUERY_LENGTH = 500;
+
     private final MedicalAnalysisRepository medicalAnalysisRepository;
     private final PatientRepository patientRepository;
+    private final LabResultService labResultService;
+    private final DocumentStore documentStore;
+    private final ClinicalRecordBatchWriter batchWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public MedicalAnalysisResponse create(UUID patientId, MedicalAnalysisCreateRequest request, UUID userId) {
@@ -39,6 +70,41 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
         Patient patient = patientRepository.findById(patientId)
                 .orElseThrow(() -> new EntityNotFoundException("Patient not found with id: " + patientId));
 
+        MedicalAnalysis saved = medicalAnalysisRepository.save(newAnalysis(patient, request, userId));
+        medicalAnalysisRepository.refreshSearchVector(saved.getId());
+        labResultService.extract(saved);
+        log.info("Medical analysis created successfully with id: {}", saved.getId());
+
+        return publishWritten(saved);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchCreateResultDTO createBatch(List<MedicalAnalysisCreateRequest> requests, UUID userId) {
+        log.info("Creating a batch of {} medical analyses", requests != null ? requests.size() : 0);
+
+        BatchCreateResultDTO result = batchWriter.createAll(requests, userId, MedicalAnalysisCreateRequest::patientId,
+                (request, patient) -> newAnalysis(patient, request, userId),
+                this::persistBatch);
+        log.info("Medical analysis batch: {} created, {} failed", result.created().size(), result.failed().size());
+        return result;
+    }
+
+    /**
+     * Insert new analyses as one JDBC batch, with their lab values, then index their text in one statement
+     */
+    private List<UUID> persistBatch(List<MedicalAnalysis> analyses) {
+        List<MedicalAnalysis> saved = medicalAnalysisRepository.saveAll(analyses);
+        medicalAnalysisRepository.flush();
+        labResultService.extractNew(saved);
+
+        List<UUID> ids = saved.stream().map(MedicalAnalysis::getId).toList();
+        medicalAnalysisRepository.refreshSearchVectors(ids);
+        saved.forEach(this::publishWritten);
+        return ids;
+    }
+
+    private MedicalAnalysis newAnalysis(Patient patient, MedicalAnalysisCreateRequest request, UUID userId) {
         MedicalAnalysis analysis = new MedicalAnalysis();
         analysis.setPatient(patient);
         analysis.setAnalysisType(request.analysisType());
@@ -55,11 +121,17 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
         analysis.setNotes(request.notes());
         analysis.setCreatedBy(userId);
         analysis.setUpdatedBy(userId);
+        return analysis;
+    }
 
-        MedicalAnalysis saved = medicalAnalysisRepository.save(analysis);
-        log.info("Medical analysis created successfully with id: {}", saved.getId());
-
-        return toResponse(saved);
+    /**
+     * Notify the alert rules of a new analysis (delivered after commit)
+     */
+    private MedicalAnalysisResponse publishWritten(MedicalAnalysis analysis) {
+        MedicalAnalysisResponse response = toResponse(analysis);
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.MEDICAL_ANALYSIS,
+                response.patientId(), response, analysis.getAnalysisDate().atStartOfDay()));
+        return response;
     }
 
     @Override
@@ -97,9 +169,18 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
         analysis.setUpdatedBy(userId);
 
         MedicalAnalysis updated = medicalAnalysisRepository.save(analysis);
+        if (request.ocrText() != null || request.interpretation() != null || request.recommendations() != null) {
+            medicalAnalysisRepository.refreshSearchVector(analysisId);
+        }
+        if (request.results() != null) {
+            labResultService.extract(updated);
+        }
         log.info("Medical analysis updated successfully: {}", analysisId);
 
-        return toResponse(updated);
+        MedicalAnalysisResponse response = toResponse(updated);
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.MEDICAL_ANALYSIS,
+                response.patientId(), response, updated.getAnalysisDate().atStartOfDay()));
+        return response;
     }
 
     @Override
@@ -115,9 +196,12 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<MedicalAnalysisResponse> findByPatientId(UUID patientId) {
-        log.debug("Finding all medical analyses for patient: {}", patientId);
+    public List<MedicalAnalysisResponse> findByPatientId(UUID patientId, MedicalAnalysisView view) {
+        log.debug("Finding all medical analyses for patient: {} ({})", patientId, view);
 
+        if (view == MedicalAnalysisView.SUMMARY) {
+            return toSummaries(medicalAnalysisRepository.findSummariesByPatientId(patientId));
+        }
         return medicalAnalysisRepository.findByPatientIdOrderByAnalysisDateDesc(patientId)
                 .stream()
                 .map(this::toResponse)
@@ -126,9 +210,12 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<MedicalAnalysisResponse> findWithAlertsByPatientId(UUID patientId) {
-        log.debug("Finding medical analyses with alerts for patient: {}", patientId);
+    public List<MedicalAnalysisResponse> findWithAlertsByPatientId(UUID patientId, MedicalAnalysisView view) {
+        log.debug("Finding medical analyses with alerts for patient: {} ({})", patientId, view);
 
+        if (view == MedicalAnalysisView.SUMMARY) {
+            return toSummaries(medicalAnalysisRepository.findSummariesWithAlertsByPatientId(patientId));
+        }
         return medicalAnalysisRepository.findWithAlertsByPatientId(patientId)
                 .stream()
                 .map(this::toResponse)
@@ -137,15 +224,87 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<MedicalAnalysisResponse> findByPatientIdAndDateRange(UUID patientId, LocalDate startDate, LocalDate endDate) {
-        log.debug("Finding medical analyses for patient: {} between {} and {}", patientId, startDate, endDate);
+    public List<MedicalAnalysisResponse> findByPatientIdAndDateRange(UUID patientId, LocalDate startDate, LocalDate endDate,
+                                                                     MedicalAnalysisView view) {
+        log.debug("Finding medical analyses for patient: {} between {} and {} ({})", patientId, startDate, endDate, view);
 
+        if (view == MedicalAnalysisView.SUMMARY) {
+            return toSummaries(medicalAnalysisRepository.findSummariesByPatientIdAndDateRange(patientId, startDate, endDate));
+        }
         return medicalAnalysisRepository.findByPatientIdAndDateRange(patientId, startDate, endDate)
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public MedicalAnalysisWorklistPage getWorklist(UUID ownerId, String status, String analysisType, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_WORKLIST_PAGE_SIZE));
+        String type = analysisType == null || analysisType.isBlank() ? null : analysisType;
+        List<MedicalAnalysisWorklistItem> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = medicalAnalysisRepository.findWorklist(ownerId, status, type, Limit.of(pageSize + 1));
+        } else {
+            WorklistCursor position = WorklistCursor.decode(cursor);
+            items = medicalAnalysisRepository.findWorklistAfter(ownerId, status, type,
+                    position.analysisDate(), position.id(), Limit.of(pageSize + 1));
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            MedicalAnalysisWorklistItem last = items.get(pageSize - 1);
+            nextCursor = new WorklistCursor(last.analysisDate(), last.id()).encode();
+        }
+        return new MedicalAnalysisWorklistPage(items, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicalAnalysisSearchHit> searchByPatientId(UUID patientId, String query, int limit) {
+        log.debug("Searching medical analyses of patient: {}", patientId);
+        return toSearchHits(medicalAnalysisRepository.searchByPatientId(patientId, checkSearchQuery(query), searchLimit(limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MedicalAnalysisSearchHit> searchByOwner(UUID ownerId, String query, int limit) {
+        log.debug("Searching medical analyses of patients owned by: {}", ownerId);
+        return toSearchHits(medicalAnalysisRepository.searchByOwner(ownerId, checkSearchQuery(query), searchLimit(limit)));
+    }
+
+    @Override
+    public MedicalAnalysisResponse attachDocument(UUID analysisId, InputStream content, String fileName,
+                                                  String contentType, UUID userId) {
+        log.info("Attaching document to medical analysis: {}", analysisId);
+
+        MedicalAnalysis analysis = medicalAnalysisRepository.findById(analysisId)
+                .orElseThrow(() -> new EntityNotFoundException("Medical analysis not found with id: " + analysisId));
+
+        StoredDocument document = documentStore.store(content, contentType, userId);
+        analysis.setDocumentSha256(document.getSha256());
+        if (fileName != null && !fileName.isBlank()) {
+            analysis.setFileName(fileName.length() > 200 ? fileName.substring(0, 200) : fileName);
+        }
+        analysis.setUpdatedBy(userId);
+
+        MedicalAnalysis updated = medicalAnalysisRepository.save(analysis);
+        log.info("Document {} attached to medical analysis: {}", document.getSha256(), analysisId);
+        return toResponse(updated);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DocumentFile getDocument(UUID analysisId) {
+        MedicalAnalysis analysis = medicalAnalysisRepository.findById(analysisId)
+                .orElseThrow(() -> new EntityNotFoundException("Medical analysis not found with id: " + analysisId));
+        if (analysis.getDocumentSha256() == null) {
+            throw new EntityNotFoundException("No document attached to medical analysis: " + analysisId);
+        }
+        return documentStore.open(analysis.getDocumentSha256(), analysis.getFileName());
+    }
+
     @Override
     public void delete(UUID analysisId) {
         log.info("Deleting medical analysis: {}", analysisId);
@@ -164,6 +323,126 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
         return medicalAnalysisRepository.countByPatientId(patientId);
     }
 
+    /**
+     * Position in the worklist, exchanged with clients as an opaque base64 token
+     */
+    private record WorklistCursor(LocalDate analysisDate, UUID id) {
+
+        String encode() {
+            String raw = analysisDate + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static WorklistCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                return new WorklistCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+            } catch (RuntimeException ex) {
+                throw new BadRequestException("Invalid worklist cursor");
+            }
+        }
+    }
+
+    private static String checkSearchQuery(String query) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query is required");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new BadRequestException("Search query cannot exceed " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        return query;
+    }
+
+    private static int searchLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SEARCH_HITS));
+    }
+
+    /**
+     * Attach metadata to ranked matches, keeping the ranking order
+     */
+    private List<MedicalAnalysisSearchHit> toSearchHits(List<SearchMatchView> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, AnalysisSummaryView> summaries = medicalAnalysisRepository
+                .findSummariesByIdIn(matches.stream().map(SearchMatchView::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(AnalysisSummaryView::getId, Function.identity()));
+
+        return matches.stream()
+                .map(match -> {
+                    AnalysisSummaryView summary = summaries.get(match.getId());
+                    return summary == null ? null : new MedicalAnalysisSearchHit(
+                            summary.getId(),
+                            summary.getPatientId(),
+                            summary.getAnalysisType(),
+                            summary.getAnalysisDate(),
+                            summary.getStatus(),
+                            match.getRank(),
+                            highlight(match.getSnippet()));
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * HTML-escape a snippet, then turn the chr(2)/chr(3) match delimiters into &lt;mark&gt; tags
+     */
+    private static String highlight(String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(snippet.length() + 32);
+        for (int i = 0; i < snippet.length(); i++) {
+            char c = snippet.charAt(i);
+            switch (c) {
+                case '\u0002' -> html.append("<mark>");
+                case '\u0003' -> html.append("</mark>");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '&' -> html.append("&amp;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+
+    private List<MedicalAnalysisResponse> toSummaries(List<AnalysisSummaryView> summaries) {
+        return summaries.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Convert a summary projection to MedicalAnalysisResponse DTO, text fields left null
+     */
+    private MedicalAnalysisResponse toResponse(AnalysisSummaryView summary) {
+        return new MedicalAnalysisResponse(
+                summary.getId(),
+                summary.getPatientId(),
+                summary.getAnalysisType(),
+                summary.getAnalysisDate(),
+                summary.getFileName(),
+                summary.getDocumentSha256(),
+                null,
+                null,
+                null,
+                null,
+                summary.getHasAnomalies(),
+                null,
+                summary.getPerformedBy(),
+                summary.getInterpretedBy(),
+                summary.getStatus(),
+                summary.getNotes(),
+                summary.getCreatedAt(),
+                summary.getUpdatedAt(),
+                summary.getCreatedBy(),
+                summary.getUpdatedBy()
+        );
+    }
+
     /**
      * Convert MedicalAnalysis entity to MedicalAnalysisResponse DTO
      */
@@ -174,10 +453,12 @@ public class MedicalAnalysisServiceImpl implements MedicalAnalysisService {
                 analysis.getAnalysisType(),
                 analysis.getAnalysisDate(),
                 analysis.getFileName(),
+                analysis.getDocumentSha256(),
                 analysis.getOcrText(),
                 analysis.getResults(),
                 analysis.getInterpretation(),
                 analysis.getAlertsAndAnomalies(),
+                analysis.getAlertsAndAnomalies() != null && !analysis.getAlertsAndAnomalies().isEmpty(),
                 analysis.getRecommendations(),
                 analysis.getPerformedBy(),
                 analysis.getInterpretedBy(),
@@ -5,12 +5,17 @@ import com.medinsights.patient_service.dto.treatment.TreatmentResponse;
 import com.medinsights.patient_service.dto.treatment.TreatmentUpdateRequest;
 import com.medinsights.patient_service.entities.Patient;
 import com.medinsights.patient_service.entities.Treatment;
+import com.medinsights.patient_service.events.ClinicalRecordWrittenEvent;
 import com.medinsights.patient_service.repositories.PatientRepository;
 import com.medinsights.patient_service.repositories.TreatmentRepository;
+import com.medinsights.patient_service.services.MedicalAlertService;
 import com.medinsights.patient_service.services.TreatmentService;
+import com.medinsights.patient_service.services.interactions.DrugInteractionService;
+import com.medinsights.patient_service.services.interactions.DrugInteractionService.DrugInteraction;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,8 +34,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TreatmentServiceImpl implements TreatmentService {
 
+    private static final String INTERACTION_ALERT_TYPE = "DRUG_INTERACTION";
+
     private final TreatmentRepository treatmentRepository;
     private final PatientRepository patientRepository;
+    private final DrugInteractionService drugInteractionService;
+    private final MedicalAlertService alertService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public TreatmentResponse create(UUID patientId, TreatmentCreateRequest request, UUID userId) {
@@ -54,9 +64,13 @@ public class TreatmentServiceImpl implements TreatmentService {
         treatment.setUpdatedBy(userId);
 
         Treatment saved = treatmentRepository.save(treatment);
+        checkInteractions(saved);
         log.info("Treatment created successfully with id: {}", saved.getId());
 
-        return toResponse(saved);
+        TreatmentResponse response = toResponse(saved);
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.TREATMENT,
+                patient.getId(), response, saved.getStartDate().atStartOfDay()));
+        return response;
     }
 
     @Override
@@ -94,9 +108,15 @@ public class TreatmentServiceImpl implements TreatmentService {
         treatment.setUpdatedBy(userId);
 
         Treatment updated = treatmentRepository.save(treatment);
+        if (request.medicationName() != null || request.status() != null) {
+            checkInteractions(updated);
+        }
         log.info("Treatment updated successfully: {}", treatmentId);
 
-        return toResponse(updated);
+        TreatmentResponse response = toResponse(updated);
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.TREATMENT,
+                response.patientId(), response, updated.getStartDate().atStartOfDay()));
+        return response;
     }
 
     @Override
@@ -161,6 +181,28 @@ public class TreatmentServiceImpl implements TreatmentService {
         return treatmentRepository.countByPatientId(patientId);
     }
 
+    /**
+     * Raise a DRUG_INTERACTION alert, in the caller's transaction, for the most severe interaction of an
+     * active treatment with the patient's other active treatments. Checked here rather than by the
+     * asynchronous alert rules so an interaction is never missed when their queue is full or they are off.
+     */
+    private void checkInteractions(Treatment treatment) {
+        if (!"ACTIVE".equals(treatment.getStatus()) || treatment.getMedicationName() == null) {
+            return;
+        }
+        List<String> others = treatmentRepository.findActiveByPatientId(treatment.getPatient().getId()).stream()
+                .filter(other -> !other.getId().equals(treatment.getId()) && other.getMedicationName() != null)
+                .map(Treatment::getMedicationName)
+                .collect(Collectors.toList());
+        List<DrugInteraction> interactions = drugInteractionService.check(treatment.getMedicationName(), others);
+        if (interactions.isEmpty()) {
+            return;
+        }
+        DrugInteraction interaction = interactions.get(0);
+        alertService.raiseSystemAlert(treatment.getPatient().getId(), INTERACTION_ALERT_TYPE, interaction.severity().name(),
+                "Active treatments with interacting drugs (" + interaction.summary() + ")", "Review the prescriptions");
+    }
+
     /**
      * Convert Treatment entity to TreatmentResponse DTO
      */
@@ -4,16 +4,21 @@ import com.medinsights.patient_service.dto.vitalsigns.VitalSignsCreateRequest;
 import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
 import com.medinsights.patient_service.entities.Patient;
 import com.medinsights.patient_service.entities.VitalSigns;
+import com.medinsights.patient_service.events.VitalSignsRecordedEvent;
 import com.medinsights.patient_service.repositories.PatientRepository;
 import com.medinsights.patient_service.repositories.VitalSignsRepository;
 import com.medinsights.patient_service.services.VitalSignsService;
+import com.medinsights.patient_service.services.vitalsigns.VitalSignsArchiveService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -31,6 +36,8 @@ public class VitalSignsServiceImpl implements VitalSignsService {
 
     private final VitalSignsRepository vitalSignsRepository;
     private final PatientRepository patientRepository;
+    private final VitalSignsArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public VitalSignsResponse create(UUID patientId, VitalSignsCreateRequest request, UUID userId) {
@@ -59,7 +66,9 @@ public class VitalSignsServiceImpl implements VitalSignsService {
         VitalSigns saved = vitalSignsRepository.save(vitalSigns);
         log.info("Vital signs recorded successfully with id: {}", saved.getId());
 
-        return toResponse(saved);
+        VitalSignsResponse response = toResponse(saved);
+        eventPublisher.publishEvent(new VitalSignsRecordedEvent(response, patient.getCreatedBy()));
+        return response;
     }
 
     @Override
@@ -78,10 +87,11 @@ public class VitalSignsServiceImpl implements VitalSignsService {
     public List<VitalSignsResponse> findByPatientId(UUID patientId) {
         log.debug("Finding all vital signs for patient: {}", patientId);
 
-        return vitalSignsRepository.findByPatientIdOrderByMeasurementDateDesc(patientId)
+        List<VitalSignsResponse> readings = vitalSignsRepository.findByPatientIdOrderByMeasurementDateDesc(patientId)
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        return withArchived(readings, archiveService.findByPatientId(patientId));
     }
 
     @Override
@@ -89,8 +99,10 @@ public class VitalSignsServiceImpl implements VitalSignsService {
     public Optional<VitalSignsResponse> findLatestByPatientId(UUID patientId) {
         log.debug("Finding latest vital signs for patient: {}", patientId);
 
-        return vitalSignsRepository.findLatestByPatientId(patientId)
+        // Readings are archived by age, so the hot table holds the newest ones; the archive only serves patients without any
+        Optional<VitalSignsResponse> latest = vitalSignsRepository.findLatestByPatientId(patientId)
                 .map(this::toResponse);
+        return latest.isPresent() ? latest : archiveService.findLatestByPatientId(patientId);
     }
 
     @Override
@@ -98,10 +110,13 @@ public class VitalSignsServiceImpl implements VitalSignsService {
     public List<VitalSignsResponse> findByPatientIdAndDateRange(UUID patientId, LocalDate startDate, LocalDate endDate) {
         log.debug("Finding vital signs for patient: {} between {} and {}", patientId, startDate, endDate);
 
-        return vitalSignsRepository.findByPatientIdAndDateRange(patientId, startDate, endDate)
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
+        List<VitalSignsResponse> readings = vitalSignsRepository.findByPatientIdAndDateRange(patientId, start, end)
                 .stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        return withArchived(readings, archiveService.findByPatientIdAndRange(patientId, start, end));
     }
 
     @Override
@@ -119,7 +134,19 @@ public class VitalSignsServiceImpl implements VitalSignsService {
     @Override
     @Transactional(readOnly = true)
     public long countByPatientId(UUID patientId) {
-        return vitalSignsRepository.countByPatientId(patientId);
+        return vitalSignsRepository.countByPatientId(patientId) + archiveService.countByPatientId(patientId);
+    }
+
+    /**
+     * Merge hot readings with archived ones, most recent first
+     */
+    private List<VitalSignsResponse> withArchived(List<VitalSignsResponse> readings, List<VitalSignsResponse> archived) {
+        if (archived.isEmpty()) {
+            return readings;
+        }
+        readings.addAll(archived);
+        readings.sort(Comparator.comparing(VitalSignsResponse::measurementDate).reversed());
+        return readings;
     }
 
     /**
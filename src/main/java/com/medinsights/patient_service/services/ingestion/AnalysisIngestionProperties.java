@@ -0,0 +1,38 @@
+package com.medinsights.patient_service.services.ingestion;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Document ingestion settings bound from {@code medical-analyses.ingestion.*}
+ *
+ * @param workers        concurrent extractions per replica
+ * @param maxQueued      queued jobs (all replicas) above which new uploads are refused
+ * @param maxAttempts    extraction attempts per job before it is marked FAILED
+ * @param pollInterval   how often idle workers look for due jobs
+ * @param lease          time a worker may hold a job before it is considered lost and the job retried
+ * @param initialBackoff delay before the first retry, doubled on each further failure
+ * @param maxBackoff     upper bound of the retry delay
+ */
+@ConfigurationProperties(prefix = "medical-analyses.ingestion")
+public record AnalysisIngestionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("4") int workers,
+        @DefaultValue("1000") int maxQueued,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("PT1S") Duration pollInterval,
+        @DefaultValue("PT10M") Duration lease,
+        @DefaultValue("PT30S") Duration initialBackoff,
+        @DefaultValue("PT30M") Duration maxBackoff
+) {
+
+    /**
+     * Delay before the attempt following the given failed one
+     */
+    public Duration backoff(int failedAttempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(Math.max(failedAttempt - 1, 0), 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,310 @@
+package com.medinsights.patient_service.services.ingestion;
+
+import com.medinsights.patient_service.dto.analysis.AnalysisIngestionJobResponse;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisCreateRequest;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisResponse;
+import com.medinsights.patient_service.entities.AnalysisIngestionJob;
+import com.medinsights.patient_service.entities.MedicalAnalysis;
+import com.medinsights.patient_service.events.ClinicalRecordWrittenEvent;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.exceptions.ServiceUnavailableException;
+import com.medinsights.patient_service.repositories.AnalysisIngestionJobRepository;
+import com.medinsights.patient_service.repositories.AnalysisIngestionJobRepository.ClaimedJobView;
+import com.medinsights.patient_service.repositories.MedicalAnalysisRepository;
+import com.medinsights.patient_service.services.MedicalAnalysisService;
+import com.medinsights.patient_service.services.documents.DocumentFile;
+import com.medinsights.patient_service.services.documents.DocumentStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous ingestion of analysis documents.
+ *
+ * An upload creates a PENDING analysis with the document attached and queues a job in
+ * analysis_ingestion_jobs, so it returns as soon as the file is stored. Each replica runs a
+ * fixed pool of workers and only claims as many due jobs as it has idle workers: the table is
+ * the queue, shared by all replicas and surviving restarts. A worker extracts the text
+ * (DocumentTextExtractor) outside any transaction, then fills ocrText and completes the analysis,
+ * which is announced to the alert rules like any other analysis write (ClinicalRecordWrittenEvent).
+ * Failed attempts are retried with exponential backoff; uploads are refused with 503 once the
+ * queue is deeper than max-queued.
+ */
+@Service
+@Slf4j
+public class AnalysisIngestionService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AnalysisIngestionProperties properties;
+    private final AnalysisIngestionJobRepository jobRepository;
+    private final MedicalAnalysisRepository medicalAnalysisRepository;
+    private final MedicalAnalysisService medicalAnalysisService;
+    private final DocumentStore documentStore;
+    private final DocumentTextExtractor extractor;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final Counter succeeded;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Timer extractionTimer;
+
+    private ScheduledExecutorService dispatcher;
+    private ExecutorService workers;
+
+    public AnalysisIngestionService(AnalysisIngestionProperties properties, AnalysisIngestionJobRepository jobRepository,
+                                    MedicalAnalysisRepository medicalAnalysisRepository,
+                                    MedicalAnalysisService medicalAnalysisService, DocumentStore documentStore,
+                                    DocumentTextExtractor extractor, TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jobRepository = jobRepository;
+        this.medicalAnalysisRepository = medicalAnalysisRepository;
+        this.medicalAnalysisService = medicalAnalysisService;
+        this.documentStore = documentStore;
+        this.extractor = extractor;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+
+        Gauge.builder("analysis.ingestion.queue.depth", queueDepth, AtomicLong::get)
+                .description("Ingestion jobs waiting for a worker, across all replicas")
+                .register(meterRegistry);
+        Gauge.builder("analysis.ingestion.workers.busy", busyWorkers, AtomicInteger::get)
+                .description("Ingestion workers of this replica currently extracting a document")
+                .register(meterRegistry);
+        this.succeeded = jobCounter(meterRegistry, "succeeded");
+        this.retried = jobCounter(meterRegistry, "retried");
+        this.failed = jobCounter(meterRegistry, "failed");
+        this.rejected = jobCounter(meterRegistry, "rejected");
+        this.extractionTimer = Timer.builder("analysis.ingestion.extraction")
+                .description("Document text extraction time, failed attempts included")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled()) {
+            log.info("Analysis ingestion workers disabled");
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.workers(), runnable -> {
+            Thread thread = new Thread(runnable, "analysis-ingestion-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analysis-ingestion-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long pollMillis = properties.pollInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::dispatch, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        log.info("Analysis ingestion started with {} workers", properties.workers());
+    }
+
+    /**
+     * Create a PENDING analysis for the document and queue the extraction of its text
+     *
+     * @return The queued job
+     */
+    @Transactional
+    public AnalysisIngestionJobResponse submit(UUID patientId, String analysisType, LocalDate analysisDate, String performedBy,
+                                               InputStream content, String fileName, String contentType, UUID userId) {
+        if (queueDepth.get() >= properties.maxQueued()) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Ingestion queue is full, retry later");
+        }
+
+        MedicalAnalysisResponse created = medicalAnalysisService.create(patientId, new MedicalAnalysisCreateRequest(
+                patientId, analysisType, analysisDate, null, null, null, null, null, null,
+                performedBy, null, "PENDING", null), userId);
+        MedicalAnalysisResponse analysis = medicalAnalysisService.attachDocument(created.id(), content, fileName, contentType, userId);
+
+        AnalysisIngestionJob job = new AnalysisIngestionJob();
+        job.setAnalysis(medicalAnalysisRepository.getReferenceById(analysis.id()));
+        job.setDocumentSha256(analysis.documentId());
+        job.setNextAttemptAt(Instant.now());
+        job.setCreatedBy(userId);
+        AnalysisIngestionJob saved = jobRepository.save(job);
+        queueDepth.incrementAndGet();
+        log.info("Queued ingestion job {} for analysis {}", saved.getId(), analysis.id());
+        return toResponse(saved);
+    }
+
+    /**
+     * Current state of an ingestion job
+     */
+    @Transactional(readOnly = true)
+    public AnalysisIngestionJobResponse getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Ingestion job not found with id: " + jobId));
+    }
+
+    /**
+     * Hand due jobs to idle workers; runs on the dispatcher thread
+     */
+    private void dispatch() {
+        try {
+            Instant now = Instant.now();
+            int maxAttempts = properties.maxAttempts();
+            Integer abandoned = transactionTemplate.execute(status -> jobRepository.failAbandoned(now, maxAttempts));
+            if (abandoned != null && abandoned > 0) {
+                failed.increment(abandoned);
+                log.warn("{} ingestion jobs failed after their worker was lost on the last attempt", abandoned);
+            }
+            queueDepth.set(jobRepository.countByStatus(AnalysisIngestionJob.QUEUED));
+
+            int idle = properties.workers() - busyWorkers.get();
+            if (idle <= 0) {
+                return;
+            }
+            List<ClaimedJobView> claimed = transactionTemplate.execute(status ->
+                    jobRepository.claimDue(now, now.plus(properties.lease()), maxAttempts, idle));
+            if (claimed == null) {
+                return;
+            }
+            for (ClaimedJobView job : claimed) {
+                busyWorkers.incrementAndGet();
+                workers.execute(() -> run(job));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Analysis ingestion dispatch failed", ex);
+        }
+    }
+
+    private void run(ClaimedJobView job) {
+        try {
+            DocumentFile document = documentStore.open(job.getDocumentSha256(), null);
+            String text = extractionTimer.recordCallable(() -> extractor.extract(document));
+            transactionTemplate.executeWithoutResult(status -> complete(job, text));
+        } catch (Exception ex) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> fail(job, ex));
+            } catch (RuntimeException failure) {
+                log.error("Could not record failure of ingestion job {}", job.getId(), failure);
+            }
+        } finally {
+            busyWorkers.decrementAndGet();
+        }
+    }
+
+    private void complete(ClaimedJobView job, String text) {
+        AnalysisIngestionJob row = lockOwnedJob(job);
+        if (row == null) {
+            return;
+        }
+        MedicalAnalysis analysis = row.getAnalysis();
+        analysis.setOcrText(text);
+        if ("PENDING".equals(analysis.getStatus())) {
+            analysis.setStatus("COMPLETED");
+        }
+        medicalAnalysisRepository.refreshSearchVector(analysis.getId());
+        // Delivered after commit, as for analyses created or updated through the API
+        MedicalAnalysisResponse response = medicalAnalysisService.findById(analysis.getId());
+        eventPublisher.publishEvent(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.MEDICAL_ANALYSIS,
+                response.patientId(), response, analysis.getAnalysisDate().atStartOfDay()));
+
+        row.setStatus(AnalysisIngestionJob.SUCCEEDED);
+        row.setLastError(null);
+        row.setCompletedAt(Instant.now());
+        succeeded.increment();
+        log.info("Ingestion job {} extracted {} characters for analysis {}", job.getId(),
+                text != null ? text.length() : 0, analysis.getId());
+    }
+
+    private void fail(ClaimedJobView job, Exception cause) {
+        AnalysisIngestionJob row = lockOwnedJob(job);
+        if (row == null) {
+            return;
+        }
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (row.getAttempts() >= properties.maxAttempts()) {
+            row.setStatus(AnalysisIngestionJob.FAILED);
+            row.setCompletedAt(Instant.now());
+            failed.increment();
+            log.error("Ingestion job {} failed after {} attempts", job.getId(), row.getAttempts(), cause);
+        } else {
+            row.setStatus(AnalysisIngestionJob.QUEUED);
+            row.setNextAttemptAt(Instant.now().plus(properties.backoff(row.getAttempts())));
+            retried.increment();
+            log.warn("Ingestion job {} attempt {} failed, retrying at {}: {}", job.getId(), row.getAttempts(),
+                    row.getNextAttemptAt(), error);
+        }
+    }
+
+    /**
+     * The job row if this worker still holds it: a lease that expired meanwhile may have let another worker claim it
+     */
+    private AnalysisIngestionJob lockOwnedJob(ClaimedJobView job) {
+        AnalysisIngestionJob row = jobRepository.findByIdForUpdate(job.getId()).orElse(null);
+        if (row == null || !AnalysisIngestionJob.RUNNING.equals(row.getStatus()) || row.getAttempts() != job.getAttempts()) {
+            log.warn("Ingestion job {} attempt {} lost its lease, result discarded", job.getId(), job.getAttempts());
+            return null;
+        }
+        return row;
+    }
+
+    private AnalysisIngestionJobResponse toResponse(AnalysisIngestionJob job) {
+        return new AnalysisIngestionJobResponse(
+                job.getId(),
+                job.getAnalysis().getId(),
+                job.getStatus(),
+                job.getAttempts(),
+                job.getNextAttemptAt(),
+                job.getLastError(),
+                job.getCreatedAt(),
+                job.getCompletedAt()
+        );
+    }
+
+    private static Counter jobCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("analysis.ingestion.jobs")
+                .description("Ingestion jobs by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher == null) {
+            return;
+        }
+        dispatcher.shutdownNow();
+        workers.shutdown();
+        try {
+            // Jobs still running are picked up again by any replica once their lease expires
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.medinsights.patient_service.services.ingestion;
+
+import com.medinsights.patient_service.services.documents.DocumentFile;
+
+/**
+ * Extracts the text of a stored document (OCR for scans), used to fill MedicalAnalysis.ocrText.
+ * Declaring a bean of this type replaces the local StubDocumentTextExtractor.
+ * Implementations are called concurrently from the ingestion workers.
+ */
+public interface DocumentTextExtractor {
+
+    /**
+     * Text of the document; any exception fails the attempt, which is retried later
+     */
+    String extract(DocumentFile document) throws Exception;
+}
@@ -0,0 +1,48 @@
+package com.medinsights.patient_service.services.ingestion;
+
+import com.medinsights.patient_service.services.documents.DocumentFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * Local stand-in for an OCR engine: collects runs of printable characters from the raw bytes,
+ * like strings(1). Enough for uncompressed text PDFs and for exercising the pipeline; scanned
+ * images yield little or nothing.
+ */
+public class StubDocumentTextExtractor implements DocumentTextExtractor {
+
+    private static final int MIN_RUN_LENGTH = 4;
+    private static final int MAX_TEXT_LENGTH = 100_000;
+
+    @Override
+    public String extract(DocumentFile document) throws IOException {
+        StringBuilder text = new StringBuilder();
+        StringBuilder run = new StringBuilder();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(document.path())) {
+            int read;
+            while ((read = in.read(buffer)) != -1 && text.length() < MAX_TEXT_LENGTH) {
+                for (int i = 0; i < read; i++) {
+                    int c = buffer[i] & 0xff;
+                    // Printable ASCII and Latin-1 letters (PDF literal strings are mostly single-byte)
+                    if ((c >= 0x20 && c < 0x7f) || c >= 0xc0) {
+                        run.append((char) c);
+                    } else {
+                        flush(run, text);
+                    }
+                }
+            }
+        }
+        flush(run, text);
+        return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text.toString();
+    }
+
+    private static void flush(StringBuilder run, StringBuilder text) {
+        if (run.length() >= MIN_RUN_LENGTH) {
+            text.append(run.toString().strip()).append('\n');
+        }
+        run.setLength(0);
+    }
+}
@@ -0,0 +1,151 @@
+package com.medinsights.patient_service.services.interactions;
+
+import com.medinsights.patient_service.entities.AlertSeverity;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory form of the drug interaction table.
+ *
+ * Every drug name and alias is interned to a dense int id; an interaction is the long
+ * {@code (smallerId << 32) | largerId}, and all of them are kept in one sorted array searched by
+ * bisection, with severity and description in parallel arrays. A lookup is a hash probe per drug
+ * plus a binary search, with no allocation beyond name normalisation.
+ */
+final class DrugInteractionIndex {
+
+    static final DrugInteractionIndex EMPTY = build(List.of(), Map.of());
+
+    private static final int UNKNOWN = -1;
+    private static final Pattern DOSE_OR_FORM = Pattern.compile("[0-9(\\[,;/].*$");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z ]+");
+    private static final Pattern SPACES = Pattern.compile(" +");
+
+    private final Map<String, Integer> ids;
+    private final long[] pairs;
+    private final AlertSeverity[] severities;
+    private final String[] descriptions;
+
+    private DrugInteractionIndex(Map<String, Integer> ids, long[] pairs, AlertSeverity[] severities, String[] descriptions) {
+        this.ids = ids;
+        this.pairs = pairs;
+        this.severities = severities;
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * @param interactions rows of drug_interactions
+     * @param aliases      alias to drug name, from drug_aliases
+     */
+    static DrugInteractionIndex build(List<InteractionRow> interactions, Map<String, String> aliases) {
+        Map<String, Integer> ids = new HashMap<>();
+        InteractionRow[] rows = new InteractionRow[interactions.size()];
+        long[] keys = new long[interactions.size()];
+        int count = 0;
+        for (InteractionRow row : interactions) {
+            int a = ids.computeIfAbsent(normalize(row.drugA()), name -> ids.size());
+            int b = ids.computeIfAbsent(normalize(row.drugB()), name -> ids.size());
+            if (a != b) {
+                keys[count] = key(a, b);
+                rows[count++] = row;
+            }
+        }
+        aliases.forEach((alias, drug) -> {
+            Integer id = ids.get(normalize(drug));
+            if (id != null) {
+                ids.putIfAbsent(normalize(alias), id);
+            }
+        });
+
+        // Sort keys and rows together; duplicate pairs keep their first row
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        long[] sortedKeys = keys;
+        Arrays.sort(order, (x, y) -> Long.compare(sortedKeys[x], sortedKeys[y]));
+        long[] pairs = new long[count];
+        AlertSeverity[] severities = new AlertSeverity[count];
+        String[] descriptions = new String[count];
+        int size = 0;
+        for (int i : order) {
+            if (size > 0 && pairs[size - 1] == keys[i]) {
+                continue;
+            }
+            pairs[size] = keys[i];
+            severities[size] = rows[i].severity();
+            descriptions[size] = rows[i].description();
+            size++;
+        }
+        return new DrugInteractionIndex(Map.copyOf(ids), Arrays.copyOf(pairs, size),
+                Arrays.copyOf(severities, size), Arrays.copyOf(descriptions, size));
+    }
+
+    /**
+     * Id of a prescribed medication, -1 if it is in no interaction. "Warfarine 5 mg" and
+     * "warfarin sodium" resolve like "warfarin": dose and form are dropped, then the first word is tried.
+     */
+    int idOf(String medication) {
+        if (medication == null) {
+            return UNKNOWN;
+        }
+        String name = normalize(medication);
+        Integer id = ids.get(name);
+        if (id == null) {
+            int space = name.indexOf(' ');
+            id = space > 0 ? ids.get(name.substring(0, space)) : null;
+        }
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Index of the interaction between two drug ids in the parallel arrays, -1 if none
+     */
+    int find(int a, int b) {
+        if (a == UNKNOWN || b == UNKNOWN || a == b) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(pairs, key(a, b));
+        return index >= 0 ? index : -1;
+    }
+
+    AlertSeverity severity(int interaction) {
+        return severities[interaction];
+    }
+
+    String description(int interaction) {
+        return descriptions[interaction];
+    }
+
+    int drugCount() {
+        return (int) ids.values().stream().distinct().count();
+    }
+
+    int interactionCount() {
+        return pairs.length;
+    }
+
+    static String normalize(String name) {
+        String ascii = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+        String withoutDose = DOSE_OR_FORM.matcher(ascii).replaceFirst("");
+        return SPACES.matcher(NON_LETTERS.matcher(withoutDose).replaceAll(" ")).replaceAll(" ").strip();
+    }
+
+    private static long key(int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        return ((long) low << 32) | high;
+    }
+
+    /**
+     * One row of drug_interactions
+     */
+    record InteractionRow(String drugA, String drugB, AlertSeverity severity, String description) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.medinsights.patient_service.services.interactions;
+
+import com.medinsights.patient_service.entities.AlertSeverity;
+import com.medinsights.patient_service.services.interactions.DrugInteractionIndex.InteractionRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Checks prescriptions against the drug interaction table.
+ *
+ * The drug_interactions and drug_aliases tables are read once at startup, then periodically, into a
+ * DrugInteractionIndex that is swapped in whole; checks only read the current index and never
+ * touch the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrugInteractionService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile DrugInteractionIndex index = DrugInteractionIndex.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Re-read the interaction table, keeping the current index if that fails
+     */
+    @Scheduled(fixedDelayString = "${drug-interactions.refresh-interval:PT1H}",
+            initialDelayString = "${drug-interactions.refresh-interval:PT1H}")
+    public void reload() {
+        try {
+            List<InteractionRow> rows = jdbcTemplate.query(
+                    "SELECT drug_a, drug_b, severity, description FROM drug_interactions",
+                    (rs, rowNum) -> new InteractionRow(rs.getString(1), rs.getString(2),
+                            AlertSeverity.valueOf(rs.getString(3).trim().toUpperCase(Locale.ROOT)), rs.getString(4)));
+            Map<String, String> aliases = new HashMap<>();
+            jdbcTemplate.query("SELECT alias, drug FROM drug_aliases",
+                    rs -> { aliases.put(rs.getString(1), rs.getString(2)); });
+
+            DrugInteractionIndex loaded = DrugInteractionIndex.build(rows, aliases);
+            index = loaded;
+            log.info("Loaded {} drug interactions between {} drugs", loaded.interactionCount(), loaded.drugCount());
+        } catch (RuntimeException ex) {
+            log.error("Could not load the drug interaction table, keeping {} known interactions",
+                    index.interactionCount(), ex);
+        }
+    }
+
+    /**
+     * Interactions of a medication with others taken by the same patient, most severe first
+     *
+     * @param medication       medication being prescribed, as written on the prescription
+     * @param otherMedications the patient's other active medications
+     */
+    public List<DrugInteraction> check(String medication, Collection<String> otherMedications) {
+        DrugInteractionIndex current = index;
+        int id = current.idOf(medication);
+        if (id < 0) {
+            return List.of();
+        }
+        List<DrugInteraction> found = new ArrayList<>();
+        for (String other : otherMedications) {
+            int interaction = current.find(id, current.idOf(other));
+            if (interaction >= 0) {
+                found.add(new DrugInteraction(medication, other, current.severity(interaction), current.description(interaction)));
+            }
+        }
+        found.sort((x, y) -> Integer.compare(y.severity().getRank(), x.severity().getRank()));
+        return found;
+    }
+
+    /**
+     * An interaction between a prescribed medication and another active one
+     */
+    public record DrugInteraction(String medication, String interactingMedication, AlertSeverity severity,
+                                  String description) {
+
+        /**
+         * "drugA + drugB: description"
+         */
+        public String summary() {
+            return medication + " + " + interactingMedication + (description != null ? ": " + description : "");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.medinsights.patient_service.services.rules;
+
+import com.medinsights.patient_service.dto.CreateMedicalAlertDTO;
+import com.medinsights.patient_service.dto.analysis.MedicalAnalysisResponse;
+import com.medinsights.patient_service.dto.cardiovascular.CardiovascularExamResponse;
+import com.medinsights.patient_service.dto.treatment.TreatmentResponse;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+import com.medinsights.patient_service.events.ClinicalRecordWrittenEvent;
+import com.medinsights.patient_service.events.VitalSignsRecordedEvent;
+import com.medinsights.patient_service.services.MedicalAlertService;
+import com.medinsights.patient_service.services.rules.AlertRuleProperties.RuleDefinition;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the configured alert rules against clinical records as they are written.
+ *
+ * Rules are compiled once at startup and grouped by record type. Committed writes are
+ * queued (bounded) and evaluated by a single background thread, which drains the queue
+ * in batches and raises the resulting alerts in one transaction per batch. Matches of rules
+ * requiring several occurrences are counted in the database (AlertRuleMatchLog), so records
+ * of a patient count together whichever replica evaluated them.
+ */
+@Service
+@Slf4j
+public class AlertRuleEngine {
+
+    private final MedicalAlertService alertService;
+    private final AlertRuleProperties properties;
+    private final AlertRuleMatchLog matchLog;
+
+    private final Map<ClinicalRecordWrittenEvent.Source, List<CompiledRule>> rulesBySource =
+            new EnumMap<>(ClinicalRecordWrittenEvent.Source.class);
+    private final BlockingQueue<ClinicalRecordWrittenEvent> queue;
+    private final Duration longestWindow;
+    private Thread worker;
+
+    public AlertRuleEngine(MedicalAlertService alertService, AlertRuleProperties properties, AlertRuleMatchLog matchLog) {
+        this.alertService = alertService;
+        this.properties = properties;
+        this.matchLog = matchLog;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        for (RuleDefinition rule : properties.rules()) {
+            rulesBySource.computeIfAbsent(rule.source(), s -> new ArrayList<>()).add(compile(rule));
+        }
+        this.longestWindow = properties.rules().stream()
+                .filter(rule -> rule.occurrences() > 1)
+                .map(RuleDefinition::window)
+                .max(Duration::compareTo)
+                .orElse(null);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.enabled() || rulesBySource.isEmpty()) {
+            log.info("Alert rule engine disabled");
+            return;
+        }
+        worker = new Thread(this::run, "alert-rules");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Alert rule engine started with {} rules", properties.rules().size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(5_000);
+        }
+    }
+
+    /**
+     * Drop matches too old to count towards any rule's window
+     */
+    @Scheduled(fixedDelayString = "${alert-rules.match-prune-interval:PT10M}")
+    public void pruneMatches() {
+        if (worker == null || longestWindow == null) {
+            return;
+        }
+        int deleted = matchLog.prune(Instant.now().minus(longestWindow));
+        if (deleted > 0) {
+            log.debug("Pruned {} alert rule matches older than {}", deleted, longestWindow);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onClinicalRecordWritten(ClinicalRecordWrittenEvent event) {
+        submit(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVitalSignsRecorded(VitalSignsRecordedEvent event) {
+        VitalSignsResponse reading = event.vitalSigns();
+        submit(new ClinicalRecordWrittenEvent(ClinicalRecordWrittenEvent.Source.VITAL_SIGNS,
+                reading.patientId(), reading, reading.measurementDate()));
+    }
+
+    private void submit(ClinicalRecordWrittenEvent event) {
+        if (worker == null || !rulesBySource.containsKey(event.source())) {
+            return;
+        }
+        if (!queue.offer(event)) {
+            log.error("Alert rule queue full, {} record of patient {} not evaluated", event.source(), event.patientId());
+        }
+    }
+
+    private void run() {
+        List<ClinicalRecordWrittenEvent> batch = new ArrayList<>(properties.batchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, properties.batchSize() - 1);
+
+                List<CreateMedicalAlertDTO> alerts = new ArrayList<>();
+                for (ClinicalRecordWrittenEvent event : batch) {
+                    evaluate(event, alerts);
+                }
+                if (!alerts.isEmpty()) {
+                    int created = alertService.raiseSystemAlerts(alerts);
+                    log.debug("Alert rules matched {} times on {} records, {} new alerts", alerts.size(), batch.size(), created);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.error("Alert rule evaluation failed for a batch of {} records", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void evaluate(ClinicalRecordWrittenEvent event, List<CreateMedicalAlertDTO> alerts) {
+        for (CompiledRule rule : rulesBySource.getOrDefault(event.source(), List.of())) {
+            if (!rule.predicate().test(event.record())) {
+                continue;
+            }
+
+            RuleDefinition definition = rule.definition();
+            if (definition.occurrences() > 1 && !matchLog.recordAndCheck(definition.id(), event.patientId(),
+                    event.occurredAt(), definition.occurrences(), definition.window())) {
+                continue;
+            }
+
+            alerts.add(new CreateMedicalAlertDTO(
+                    event.patientId(),
+                    definition.alertType(),
+                    definition.severity(),
+                    definition.description() != null ? definition.description() : "Alert rule " + definition.id() + " matched",
+                    definition.requiredAction()));
+        }
+    }
+
+    private static CompiledRule compile(RuleDefinition rule) {
+        if (rule.id() == null || rule.source() == null || rule.alertType() == null) {
+            throw new IllegalStateException("Alert rule requires id, source and alert-type: " + rule);
+        }
+        try {
+            return new CompiledRule(rule, ConditionCompiler.compile(rule.condition(), recordType(rule.source())));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException("Invalid alert rule " + rule.id() + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static Class<?> recordType(ClinicalRecordWrittenEvent.Source source) {
+        return switch (source) {
+            case VITAL_SIGNS -> VitalSignsResponse.class;
+            case MEDICAL_ANALYSIS -> MedicalAnalysisResponse.class;
+            case CARDIOVASCULAR_EXAM -> CardiovascularExamResponse.class;
+            case TREATMENT -> TreatmentResponse.class;
+        };
+    }
+
+    private record CompiledRule(RuleDefinition definition, Predicate<Object> predicate) {
+    }
+}
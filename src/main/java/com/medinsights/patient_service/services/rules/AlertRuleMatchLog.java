@@ -0,0 +1,74 @@
+package com.medinsights.patient_service.services.rules;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Matches of alert rules requiring several occurrences, in the alert_rule_matches table, so that
+ * a rule counts every matching record of a patient whichever replica evaluated it, and across restarts.
+ * A rule's matches for one patient are recorded and counted under an advisory lock, so records
+ * evaluated concurrently on two replicas see each other.
+ */
+@Component
+@RequiredArgsConstructor
+class AlertRuleMatchLog {
+
+    private static final int LOCK_NAMESPACE = 0x414c524d; // "ALRM"
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Record a match of a rule, then tell whether the patient now has {@code occurrences} matches
+     * within {@code window} of it; if so they are consumed, so the next firing needs as many again
+     */
+    boolean recordAndCheck(String ruleId, UUID patientId, LocalDateTime occurredAt, int occurrences, Duration window) {
+        Map<String, Object> params = Map.of(
+                "namespace", LOCK_NAMESPACE,
+                "key", lockKey(ruleId, patientId),
+                "ruleId", ruleId,
+                "patientId", patientId,
+                "occurredAt", occurredAt,
+                "from", occurredAt.minus(window),
+                "to", occurredAt.plus(window));
+        Boolean reached = transactionTemplate.execute(status -> {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(:namespace, :key)", params, rs -> { });
+            jdbcTemplate.update("INSERT INTO alert_rule_matches (rule_id, patient_id, occurred_at) " +
+                    "VALUES (:ruleId, :patientId, :occurredAt)", params);
+            Integer matches = jdbcTemplate.queryForObject("SELECT count(*) FROM alert_rule_matches " +
+                    "WHERE rule_id = :ruleId AND patient_id = :patientId AND occurred_at BETWEEN :from AND :to",
+                    params, Integer.class);
+            if (matches == null || matches < occurrences) {
+                return false;
+            }
+            jdbcTemplate.update("DELETE FROM alert_rule_matches WHERE rule_id = :ruleId AND patient_id = :patientId", params);
+            return true;
+        });
+        return Boolean.TRUE.equals(reached);
+    }
+
+    /**
+     * Delete the matches recorded before the cutoff
+     */
+    int prune(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM alert_rule_matches WHERE created_at < :cutoff",
+                Map.of("cutoff", Timestamp.from(cutoff)));
+    }
+
+    /**
+     * Advisory lock key, identical on every replica: built from the UUID bits and String.hashCode
+     */
+    private static int lockKey(String ruleId, UUID patientId) {
+        long bits = patientId.getMostSignificantBits() ^ patientId.getLeastSignificantBits();
+        return 31 * (int) (bits ^ (bits >>> 32)) + ruleId.hashCode();
+    }
+}
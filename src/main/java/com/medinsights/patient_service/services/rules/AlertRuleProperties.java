@@ -0,0 +1,40 @@
+package com.medinsights.patient_service.services.rules;
+
+import com.medinsights.patient_service.events.ClinicalRecordWrittenEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Alert rules bound from {@code alert-rules.*}
+ *
+ * @param queueCapacity records waiting for evaluation before new ones are dropped
+ * @param batchSize     maximum records evaluated (and alerts written) per transaction
+ */
+@ConfigurationProperties(prefix = "alert-rules")
+public record AlertRuleProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue List<RuleDefinition> rules
+) {
+
+    /**
+     * One rule. It fires when {@code occurrences} records matching {@code condition}
+     * are written for the same patient within {@code window}.
+     */
+    public record RuleDefinition(
+            String id,
+            ClinicalRecordWrittenEvent.Source source,
+            String condition,
+            @DefaultValue("1") int occurrences,
+            @DefaultValue("PT1H") Duration window,
+            String alertType,
+            @DefaultValue("MEDIUM") String severity,
+            String description,
+            String requiredAction
+    ) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.medinsights.patient_service.services.rules;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles rule conditions into predicates over a record type (the service response DTOs).
+ *
+ * Grammar: {@code clause (and|or clause)*}, where {@code and} binds tighter than {@code or} and a clause is
+ * {@code field (> | >= | < | <= | == | !=) literal}, {@code field contains literal},
+ * {@code field is empty} or {@code field is not empty}. Literals are numbers, bare words or
+ * quoted strings; string comparisons ignore case. Field names are the record component names.
+ * Fields are resolved once to method handles, so evaluation does no parsing or reflection lookups.
+ */
+final class ConditionCompiler {
+
+    private static final Pattern TOKEN = Pattern.compile("\\s*('(?:[^']|'')*'|\"[^\"]*\"|>=|<=|==|!=|>|<|[^\\s'\"<>=!]+)");
+
+    private ConditionCompiler() {
+    }
+
+    /**
+     * @throws IllegalArgumentException when the condition is malformed or names an unknown field
+     */
+    static Predicate<Object> compile(String condition, Class<?> type) {
+        if (condition == null || condition.isBlank()) {
+            return record -> true;
+        }
+        List<String> tokens = tokenize(condition);
+        List<Predicate<Object>> disjunction = new ArrayList<>();
+        Predicate<Object> conjunction = null;
+        int i = 0;
+        while (i < tokens.size()) {
+            Function<Object, Object> field = accessor(type, tokens.get(i++));
+            String operator = token(tokens, i++, condition).toLowerCase(Locale.ROOT);
+            Predicate<Object> clause;
+            if (operator.equals("is")) {
+                boolean negated = token(tokens, i, condition).equalsIgnoreCase("not");
+                if (negated) {
+                    i++;
+                }
+                if (!token(tokens, i++, condition).equalsIgnoreCase("empty")) {
+                    throw new IllegalArgumentException("Expected 'empty' in condition: " + condition);
+                }
+                Predicate<Object> empty = record -> isEmpty(field.apply(record));
+                clause = negated ? empty.negate() : empty;
+            } else {
+                clause = comparison(field, operator, literal(token(tokens, i++, condition)), condition);
+            }
+            conjunction = conjunction == null ? clause : conjunction.and(clause);
+
+            if (i < tokens.size()) {
+                String connective = tokens.get(i++).toLowerCase(Locale.ROOT);
+                if (connective.equals("or")) {
+                    disjunction.add(conjunction);
+                    conjunction = null;
+                } else if (!connective.equals("and")) {
+                    throw new IllegalArgumentException("Expected 'and' or 'or' but found '" + connective + "' in condition: " + condition);
+                }
+                if (i == tokens.size()) {
+                    throw new IllegalArgumentException("Condition ends with '" + connective + "': " + condition);
+                }
+            }
+        }
+        disjunction.add(conjunction);
+        return disjunction.stream().reduce(Predicate::or).orElseThrow();
+    }
+
+    private static Predicate<Object> comparison(Function<Object, Object> field, String operator, String literal, String condition) {
+        if (operator.equals("contains")) {
+            String needle = literal.toLowerCase(Locale.ROOT);
+            return record -> {
+                Object value = field.apply(record);
+                return value != null && value.toString().toLowerCase(Locale.ROOT).contains(needle);
+            };
+        }
+
+        Double number = parseNumber(literal);
+        if (number != null) {
+            double threshold = number;
+            Predicate<Double> test = switch (operator) {
+                case ">" -> v -> v > threshold;
+                case ">=" -> v -> v >= threshold;
+                case "<" -> v -> v < threshold;
+                case "<=" -> v -> v <= threshold;
+                case "==" -> v -> v == threshold;
+                case "!=" -> v -> v != threshold;
+                default -> throw new IllegalArgumentException("Unknown operator '" + operator + "' in condition: " + condition);
+            };
+            return record -> field.apply(record) instanceof Number value && test.test(value.doubleValue());
+        }
+
+        return switch (operator) {
+            case "==" -> record -> {
+                Object value = field.apply(record);
+                return value != null && value.toString().equalsIgnoreCase(literal);
+            };
+            case "!=" -> record -> {
+                Object value = field.apply(record);
+                return value == null || !value.toString().equalsIgnoreCase(literal);
+            };
+            default -> throw new IllegalArgumentException("Operator '" + operator + "' needs a numeric value in condition: " + condition);
+        };
+    }
+
+    private static Function<Object, Object> accessor(Class<?> type, String name) {
+        RecordComponent[] components = type.getRecordComponents();
+        if (components != null) {
+            for (RecordComponent component : components) {
+                if (component.getName().equalsIgnoreCase(name)) {
+                    try {
+                        MethodHandle handle = MethodHandles.publicLookup().unreflect(component.getAccessor());
+                        return record -> {
+                            try {
+                                return handle.invoke(record);
+                            } catch (Throwable ex) {
+                                throw new IllegalStateException("Cannot read " + name + " of " + type.getSimpleName(), ex);
+                            }
+                        };
+                    } catch (IllegalAccessException ex) {
+                        throw new IllegalArgumentException("Field " + name + " of " + type.getSimpleName() + " is not accessible", ex);
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + name + "' for " + type.getSimpleName());
+    }
+
+    private static List<String> tokenize(String condition) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(condition);
+        int end = 0;
+        while (matcher.lookingAt()) {
+            tokens.add(matcher.group(1));
+            end = matcher.end();
+            matcher.region(end, condition.length());
+        }
+        if (!condition.substring(end).isBlank()) {
+            throw new IllegalArgumentException("Unexpected input at position " + end + " in condition: " + condition);
+        }
+        return tokens;
+    }
+
+    private static String token(List<String> tokens, int index, String condition) {
+        if (index >= tokens.size()) {
+            throw new IllegalArgumentException("Incomplete condition: " + condition);
+        }
+        return tokens.get(index);
+    }
+
+    private static String literal(String token) {
+        if (token.length() >= 2 && (token.startsWith("'") && token.endsWith("'") || token.startsWith("\"") && token.endsWith("\""))) {
+            return token.substring(1, token.length() - 1).replace("''", "'");
+        }
+        return token;
+    }
+
+    private static Double parseNumber(String literal) {
+        try {
+            return Double.valueOf(literal);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null || value.toString().isBlank();
+    }
+}
@@ -0,0 +1,230 @@
+package com.medinsights.patient_service.services.streaming;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Delivery of stream events to every replica, over Postgres LISTEN/NOTIFY.
+ *
+ * A message published inside a transaction is sent by Postgres when, and only if, that
+ * transaction commits, to every replica listening on the channel (this one included) and
+ * in commit order. Each replica then fans the messages out to its own SSE subscribers, so
+ * a client receives the changes committed on any replica whichever replica it is connected to.
+ *
+ * Notifications are not persisted: those sent while a replica's listening connection is down
+ * are lost to it, and listeners are told when the connection is (re)established so they can
+ * catch up from their own tables. Payloads are limited to 8000 bytes by Postgres.
+ */
+@Component
+@Slf4j
+public class ClusterEventChannel {
+
+    static final int MAX_MESSAGE_BYTES = 7999;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final int pollMillis;
+    private final ConcurrentMap<String, Listener> listeners = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ClusterEventChannel(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                               @Value("${streaming.cluster.channel:patient_service_events}") String channel,
+                               @Value("${streaming.cluster.poll-interval:PT0.5S}") Duration pollInterval) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+        this.pollMillis = (int) pollInterval.toMillis();
+    }
+
+    /**
+     * Receive the messages of a stream published by any replica, on the single listener thread
+     */
+    public void register(String stream, Listener listener) {
+        if (listeners.putIfAbsent(stream, listener) != null) {
+            throw new IllegalStateException("A listener is already registered for stream " + stream);
+        }
+    }
+
+    /**
+     * Send a message of a stream to every replica once the current transaction commits
+     * (immediately when called outside a transaction)
+     *
+     * @throws IllegalArgumentException if the message does not fit in a notification
+     */
+    public void publish(String stream, String payload) {
+        if (!fits(stream, payload)) {
+            throw new IllegalArgumentException("Message of stream " + stream + " exceeds " + MAX_MESSAGE_BYTES + " bytes");
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, channel, stream + ":" + payload);
+    }
+
+    /**
+     * Whether a message is small enough to be published
+     */
+    public boolean fits(String stream, String payload) {
+        return (stream + ":" + payload).getBytes(StandardCharsets.UTF_8).length <= MAX_MESSAGE_BYTES;
+    }
+
+    /**
+     * Largest payload, in bytes, a message of the stream can carry
+     */
+    public int maxPayloadBytes(String stream) {
+        return MAX_MESSAGE_BYTES - (stream + ":").getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Start listening once every stream has registered its listener
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "cluster-events");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(pollMillis * 2L);
+        }
+    }
+
+    private void listen() {
+        Connection connection = null;
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = connect();
+                    log.info("Listening for stream events on channel {}", channel);
+                    listeners.forEach((stream, listener) -> notifyConnected(stream, listener));
+                }
+                PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(pollMillis);
+                if (notifications != null && notifications.length > 0) {
+                    dispatch(notifications);
+                }
+            } catch (SQLException ex) {
+                log.warn("Stream event channel {} connection failed: {}", channel, ex.getMessage());
+                abort(connection);
+                connection = null;
+                sleep(RECONNECT_DELAY);
+            }
+        }
+        abort(connection);
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("LISTEN \"" + channel + "\"");
+            return connection;
+        } catch (SQLException ex) {
+            abort(connection);
+            throw ex;
+        }
+    }
+
+    /**
+     * Hand each listener the payloads of its stream, in the order they were committed
+     */
+    private void dispatch(PGNotification[] notifications) {
+        Map<String, List<String>> payloads = new LinkedHashMap<>();
+        for (PGNotification notification : notifications) {
+            String message = notification.getParameter();
+            int colon = message.indexOf(':');
+            if (colon > 0) {
+                payloads.computeIfAbsent(message.substring(0, colon), s -> new ArrayList<>()).add(message.substring(colon + 1));
+            }
+        }
+        payloads.forEach((stream, messages) -> {
+            Listener listener = listeners.get(stream);
+            if (listener == null) {
+                return;
+            }
+            try {
+                listener.onMessages(messages);
+            } catch (RuntimeException ex) {
+                log.error("Failed to deliver {} {} stream events", messages.size(), stream, ex);
+            }
+        });
+    }
+
+    private void notifyConnected(String stream, Listener listener) {
+        try {
+            listener.onConnected();
+        } catch (RuntimeException ex) {
+            log.error("Failed to catch up the {} stream", stream, ex);
+        }
+    }
+
+    /**
+     * Abort rather than return the connection to the pool, so it stops listening
+     */
+    private void abort(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException ex) {
+            log.debug("Could not abort stream event connection", ex);
+        }
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    /**
+     * Receiver of one stream's messages
+     */
+    public interface Listener {
+
+        /**
+         * Messages received in one poll, in commit order
+         */
+        void onMessages(List<String> payloads);
+
+        /**
+         * The listening connection was (re)established: messages committed while it was down were not received
+         */
+        default void onConnected() {
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.medinsights.patient_service.services.streaming;
+
+import com.medinsights.patient_service.exceptions.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Topic-based fan-out of Server-Sent Events.
+ *
+ * Subscribers register for a set of topics (patient ids, owner ids, ...). Publishing only
+ * enqueues into each matching subscriber's bounded buffer and never blocks the caller;
+ * buffers are drained on the shared SSE executor, one drain task per subscriber at a time.
+ * A subscriber whose buffer is full is considered too slow and is disconnected; browsers'
+ * EventSource reconnects automatically. Heartbeat comments keep proxies from closing idle
+ * streams and detect dead connections.
+ */
+@Slf4j
+public class SseBroadcaster {
+
+    private final String name;
+    private final ScheduledExecutorService executor;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscribers;
+
+    private final ConcurrentMap<UUID, Set<Subscriber>> subscribersByTopic = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots reserved before a subscriber is registered, so concurrent subscribes never exceed the limit
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+    private final ScheduledFuture<?> heartbeat;
+
+    public SseBroadcaster(String name, ScheduledExecutorService executor, Duration timeout,
+                          int bufferSize, int maxSubscribers, Duration heartbeatInterval) {
+        this.name = name;
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        long interval = heartbeatInterval.toMillis();
+        this.heartbeat = executor.scheduleWithFixedDelay(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream receiving every message published to one of the topics.
+     *
+     * The subscriber is registered before the backlog is read: live messages published meanwhile
+     * are held and delivered after the backlog, except those with the id of a backlog message,
+     * so none is lost or sent twice, and a subscriber cut off at any point is unregistered.
+     *
+     * @param backlog messages delivered before any live message (e.g. replay after reconnect)
+     * @throws ServiceUnavailableException when the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Collection<UUID> topics, Supplier<? extends Collection<SseMessage>> backlog) {
+        if (reservedSlots.incrementAndGet() > maxSubscribers) {
+            reservedSlots.decrementAndGet();
+            throw new ServiceUnavailableException("Too many open " + name + " streams");
+        }
+
+        Subscriber subscriber;
+        try {
+            subscriber = newSubscriber(topics);
+        } catch (RuntimeException ex) {
+            reservedSlots.decrementAndGet();
+            throw ex;
+        }
+
+        subscribers.add(subscriber);
+        for (UUID topic : subscriber.topics) {
+            subscribersByTopic.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        try {
+            subscriber.start(backlog.get());
+        } catch (RuntimeException ex) {
+            subscriber.disconnect();
+            throw ex;
+        }
+        return subscriber.emitter;
+    }
+
+    public SseEmitter subscribe(Collection<UUID> topics, Collection<SseMessage> backlog) {
+        return subscribe(topics, () -> backlog);
+    }
+
+    public SseEmitter subscribe(Collection<UUID> topics) {
+        return subscribe(topics, Collections.emptyList());
+    }
+
+    private Subscriber newSubscriber(Collection<UUID> topics) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(topics));
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(ex -> unregister(subscriber));
+        return subscriber;
+    }
+
+    /**
+     * Enqueue a message for every subscriber of at least one of the topics (delivered once per subscriber)
+     */
+    public void publish(Collection<UUID> topics, SseMessage message) {
+        Set<Subscriber> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (UUID topic : topics) {
+            Set<Subscriber> topicSubscribers = subscribersByTopic.get(topic);
+            if (topicSubscribers != null) {
+                targets.addAll(topicSubscribers);
+            }
+        }
+        targets.forEach(subscriber -> subscriber.enqueue(message));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Complete all open streams, e.g. on shutdown
+     */
+    public void close() {
+        heartbeat.cancel(false);
+        subscribers.forEach(Subscriber::disconnect);
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(null);
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            reservedSlots.decrementAndGet();
+            for (UUID topic : subscriber.topics) {
+                subscribersByTopic.computeIfPresent(topic, (t, set) -> {
+                    set.remove(subscriber);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+
+    /**
+     * One open stream with its bounded buffer. A null entry in the buffer is a heartbeat.
+     * Until the backlog is known, live messages are held aside (at most bufferSize of them).
+     */
+    private final class Subscriber {
+        private static final SseMessage HEARTBEAT = new SseMessage(null, null, null);
+
+        final SseEmitter emitter;
+        final Set<UUID> topics;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile BlockingQueue<SseMessage> buffer;
+        volatile boolean closed;
+        private List<SseMessage> held = new ArrayList<>(); // guarded by this, until started
+
+        Subscriber(SseEmitter emitter, Set<UUID> topics) {
+            this.emitter = emitter;
+            this.topics = topics;
+        }
+
+        /**
+         * Queue the backlog, then the live messages held since registration that it does not already contain
+         */
+        void start(Collection<SseMessage> backlog) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                Set<String> backlogIds = new HashSet<>();
+                for (SseMessage message : backlog) {
+                    if (message.id() != null) {
+                        backlogIds.add(message.id());
+                    }
+                }
+                BlockingQueue<SseMessage> queue = new ArrayBlockingQueue<>(Math.max(bufferSize, backlog.size() + held.size()));
+                queue.addAll(backlog);
+                for (SseMessage message : held) {
+                    if (message.id() == null || !backlogIds.contains(message.id())) {
+                        queue.add(message);
+                    }
+                }
+                held = null;
+                buffer = queue;
+            }
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void enqueue(SseMessage message) {
+            if (closed) {
+                return;
+            }
+            BlockingQueue<SseMessage> buffer = this.buffer;
+            if (buffer == null) {
+                synchronized (this) {
+                    buffer = this.buffer;
+                    if (buffer == null) {
+                        if (message == null || closed) {
+                            return; // Heartbeats are not held
+                        }
+                        if (held.size() < bufferSize) {
+                            held.add(message);
+                            return;
+                        }
+                    }
+                }
+                if (buffer == null) {
+                    log.info("Disconnecting slow {} stream subscriber ({} messages held)", name, bufferSize);
+                    disconnect();
+                    return;
+                }
+            }
+            if (message == null) {
+                // Heartbeats are only useful on an idle stream
+                if (!buffer.isEmpty() || !buffer.offer(HEARTBEAT)) {
+                    return;
+                }
+            } else if (!buffer.offer(message)) {
+                log.info("Disconnecting slow {} stream subscriber ({} messages buffered)", name, buffer.size());
+                disconnect();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    draining.set(false);
+                    log.warn("{} stream delivery rejected: {}", name, ex.getMessage());
+                    disconnect();
+                }
+            }
+        }
+
+        void drain() {
+            BlockingQueue<SseMessage> buffer = this.buffer;
+            try {
+                SseMessage message;
+                while (!closed && (message = buffer.poll()) != null) {
+                    send(message);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("{} stream subscriber disconnected: {}", name, ex.getMessage());
+                disconnect();
+            } finally {
+                draining.set(false);
+            }
+            // A message may have been enqueued after the last poll but before the flag was cleared
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(SseMessage message) throws IOException {
+            if (message == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().data(message.data(), MediaType.APPLICATION_JSON);
+            if (message.id() != null) {
+                event.id(message.id());
+            }
+            if (message.name() != null) {
+                event.name(message.name());
+            }
+            emitter.send(event);
+        }
+
+        void disconnect() {
+            unregister(this);
+            BlockingQueue<SseMessage> buffer = this.buffer;
+            if (buffer != null) {
+                buffer.clear();
+            }
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Already completed by the container
+            }
+        }
+    }
+}
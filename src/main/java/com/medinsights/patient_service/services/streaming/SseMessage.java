@@ -0,0 +1,15 @@
+package com.medinsights.patient_service.services.streaming;
+
+/**
+ * One Server-Sent Event queued for delivery
+ *
+ * @param id   event id sent to the client (may be null)
+ * @param name event name (may be null for the default "message" event)
+ * @param data payload, serialized as JSON; a String is sent as is (e.g. JSON serialized by another replica)
+ */
+public record SseMessage(
+        String id,
+        String name,
+        Object data
+) {
+}
@@ -0,0 +1,68 @@
+package com.medinsights.patient_service.services.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact text form of a set of stream event ids for ClusterEventChannel messages: runs of
+ * consecutive ids are written as "first-last", runs are separated by commas ("12-40,43"). The
+ * ids written by one statement are mostly consecutive, so a chunk of a bulk change fits in one
+ * message.
+ */
+public final class StreamEventIds {
+
+    private StreamEventIds() {
+    }
+
+    /**
+     * Encode ids in as few messages of at most maxLength characters as possible
+     */
+    public static List<String> encode(List<Long> ids, int maxLength) {
+        List<Long> sorted = ids.stream().sorted().distinct().toList();
+        List<String> messages = new ArrayList<>();
+        StringBuilder message = new StringBuilder();
+        int i = 0;
+        while (i < sorted.size()) {
+            int last = i;
+            while (last + 1 < sorted.size() && sorted.get(last + 1) == sorted.get(last) + 1) {
+                last++;
+            }
+            String run = last == i ? Long.toString(sorted.get(i)) : sorted.get(i) + "-" + sorted.get(last);
+            if (!message.isEmpty() && message.length() + 1 + run.length() > maxLength) {
+                messages.add(message.toString());
+                message.setLength(0);
+            }
+            if (!message.isEmpty()) {
+                message.append(',');
+            }
+            message.append(run);
+            i = last + 1;
+        }
+        if (!message.isEmpty()) {
+            messages.add(message.toString());
+        }
+        return messages;
+    }
+
+    /**
+     * Ids of an encoded message, in ascending order
+     *
+     * @throws NumberFormatException if the message is not an encoded set of ids
+     */
+    public static List<Long> decode(String message) {
+        List<Long> ids = new ArrayList<>();
+        for (String run : message.split(",")) {
+            int dash = run.indexOf('-', 1);
+            if (dash < 0) {
+                ids.add(Long.parseLong(run.trim()));
+                continue;
+            }
+            long first = Long.parseLong(run.substring(0, dash).trim());
+            long last = Long.parseLong(run.substring(dash + 1).trim());
+            for (long id = first; id <= last; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
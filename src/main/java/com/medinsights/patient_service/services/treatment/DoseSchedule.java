@@ -0,0 +1,81 @@
+package com.medinsights.patient_service.services.treatment;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Doses of one treatment: its frequency applied from its start date up to its end.
+ *
+ * Doses are generated lazily over the requested window, starting directly at the first dose of
+ * the window, so a long-running prescription costs the same as a short one. A treatment ends after
+ * its end date, or after {@code durationDays} days from its start when it has no end date; with
+ * neither, it runs until the window's end.
+ */
+public final class DoseSchedule {
+
+    private final FrequencyExpression frequency;
+    private final LocalDate start;
+    private final LocalDateTime end;
+
+    public DoseSchedule(FrequencyExpression frequency, LocalDate startDate, LocalDate endDate, Integer durationDays) {
+        this.frequency = frequency;
+        this.start = startDate;
+        if (endDate != null) {
+            this.end = endDate.plusDays(1).atStartOfDay();
+        } else if (durationDays != null && durationDays > 0) {
+            this.end = startDate.plusDays(durationDays).atStartOfDay();
+        } else {
+            this.end = null;
+        }
+    }
+
+    public FrequencyExpression frequency() {
+        return frequency;
+    }
+
+    public LocalDate start() {
+        return start;
+    }
+
+    /**
+     * Doses scheduled within [from, to), in time order
+     */
+    public Stream<ScheduledDose> doses(LocalDateTime from, LocalDateTime to) {
+        if (!frequency.isScheduled()) {
+            return Stream.empty();
+        }
+        LocalDateTime limit = end != null && end.isBefore(to) ? end : to;
+        return LongStream.iterate(frequency.firstDoseAtOrAfter(start, from), number -> number + 1)
+                .mapToObj(number -> new ScheduledDose(number, frequency.doseAt(start, number)))
+                .takeWhile(dose -> dose.time().isBefore(limit));
+    }
+
+    /**
+     * Number of doses scheduled before {@code time}; dose numbers in [dosesBefore(a), dosesBefore(b))
+     * are exactly the doses within [a, b)
+     */
+    public long dosesBefore(LocalDateTime time) {
+        if (!frequency.isScheduled()) {
+            return 0;
+        }
+        return frequency.firstDoseAtOrAfter(start, end != null && end.isBefore(time) ? end : time);
+    }
+
+    /**
+     * Number of the dose scheduled exactly at {@code time}, or -1 if none is
+     */
+    public long doseNumberAt(LocalDateTime time) {
+        if (!frequency.isScheduled() || (end != null && !time.isBefore(end))) {
+            return -1;
+        }
+        return frequency.doseNumberAt(start, time);
+    }
+
+    /**
+     * @param number position of the dose in the treatment, from 0
+     */
+    public record ScheduledDose(long number, LocalDateTime time) {
+    }
+}
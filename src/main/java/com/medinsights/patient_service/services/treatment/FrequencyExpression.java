@@ -0,0 +1,280 @@
+package com.medinsights.patient_service.services.treatment;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dosing frequency of a treatment, parsed from its free-text {@code frequency}.
+ *
+ * Every schedule is a cycle repeated from midnight of the treatment's start date, with doses at
+ * fixed offsets within the cycle: "twice daily" is a 24 h cycle with doses at 08:00 and 20:00,
+ * "q8h" an 8 h cycle with one dose at 00:00 (hence 08:00 and 16:00), "every other day" a 48 h
+ * cycle with one dose at 08:00. Doses are numbered from 0 in time order, so dose n is computed
+ * directly, without walking the doses before it.
+ *
+ * Understood, in English and French: counts per day ("2x/day", "BID", "3 fois par jour", "3 fois/24h"),
+ * times ("08:00, 20:00", "8h et 20h"), parts of the day ("matin et soir", "tous les soirs", "at
+ * bedtime"), intervals ("every 6 hours", "q6h", "toutes les 6 heures"), day cycles ("every other
+ * day", "tous les 3 jours", "weekly"), plain daily doses ("tous les jours"). "As needed"
+ * prescriptions have no schedule. A count per 24 h is a count per day, not a 24 h interval.
+ */
+public final class FrequencyExpression {
+
+    /** "As needed" prescriptions: no scheduled doses */
+    public static final FrequencyExpression AS_NEEDED = new FrequencyExpression(0, new int[0]);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int FIRST_DOSE_MINUTE = 8 * 60;
+
+    private static final Pattern AS_NEEDED_TEXT = Pattern.compile("\\b(prn|as needed|if needed|when needed|si besoin|au besoin|en cas de besoin)\\b");
+    private static final Pattern HOUR_INTERVAL = Pattern.compile(
+            "(?:\\bq|\\bevery|\\btoutes les|\\btous les|\\bchaque|(?<!\\d\\s?)/)\\s*(\\d{1,2})\\s*(?:h|hr|hrs|hours?|heures?)\\b");
+    private static final Pattern HOURLY = Pattern.compile("\\b(hourly|every hour|toutes les heures|chaque heure)\\b");
+    private static final Pattern DAY_INTERVAL = Pattern.compile(
+            "(?:\\bevery|\\btous les|\\btoutes les|\\bq)\\s*(\\d{1,2})\\s*(?:d|days?|jours?)\\b");
+    private static final Pattern EVERY_OTHER_DAY = Pattern.compile("\\b(every other day|qod|un jour sur deux|1 jour sur 2)\\b");
+    private static final Pattern WEEKLY = Pattern.compile("\\b(weekly|once a week|once per week|1 ?x? ?(?:/|par|per|a) ?(?:week|semaine|sem)|par semaine|hebdomadaire)\\b");
+    private static final Pattern DAILY = Pattern.compile("\\b(days?|daily|every day|jours?|quotidien|quotidienne)\\b");
+    private static final Pattern TIME = Pattern.compile("\\b([01]?\\d|2[0-3])(?::|h)([0-5]\\d)?(?![\\d])");
+    private static final Pattern COUNT_PER_DAY = Pattern.compile(
+            "(?:\\bx\\s*(\\d{1,2})|\\b(\\d{1,2})\\s*(?:x|fois|times?|doses?|prises?))\\s*(?:/|par|per|a|an)?\\s*(?:day|daily|jour|j|d|24 ?h)\\b"
+                    + "|\\b(\\d{1,2})\\s*(?:/|par|per)\\s*(?:day|jour|j|d|24 ?h)\\b");
+    private static final Pattern COUNT_WORDS = Pattern.compile(
+            "\\b(once|twice|thrice|one|two|three|four|une|deux|trois|quatre)\\s*(?:times?|fois)?\\s*(?:a|per|par)?\\s*(?:day|daily|jour)\\b");
+    private static final Map<String, Integer> NUMBER_WORDS = Map.ofEntries(
+            Map.entry("once", 1), Map.entry("one", 1), Map.entry("une", 1),
+            Map.entry("twice", 2), Map.entry("two", 2), Map.entry("deux", 2),
+            Map.entry("thrice", 3), Map.entry("three", 3), Map.entry("trois", 3),
+            Map.entry("four", 4), Map.entry("quatre", 4));
+    private static final Map<String, Integer> ABBREVIATIONS = Map.of(
+            "qd", 1, "od", 1, "daily", 1, "bid", 2, "bd", 2, "tid", 3, "tds", 3, "qid", 4, "qds", 4);
+    private static final List<PartOfDay> PARTS_OF_DAY = List.of(
+            new PartOfDay(Pattern.compile("\\b(mornings?|matins?|breakfast|petit dejeuner)\\b"), 8 * 60),
+            new PartOfDay(Pattern.compile("\\b(noon|midday|midis?|lunch|dejeuner)\\b"), 12 * 60),
+            new PartOfDay(Pattern.compile("\\b(evenings?|soirs?|dinner|diners?)\\b"), 20 * 60),
+            new PartOfDay(Pattern.compile("\\b(bedtime|qhs|hs|coucher|nuits?|nights?)\\b"), 22 * 60));
+
+    private final int cycleMinutes;
+    private final int[] offsets;
+
+    private FrequencyExpression(int cycleMinutes, int[] offsets) {
+        this.cycleMinutes = cycleMinutes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Parse a treatment frequency
+     *
+     * @return The schedule, or empty if the text is not understood
+     */
+    public static Optional<FrequencyExpression> parse(String frequency) {
+        if (frequency == null || frequency.isBlank()) {
+            return Optional.empty();
+        }
+        String text = normalize(frequency);
+        if (AS_NEEDED_TEXT.matcher(text).find()) {
+            return Optional.of(AS_NEEDED);
+        }
+
+        // "3 fois/24h" is a count per day: checked first, the "/24h" would otherwise read as an interval
+        int hours = COUNT_PER_DAY.matcher(text).find() ? 0 : intervalHours(text);
+        if (hours > 0) {
+            if (hours > 72) {
+                return Optional.empty();
+            }
+            int cycle = hours * 60;
+            return Optional.of(new FrequencyExpression(cycle, new int[]{FIRST_DOSE_MINUTE % cycle}));
+        }
+
+        int days = cycleDays(text);
+        int[] offsets = doseTimes(text);
+        if (offsets == null) {
+            if (days == 1 && !DAILY.matcher(text).find()) {
+                return Optional.empty();
+            }
+            offsets = new int[]{FIRST_DOSE_MINUTE};
+        }
+        return Optional.of(new FrequencyExpression(days * MINUTES_PER_DAY, offsets));
+    }
+
+    /**
+     * Whether the treatment has scheduled doses at all
+     */
+    public boolean isScheduled() {
+        return offsets.length > 0;
+    }
+
+    /**
+     * Doses per cycle
+     */
+    public int dosesPerCycle() {
+        return offsets.length;
+    }
+
+    public Duration cycle() {
+        return Duration.ofMinutes(cycleMinutes);
+    }
+
+    /**
+     * Time of dose number {@code ordinal} of a schedule starting on {@code start}
+     */
+    public LocalDateTime doseAt(LocalDate start, long ordinal) {
+        long cycles = ordinal / offsets.length;
+        int slot = (int) (ordinal % offsets.length);
+        return start.atStartOfDay().plusMinutes(cycles * cycleMinutes + offsets[slot]);
+    }
+
+    /**
+     * Number of the first dose at or after {@code time}, for a schedule starting on {@code start}
+     */
+    public long firstDoseAtOrAfter(LocalDate start, LocalDateTime time) {
+        long minutes = Math.floorDiv(ChronoUnit.SECONDS.between(start.atStartOfDay(), time) + 59, 60);
+        if (minutes <= 0) {
+            return 0;
+        }
+        long cycles = minutes / cycleMinutes;
+        long within = minutes - cycles * cycleMinutes;
+        for (int slot = 0; slot < offsets.length; slot++) {
+            if (offsets[slot] >= within) {
+                return cycles * offsets.length + slot;
+            }
+        }
+        return (cycles + 1) * offsets.length;
+    }
+
+    /**
+     * Number of the dose scheduled exactly at {@code time}, or -1 if no dose is due then
+     */
+    public long doseNumberAt(LocalDate start, LocalDateTime time) {
+        long ordinal = firstDoseAtOrAfter(start, time);
+        return doseAt(start, ordinal).equals(time) ? ordinal : -1;
+    }
+
+    /**
+     * Canonical form, e.g. "PT24H 08:00,20:00"; stable as long as the schedule is the same
+     */
+    @Override
+    public String toString() {
+        if (!isScheduled()) {
+            return "AS_NEEDED";
+        }
+        StringBuilder text = new StringBuilder(Duration.ofMinutes(cycleMinutes).toString()).append(' ');
+        for (int i = 0; i < offsets.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(LocalTime.ofSecondOfDay(offsets[i] * 60L));
+        }
+        return text.toString();
+    }
+
+    private static int intervalHours(String text) {
+        Matcher interval = HOUR_INTERVAL.matcher(text);
+        if (interval.find()) {
+            return Integer.parseInt(interval.group(1));
+        }
+        return HOURLY.matcher(text).find() ? 1 : 0;
+    }
+
+    private static int cycleDays(String text) {
+        if (EVERY_OTHER_DAY.matcher(text).find()) {
+            return 2;
+        }
+        if (WEEKLY.matcher(text).find()) {
+            return 7;
+        }
+        Matcher days = DAY_INTERVAL.matcher(text);
+        if (days.find()) {
+            int count = Integer.parseInt(days.group(1));
+            return count >= 1 && count <= 90 ? count : 1;
+        }
+        return 1;
+    }
+
+    /**
+     * Minutes after midnight of each daily dose, in order, or null if the text gives neither times nor a count
+     */
+    private static int[] doseTimes(String text) {
+        TreeSet<Integer> times = new TreeSet<>();
+        Matcher time = TIME.matcher(text);
+        while (time.find()) {
+            int hour = Integer.parseInt(time.group(1));
+            int minute = time.group(2) != null ? Integer.parseInt(time.group(2)) : 0;
+            times.add(hour * 60 + minute);
+        }
+        if (times.isEmpty()) {
+            for (PartOfDay part : PARTS_OF_DAY) {
+                if (part.pattern().matcher(text).find()) {
+                    times.add(part.minute());
+                }
+            }
+        }
+        if (!times.isEmpty()) {
+            return times.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Integer count = countPerDay(text);
+        return count != null ? spread(count) : null;
+    }
+
+    private static Integer countPerDay(String text) {
+        Matcher count = COUNT_PER_DAY.matcher(text);
+        if (count.find()) {
+            String digits = count.group(1) != null ? count.group(1) : count.group(2) != null ? count.group(2) : count.group(3);
+            int value = Integer.parseInt(digits);
+            return value >= 1 && value <= 24 ? value : null;
+        }
+        Matcher words = COUNT_WORDS.matcher(text);
+        if (words.find()) {
+            return NUMBER_WORDS.get(words.group(1));
+        }
+        for (String word : text.split("[^a-z]+")) {
+            Integer value = ABBREVIATIONS.get(word);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Usual administration times for a number of daily doses
+     */
+    private static int[] spread(int count) {
+        return switch (count) {
+            case 1 -> new int[]{8 * 60};
+            case 2 -> new int[]{8 * 60, 20 * 60};
+            case 3 -> new int[]{8 * 60, 14 * 60, 20 * 60};
+            case 4 -> new int[]{8 * 60, 12 * 60, 16 * 60, 20 * 60};
+            default -> {
+                int[] offsets = new int[count];
+                for (int i = 0; i < count; i++) {
+                    offsets[i] = i * MINUTES_PER_DAY / count;
+                }
+                yield offsets;
+            }
+        };
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[\\s.]+", " ")
+                .strip();
+    }
+
+    private record PartOfDay(Pattern pattern, int minute) {
+    }
+}
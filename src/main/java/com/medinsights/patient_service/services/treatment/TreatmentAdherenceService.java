@@ -0,0 +1,193 @@
+package com.medinsights.patient_service.services.treatment;
+
+import com.medinsights.patient_service.dto.treatment.AdherenceRecordRequest;
+import com.medinsights.patient_service.dto.treatment.AdherenceSummaryResponse;
+import com.medinsights.patient_service.dto.treatment.DoseTimelineResponse;
+import com.medinsights.patient_service.dto.treatment.DoseTimelineResponse.DoseEvent;
+import com.medinsights.patient_service.entities.Treatment;
+import com.medinsights.patient_service.entities.TreatmentAdherence;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.repositories.TreatmentAdherenceRepository;
+import com.medinsights.patient_service.repositories.TreatmentRepository;
+import com.medinsights.patient_service.services.treatment.DoseSchedule.ScheduledDose;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Dose timeline and adherence of treatments.
+ *
+ * Doses come from the treatment's frequency (FrequencyExpression) and dates (DoseSchedule), and
+ * are never stored. What patients report is kept as two bitmaps per treatment and schedule, taken
+ * and missed, indexed by dose number: a year of four daily doses fits in under 200 bytes each, and
+ * counting the doses taken over any window is a popcount over a bit range. Dose times are wall-clock
+ * times of the clinic, so what is due, upcoming or too far ahead is judged against the clinic's clock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TreatmentAdherenceService {
+
+    public static final int MAX_TIMELINE_DOSES = 1000;
+
+    private static final long MAX_DOSE_NUMBER = Integer.MAX_VALUE - 1;
+
+    private final TreatmentRepository treatmentRepository;
+    private final TreatmentAdherenceRepository adherenceRepository;
+
+    @Value("${treatments.clinic-zone:#{T(java.time.ZoneId).systemDefault()}}")
+    private ZoneId clinicZone;
+
+    /**
+     * Doses scheduled within [from, to), with what was recorded for each
+     *
+     * @param from  First dose time (inclusive), the treatment start if null
+     * @param to    End of the window (exclusive), 30 days after from if null
+     * @param limit Maximum number of doses returned, at most MAX_TIMELINE_DOSES
+     */
+    @Transactional(readOnly = true)
+    public DoseTimelineResponse getDoses(UUID treatmentId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 1 || limit > MAX_TIMELINE_DOSES) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_TIMELINE_DOSES);
+        }
+        Treatment treatment = requireTreatment(treatmentId);
+        DoseSchedule schedule = scheduleOf(treatment);
+        LocalDateTime start = from != null ? from : treatment.getStartDate().atStartOfDay();
+        LocalDateTime end = to != null ? to : start.plusDays(30);
+        checkOrder(start, end);
+
+        Bitmaps bitmaps = bitmaps(treatment, schedule);
+        LocalDateTime now = now();
+        List<ScheduledDose> doses = schedule.doses(start, end).limit(limit + 1L).toList();
+        List<DoseEvent> events = doses.stream()
+                .limit(limit)
+                .map(dose -> new DoseEvent(dose.number(), dose.time(), status(dose, bitmaps, now)))
+                .toList();
+        LocalDateTime nextFrom = doses.size() > limit ? doses.get(limit).time() : null;
+        return new DoseTimelineResponse(treatmentId, treatment.getFrequency(), schedule.frequency().toString(), events, nextFrom);
+    }
+
+    /**
+     * Adherence over the doses due within [from, to)
+     *
+     * @param from Start of the window (inclusive), the treatment start if null
+     * @param to   End of the window (exclusive), now if null; doses after now are not due yet
+     */
+    @Transactional(readOnly = true)
+    public AdherenceSummaryResponse getAdherence(UUID treatmentId, LocalDateTime from, LocalDateTime to) {
+        Treatment treatment = requireTreatment(treatmentId);
+        DoseSchedule schedule = scheduleOf(treatment);
+        LocalDateTime start = from != null ? from : treatment.getStartDate().atStartOfDay();
+        LocalDateTime end = to != null ? to : now();
+        checkOrder(start, end);
+        return summarize(treatmentId, schedule, bitmaps(treatment, schedule), start, end);
+    }
+
+    /**
+     * Record doses as taken or missed, then return the adherence since the treatment start
+     */
+    @Transactional
+    public AdherenceSummaryResponse record(UUID treatmentId, AdherenceRecordRequest request, UUID userId) {
+        Treatment treatment = requireTreatment(treatmentId);
+        DoseSchedule schedule = scheduleOf(treatment);
+        if (!schedule.frequency().isScheduled()) {
+            throw new BadRequestException("Treatment " + treatmentId + " is taken as needed and has no scheduled doses");
+        }
+        String key = schedule.frequency().toString();
+        LocalDateTime latest = now().plusDays(1);
+
+        adherenceRepository.insertIfAbsent(UUID.randomUUID(), treatmentId, key, schedule.start(), Instant.now());
+        TreatmentAdherence adherence = adherenceRepository.findForUpdate(treatmentId, key, schedule.start())
+                .orElseThrow(() -> new IllegalStateException("Adherence of treatment " + treatmentId + " not found after insert"));
+        BitSet taken = BitSet.valueOf(adherence.getTaken());
+        BitSet missed = BitSet.valueOf(adherence.getMissed());
+
+        for (AdherenceRecordRequest.DoseRecord dose : request.doses()) {
+            long number = schedule.doseNumberAt(dose.scheduledAt());
+            if (number < 0 || number > MAX_DOSE_NUMBER) {
+                throw new BadRequestException("No dose of treatment " + treatmentId + " is scheduled at " + dose.scheduledAt());
+            }
+            if (dose.scheduledAt().isAfter(latest)) {
+                throw new BadRequestException("Doses cannot be recorded more than a day ahead: " + dose.scheduledAt());
+            }
+            taken.set((int) number, dose.taken());
+            missed.set((int) number, !dose.taken());
+        }
+
+        adherence.setTaken(taken.toByteArray());
+        adherence.setMissed(missed.toByteArray());
+        adherence.setUpdatedAt(Instant.now());
+        adherence.setUpdatedBy(userId);
+        adherenceRepository.save(adherence);
+        log.info("Recorded {} doses of treatment {}", request.doses().size(), treatmentId);
+
+        return summarize(treatmentId, schedule, new Bitmaps(taken, missed), schedule.start().atStartOfDay(), now());
+    }
+
+    private AdherenceSummaryResponse summarize(UUID treatmentId, DoseSchedule schedule, Bitmaps bitmaps,
+                                               LocalDateTime from, LocalDateTime to) {
+        LocalDateTime dueUntil = to.isAfter(now()) ? now() : to;
+        int first = (int) Math.min(schedule.dosesBefore(from), MAX_DOSE_NUMBER);
+        int last = dueUntil.isAfter(from) ? (int) Math.min(schedule.dosesBefore(dueUntil), MAX_DOSE_NUMBER) : first;
+
+        long due = last - first;
+        long taken = bitmaps.taken().get(first, last).cardinality();
+        long missed = bitmaps.missed().get(first, last).cardinality();
+        Double rate = taken + missed > 0 ? (double) taken / (taken + missed) : null;
+        return new AdherenceSummaryResponse(treatmentId, schedule.frequency().toString(), from, to,
+                due, taken, missed, due - taken - missed, rate);
+    }
+
+    private Bitmaps bitmaps(Treatment treatment, DoseSchedule schedule) {
+        return adherenceRepository.findByTreatmentIdAndScheduleAndStartDate(
+                        treatment.getId(), schedule.frequency().toString(), schedule.start())
+                .map(adherence -> new Bitmaps(BitSet.valueOf(adherence.getTaken()), BitSet.valueOf(adherence.getMissed())))
+                .orElseGet(() -> new Bitmaps(new BitSet(), new BitSet()));
+    }
+
+    private static String status(ScheduledDose dose, Bitmaps bitmaps, LocalDateTime now) {
+        int number = (int) Math.min(dose.number(), MAX_DOSE_NUMBER);
+        if (bitmaps.taken().get(number)) {
+            return "TAKEN";
+        }
+        if (bitmaps.missed().get(number)) {
+            return "MISSED";
+        }
+        return dose.time().isAfter(now) ? "UPCOMING" : "UNRECORDED";
+    }
+
+    private Treatment requireTreatment(UUID treatmentId) {
+        return treatmentRepository.findById(treatmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Treatment not found with id: " + treatmentId));
+    }
+
+    private static DoseSchedule scheduleOf(Treatment treatment) {
+        FrequencyExpression frequency = FrequencyExpression.parse(treatment.getFrequency())
+                .orElseThrow(() -> new BadRequestException("Frequency of treatment " + treatment.getId()
+                        + " is not understood: '" + treatment.getFrequency() + "'"));
+        return new DoseSchedule(frequency, treatment.getStartDate(), treatment.getEndDate(), treatment.getDurationDays());
+    }
+
+    private static void checkOrder(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new BadRequestException("from must not be after to");
+        }
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clinicZone);
+    }
+
+    private record Bitmaps(BitSet taken, BitSet missed) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.medinsights.patient_service.services.treatment;
+
+import com.medinsights.patient_service.repositories.TreatmentRepository;
+import com.medinsights.patient_service.services.escalation.AdvisoryLeaderLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Moves active treatments past their end date (or start date + duration) to COMPLETED, so
+ * active-treatment queries and counts stay accurate.
+ *
+ * Each run completes expired treatments with set-based UPDATEs of at most {@code chunk-size}
+ * rows, one transaction per chunk, found through the partial index idx_treatment_active_expiry.
+ * Only one replica runs at a time: a run first takes an advisory leader lock and releases it
+ * when done. A treatment ending on a given day completes once that day is over in the clinic's
+ * zone ({@code treatments.clinic-zone}), the zone its dates are written in. The bulk updates
+ * publish no ClinicalRecordWrittenEvent, as completion triggers no alert rule.
+ */
+@Component
+@Slf4j
+public class TreatmentCompletionJob {
+
+    private static final int LEADER_LOCK_NAMESPACE = 0x54524358; // "TRCX"
+    private static final int LEADER_LOCK_KEY = 1;
+
+    private final TreatmentRepository treatmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvisoryLeaderLock leaderLock;
+    private final Counter completed;
+    private final Timer runTimer;
+    private final Timer chunkTimer;
+
+    @Value("${treatments.completion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${treatments.completion.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${treatments.completion.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${treatments.clinic-zone:#{T(java.time.ZoneId).systemDefault()}}")
+    private ZoneId clinicZone;
+
+    public TreatmentCompletionJob(TreatmentRepository treatmentRepository, TransactionTemplate transactionTemplate,
+                                  DataSource dataSource, MeterRegistry meterRegistry) {
+        this.treatmentRepository = treatmentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.leaderLock = new AdvisoryLeaderLock(dataSource, LEADER_LOCK_NAMESPACE, LEADER_LOCK_KEY);
+        this.completed = Counter.builder("treatments.completion.completed")
+                .description("Expired treatments moved to COMPLETED")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("treatments.completion.run")
+                .description("Duration of completion runs on the leader replica")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("treatments.completion.chunk")
+                .description("Duration of one chunk UPDATE and its commit")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${treatments.completion.cron:0 15 * * * *}")
+    public void completeExpiredTreatments() {
+        if (!enabled) {
+            return;
+        }
+        if (!leaderLock.tryAcquire()) {
+            log.debug("Expired treatments are being completed by another instance");
+            return;
+        }
+        try {
+            runTimer.record(this::run);
+        } finally {
+            leaderLock.close();
+        }
+    }
+
+    private void run() {
+        LocalDate today = LocalDate.now(clinicZone);
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer count;
+            try {
+                count = chunkTimer.record(() -> transactionTemplate.execute(status ->
+                        treatmentRepository.completeExpired(today, Instant.now(), chunkSize)));
+            } catch (RuntimeException ex) {
+                log.error("Completing expired treatments failed after {} treatments", total, ex);
+                break;
+            }
+            int updated = count != null ? count : 0;
+            completed.increment(updated);
+            total += updated;
+            if (updated < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Completed {} treatments that ended before {}", total, today);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+/**
+ * Sequential reader over a stream produced by {@link BitWriter}
+ */
+final class BitReader {
+
+    private final byte[] buffer;
+    private long position;
+
+    BitReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    boolean readBit() {
+        int byteIndex = (int) (position >>> 3);
+        if (byteIndex >= buffer.length) {
+            throw new IllegalStateException("Unexpected end of archive block");
+        }
+        boolean bit = (buffer[byteIndex] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    /**
+     * Read {@code n} bits as an unsigned value, 0 <= n <= 64
+     */
+    long readBits(int n) {
+        long value = 0;
+        for (int i = 0; i < n; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+
+    /**
+     * Read {@code n} bits as a two's complement signed value
+     */
+    long readSignedBits(int n) {
+        long raw = readBits(n);
+        return n == 64 ? raw : (raw << (64 - n)) >> (64 - n);
+    }
+
+    byte[] readBytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) readBits(8);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,46 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import java.util.Arrays;
+
+/**
+ * Append-only bit stream (most significant bit first) used by the archive codec
+ */
+final class BitWriter {
+
+    private byte[] buffer;
+    private long bitCount;
+
+    BitWriter(int initialCapacityBytes) {
+        this.buffer = new byte[Math.max(16, initialCapacityBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        int byteIndex = (int) (bitCount >>> 3);
+        if (byteIndex == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        if (bit) {
+            buffer[byteIndex] |= (byte) (0x80 >>> (bitCount & 7));
+        }
+        bitCount++;
+    }
+
+    /**
+     * Write the lowest {@code n} bits of {@code value}, 0 <= n <= 64
+     */
+    void writeBits(long value, int n) {
+        for (int i = n - 1; i >= 0; i--) {
+            writeBit(((value >>> i) & 1L) != 0);
+        }
+    }
+
+    void writeBytes(byte[] bytes) {
+        for (byte b : bytes) {
+            writeBits(b, 8);
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (int) ((bitCount + 7) >>> 3));
+    }
+}
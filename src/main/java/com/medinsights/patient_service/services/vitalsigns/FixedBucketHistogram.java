@@ -0,0 +1,100 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+/**
+ * Linear fixed-bucket histogram (HDR-style: bounded range, constant resolution).
+ *
+ * Unlike quantile digests it supports removals, so a distribution over "latest value
+ * per patient" can be maintained exactly when a patient's latest reading changes.
+ * Histograms with the same layout merge by adding bucket counts. Values outside
+ * the range are clamped to the first/last bucket. Not thread-safe.
+ */
+final class FixedBucketHistogram {
+
+    private final double min;
+    private final double resolution;
+    private final int[] counts;
+    private long total;
+
+    FixedBucketHistogram(double min, double max, double resolution) {
+        this.min = min;
+        this.resolution = resolution;
+        this.counts = new int[(int) Math.ceil((max - min) / resolution) + 1];
+    }
+
+    static FixedBucketHistogram forMetric(VitalSignMetric metric) {
+        return new FixedBucketHistogram(metric.getHistogramMin(), metric.getHistogramMax(), metric.getHistogramResolution());
+    }
+
+    void add(double value) {
+        counts[bucketOf(value)]++;
+        total++;
+    }
+
+    void remove(double value) {
+        int bucket = bucketOf(value);
+        if (counts[bucket] > 0) {
+            counts[bucket]--;
+            total--;
+        }
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * Value at quantile q (0..1), reported as the bucket centre; NaN when empty
+     */
+    double quantile(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long target = Math.max(1, (long) Math.ceil(q * total));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= target) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(counts.length - 1);
+    }
+
+    /**
+     * Percentile rank of a value (0..100): share of values below it, counting half of its own bucket
+     */
+    double percentileRank(double value) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        int bucket = bucketOf(value);
+        long below = 0;
+        for (int i = 0; i < bucket; i++) {
+            below += counts[i];
+        }
+        return 100.0 * (below + counts[bucket] / 2.0) / total;
+    }
+
+    double minValue() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) return valueOf(i);
+        }
+        return Double.NaN;
+    }
+
+    double maxValue() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) return valueOf(i);
+        }
+        return Double.NaN;
+    }
+
+    private int bucketOf(double value) {
+        int bucket = (int) Math.round((value - min) / resolution);
+        return Math.max(0, Math.min(counts.length - 1, bucket));
+    }
+
+    private double valueOf(int bucket) {
+        return Math.round((min + bucket * resolution) * 100.0) / 100.0;
+    }
+}
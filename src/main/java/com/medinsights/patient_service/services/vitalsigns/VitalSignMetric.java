@@ -0,0 +1,99 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+
+import java.util.function.Function;
+
+/**
+ * Numeric vital sign fields tracked by the monitoring stages.
+ * The ordinal is used as an index into per-patient primitive state arrays.
+ *
+ * Clinical limits are adult defaults (NaN = no limit on that side).
+ * Blood glucose, weight and BMI have no fixed limits because units and
+ * baselines vary too much between patients; they are only trend-checked.
+ * The histogram range/resolution bound the buckets used for panel distributions.
+ */
+public enum VitalSignMetric {
+
+    SYSTOLIC_BP("Systolic blood pressure", "mmHg", VitalSignsResponse::systolicBP, 80, 90, 160, 180, 50, 250, 1),
+    DIASTOLIC_BP("Diastolic blood pressure", "mmHg", VitalSignsResponse::diastolicBP, 40, 50, 100, 120, 30, 150, 1),
+    HEART_RATE("Heart rate", "bpm", VitalSignsResponse::heartRate, 40, 50, 120, 150, 30, 250, 1),
+    TEMPERATURE("Temperature", "°C", VitalSignsResponse::temperature, 35.0, 36.0, 38.5, 40.0, 30, 45, 0.1),
+    RESPIRATORY_RATE("Respiratory rate", "/min", VitalSignsResponse::respiratoryRate, 8, 10, 24, 30, 5, 60, 1),
+    OXYGEN_SATURATION("Oxygen saturation", "%", VitalSignsResponse::oxygenSaturation, 88, 92, Double.NaN, Double.NaN, 50, 100, 1),
+    BLOOD_GLUCOSE("Blood glucose", "", VitalSignsResponse::bloodGlucose, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, 600, 0.5),
+    WEIGHT("Weight", "kg", VitalSignsResponse::weight, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0, 400, 0.5),
+    BMI("BMI", "kg/m²", VitalSignsResponse::bmi, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 5, 80, 0.1);
+
+    public static final int COUNT = values().length;
+
+    private final String label;
+    private final String unit;
+    private final Function<VitalSignsResponse, ? extends Number> accessor;
+    private final double criticalLow;
+    private final double warningLow;
+    private final double warningHigh;
+    private final double criticalHigh;
+    private final double histogramMin;
+    private final double histogramMax;
+    private final double histogramResolution;
+
+    VitalSignMetric(String label, String unit, Function<VitalSignsResponse, ? extends Number> accessor,
+                    double criticalLow, double warningLow, double warningHigh, double criticalHigh,
+                    double histogramMin, double histogramMax, double histogramResolution) {
+        this.label = label;
+        this.unit = unit;
+        this.accessor = accessor;
+        this.criticalLow = criticalLow;
+        this.warningLow = warningLow;
+        this.warningHigh = warningHigh;
+        this.criticalHigh = criticalHigh;
+        this.histogramMin = histogramMin;
+        this.histogramMax = histogramMax;
+        this.histogramResolution = histogramResolution;
+    }
+
+    /**
+     * Read this metric from a reading, NaN when the field was not measured
+     */
+    public double valueOf(VitalSignsResponse vitalSigns) {
+        Number value = accessor.apply(vitalSigns);
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public double getCriticalLow() {
+        return criticalLow;
+    }
+
+    public double getWarningLow() {
+        return warningLow;
+    }
+
+    public double getWarningHigh() {
+        return warningHigh;
+    }
+
+    public double getCriticalHigh() {
+        return criticalHigh;
+    }
+
+    public double getHistogramMin() {
+        return histogramMin;
+    }
+
+    public double getHistogramMax() {
+        return histogramMax;
+    }
+
+    public double getHistogramResolution() {
+        return histogramResolution;
+    }
+}
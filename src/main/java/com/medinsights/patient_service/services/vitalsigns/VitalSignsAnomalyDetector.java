@@ -0,0 +1,221 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+import com.medinsights.patient_service.events.VitalSignsRecordedEvent;
+import com.medinsights.patient_service.services.MedicalAlertService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Incremental anomaly detection on incoming vital signs.
+ *
+ * Every committed reading is checked against fixed clinical limits and against the
+ * patient's own baseline (exponentially weighted mean/variance, z-score). Baselines
+ * live in memory as flat primitive arrays, so each reading costs O(1) work and no
+ * history is re-queried. Baselines are rebuilt from new readings after a restart, and
+ * those of patients without readings for {@code baseline-idle-expiry} are dropped, at
+ * most {@code max-baselines} being kept.
+ *
+ * Findings are raised as MedicalAlerts through MedicalAlertService, which
+ * deduplicates against the patient's active alerts.
+ */
+@Component
+@Slf4j
+public class VitalSignsAnomalyDetector {
+
+    static final String CRITICAL_VALUE_PREFIX = "CRITICAL_VALUE_";
+    static final String TREND_PREFIX = "VITAL_SIGN_TREND_";
+
+    private final MedicalAlertService alertService;
+    private final TransactionTemplate findingTransaction;
+    private final double alpha;
+    private final double zThreshold;
+    private final int minSamples;
+
+    private final Cache<UUID, PatientBaseline> baselines;
+
+    public VitalSignsAnomalyDetector(
+            MedicalAlertService alertService,
+            PlatformTransactionManager transactionManager,
+            @Value("${vital-signs.anomaly.ewma-alpha:0.2}") double alpha,
+            @Value("${vital-signs.anomaly.z-threshold:3.0}") double zThreshold,
+            @Value("${vital-signs.anomaly.min-samples:5}") int minSamples,
+            @Value("${vital-signs.anomaly.baseline-idle-expiry:P30D}") Duration baselineIdleExpiry,
+            @Value("${vital-signs.anomaly.max-baselines:200000}") long maxBaselines) {
+        this.alertService = alertService;
+        // The reading's transaction is still bound while AFTER_COMMIT listeners run: joining it would not commit
+        this.findingTransaction = new TransactionTemplate(transactionManager);
+        this.findingTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.baselines = Caffeine.newBuilder()
+                .expireAfterAccess(baselineIdleExpiry)
+                .maximumSize(maxBaselines)
+                .build();
+    }
+
+    /**
+     * Evaluate a reading once its transaction has committed.
+     * Each finding is raised in its own transaction; failures are logged and affect neither the
+     * recorded reading nor the other findings.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVitalSignsRecorded(VitalSignsRecordedEvent event) {
+        VitalSignsResponse reading = event.vitalSigns();
+        List<Finding> findings;
+        try {
+            findings = evaluate(reading);
+        } catch (RuntimeException ex) {
+            log.error("Anomaly evaluation failed for vital signs {} of patient {}", reading.id(), reading.patientId(), ex);
+            return;
+        }
+        for (Finding finding : findings) {
+            try {
+                findingTransaction.executeWithoutResult(status -> alertService.raiseSystemAlert(
+                        reading.patientId(),
+                        finding.alertType(),
+                        finding.severity(),
+                        finding.description(),
+                        finding.requiredAction()));
+            } catch (RuntimeException ex) {
+                log.error("Failed to raise {} alert for vital signs {} of patient {}",
+                        finding.alertType(), reading.id(), reading.patientId(), ex);
+            }
+        }
+    }
+
+    /**
+     * Update the patient's baseline with a reading and return the anomalies it shows
+     */
+    List<Finding> evaluate(VitalSignsResponse reading) {
+        PatientBaseline baseline = baselines.get(reading.patientId(), id -> new PatientBaseline());
+        long measuredAt = reading.measurementDate().toEpochSecond(ZoneOffset.UTC);
+        List<Finding> findings = new ArrayList<>(2);
+
+        synchronized (baseline) {
+            // Late/backfilled readings are still checked against limits but must not skew the baseline
+            boolean inOrder = measuredAt >= baseline.lastMeasuredAt;
+            if (inOrder) {
+                baseline.lastMeasuredAt = measuredAt;
+            }
+
+            for (VitalSignMetric metric : VitalSignMetric.values()) {
+                double value = metric.valueOf(reading);
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+
+                Finding limitFinding = checkLimits(metric, value);
+                if (limitFinding != null) {
+                    findings.add(limitFinding);
+                }
+
+                if (!inOrder) {
+                    continue;
+                }
+
+                int i = metric.ordinal();
+                int m = i * 2;
+                int v = m + 1;
+                if (baseline.samples[i] == 0) {
+                    baseline.stats[m] = value;
+                    baseline.stats[v] = 0.0;
+                } else {
+                    double mean = baseline.stats[m];
+                    double variance = baseline.stats[v];
+                    double diff = value - mean;
+
+                    // Score against the baseline before the reading is folded in
+                    if (limitFinding == null && baseline.samples[i] >= minSamples && variance > 0) {
+                        double z = diff / Math.sqrt(variance);
+                        if (Math.abs(z) >= zThreshold) {
+                            findings.add(trendFinding(metric, value, mean, z));
+                        }
+                    }
+
+                    double increment = alpha * diff;
+                    baseline.stats[m] = mean + increment;
+                    baseline.stats[v] = (1 - alpha) * (variance + diff * increment);
+                }
+                if (baseline.samples[i] < Integer.MAX_VALUE) {
+                    baseline.samples[i]++;
+                }
+            }
+        }
+        return findings;
+    }
+
+    private Finding checkLimits(VitalSignMetric metric, double value) {
+        String severity;
+        String bound;
+        double limit;
+        if (value <= metric.getCriticalLow()) {
+            severity = "CRITICAL";
+            bound = "below the critical limit";
+            limit = metric.getCriticalLow();
+        } else if (value >= metric.getCriticalHigh()) {
+            severity = "CRITICAL";
+            bound = "above the critical limit";
+            limit = metric.getCriticalHigh();
+        } else if (value <= metric.getWarningLow()) {
+            severity = "HIGH";
+            bound = "below the normal range";
+            limit = metric.getWarningLow();
+        } else if (value >= metric.getWarningHigh()) {
+            severity = "HIGH";
+            bound = "above the normal range";
+            limit = metric.getWarningHigh();
+        } else {
+            return null;
+        }
+
+        return new Finding(
+                CRITICAL_VALUE_PREFIX + metric.name(),
+                severity,
+                String.format(Locale.ROOT, "%s of %s is %s (%s)",
+                        metric.getLabel(), quantity(metric, value), bound, quantity(metric, limit)),
+                "Re-check " + metric.getLabel().toLowerCase(Locale.ROOT) + " and assess the patient");
+    }
+
+    private Finding trendFinding(VitalSignMetric metric, double value, double mean, double z) {
+        return new Finding(
+                TREND_PREFIX + metric.name(),
+                "MEDIUM",
+                String.format(Locale.ROOT, "%s of %s deviates from the patient's baseline of %s (z-score %.1f)",
+                        metric.getLabel(), quantity(metric, value), quantity(metric, mean), z),
+                "Review recent " + metric.getLabel().toLowerCase(Locale.ROOT) + " measurements");
+    }
+
+    private static String quantity(VitalSignMetric metric, double value) {
+        String number = value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.1f", value);
+        return metric.getUnit().isEmpty() ? number : number + " " + metric.getUnit();
+    }
+
+    /**
+     * Rolling state of one patient: EWMA mean/variance pairs and sample counts indexed by metric ordinal
+     */
+    private static final class PatientBaseline {
+        final double[] stats = new double[VitalSignMetric.COUNT * 2];
+        final int[] samples = new int[VitalSignMetric.COUNT];
+        long lastMeasuredAt = Long.MIN_VALUE;
+    }
+
+    record Finding(String alertType, String severity, String description, String requiredAction) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+import com.medinsights.patient_service.entities.VitalSigns;
+import com.medinsights.patient_service.entities.VitalSignsArchiveBlock;
+import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.repositories.VitalSignsArchiveBlockRepository;
+import com.medinsights.patient_service.repositories.VitalSignsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Archival tier for vital signs.
+ *
+ * Readings older than {@code vital-signs.archive.min-age-days} are rolled into one
+ * compressed block per patient and month (see VitalSignsBlockCodec) and removed from
+ * the hot {@code vital_signs} table. The read methods below let VitalSignsServiceImpl
+ * serve patient histories across both tiers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VitalSignsArchiveService {
+
+    private static final int LOCK_NAMESPACE = 0x56534152; // "VSAR"
+    private static final Comparator<VitalSignsResponse> NEWEST_FIRST =
+            Comparator.comparing(VitalSignsResponse::measurementDate).reversed();
+
+    private final VitalSignsRepository vitalSignsRepository;
+    private final VitalSignsArchiveBlockRepository archiveRepository;
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${vital-signs.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vital-signs.archive.min-age-days:180}")
+    private int minAgeDays;
+
+    @Value("${vital-signs.archive.patients-per-run:1000}")
+    private int patientsPerRun;
+
+    @Value("${vital-signs.archive.max-readings-per-patient:50000}")
+    private int maxReadingsPerPatient;
+
+    /**
+     * All archived readings of a patient, most recent first
+     */
+    @Transactional(readOnly = true)
+    public List<VitalSignsResponse> findByPatientId(UUID patientId) {
+        return decodeAll(patientId, archiveRepository.findByPatientIdOrderByPeriodStartDesc(patientId))
+                .sorted(NEWEST_FIRST)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Archived readings of a patient measured in [from, to), most recent first
+     */
+    @Transactional(readOnly = true)
+    public List<VitalSignsResponse> findByPatientIdAndRange(UUID patientId, LocalDateTime from, LocalDateTime to) {
+        return decodeAll(patientId, archiveRepository.findOverlapping(patientId, from, to))
+                .filter(v -> !v.measurementDate().isBefore(from) && v.measurementDate().isBefore(to))
+                .sorted(NEWEST_FIRST)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Most recent archived reading of a patient
+     */
+    @Transactional(readOnly = true)
+    public Optional<VitalSignsResponse> findLatestByPatientId(UUID patientId) {
+        return archiveRepository.findLatestByPatientId(patientId)
+                .flatMap(block -> decodeAll(patientId, List.of(block)).max(Comparator.comparing(VitalSignsResponse::measurementDate)));
+    }
+
+    /**
+     * Number of archived readings of a patient
+     */
+    @Transactional(readOnly = true)
+    public long countByPatientId(UUID patientId) {
+        return archiveRepository.sumSampleCountByPatientId(patientId);
+    }
+
+    /**
+     * Roll readings older than the configured age into compressed monthly blocks.
+     * Each patient is archived in its own transaction under an advisory lock, so
+     * several replicas can run the job concurrently without archiving a row twice.
+     */
+    @Scheduled(cron = "${vital-signs.archive.cron:0 30 2 * * *}")
+    public void archiveOldReadings() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(minAgeDays).atStartOfDay();
+        List<UUID> patientIds = vitalSignsRepository.findPatientIdsWithReadingsBefore(cutoff, Limit.of(patientsPerRun));
+        if (patientIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Archiving vital signs older than {} for {} patients", cutoff, patientIds.size());
+        long archived = 0;
+        for (UUID patientId : patientIds) {
+            try {
+                Integer count = transactionTemplate.execute(status -> archivePatient(patientId, cutoff));
+                archived += count != null ? count : 0;
+            } catch (RuntimeException ex) {
+                log.error("Failed to archive vital signs of patient {}", patientId, ex);
+            }
+        }
+        log.info("Archived {} vital signs readings", archived);
+    }
+
+    private int archivePatient(UUID patientId, LocalDateTime cutoff) {
+        if (!archiveRepository.tryAdvisoryXactLock(LOCK_NAMESPACE, patientId.hashCode())) {
+            log.debug("Patient {} is being archived by another instance", patientId);
+            return 0;
+        }
+
+        List<VitalSigns> readings = vitalSignsRepository.findByPatientIdBefore(patientId, cutoff, Limit.of(maxReadingsPerPatient));
+        if (readings.isEmpty()) {
+            return 0;
+        }
+
+        Map<YearMonth, List<VitalSignsResponse>> byMonth = new LinkedHashMap<>();
+        for (VitalSigns reading : readings) {
+            byMonth.computeIfAbsent(YearMonth.from(reading.getMeasurementDate()), m -> new ArrayList<>())
+                    .add(toResponse(reading));
+        }
+
+        for (Map.Entry<YearMonth, List<VitalSignsResponse>> entry : byMonth.entrySet()) {
+            LocalDate periodStart = entry.getKey().atDay(1);
+            VitalSignsArchiveBlock block = archiveRepository.findByPatientIdAndPeriodStart(patientId, periodStart)
+                    .orElseGet(() -> {
+                        VitalSignsArchiveBlock created = new VitalSignsArchiveBlock();
+                        created.setPatient(patientRepository.getReferenceById(patientId));
+                        created.setPeriodStart(periodStart);
+                        return created;
+                    });
+
+            List<VitalSignsResponse> samples = new ArrayList<>(entry.getValue());
+            if (block.getPayload() != null) {
+                Set<UUID> incoming = samples.stream().map(VitalSignsResponse::id).collect(Collectors.toSet());
+                VitalSignsBlockCodec.decode(patientId, block.getPayload()).stream()
+                        .filter(v -> !incoming.contains(v.id()))
+                        .forEach(samples::add);
+            }
+            samples.sort(Comparator.comparing(VitalSignsResponse::measurementDate));
+
+            block.setPayload(VitalSignsBlockCodec.encode(samples));
+            block.setEncodingVersion(VitalSignsBlockCodec.VERSION);
+            block.setSampleCount(samples.size());
+            block.setFirstMeasurementDate(samples.get(0).measurementDate());
+            block.setLastMeasurementDate(samples.get(samples.size() - 1).measurementDate());
+            archiveRepository.save(block);
+        }
+
+        vitalSignsRepository.deleteAllInBatch(readings);
+        log.debug("Archived {} readings of patient {} into {} blocks", readings.size(), patientId, byMonth.size());
+        return readings.size();
+    }
+
+    private Stream<VitalSignsResponse> decodeAll(UUID patientId, List<VitalSignsArchiveBlock> blocks) {
+        return blocks.stream().flatMap(block -> VitalSignsBlockCodec.decode(patientId, block.getPayload()).stream());
+    }
+
+    private VitalSignsResponse toResponse(VitalSigns vitalSigns) {
+        return new VitalSignsResponse(
+                vitalSigns.getId(),
+                vitalSigns.getPatient().getId(),
+                vitalSigns.getMeasurementDate(),
+                vitalSigns.getSystolicBP(),
+                vitalSigns.getDiastolicBP(),
+                vitalSigns.getHeartRate(),
+                vitalSigns.getTemperature(),
+                vitalSigns.getWeight(),
+                vitalSigns.getHeight(),
+                vitalSigns.getBmi(),
+                vitalSigns.getRespiratoryRate(),
+                vitalSigns.getOxygenSaturation(),
+                vitalSigns.getBloodGlucose(),
+                vitalSigns.getNotes(),
+                vitalSigns.getCreatedAt(),
+                vitalSigns.getUpdatedAt(),
+                vitalSigns.getCreatedBy(),
+                vitalSigns.getUpdatedBy()
+        );
+    }
+}
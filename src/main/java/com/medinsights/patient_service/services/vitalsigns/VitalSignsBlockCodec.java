@@ -0,0 +1,376 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Columnar encoding of a patient's vital signs for one archive period.
+ *
+ * Layout (version 1), every column stored contiguously for all samples:
+ * <ul>
+ *   <li>sample count (32 bits)</li>
+ *   <li>measurementDate and createdAt as epoch millis, delta-of-delta encoded</li>
+ *   <li>updatedAt: 1 bit "same as createdAt", otherwise 64 bits</li>
+ *   <li>each numeric field: 1 presence bit per sample, present values XOR (Gorilla) encoded</li>
+ *   <li>createdBy/updatedBy as indexes into a per-block user dictionary</li>
+ *   <li>notes: presence bit, then length-prefixed UTF-8</li>
+ *   <li>record ids (128 bits each)</li>
+ * </ul>
+ * Timestamps are kept at millisecond precision.
+ */
+public final class VitalSignsBlockCodec {
+
+    public static final short VERSION = 1;
+
+    private static final List<Function<VitalSignsResponse, ? extends Number>> NUMERIC_COLUMNS = List.of(
+            VitalSignsResponse::systolicBP,
+            VitalSignsResponse::diastolicBP,
+            VitalSignsResponse::heartRate,
+            VitalSignsResponse::temperature,
+            VitalSignsResponse::weight,
+            VitalSignsResponse::height,
+            VitalSignsResponse::bmi,
+            VitalSignsResponse::respiratoryRate,
+            VitalSignsResponse::oxygenSaturation,
+            VitalSignsResponse::bloodGlucose
+    );
+
+    private VitalSignsBlockCodec() {
+    }
+
+    /**
+     * Encode readings of a single patient; they are stored in measurement order
+     */
+    public static byte[] encode(List<VitalSignsResponse> readings) {
+        List<VitalSignsResponse> samples = new ArrayList<>(readings);
+        samples.sort(Comparator.comparing(VitalSignsResponse::measurementDate));
+        int count = samples.size();
+
+        BitWriter out = new BitWriter(count * 24 + 64);
+        out.writeBits(count, 32);
+
+        TimestampEncoder measured = new TimestampEncoder(out);
+        for (VitalSignsResponse sample : samples) {
+            measured.write(toEpochMilli(sample.measurementDate()));
+        }
+        TimestampEncoder created = new TimestampEncoder(out);
+        for (VitalSignsResponse sample : samples) {
+            created.write(sample.createdAt().toEpochMilli());
+        }
+        for (VitalSignsResponse sample : samples) {
+            boolean sameAsCreated = sample.updatedAt() == null || sample.updatedAt().equals(sample.createdAt());
+            out.writeBit(sameAsCreated);
+            if (!sameAsCreated) {
+                out.writeBits(sample.updatedAt().toEpochMilli(), 64);
+            }
+        }
+
+        for (Function<VitalSignsResponse, ? extends Number> column : NUMERIC_COLUMNS) {
+            XorEncoder encoder = new XorEncoder(out);
+            for (VitalSignsResponse sample : samples) {
+                Number value = column.apply(sample);
+                out.writeBit(value != null);
+                if (value != null) {
+                    encoder.write(value.doubleValue());
+                }
+            }
+        }
+
+        Map<UUID, Integer> users = new LinkedHashMap<>();
+        for (VitalSignsResponse sample : samples) {
+            if (sample.createdBy() != null) users.putIfAbsent(sample.createdBy(), users.size() + 1);
+            if (sample.updatedBy() != null) users.putIfAbsent(sample.updatedBy(), users.size() + 1);
+        }
+        out.writeBits(users.size(), 16);
+        for (UUID user : users.keySet()) {
+            writeUuid(out, user);
+        }
+        int indexBits = bitsFor(users.size());
+        for (VitalSignsResponse sample : samples) {
+            out.writeBits(sample.createdBy() != null ? users.get(sample.createdBy()) : 0, indexBits);
+            out.writeBits(sample.updatedBy() != null ? users.get(sample.updatedBy()) : 0, indexBits);
+        }
+
+        for (VitalSignsResponse sample : samples) {
+            out.writeBit(sample.notes() != null);
+            if (sample.notes() != null) {
+                byte[] utf8 = sample.notes().getBytes(StandardCharsets.UTF_8);
+                out.writeBits(utf8.length, 16);
+                out.writeBytes(utf8);
+            }
+        }
+
+        for (VitalSignsResponse sample : samples) {
+            writeUuid(out, sample.id());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a block back into readings, in ascending measurement order
+     */
+    public static List<VitalSignsResponse> decode(UUID patientId, byte[] payload) {
+        BitReader in = new BitReader(payload);
+        int count = (int) in.readBits(32);
+
+        long[] measured = new long[count];
+        TimestampDecoder measuredDecoder = new TimestampDecoder(in);
+        for (int i = 0; i < count; i++) measured[i] = measuredDecoder.read();
+        long[] created = new long[count];
+        TimestampDecoder createdDecoder = new TimestampDecoder(in);
+        for (int i = 0; i < count; i++) created[i] = createdDecoder.read();
+        long[] updated = new long[count];
+        for (int i = 0; i < count; i++) updated[i] = in.readBit() ? created[i] : in.readBits(64);
+
+        double[][] numeric = new double[NUMERIC_COLUMNS.size()][count];
+        for (double[] column : numeric) {
+            XorDecoder decoder = new XorDecoder(in);
+            for (int i = 0; i < count; i++) {
+                column[i] = in.readBit() ? decoder.read() : Double.NaN;
+            }
+        }
+
+        int userCount = (int) in.readBits(16);
+        UUID[] users = new UUID[userCount + 1];
+        for (int u = 1; u <= userCount; u++) users[u] = readUuid(in);
+        int indexBits = bitsFor(userCount);
+        UUID[] createdBy = new UUID[count];
+        UUID[] updatedBy = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            createdBy[i] = users[(int) in.readBits(indexBits)];
+            updatedBy[i] = users[(int) in.readBits(indexBits)];
+        }
+
+        String[] notes = new String[count];
+        for (int i = 0; i < count; i++) {
+            if (in.readBit()) {
+                notes[i] = new String(in.readBytes((int) in.readBits(16)), StandardCharsets.UTF_8);
+            }
+        }
+
+        List<VitalSignsResponse> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            readings.add(new VitalSignsResponse(
+                    readUuid(in),
+                    patientId,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(measured[i]), ZoneOffset.UTC),
+                    asInteger(numeric[0][i]),
+                    asInteger(numeric[1][i]),
+                    asInteger(numeric[2][i]),
+                    asDouble(numeric[3][i]),
+                    asDouble(numeric[4][i]),
+                    asDouble(numeric[5][i]),
+                    asDouble(numeric[6][i]),
+                    asInteger(numeric[7][i]),
+                    asInteger(numeric[8][i]),
+                    asDouble(numeric[9][i]),
+                    notes[i],
+                    Instant.ofEpochMilli(created[i]),
+                    Instant.ofEpochMilli(updated[i]),
+                    createdBy[i],
+                    updatedBy[i]
+            ));
+        }
+        return readings;
+    }
+
+    static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static Integer asInteger(double value) {
+        return Double.isNaN(value) ? null : (int) value;
+    }
+
+    private static Double asDouble(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static int bitsFor(int maxValue) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(maxValue));
+    }
+
+    private static void writeUuid(BitWriter out, UUID uuid) {
+        out.writeBits(uuid.getMostSignificantBits(), 64);
+        out.writeBits(uuid.getLeastSignificantBits(), 64);
+    }
+
+    private static UUID readUuid(BitReader in) {
+        return new UUID(in.readBits(64), in.readBits(64));
+    }
+
+    /**
+     * Delta-of-delta timestamp encoding: '0' | '10'+7 | '110'+9 | '1110'+12 | '11110'+32 | '11111'+64 bits
+     */
+    private static final class TimestampEncoder {
+        private final BitWriter out;
+        private long previous;
+        private long previousDelta;
+        private boolean first = true;
+
+        TimestampEncoder(BitWriter out) {
+            this.out = out;
+        }
+
+        void write(long timestamp) {
+            if (first) {
+                out.writeBits(timestamp, 64);
+                first = false;
+            } else {
+                long delta = timestamp - previous;
+                long dod = delta - previousDelta;
+                if (dod == 0) {
+                    out.writeBit(false);
+                } else if (fits(dod, 7)) {
+                    out.writeBits(0b10, 2);
+                    out.writeBits(dod, 7);
+                } else if (fits(dod, 9)) {
+                    out.writeBits(0b110, 3);
+                    out.writeBits(dod, 9);
+                } else if (fits(dod, 12)) {
+                    out.writeBits(0b1110, 4);
+                    out.writeBits(dod, 12);
+                } else if (fits(dod, 32)) {
+                    out.writeBits(0b11110, 5);
+                    out.writeBits(dod, 32);
+                } else {
+                    out.writeBits(0b11111, 5);
+                    out.writeBits(dod, 64);
+                }
+                previousDelta = delta;
+            }
+            previous = timestamp;
+        }
+
+        private static boolean fits(long value, int bits) {
+            long bound = 1L << (bits - 1);
+            return value >= -bound && value < bound;
+        }
+    }
+
+    private static final class TimestampDecoder {
+        private final BitReader in;
+        private long previous;
+        private long previousDelta;
+        private boolean first = true;
+
+        TimestampDecoder(BitReader in) {
+            this.in = in;
+        }
+
+        long read() {
+            if (first) {
+                first = false;
+                previous = in.readBits(64);
+                return previous;
+            }
+            long dod;
+            if (!in.readBit()) {
+                dod = 0;
+            } else if (!in.readBit()) {
+                dod = in.readSignedBits(7);
+            } else if (!in.readBit()) {
+                dod = in.readSignedBits(9);
+            } else if (!in.readBit()) {
+                dod = in.readSignedBits(12);
+            } else if (!in.readBit()) {
+                dod = in.readSignedBits(32);
+            } else {
+                dod = in.readSignedBits(64);
+            }
+            previousDelta += dod;
+            previous += previousDelta;
+            return previous;
+        }
+    }
+
+    /**
+     * Gorilla XOR encoding of doubles against the previous value of the same column
+     */
+    private static final class XorEncoder {
+        private final BitWriter out;
+        private long previous;
+        private int previousLeading = -1;
+        private int previousTrailing;
+        private boolean first = true;
+
+        XorEncoder(BitWriter out) {
+            this.out = out;
+        }
+
+        void write(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (first) {
+                out.writeBits(bits, 64);
+                first = false;
+            } else {
+                long xor = bits ^ previous;
+                if (xor == 0) {
+                    out.writeBit(false);
+                } else {
+                    out.writeBit(true);
+                    int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                    int trailing = Long.numberOfTrailingZeros(xor);
+                    if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                        out.writeBit(false);
+                        out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+                    } else {
+                        int meaningful = 64 - leading - trailing;
+                        out.writeBit(true);
+                        out.writeBits(leading, 5);
+                        out.writeBits(meaningful - 1, 6);
+                        out.writeBits(xor >>> trailing, meaningful);
+                        previousLeading = leading;
+                        previousTrailing = trailing;
+                    }
+                }
+            }
+            previous = bits;
+        }
+    }
+
+    private static final class XorDecoder {
+        private final BitReader in;
+        private long previous;
+        private int previousLeading;
+        private int previousTrailing;
+        private boolean first = true;
+
+        XorDecoder(BitReader in) {
+            this.in = in;
+        }
+
+        double read() {
+            if (first) {
+                first = false;
+                previous = in.readBits(64);
+            } else if (in.readBit()) {
+                long xor;
+                if (!in.readBit()) {
+                    int meaningful = 64 - previousLeading - previousTrailing;
+                    xor = in.readBits(meaningful) << previousTrailing;
+                } else {
+                    int leading = (int) in.readBits(5);
+                    int meaningful = (int) in.readBits(6) + 1;
+                    int trailing = 64 - leading - meaningful;
+                    xor = in.readBits(meaningful) << trailing;
+                    previousLeading = leading;
+                    previousTrailing = trailing;
+                }
+                previous ^= xor;
+            }
+            return Double.longBitsToDouble(previous);
+        }
+    }
+}
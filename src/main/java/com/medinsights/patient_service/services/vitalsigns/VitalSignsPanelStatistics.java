@@ -0,0 +1,283 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsPanelDistributionResponse;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsPanelDistributionResponse.MetricDistribution;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsPanelPercentilesResponse;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsPanelPercentilesResponse.MetricPercentile;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+import com.medinsights.patient_service.entities.Patient;
+import com.medinsights.patient_service.events.VitalSignsRecordedEvent;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.exceptions.UnauthorizedException;
+import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.repositories.VitalSignsArchiveBlockRepository;
+import com.medinsights.patient_service.repositories.VitalSignsArchiveBlockRepository.LatestBlockView;
+import com.medinsights.patient_service.repositories.VitalSignsRepository;
+import com.medinsights.patient_service.repositories.VitalSignsRepository.LatestReadingView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Distributions of the latest vital signs over each doctor's panel (owner = Patient.createdBy).
+ *
+ * Every owner has one fixed-bucket histogram per metric holding the latest value of each
+ * of their patients. A new reading moves the patient's values from the old buckets to the
+ * new ones, so queries read the histograms and never scan readings. The state is seeded
+ * from the database at startup and periodically rebuilt, which also picks up deletions,
+ * archival and readings recorded by other replicas. Patients whose readings are all
+ * archived count with the newest reading of their newest archive block.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VitalSignsPanelStatistics {
+
+    private static final double[] QUANTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    private final VitalSignsRepository vitalSignsRepository;
+    private final PatientRepository patientRepository;
+    private final VitalSignsArchiveBlockRepository archiveRepository;
+
+    private volatile PanelState state = new PanelState();
+    private volatile Queue<Update> pendingDuringRebuild;
+
+    /**
+     * Fold a committed reading into its owner's panel
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVitalSignsRecorded(VitalSignsRecordedEvent event) {
+        VitalSignsResponse reading = event.vitalSigns();
+        if (event.ownerId() == null) {
+            return;
+        }
+        Update update = new Update(reading.patientId(),
+                new LatestReading(event.ownerId(), reading.measurementDate().toEpochSecond(ZoneOffset.UTC), valuesOf(reading)));
+
+        Queue<Update> pending = pendingDuringRebuild;
+        if (pending != null) {
+            pending.add(update);
+        }
+        state.apply(update);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recompute all panels from the latest reading of every patient and swap them in
+     */
+    @Scheduled(fixedDelayString = "${vital-signs.panel.rebuild-interval:PT15M}",
+            initialDelayString = "${vital-signs.panel.rebuild-interval:PT15M}")
+    public synchronized void rebuild() {
+        Queue<Update> pending = new ConcurrentLinkedQueue<>();
+        pendingDuringRebuild = pending;
+        try {
+            PanelState rebuilt = new PanelState();
+            List<LatestReadingView> rows = vitalSignsRepository.findLatestReadingOfEachPatient();
+            for (LatestReadingView row : rows) {
+                if (row.getOwnerId() != null && row.getMeasuredAt() != null) {
+                    rebuilt.apply(new Update(row.getPatientId(),
+                            new LatestReading(row.getOwnerId(), row.getMeasuredAt(), valuesOf(row))));
+                }
+            }
+            List<LatestBlockView> archived = archiveRepository.findLatestBlockOfFullyArchivedPatients();
+            for (LatestBlockView block : archived) {
+                if (block.getOwnerId() != null) {
+                    VitalSignsBlockCodec.decode(block.getPatientId(), block.getPayload()).stream()
+                            .max(Comparator.comparing(VitalSignsResponse::measurementDate))
+                            .ifPresent(reading -> rebuilt.apply(new Update(reading.patientId(), new LatestReading(
+                                    block.getOwnerId(), reading.measurementDate().toEpochSecond(ZoneOffset.UTC), valuesOf(reading)))));
+                }
+            }
+            state = rebuilt;
+            // Readings committed while the query ran may be missing from its snapshot
+            Update update;
+            while ((update = pending.poll()) != null) {
+                rebuilt.apply(update);
+            }
+            log.debug("Rebuilt vital signs panel statistics for {} patients, {} of them from the archive",
+                    rows.size() + archived.size(), archived.size());
+        } catch (RuntimeException ex) {
+            log.error("Failed to rebuild vital signs panel statistics", ex);
+        } finally {
+            pendingDuringRebuild = null;
+        }
+    }
+
+    /**
+     * Per-metric distribution of the latest readings of an owner's patients
+     */
+    public VitalSignsPanelDistributionResponse getDistribution(UUID ownerId) {
+        OwnerPanel panel = state.panels.get(ownerId);
+        if (panel == null) {
+            return new VitalSignsPanelDistributionResponse(ownerId, 0, List.of());
+        }
+        synchronized (panel) {
+            List<MetricDistribution> metrics = new ArrayList<>();
+            for (VitalSignMetric metric : VitalSignMetric.values()) {
+                FixedBucketHistogram histogram = panel.histograms[metric.ordinal()];
+                if (histogram == null || histogram.total() == 0) {
+                    continue;
+                }
+                Double[] quantiles = new Double[QUANTILES.length];
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    quantiles[i] = histogram.quantile(QUANTILES[i]);
+                }
+                metrics.add(new MetricDistribution(
+                        metric.name(),
+                        metric.getUnit(),
+                        histogram.total(),
+                        histogram.minValue(),
+                        quantiles[0],
+                        quantiles[1],
+                        quantiles[2],
+                        quantiles[3],
+                        quantiles[4],
+                        histogram.maxValue()));
+            }
+            return new VitalSignsPanelDistributionResponse(ownerId, panel.patients, metrics);
+        }
+    }
+
+    /**
+     * Percentile rank of a patient's latest readings within their owner's panel
+     */
+    public VitalSignsPanelPercentilesResponse getPercentiles(UUID patientId, UUID userId) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+        if (!patient.getCreatedBy().equals(userId)) {
+            throw new UnauthorizedException("You are not authorized to access this patient");
+        }
+
+        PanelState current = state;
+        LatestReading reading = current.latest.get(patientId);
+        OwnerPanel panel = reading != null ? current.panels.get(reading.ownerId()) : null;
+        if (panel == null) {
+            throw new ResourceNotFoundException("No vital signs found for patient with id: " + patientId);
+        }
+
+        List<MetricPercentile> metrics = new ArrayList<>();
+        synchronized (panel) {
+            for (VitalSignMetric metric : VitalSignMetric.values()) {
+                double value = reading.values()[metric.ordinal()];
+                FixedBucketHistogram histogram = panel.histograms[metric.ordinal()];
+                if (Double.isNaN(value) || histogram == null || histogram.total() == 0) {
+                    continue;
+                }
+                metrics.add(new MetricPercentile(
+                        metric.name(),
+                        metric.getUnit(),
+                        value,
+                        Math.round(histogram.percentileRank(value) * 10.0) / 10.0,
+                        histogram.total()));
+            }
+        }
+        return new VitalSignsPanelPercentilesResponse(patientId, metrics);
+    }
+
+    private static double[] valuesOf(VitalSignsResponse reading) {
+        double[] values = new double[VitalSignMetric.COUNT];
+        for (VitalSignMetric metric : VitalSignMetric.values()) {
+            values[metric.ordinal()] = metric.valueOf(reading);
+        }
+        return values;
+    }
+
+    private static double[] valuesOf(LatestReadingView row) {
+        double[] values = new double[VitalSignMetric.COUNT];
+        values[VitalSignMetric.SYSTOLIC_BP.ordinal()] = toDouble(row.getSystolicBP());
+        values[VitalSignMetric.DIASTOLIC_BP.ordinal()] = toDouble(row.getDiastolicBP());
+        values[VitalSignMetric.HEART_RATE.ordinal()] = toDouble(row.getHeartRate());
+        values[VitalSignMetric.TEMPERATURE.ordinal()] = toDouble(row.getTemperature());
+        values[VitalSignMetric.RESPIRATORY_RATE.ordinal()] = toDouble(row.getRespiratoryRate());
+        values[VitalSignMetric.OXYGEN_SATURATION.ordinal()] = toDouble(row.getOxygenSaturation());
+        values[VitalSignMetric.BLOOD_GLUCOSE.ordinal()] = toDouble(row.getBloodGlucose());
+        values[VitalSignMetric.WEIGHT.ordinal()] = toDouble(row.getWeight());
+        values[VitalSignMetric.BMI.ordinal()] = toDouble(row.getBmi());
+        return values;
+    }
+
+    private static double toDouble(Number value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private record Update(UUID patientId, LatestReading reading) {
+    }
+
+    /**
+     * Latest values of one patient indexed by metric ordinal (NaN = not measured)
+     */
+    private record LatestReading(UUID ownerId, long measuredAt, double[] values) {
+    }
+
+    private static final class PanelState {
+        final ConcurrentMap<UUID, LatestReading> latest = new ConcurrentHashMap<>();
+        final ConcurrentMap<UUID, OwnerPanel> panels = new ConcurrentHashMap<>();
+
+        void apply(Update update) {
+            latest.compute(update.patientId(), (patientId, previous) -> {
+                LatestReading next = update.reading();
+                if (previous != null && previous.measuredAt() > next.measuredAt()) {
+                    return previous;
+                }
+                if (previous != null) {
+                    panels.get(previous.ownerId()).remove(previous.values());
+                }
+                panels.computeIfAbsent(next.ownerId(), id -> new OwnerPanel()).add(next.values());
+                return next;
+            });
+        }
+    }
+
+    /**
+     * Histograms of one owner, allocated per metric on first use. Guarded by its own monitor.
+     */
+    private static final class OwnerPanel {
+        final FixedBucketHistogram[] histograms = new FixedBucketHistogram[VitalSignMetric.COUNT];
+        int patients;
+
+        synchronized void add(double[] values) {
+            for (VitalSignMetric metric : VitalSignMetric.values()) {
+                double value = values[metric.ordinal()];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                FixedBucketHistogram histogram = histograms[metric.ordinal()];
+                if (histogram == null) {
+                    histogram = FixedBucketHistogram.forMetric(metric);
+                    histograms[metric.ordinal()] = histogram;
+                }
+                histogram.add(value);
+            }
+            patients++;
+        }
+
+        synchronized void remove(double[] values) {
+            for (VitalSignMetric metric : VitalSignMetric.values()) {
+                double value = values[metric.ordinal()];
+                if (!Double.isNaN(value) && histograms[metric.ordinal()] != null) {
+                    histograms[metric.ordinal()].remove(value);
+                }
+            }
+            patients--;
+        }
+    }
+}
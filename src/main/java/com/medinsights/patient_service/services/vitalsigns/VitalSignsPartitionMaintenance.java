@@ -0,0 +1,114 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.medinsights.patient_service.services.escalation.AdvisoryLeaderLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lifecycle of the monthly vital_signs partitions (see V3 migration).
+ *
+ * Creates the partitions of the coming months ahead of time so new readings never land
+ * in the default partition, and drops partitions older than the retention period once
+ * VitalSignsArchiveService has moved all their rows into archive blocks. A partition
+ * that still holds rows is kept: retention never deletes readings that are not archived.
+ * A run holds a session-level advisory lock from the first partition created to the last
+ * one dropped, so only one replica maintains partitions at a time.
+ */
+@Component
+@Slf4j
+public class VitalSignsPartitionMaintenance {
+
+    private static final int LOCK_NAMESPACE = 0x56535054; // "VSPT"
+    private static final Pattern PARTITION_NAME = Pattern.compile("vital_signs_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdvisoryLeaderLock lock;
+
+    @Value("${vital-signs.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${vital-signs.partitions.retention-months:7}")
+    private int retentionMonths;
+
+    public VitalSignsPartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                          DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.lock = new AdvisoryLeaderLock(dataSource, LOCK_NAMESPACE, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${vital-signs.partitions.cron:0 0 2 * * *}")
+    public synchronized void maintainPartitions() {
+        if (!lock.tryAcquire()) {
+            log.debug("Vital signs partitions are being maintained by another instance");
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> createFuturePartitions());
+            dropExpiredPartitions();
+        } catch (RuntimeException ex) {
+            log.error("Vital signs partition maintenance failed", ex);
+        } finally {
+            lock.close();
+        }
+    }
+
+    private void createFuturePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbcTemplate.queryForObject("SELECT create_vital_signs_partition(?)", String.class,
+                    Date.valueOf(current.plusMonths(i).atDay(1)));
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        YearMonth oldestKept = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'vital_signs'::regclass ORDER BY c.relname",
+                String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            // One transaction per partition: DETACH takes a short exclusive lock on vital_signs
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                Boolean hasRows = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+                if (Boolean.TRUE.equals(hasRows)) {
+                    log.info("Keeping expired partition {}: it still holds readings that are not archived", partition);
+                    return;
+                }
+                jdbcTemplate.execute("ALTER TABLE vital_signs DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired vital signs partition {}", partition);
+            });
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+import com.medinsights.patient_service.events.VitalSignsRecordedEvent;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.exceptions.UnauthorizedException;
+import com.medinsights.patient_service.repositories.PatientRepository;
+import com.medinsights.patient_service.services.streaming.ClusterEventChannel;
+import com.medinsights.patient_service.services.streaming.SseBroadcaster;
+import com.medinsights.patient_service.services.streaming.SseMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Live push of newly recorded vital signs over Server-Sent Events.
+ *
+ * Readings are sent to every replica through the ClusterEventChannel when their transaction
+ * commits, and each replica publishes them to two topics: the patient id and the owning user
+ * id. Dashboards subscribe either to a set of patients or to all patients of the current user,
+ * on any replica. Notes are left out of a reading too large for a notification.
+ */
+@Service
+@Slf4j
+public class VitalSignsStreamService {
+
+    static final String EVENT_NAME = "vital-signs";
+    static final String STREAM = "vital-signs";
+
+    private final PatientRepository patientRepository;
+    private final ClusterEventChannel channel;
+    private final ObjectMapper objectMapper;
+    private final SseBroadcaster broadcaster;
+    private final int maxPatientsPerStream;
+
+    public VitalSignsStreamService(
+            PatientRepository patientRepository,
+            ClusterEventChannel channel,
+            ObjectMapper objectMapper,
+            ScheduledExecutorService sseExecutor,
+            @Value("${streaming.sse.timeout:PT30M}") Duration timeout,
+            @Value("${streaming.sse.buffer-size:64}") int bufferSize,
+            @Value("${streaming.sse.heartbeat-interval:PT20S}") Duration heartbeatInterval,
+            @Value("${vital-signs.stream.max-subscribers:5000}") int maxSubscribers,
+            @Value("${vital-signs.stream.max-patients-per-stream:200}") int maxPatientsPerStream) {
+        this.patientRepository = patientRepository;
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+        this.broadcaster = new SseBroadcaster("vital signs", sseExecutor, timeout, bufferSize, maxSubscribers, heartbeatInterval);
+        this.maxPatientsPerStream = maxPatientsPerStream;
+        channel.register(STREAM, this::dispatch);
+    }
+
+    /**
+     * Stream readings of the given patients, all of which must belong to the user
+     */
+    public SseEmitter subscribeToPatients(Set<UUID> patientIds, UUID userId) {
+        if (patientIds.isEmpty()) {
+            throw new BadRequestException("At least one patient id is required");
+        }
+        if (patientIds.size() > maxPatientsPerStream) {
+            throw new BadRequestException("A stream can follow at most " + maxPatientsPerStream + " patients");
+        }
+        if (patientRepository.countByIdInAndCreatedBy(patientIds, userId) != patientIds.size()) {
+            throw new UnauthorizedException("You are not authorized to access one or more of these patients");
+        }
+        return broadcaster.subscribe(patientIds);
+    }
+
+    /**
+     * Stream readings of every patient owned by the user, including patients created later
+     */
+    public SseEmitter subscribeToOwnPatients(UUID userId) {
+        return broadcaster.subscribe(List.of(userId));
+    }
+
+    /**
+     * Send the reading to the replicas; Postgres delivers it when the recording transaction commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onVitalSignsRecorded(VitalSignsRecordedEvent event) {
+        VitalSignsResponse reading = event.vitalSigns();
+        ObjectNode message = objectMapper.createObjectNode();
+        if (event.ownerId() != null) {
+            message.put("ownerId", event.ownerId().toString());
+        }
+        ObjectNode readingNode = objectMapper.valueToTree(reading);
+        message.set("reading", readingNode);
+        try {
+            String payload = objectMapper.writeValueAsString(message);
+            if (!channel.fits(STREAM, payload)) {
+                readingNode.remove("notes");
+                payload = objectMapper.writeValueAsString(message);
+            }
+            channel.publish(STREAM, payload);
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            log.error("Failed to publish vital signs {} of patient {}", reading.id(), reading.patientId(), ex);
+        }
+    }
+
+    private void dispatch(List<String> payloads) {
+        for (String payload : payloads) {
+            try {
+                JsonNode message = objectMapper.readTree(payload);
+                JsonNode reading = message.get("reading");
+                UUID patientId = UUID.fromString(reading.get("patientId").asText());
+                List<UUID> topics = message.hasNonNull("ownerId")
+                        ? List.of(patientId, UUID.fromString(message.get("ownerId").asText()))
+                        : List.of(patientId);
+                broadcaster.publish(topics, new SseMessage(reading.get("id").asText(), EVENT_NAME, reading.toString()));
+            } catch (JsonProcessingException | RuntimeException ex) {
+                log.error("Failed to publish vital signs stream message {}", payload, ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.close();
+    }
+}
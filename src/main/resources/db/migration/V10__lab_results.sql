@@ -0,0 +1,27 @@
+-- Numeric lab values extracted from medical_analyses.results (see LabResultParser), one row per
+-- analyte and analysis, so a patient's values over time are read from a single index range.
+-- lab_extraction_version records which parser version produced an analysis' rows: analyses
+-- below the current version (all of them at first) are picked up by the backfill job.
+
+CREATE TABLE lab_results (
+    id             uuid             NOT NULL,
+    analysis_id    uuid             NOT NULL,
+    patient_id     uuid             NOT NULL,
+    analyte        varchar(50)      NOT NULL,
+    analyte_name   varchar(100)     NOT NULL,
+    value          double precision NOT NULL,
+    unit           varchar(30),
+    reference_low  double precision,
+    reference_high double precision,
+    flag           varchar(10),
+    measured_on    date             NOT NULL,
+    created_at     timestamptz      NOT NULL,
+    CONSTRAINT lab_results_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_lab_results_analysis FOREIGN KEY (analysis_id) REFERENCES medical_analyses (id) ON DELETE CASCADE,
+    CONSTRAINT fk_lab_results_patient FOREIGN KEY (patient_id) REFERENCES patients (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_lab_results_patient_analyte ON lab_results (patient_id, analyte, measured_on);
+CREATE INDEX idx_lab_results_analysis ON lab_results (analysis_id);
+
+ALTER TABLE medical_analyses ADD COLUMN lab_extraction_version smallint NOT NULL DEFAULT 0;
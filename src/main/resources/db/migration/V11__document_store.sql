@@ -0,0 +1,17 @@
+-- Content-addressed documents: one row per distinct file content, keyed by its SHA-256 (lowercase
+-- hex). The bytes live in the file-backed store under documents.root (see DocumentStore); uploading
+-- the same file again, for the same or another record, reuses the existing row and file.
+
+CREATE TABLE documents (
+    sha256       varchar(64)  NOT NULL,
+    size_bytes   bigint       NOT NULL,
+    content_type varchar(100) NOT NULL,
+    created_at   timestamptz  NOT NULL,
+    created_by   uuid,
+    CONSTRAINT documents_pkey PRIMARY KEY (sha256)
+);
+
+ALTER TABLE medical_analyses ADD COLUMN document_sha256 varchar(64)
+    CONSTRAINT fk_medical_analyses_document REFERENCES documents (sha256);
+ALTER TABLE cardiovascular_exams ADD COLUMN document_sha256 varchar(64)
+    CONSTRAINT fk_cardiovascular_exams_document REFERENCES documents (sha256);
@@ -0,0 +1,26 @@
+-- Durable queue of document text extraction jobs (see AnalysisIngestionService). Workers on any
+-- replica claim due jobs with FOR UPDATE SKIP LOCKED. next_attempt_at is when a QUEUED job may
+-- run, or when the lease of a RUNNING job expires: a job whose worker died is then due again.
+-- Failed attempts are retried with backoff until max-attempts.
+
+CREATE TABLE analysis_ingestion_jobs (
+    id               uuid          NOT NULL,
+    analysis_id      uuid          NOT NULL,
+    document_sha256  varchar(64)   NOT NULL,
+    status           varchar(20)   NOT NULL, -- QUEUED, RUNNING, SUCCEEDED, FAILED
+    attempts         integer       NOT NULL DEFAULT 0,
+    next_attempt_at  timestamptz   NOT NULL,
+    last_error       varchar(1000),
+    created_by       uuid          NOT NULL,
+    created_at       timestamptz   NOT NULL,
+    updated_at       timestamptz   NOT NULL,
+    completed_at     timestamptz,
+    CONSTRAINT analysis_ingestion_jobs_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_analysis_ingestion_jobs_analysis FOREIGN KEY (analysis_id) REFERENCES medical_analyses (id) ON DELETE CASCADE,
+    CONSTRAINT fk_analysis_ingestion_jobs_document FOREIGN KEY (document_sha256) REFERENCES documents (sha256)
+);
+
+-- Only unfinished jobs are ever polled
+CREATE INDEX idx_analysis_ingestion_jobs_due ON analysis_ingestion_jobs (next_attempt_at)
+    WHERE status IN ('QUEUED', 'RUNNING');
+CREATE INDEX idx_analysis_ingestion_jobs_analysis ON analysis_ingestion_jobs (analysis_id);
@@ -0,0 +1,27 @@
+-- Typed cardiovascular measurements extracted from cardiovascular_exams.measured_values (see
+-- CardiovascularMeasurementParser), one row per metric and exam, in the metric's canonical unit.
+-- idx_cardiovascular_measurements_patient serves per-patient trends; idx_cardiovascular_measurements_value
+-- serves cross-patient threshold searches ("LVEF < 40") as a range scan on (metric, value), covering
+-- the columns such a search returns so the table is not visited.
+-- measurement_extraction_version records which parser version produced an exam's rows: exams below
+-- the current version (all of them at first) are picked up by the backfill job.
+
+CREATE TABLE cardiovascular_measurements (
+    id          uuid             NOT NULL,
+    exam_id     uuid             NOT NULL,
+    patient_id  uuid             NOT NULL,
+    metric      varchar(20)      NOT NULL,
+    value       double precision NOT NULL,
+    measured_at timestamp(6)     NOT NULL,
+    created_at  timestamptz      NOT NULL,
+    CONSTRAINT cardiovascular_measurements_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_cardiovascular_measurements_exam_metric UNIQUE (exam_id, metric),
+    CONSTRAINT fk_cardiovascular_measurements_exam FOREIGN KEY (exam_id) REFERENCES cardiovascular_exams (id) ON DELETE CASCADE,
+    CONSTRAINT fk_cardiovascular_measurements_patient FOREIGN KEY (patient_id) REFERENCES patients (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_cardiovascular_measurements_patient ON cardiovascular_measurements (patient_id, metric, measured_at);
+CREATE INDEX idx_cardiovascular_measurements_value ON cardiovascular_measurements (metric, value)
+    INCLUDE (patient_id, exam_id, measured_at);
+
+ALTER TABLE cardiovascular_exams ADD COLUMN measurement_extraction_version smallint NOT NULL DEFAULT 0;
@@ -0,0 +1,77 @@
+-- Local drug interaction reference, loaded into memory at startup (see DrugInteractionService).
+-- Drugs are identified by their normalised generic name (lower case, no accents); drug_aliases maps
+-- French names and common brands onto them. Each pair is stored once, in either order.
+-- severity is the level of the DRUG_INTERACTION alert raised when both drugs are active.
+
+CREATE TABLE drug_interactions (
+    drug_a      varchar(100) NOT NULL,
+    drug_b      varchar(100) NOT NULL,
+    severity    varchar(20)  NOT NULL,
+    description varchar(500),
+    CONSTRAINT drug_interactions_pkey PRIMARY KEY (drug_a, drug_b),
+    CONSTRAINT ck_drug_interactions_distinct CHECK (drug_a <> drug_b),
+    CONSTRAINT ck_drug_interactions_severity CHECK (severity IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL'))
+);
+
+CREATE TABLE drug_aliases (
+    alias varchar(100) NOT NULL,
+    drug  varchar(100) NOT NULL,
+    CONSTRAINT drug_aliases_pkey PRIMARY KEY (alias)
+);
+
+-- Pairs previously configured as alert-rules.interacting-drugs, plus common high-risk combinations
+INSERT INTO drug_interactions (drug_a, drug_b, severity, description) VALUES
+    ('aspirin', 'warfarin', 'HIGH', 'Increased bleeding risk'),
+    ('ibuprofen', 'warfarin', 'HIGH', 'Increased bleeding risk and NSAID gastrointestinal toxicity'),
+    ('clopidogrel', 'omeprazole', 'MEDIUM', 'Reduced activation of clopidogrel'),
+    ('clarithromycin', 'simvastatin', 'CRITICAL', 'Statin exposure increased, risk of rhabdomyolysis; contraindicated'),
+    ('methotrexate', 'trimethoprim', 'HIGH', 'Additive antifolate effect, risk of bone marrow suppression'),
+    ('amiodarone', 'warfarin', 'HIGH', 'Warfarin metabolism inhibited, INR rise'),
+    ('amiodarone', 'digoxin', 'HIGH', 'Digoxin levels increased'),
+    ('amiodarone', 'simvastatin', 'HIGH', 'Risk of myopathy'),
+    ('nitroglycerin', 'sildenafil', 'CRITICAL', 'Severe hypotension; contraindicated'),
+    ('isosorbide mononitrate', 'sildenafil', 'CRITICAL', 'Severe hypotension; contraindicated'),
+    ('lisinopril', 'spironolactone', 'HIGH', 'Risk of hyperkalaemia'),
+    ('ramipril', 'spironolactone', 'HIGH', 'Risk of hyperkalaemia'),
+    ('fluoxetine', 'tramadol', 'HIGH', 'Risk of serotonin syndrome and seizures'),
+    ('clarithromycin', 'colchicine', 'CRITICAL', 'Colchicine toxicity; contraindicated'),
+    ('ciprofloxacin', 'tizanidine', 'CRITICAL', 'Tizanidine levels greatly increased; contraindicated'),
+    ('allopurinol', 'azathioprine', 'CRITICAL', 'Azathioprine toxicity, bone marrow suppression'),
+    ('ibuprofen', 'methotrexate', 'HIGH', 'Reduced methotrexate clearance'),
+    ('aspirin', 'ibuprofen', 'MEDIUM', 'Reduced antiplatelet effect of aspirin'),
+    ('clopidogrel', 'warfarin', 'HIGH', 'Increased bleeding risk'),
+    ('metformin', 'iodinated contrast', 'HIGH', 'Risk of lactic acidosis'),
+    ('digoxin', 'verapamil', 'HIGH', 'Digoxin levels increased, bradycardia'),
+    ('bisoprolol', 'verapamil', 'HIGH', 'Bradycardia and heart block');
+
+INSERT INTO drug_aliases (alias, drug) VALUES
+    ('aspirine', 'aspirin'),
+    ('acide acetylsalicylique', 'aspirin'),
+    ('acetylsalicylic acid', 'aspirin'),
+    ('kardegic', 'aspirin'),
+    ('warfarine', 'warfarin'),
+    ('coumadine', 'warfarin'),
+    ('coumadin', 'warfarin'),
+    ('ibuprofene', 'ibuprofen'),
+    ('advil', 'ibuprofen'),
+    ('nurofen', 'ibuprofen'),
+    ('plavix', 'clopidogrel'),
+    ('mopral', 'omeprazole'),
+    ('clarithromycine', 'clarithromycin'),
+    ('zeclar', 'clarithromycin'),
+    ('simvastatine', 'simvastatin'),
+    ('zocor', 'simvastatin'),
+    ('cordarone', 'amiodarone'),
+    ('digoxine', 'digoxin'),
+    ('trinitrine', 'nitroglycerin'),
+    ('nitroglycerine', 'nitroglycerin'),
+    ('viagra', 'sildenafil'),
+    ('aldactone', 'spironolactone'),
+    ('prozac', 'fluoxetine'),
+    ('ciprofloxacine', 'ciprofloxacin'),
+    ('zyloric', 'allopurinol'),
+    ('imurel', 'azathioprine'),
+    ('glucophage', 'metformin'),
+    ('metformine', 'metformin'),
+    ('isoptine', 'verapamil'),
+    ('cardensiel', 'bisoprolol');
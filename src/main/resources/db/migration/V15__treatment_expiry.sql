@@ -0,0 +1,9 @@
+-- Active treatments are moved to COMPLETED once past their end (see TreatmentCompletionJob). A treatment
+-- without end_date ends after duration_days; one with neither stays active until changed by hand.
+-- Both indexes only cover ACTIVE rows, a small and shrinking share of the table.
+
+CREATE INDEX idx_treatment_active_expiry ON treatments ((COALESCE(end_date, start_date + duration_days - 1)))
+    WHERE status = 'ACTIVE';
+
+CREATE INDEX idx_treatment_active_patient ON treatments (patient_id, start_date DESC)
+    WHERE status = 'ACTIVE';
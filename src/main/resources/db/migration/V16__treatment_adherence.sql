@@ -0,0 +1,17 @@
+-- Taken and missed doses of a treatment (TreatmentAdherenceService), as bitmaps indexed by dose number.
+-- Dose numbers depend on the frequency and start date, so bitmaps are kept per schedule: when either
+-- changes, recording starts a new row and the previous one is kept as is.
+
+CREATE TABLE treatment_adherence (
+    id           uuid         NOT NULL,
+    treatment_id uuid         NOT NULL,
+    schedule     varchar(200) NOT NULL,
+    start_date   date         NOT NULL,
+    taken        bytea        NOT NULL,
+    missed       bytea        NOT NULL,
+    updated_at   timestamp(6) with time zone NOT NULL,
+    updated_by   uuid,
+    CONSTRAINT treatment_adherence_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_treatment_adherence_schedule UNIQUE (treatment_id, schedule, start_date),
+    CONSTRAINT fk_treatment_adherence_treatment FOREIGN KEY (treatment_id) REFERENCES treatments (id) ON DELETE CASCADE
+);
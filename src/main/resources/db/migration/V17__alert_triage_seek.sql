@@ -0,0 +1,8 @@
+-- Triage pages seek with a row comparison (-severity_rank, created_at, id) > (cursor), which a btree
+-- can only bound on all three columns when they are all ascending: the index orders by the negated
+-- rank instead of by rank descending.
+
+CREATE INDEX idx_alert_triage_seek ON medical_alerts ((-severity_rank), created_at, id) WHERE status = 'active';
+
+DROP INDEX idx_alert_triage;
+ALTER INDEX idx_alert_triage_seek RENAME TO idx_alert_triage;
@@ -0,0 +1,16 @@
+-- Log of alert changes sent on the alert SSE stream (see MedicalAlertStreamService). Each change is
+-- written in the transaction that makes it and announced to every replica by NOTIFY on commit; the
+-- id is the SSE event id, the same on every replica, so a client reconnecting anywhere with
+-- Last-Event-ID is replayed the changes of its patients after it. Rows are pruned after a retention
+-- period, the log is append-only so a BRIN index is enough to find them.
+
+CREATE TABLE alert_stream_events (
+    id          bigserial     NOT NULL,
+    owner_id    uuid          NOT NULL,
+    payload     jsonb         NOT NULL,
+    created_at  timestamptz   NOT NULL DEFAULT now(),
+    CONSTRAINT alert_stream_events_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_alert_stream_events_owner ON alert_stream_events (owner_id, id);
+CREATE INDEX idx_alert_stream_events_created ON alert_stream_events USING brin (created_at);
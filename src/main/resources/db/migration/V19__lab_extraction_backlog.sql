@@ -0,0 +1,6 @@
+-- Analyses whose lab values are still to be extracted by the current parser version, for the backfill
+-- job's lockPendingLabExtractions: once the backlog is drained the index is empty and a run costs one
+-- index probe instead of a scan of medical_analyses. The predicate follows LabResultParser.VERSION:
+-- bumping the version comes with a migration recreating this index with the new bound.
+
+CREATE INDEX idx_medical_analyses_lab_extraction_pending ON medical_analyses (id) WHERE lab_extraction_version < 1;
@@ -0,0 +1,215 @@
+-- Baseline schema as previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version and skip this script.
+
+CREATE TABLE patients (
+    id                      uuid         NOT NULL,
+    first_name              varchar(50)  NOT NULL,
+    last_name               varchar(50)  NOT NULL,
+    date_of_birth           date         NOT NULL,
+    gender                  varchar(10)  NOT NULL,
+    phone                   varchar(20),
+    email                   varchar(100),
+    address                 varchar(200),
+    city                    varchar(50),
+    postal_code             varchar(20),
+    country                 varchar(50),
+    blood_group             varchar(20),
+    family_history          varchar(500),
+    allergies               varchar(500),
+    chronic_diseases        varchar(500),
+    main_pathologies        varchar(1000),
+    status                  varchar(20),
+    emergency_contact_name  varchar(100),
+    emergency_contact_phone varchar(20),
+    notes                   varchar(1000),
+    attending_physician     varchar(200),
+    active                  boolean      NOT NULL,
+    created_at              timestamp(6) with time zone NOT NULL,
+    updated_at              timestamp(6) with time zone NOT NULL,
+    created_by              uuid         NOT NULL,
+    updated_by              uuid,
+    CONSTRAINT patients_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_patients_email UNIQUE (email)
+);
+CREATE INDEX idx_patient_created_by ON patients (created_by);
+CREATE INDEX idx_patient_email ON patients (email);
+
+CREATE TABLE medical_histories (
+    id             uuid          NOT NULL,
+    patient_id     uuid          NOT NULL,
+    diagnosis_date date          NOT NULL,
+    diagnosis      varchar(200)  NOT NULL,
+    symptoms       varchar(1000),
+    treatment      varchar(1000),
+    medications    varchar(500),
+    notes          varchar(1000),
+    severity       varchar(50),
+    resolved       boolean,
+    created_at     timestamp(6) with time zone NOT NULL,
+    updated_at     timestamp(6) with time zone NOT NULL,
+    created_by     uuid          NOT NULL,
+    updated_by     uuid,
+    CONSTRAINT medical_histories_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_medical_histories_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+
+CREATE TABLE consultations (
+    id                     uuid          NOT NULL,
+    patient_id             uuid          NOT NULL,
+    consultation_date      timestamp(6)  NOT NULL,
+    reason_for_visit       varchar(200)  NOT NULL,
+    symptoms               varchar(1000),
+    physical_examination   varchar(1000),
+    diagnosis              varchar(1000),
+    treatment              varchar(1000),
+    prescriptions          varchar(500),
+    notes                  varchar(1000),
+    vital_signs            varchar(500),
+    follow_up_instructions varchar(200),
+    next_appointment       timestamp(6),
+    status                 varchar(255)  NOT NULL,
+    created_at             timestamp(6) with time zone NOT NULL,
+    updated_at             timestamp(6) with time zone NOT NULL,
+    created_by             uuid          NOT NULL,
+    updated_by             uuid,
+    CONSTRAINT consultations_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_consultations_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX idx_consultation_patient ON consultations (patient_id);
+CREATE INDEX idx_consultation_date ON consultations (consultation_date);
+
+CREATE TABLE treatments (
+    id                      uuid          NOT NULL,
+    patient_id              uuid          NOT NULL,
+    medication_name         varchar(200)  NOT NULL,
+    dosage                  varchar(100)  NOT NULL,
+    frequency               varchar(100),
+    route_of_administration varchar(50),
+    start_date              date          NOT NULL,
+    end_date                date,
+    duration_days           integer,
+    status                  varchar(20)   NOT NULL,
+    indication              varchar(500),
+    side_effects            varchar(500),
+    prescriber_name         varchar(200),
+    notes                   varchar(1000),
+    created_at              timestamp(6) with time zone NOT NULL,
+    updated_at              timestamp(6) with time zone NOT NULL,
+    created_by              uuid          NOT NULL,
+    updated_by              uuid,
+    CONSTRAINT treatments_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_treatments_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX idx_treatment_patient ON treatments (patient_id);
+CREATE INDEX idx_treatment_status ON treatments (status);
+CREATE INDEX idx_treatment_start_date ON treatments (start_date);
+
+CREATE TABLE vital_signs (
+    id                uuid         NOT NULL,
+    patient_id        uuid         NOT NULL,
+    measurement_date  timestamp(6) NOT NULL,
+    systolicbp        integer,
+    diastolicbp       integer,
+    heart_rate        integer,
+    temperature       double precision,
+    weight            double precision,
+    height            double precision,
+    bmi               double precision,
+    respiratory_rate  integer,
+    oxygen_saturation integer,
+    blood_glucose     double precision,
+    notes             varchar(500),
+    created_at        timestamp(6) with time zone NOT NULL,
+    updated_at        timestamp(6) with time zone NOT NULL,
+    created_by        uuid         NOT NULL,
+    updated_by        uuid,
+    CONSTRAINT vital_signs_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_vital_signs_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX idx_vital_signs_patient ON vital_signs (patient_id);
+CREATE INDEX idx_vital_signs_measurement_date ON vital_signs (measurement_date);
+
+CREATE TABLE medical_analyses (
+    id                   uuid          NOT NULL,
+    patient_id           uuid          NOT NULL,
+    analysis_type        varchar(100)  NOT NULL,
+    analysis_date        date          NOT NULL,
+    file_name            varchar(200),
+    ocr_text             text,
+    results              text,
+    interpretation       text,
+    alerts_and_anomalies text,
+    recommendations      text,
+    performed_by         varchar(200),
+    interpreted_by       varchar(200),
+    status               varchar(50),
+    notes                varchar(1000),
+    created_at           timestamp(6) with time zone NOT NULL,
+    updated_at           timestamp(6) with time zone NOT NULL,
+    created_by           uuid          NOT NULL,
+    updated_by           uuid,
+    CONSTRAINT medical_analyses_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_medical_analyses_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX idx_medical_analysis_patient ON medical_analyses (patient_id);
+CREATE INDEX idx_medical_analysis_type ON medical_analyses (analysis_type);
+CREATE INDEX idx_medical_analysis_date ON medical_analyses (analysis_date);
+
+CREATE TABLE medical_alerts (
+    id              uuid         NOT NULL,
+    patient_id      uuid         NOT NULL,
+    alert_type      varchar(100) NOT NULL,
+    severity_level  varchar(20),
+    description     text,
+    resolution_date timestamp(6) with time zone,
+    status          varchar(20)  NOT NULL,
+    required_action text,
+    created_by      uuid         NOT NULL,
+    resolved_by     uuid,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    CONSTRAINT medical_alerts_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_medical_alerts_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX idx_alert_patient_status ON medical_alerts (patient_id, status);
+CREATE INDEX idx_alert_severity ON medical_alerts (severity_level);
+CREATE INDEX idx_alert_created ON medical_alerts (created_at);
+
+CREATE TABLE cardiovascular_exams (
+    id             uuid          NOT NULL,
+    patient_id     uuid          NOT NULL,
+    exam_type      varchar(100)  NOT NULL,
+    exam_date      timestamp(6)  NOT NULL,
+    results        varchar(2000) NOT NULL,
+    interpretation varchar(2000),
+    measured_values varchar(1000),
+    abnormalities  varchar(1000),
+    pdf_file       varchar(500),
+    notes          varchar(500),
+    status         varchar(50),
+    created_at     timestamp(6) with time zone NOT NULL,
+    updated_at     timestamp(6) with time zone NOT NULL,
+    CONSTRAINT cardiovascular_exams_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_cardiovascular_exams_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX idx_cardiovascular_patient ON cardiovascular_exams (patient_id);
+CREATE INDEX idx_cardiovascular_date ON cardiovascular_exams (exam_date);
+CREATE INDEX idx_cardiovascular_type ON cardiovascular_exams (exam_type);
+
+CREATE TABLE chat_conversations (
+    id              uuid         NOT NULL,
+    patient_id      uuid         NOT NULL,
+    session_id      varchar(255) NOT NULL,
+    title           varchar(500),
+    messages        text,
+    message_count   integer,
+    started_at      timestamp(6),
+    last_message_at timestamp(6),
+    status          varchar(20),
+    tags            varchar(500),
+    created_at      timestamp(6) NOT NULL,
+    updated_at      timestamp(6),
+    CONSTRAINT chat_conversations_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_chat_conversations_session UNIQUE (session_id),
+    CONSTRAINT fk_chat_conversations_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
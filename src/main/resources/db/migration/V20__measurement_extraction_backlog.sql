@@ -0,0 +1,5 @@
+-- Pending-extraction index of cardiovascular_exams for lockPendingMeasurementExtractions, as V19 for
+-- medical_analyses; the bound follows CardiovascularMeasurementParser.VERSION.
+
+CREATE INDEX idx_cardiovascular_exams_measurement_extraction_pending ON cardiovascular_exams (id)
+    WHERE measurement_extraction_version < 1;
@@ -0,0 +1,42 @@
+-- Owner of the patient (patients.created_by) copied onto medical_alerts and cardiovascular_measurements,
+-- so the owner-scoped reads lead their index with it instead of filtering a global index through a
+-- subquery on patients: a triage page or a threshold search then reads only the caller's rows however
+-- many other users share the tables. created_by never changes once a patient exists, and the copy is
+-- set by trigger on insert (and on a change of patient_id), so writers need not provide it.
+
+ALTER TABLE medical_alerts ADD COLUMN owner_id uuid;
+ALTER TABLE cardiovascular_measurements ADD COLUMN owner_id uuid;
+
+UPDATE medical_alerts a SET owner_id = p.created_by FROM patients p WHERE p.id = a.patient_id;
+UPDATE cardiovascular_measurements m SET owner_id = p.created_by FROM patients p WHERE p.id = m.patient_id;
+
+ALTER TABLE medical_alerts ALTER COLUMN owner_id SET NOT NULL;
+ALTER TABLE cardiovascular_measurements ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE FUNCTION set_owner_from_patient() RETURNS trigger AS $$
+BEGIN
+    SELECT p.created_by INTO NEW.owner_id FROM patients p WHERE p.id = NEW.patient_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_medical_alerts_owner BEFORE INSERT OR UPDATE OF patient_id ON medical_alerts
+    FOR EACH ROW EXECUTE FUNCTION set_owner_from_patient();
+CREATE TRIGGER trg_cardiovascular_measurements_owner BEFORE INSERT OR UPDATE OF patient_id ON cardiovascular_measurements
+    FOR EACH ROW EXECUTE FUNCTION set_owner_from_patient();
+
+-- Triage order within an owner's active alerts; the (-severity_rank, created_at, id) cursor comparison
+-- of the next page bounds the scan after the owner_id equality, as in V17.
+CREATE INDEX idx_alert_triage_owner ON medical_alerts (owner_id, (-severity_rank), created_at, id) WHERE status = 'active';
+
+DROP INDEX idx_alert_triage;
+ALTER INDEX idx_alert_triage_owner RENAME TO idx_alert_triage;
+
+-- Threshold searches within an owner's patients. The index includes every column such a search
+-- returns (CardiovascularMeasurementRepository.findInRange), so it can be answered by an index-only scan.
+-- The V13 index on (metric, value) it replaces held every owner's rows and lacked id, so each match
+-- still visited the table.
+CREATE INDEX idx_cardiovascular_measurements_owner_value ON cardiovascular_measurements (owner_id, metric, value)
+    INCLUDE (measured_at, patient_id, exam_id, id);
+
+DROP INDEX idx_cardiovascular_measurements_value;
@@ -0,0 +1,16 @@
+-- Matches of alert rules that fire on several matching records within a window (see AlertRuleMatchLog),
+-- shared by all replicas so the records of a patient count together whichever replica evaluated them,
+-- and kept across restarts. A rule's matches for a patient are deleted when it fires; the rest are
+-- pruned once older than the longest window, the table is append-only so a BRIN index finds them.
+
+CREATE TABLE alert_rule_matches (
+    id          bigserial     NOT NULL,
+    rule_id     varchar(100)  NOT NULL,
+    patient_id  uuid          NOT NULL,
+    occurred_at timestamp(6)  NOT NULL,
+    created_at  timestamptz   NOT NULL DEFAULT now(),
+    CONSTRAINT alert_rule_matches_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_alert_rule_matches_rule_patient ON alert_rule_matches (rule_id, patient_id, occurred_at);
+CREATE INDEX idx_alert_rule_matches_created ON alert_rule_matches USING brin (created_at);
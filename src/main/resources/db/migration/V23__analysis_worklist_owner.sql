@@ -0,0 +1,17 @@
+-- Owner of the patient copied onto medical_analyses, as V21 does for alerts and measurements, so the
+-- worklist index leads with it: a page reads the owner's analyses in the status instead of walking
+-- every other owner's rows in that status. Set by the set_owner_from_patient trigger of V21.
+
+ALTER TABLE medical_analyses ADD COLUMN owner_id uuid;
+
+UPDATE medical_analyses a SET owner_id = p.created_by FROM patients p WHERE p.id = a.patient_id;
+
+ALTER TABLE medical_analyses ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE TRIGGER trg_medical_analyses_owner BEFORE INSERT OR UPDATE OF patient_id ON medical_analyses
+    FOR EACH ROW EXECUTE FUNCTION set_owner_from_patient();
+
+CREATE INDEX idx_medical_analysis_worklist_owner ON medical_analyses (owner_id, status, analysis_date DESC, id DESC);
+
+DROP INDEX idx_medical_analysis_worklist;
+ALTER INDEX idx_medical_analysis_worklist_owner RENAME TO idx_medical_analysis_worklist;
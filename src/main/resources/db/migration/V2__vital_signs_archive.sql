@@ -0,0 +1,19 @@
+-- Compressed monthly blocks of archived vital signs (VitalSignsArchiveService).
+-- IF NOT EXISTS: databases managed by ddl-auto=update may already have the table.
+
+CREATE TABLE IF NOT EXISTS vital_signs_archive (
+    id                     uuid         NOT NULL,
+    patient_id             uuid         NOT NULL,
+    period_start           date         NOT NULL,
+    first_measurement_date timestamp(6) NOT NULL,
+    last_measurement_date  timestamp(6) NOT NULL,
+    sample_count           integer      NOT NULL,
+    encoding_version       smallint     NOT NULL,
+    payload                bytea        NOT NULL,
+    created_at             timestamp(6) with time zone NOT NULL,
+    updated_at             timestamp(6) with time zone NOT NULL,
+    CONSTRAINT vital_signs_archive_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_vital_signs_archive_patient_period UNIQUE (patient_id, period_start),
+    CONSTRAINT fk_vital_signs_archive_patient FOREIGN KEY (patient_id) REFERENCES patients (id)
+);
+CREATE INDEX IF NOT EXISTS idx_vital_signs_archive_patient_last ON vital_signs_archive (patient_id, last_measurement_date);
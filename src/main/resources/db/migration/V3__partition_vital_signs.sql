@@ -0,0 +1,82 @@
+-- Monthly range partitioning of vital_signs on measurement_date.
+-- Partitions are named vital_signs_pYYYY_MM; rows outside any partition land in
+-- vital_signs_default. Future partitions are created by VitalSignsPartitionMaintenance.
+
+ALTER TABLE vital_signs RENAME TO vital_signs_unpartitioned;
+
+CREATE TABLE vital_signs (
+    id                uuid         NOT NULL,
+    patient_id        uuid         NOT NULL,
+    measurement_date  timestamp(6) NOT NULL,
+    systolicbp        integer,
+    diastolicbp       integer,
+    heart_rate        integer,
+    temperature       double precision,
+    weight            double precision,
+    height            double precision,
+    bmi               double precision,
+    respiratory_rate  integer,
+    oxygen_saturation integer,
+    blood_glucose     double precision,
+    notes             varchar(500),
+    created_at        timestamp(6) with time zone NOT NULL,
+    updated_at        timestamp(6) with time zone NOT NULL,
+    created_by        uuid         NOT NULL,
+    updated_by        uuid
+) PARTITION BY RANGE (measurement_date);
+
+CREATE TABLE vital_signs_default PARTITION OF vital_signs DEFAULT;
+
+-- Create the partition of the month containing month_start (no-op if it exists).
+-- Rows of that month already in the default partition are moved into the new partition.
+CREATE OR REPLACE FUNCTION create_vital_signs_partition(month_start date) RETURNS text AS $$
+DECLARE
+    range_start    date := date_trunc('month', month_start)::date;
+    range_end      date := (date_trunc('month', month_start) + interval '1 month')::date;
+    partition_name text := format('vital_signs_p%s', to_char(range_start, 'YYYY_MM'));
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM vital_signs_default WHERE measurement_date >= range_start AND measurement_date < range_end) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE vital_signs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM vital_signs_default WHERE measurement_date >= %L AND measurement_date < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', range_start, range_end, partition_name);
+        EXECUTE format('ALTER TABLE vital_signs ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, range_start, range_end);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF vital_signs FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, range_start, range_end);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    month_start date;
+    last_month  date := (date_trunc('month', now()) + interval '3 months')::date;
+BEGIN
+    SELECT date_trunc('month', COALESCE(min(measurement_date), now()))::date INTO month_start FROM vital_signs_unpartitioned;
+    WHILE month_start <= last_month LOOP
+        PERFORM create_vital_signs_partition(month_start);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO vital_signs (id, patient_id, measurement_date, systolicbp, diastolicbp, heart_rate, temperature, weight, height,
+                         bmi, respiratory_rate, oxygen_saturation, blood_glucose, notes, created_at, updated_at, created_by, updated_by)
+SELECT id, patient_id, measurement_date, systolicbp, diastolicbp, heart_rate, temperature, weight, height,
+       bmi, respiratory_rate, oxygen_saturation, blood_glucose, notes, created_at, updated_at, created_by, updated_by
+FROM vital_signs_unpartitioned;
+
+DROP TABLE vital_signs_unpartitioned;
+
+-- The partition key must be part of every unique constraint
+ALTER TABLE vital_signs ADD CONSTRAINT vital_signs_pkey PRIMARY KEY (id, measurement_date);
+ALTER TABLE vital_signs ADD CONSTRAINT fk_vital_signs_patient FOREIGN KEY (patient_id) REFERENCES patients (id);
+
+-- Covers per-patient history, latest-reading and range queries; date-only scans prune by partition instead
+CREATE INDEX idx_vital_signs_patient_date ON vital_signs (patient_id, measurement_date);
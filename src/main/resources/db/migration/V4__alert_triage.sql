@@ -0,0 +1,12 @@
+-- Triage ordering of active alerts: severity rank (CRITICAL = 4 ... LOW = 1, unknown = 0), then oldest first.
+
+ALTER TABLE medical_alerts ADD COLUMN severity_rank integer NOT NULL DEFAULT 0;
+
+UPDATE medical_alerts SET severity_rank = CASE upper(trim(severity_level))
+    WHEN 'CRITICAL' THEN 4
+    WHEN 'HIGH' THEN 3
+    WHEN 'MEDIUM' THEN 2
+    WHEN 'LOW' THEN 1
+    ELSE 0 END;
+
+CREATE INDEX idx_alert_triage ON medical_alerts (severity_rank DESC, created_at, id) WHERE status = 'active';
@@ -0,0 +1,8 @@
+-- Coalescing of duplicate alerts: occurrence counter and last-seen time on the open alert.
+
+ALTER TABLE medical_alerts ADD COLUMN occurrence_count integer NOT NULL DEFAULT 1;
+ALTER TABLE medical_alerts ADD COLUMN last_occurrence_at timestamp(6) with time zone;
+
+UPDATE medical_alerts SET last_occurrence_at = created_at;
+
+ALTER TABLE medical_alerts ALTER COLUMN last_occurrence_at SET NOT NULL;
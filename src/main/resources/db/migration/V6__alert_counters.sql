@@ -0,0 +1,106 @@
+-- Active alert counts per patient and severity rank, maintained by statement-level triggers on
+-- medical_alerts. Transition tables let a bulk statement apply one aggregated delta per patient
+-- instead of one counter update per alert row. Unknown severities count in active_count only.
+
+CREATE TABLE patient_alert_counters (
+    patient_id     uuid    NOT NULL,
+    active_count   integer NOT NULL DEFAULT 0,
+    low_count      integer NOT NULL DEFAULT 0,
+    medium_count   integer NOT NULL DEFAULT 0,
+    high_count     integer NOT NULL DEFAULT 0,
+    critical_count integer NOT NULL DEFAULT 0,
+    CONSTRAINT patient_alert_counters_pkey PRIMARY KEY (patient_id),
+    CONSTRAINT fk_patient_alert_counters_patient FOREIGN KEY (patient_id) REFERENCES patients (id) ON DELETE CASCADE
+);
+
+CREATE OR REPLACE FUNCTION apply_alert_counter_deltas() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        -- Decrement only: the patient may be going away in the same statement (counter row cascaded)
+        UPDATE patient_alert_counters c SET
+            active_count   = c.active_count - d.active,
+            low_count      = c.low_count - d.low,
+            medium_count   = c.medium_count - d.medium,
+            high_count     = c.high_count - d.high,
+            critical_count = c.critical_count - d.critical
+        FROM (SELECT patient_id,
+                     count(*) AS active,
+                     count(*) FILTER (WHERE severity_rank = 1) AS low,
+                     count(*) FILTER (WHERE severity_rank = 2) AS medium,
+                     count(*) FILTER (WHERE severity_rank = 3) AS high,
+                     count(*) FILTER (WHERE severity_rank = 4) AS critical
+              FROM old_rows WHERE status = 'active' GROUP BY patient_id) d
+        WHERE c.patient_id = d.patient_id;
+    ELSIF TG_OP = 'INSERT' THEN
+        INSERT INTO patient_alert_counters AS c (patient_id, active_count, low_count, medium_count, high_count, critical_count)
+        SELECT patient_id,
+               count(*),
+               count(*) FILTER (WHERE severity_rank = 1),
+               count(*) FILTER (WHERE severity_rank = 2),
+               count(*) FILTER (WHERE severity_rank = 3),
+               count(*) FILTER (WHERE severity_rank = 4)
+        FROM new_rows
+        WHERE status = 'active'
+        GROUP BY patient_id
+        ORDER BY patient_id -- fixed lock order, so concurrent statements cannot deadlock on counter rows
+        ON CONFLICT (patient_id) DO UPDATE SET
+            active_count   = c.active_count + excluded.active_count,
+            low_count      = c.low_count + excluded.low_count,
+            medium_count   = c.medium_count + excluded.medium_count,
+            high_count     = c.high_count + excluded.high_count,
+            critical_count = c.critical_count + excluded.critical_count;
+    ELSE
+        -- Updates that leave status and severity alone (e.g. coalesced occurrences) net to zero and touch nothing
+        INSERT INTO patient_alert_counters AS c (patient_id, active_count, low_count, medium_count, high_count, critical_count)
+        SELECT * FROM (
+            SELECT patient_id,
+                   sum(delta) AS active,
+                   coalesce(sum(delta) FILTER (WHERE severity_rank = 1), 0) AS low,
+                   coalesce(sum(delta) FILTER (WHERE severity_rank = 2), 0) AS medium,
+                   coalesce(sum(delta) FILTER (WHERE severity_rank = 3), 0) AS high,
+                   coalesce(sum(delta) FILTER (WHERE severity_rank = 4), 0) AS critical
+            FROM (SELECT patient_id, severity_rank, -1 AS delta FROM old_rows WHERE status = 'active'
+                  UNION ALL
+                  SELECT patient_id, severity_rank, 1 FROM new_rows WHERE status = 'active') changes
+            GROUP BY patient_id
+        ) d
+        WHERE (d.active, d.low, d.medium, d.high, d.critical) <> (0, 0, 0, 0, 0)
+        ORDER BY patient_id
+        ON CONFLICT (patient_id) DO UPDATE SET
+            active_count   = c.active_count + excluded.active_count,
+            low_count      = c.low_count + excluded.low_count,
+            medium_count   = c.medium_count + excluded.medium_count,
+            high_count     = c.high_count + excluded.high_count,
+            critical_count = c.critical_count + excluded.critical_count;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+LOCK TABLE medical_alerts IN SHARE ROW EXCLUSIVE MODE;
+
+INSERT INTO patient_alert_counters (patient_id, active_count, low_count, medium_count, high_count, critical_count)
+SELECT patient_id,
+       count(*),
+       count(*) FILTER (WHERE severity_rank = 1),
+       count(*) FILTER (WHERE severity_rank = 2),
+       count(*) FILTER (WHERE severity_rank = 3),
+       count(*) FILTER (WHERE severity_rank = 4)
+FROM medical_alerts
+WHERE status = 'active'
+GROUP BY patient_id;
+
+CREATE TRIGGER trg_medical_alerts_counters_insert
+    AFTER INSERT ON medical_alerts
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_alert_counter_deltas();
+
+CREATE TRIGGER trg_medical_alerts_counters_update
+    AFTER UPDATE ON medical_alerts
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_alert_counter_deltas();
+
+CREATE TRIGGER trg_medical_alerts_counters_delete
+    AFTER DELETE ON medical_alerts
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION apply_alert_counter_deltas();
@@ -0,0 +1,9 @@
+-- Escalation of unresolved alerts: next due time, how often the alert was escalated and when last.
+-- escalate_at is assigned from the per-severity SLA (medical-alerts.escalation.sla.*) when an alert is
+-- created; existing active alerts get theirs when an instance first becomes escalation leader.
+
+ALTER TABLE medical_alerts ADD COLUMN escalation_level integer NOT NULL DEFAULT 0;
+ALTER TABLE medical_alerts ADD COLUMN escalated_at timestamp(6) with time zone;
+ALTER TABLE medical_alerts ADD COLUMN escalate_at timestamp(6) with time zone;
+
+CREATE INDEX idx_alert_escalation ON medical_alerts (escalate_at) WHERE status = 'active' AND escalate_at IS NOT NULL;
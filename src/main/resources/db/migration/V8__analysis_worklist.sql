@@ -0,0 +1,3 @@
+-- Analysis worklist: keyset pagination by status, most recent analysis date first.
+
+CREATE INDEX idx_medical_analysis_worklist ON medical_analyses (status, analysis_date DESC, id DESC);
@@ -0,0 +1,19 @@
+-- Full-text search over analysis reports. The document is indexed with both French and English
+-- stemming; interpretation weighs most (A), then recommendations (B), then the OCR text (C).
+-- search_vector is refreshed by MedicalAnalysisServiceImpl whenever one of these fields is written.
+
+ALTER TABLE medical_analyses ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION medical_analysis_search_vector(ocr_text text, interpretation text, recommendations text)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('french', coalesce(interpretation, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(interpretation, '')), 'A')
+        || setweight(to_tsvector('french', coalesce(recommendations, '')), 'B')
+        || setweight(to_tsvector('english', coalesce(recommendations, '')), 'B')
+        || setweight(to_tsvector('french', coalesce(ocr_text, '')), 'C')
+        || setweight(to_tsvector('english', coalesce(ocr_text, '')), 'C')
+$$ LANGUAGE sql IMMUTABLE;
+
+UPDATE medical_analyses SET search_vector = medical_analysis_search_vector(ocr_text, interpretation, recommendations);
+
+CREATE INDEX idx_medical_analysis_search ON medical_analyses USING gin (search_vector);
@@ -0,0 +1,154 @@
+package com.medinsights.patient_service.configurations;
+
+import com.medinsights.patient_service.controllers.ChatConversationController;
+import com.medinsights.patient_service.controllers.MedicalAnalysisController;
+import com.medinsights.patient_service.controllers.TreatmentController;
+import com.medinsights.patient_service.exceptions.GlobalExceptionHandler;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import com.medinsights.patient_service.services.ChatConversationService;
+import com.medinsights.patient_service.services.MedicalAnalysisService;
+import com.medinsights.patient_service.services.TreatmentService;
+import com.medinsights.patient_service.services.access.PatientAccessGuard;
+import com.medinsights.patient_service.services.analysis.LabResultService;
+import com.medinsights.patient_service.services.ingestion.AnalysisIngestionService;
+import com.medinsights.patient_service.services.treatment.TreatmentAdherenceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class PatientAccessInterceptorTest {
+
+    private static final UUID USER = UUID.randomUUID();
+    private static final UUID OTHER_USER = UUID.randomUUID();
+
+    private static final UUID OWN_TREATMENT = UUID.randomUUID();
+    private static final UUID OTHER_TREATMENT = UUID.randomUUID();
+    private static final String OWN_SESSION = "session-own";
+    private static final String OTHER_SESSION = "session-other";
+    private static final UUID OWN_JOB = UUID.randomUUID();
+    private static final UUID OTHER_JOB = UUID.randomUUID();
+
+    private final Map<Object, UUID> owners = new HashMap<>();
+    private final TreatmentService treatmentService = mock(TreatmentService.class);
+    private final ChatConversationService conversationService = mock(ChatConversationService.class);
+    private final AnalysisIngestionService ingestionService = mock(AnalysisIngestionService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owners.put(OWN_TREATMENT, USER);
+        owners.put(OTHER_TREATMENT, OTHER_USER);
+        owners.put(OWN_SESSION, USER);
+        owners.put(OTHER_SESSION, OTHER_USER);
+        owners.put(OWN_JOB, USER);
+        owners.put(OTHER_JOB, OTHER_USER);
+
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            Map<String, ?> params = invocation.getArgument(1);
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object id : (Collection<?>) params.get("ids")) {
+                if (owners.containsKey(id)) {
+                    ResultSet row = mock(ResultSet.class);
+                    when(row.getObject(1)).thenReturn(id);
+                    when(row.getObject(2, UUID.class)).thenReturn(owners.get(id));
+                    handler.processRow(row);
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), anyMap(), any(RowCallbackHandler.class));
+
+        PatientAccessGuard guard = new PatientAccessGuard(jdbcTemplate, new SimpleMeterRegistry(), 100);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new TreatmentController(treatmentService, mock(TreatmentAdherenceService.class)),
+                        new ChatConversationController(conversationService),
+                        new MedicalAnalysisController(mock(MedicalAnalysisService.class), mock(LabResultService.class),
+                                ingestionService))
+                .addInterceptors(new PatientAccessInterceptor(guard))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void rejectsTreatmentOfAnotherUser() throws Exception {
+        mockMvc.perform(get("/api/treatments/{treatmentId}", OTHER_TREATMENT).requestAttr("userId", USER))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(treatmentService);
+    }
+
+    @Test
+    void rejectsConversationSessionOfAnotherUser() throws Exception {
+        mockMvc.perform(get("/api/conversations/session/{sessionId}", OTHER_SESSION).requestAttr("userId", USER))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(conversationService);
+    }
+
+    @Test
+    void rejectsIngestionJobOfAnotherUser() throws Exception {
+        mockMvc.perform(get("/api/medical-analyses/ingestion-jobs/{jobId}", OTHER_JOB).requestAttr("userId", USER))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(ingestionService);
+    }
+
+    @Test
+    void rejectsRequestsWithoutUser() throws Exception {
+        mockMvc.perform(get("/api/treatments/{treatmentId}", OWN_TREATMENT))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(treatmentService);
+    }
+
+    @Test
+    void servesOwnRecords() throws Exception {
+        mockMvc.perform(get("/api/treatments/{treatmentId}", OWN_TREATMENT).requestAttr("userId", USER))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/conversations/session/{sessionId}", OWN_SESSION).requestAttr("userId", USER))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/medical-analyses/ingestion-jobs/{jobId}", OWN_JOB).requestAttr("userId", USER))
+                .andExpect(status().isOk());
+
+        verify(treatmentService).findById(OWN_TREATMENT);
+        verify(conversationService).getConversationBySession(OWN_SESSION);
+        verify(ingestionService).getJob(OWN_JOB);
+    }
+
+    @Test
+    void answersNotFoundForUnknownIds() throws Exception {
+        UUID unknownTreatment = UUID.randomUUID();
+        UUID unknownJob = UUID.randomUUID();
+        when(treatmentService.findById(unknownTreatment))
+                .thenThrow(new EntityNotFoundException("Treatment not found with id: " + unknownTreatment));
+        when(conversationService.getConversationBySession("session-unknown"))
+                .thenThrow(new ResourceNotFoundException("Conversation not found for session: session-unknown"));
+        when(ingestionService.getJob(unknownJob))
+                .thenThrow(new ResourceNotFoundException("Ingestion job not found with id: " + unknownJob));
+
+        mockMvc.perform(get("/api/treatments/{treatmentId}", unknownTreatment).requestAttr("userId", USER))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/conversations/session/{sessionId}", "session-unknown").requestAttr("userId", USER))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/medical-analyses/ingestion-jobs/{jobId}", unknownJob).requestAttr("userId", USER))
+                .andExpect(status().isNotFound());
+    }
+}
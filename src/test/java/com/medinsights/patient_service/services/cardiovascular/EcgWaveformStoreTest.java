@@ -0,0 +1,177 @@
+package com.medinsights.patient_service.services.cardiovascular;
+
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformInfo;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformSlice;
+import com.medinsights.patient_service.dto.cardiovascular.EcgWaveformSlice.LeadTrace;
+import com.medinsights.patient_service.exceptions.BadRequestException;
+import com.medinsights.patient_service.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EcgWaveformStoreTest {
+
+    private static final UUID EXAM = UUID.fromString("3c9a1f4e-8d2b-4f6a-b1e7-5a0c2d9e7f31");
+    private static final List<String> LEADS = List.of("I", "II", "V1");
+    // A power of two, so window bounds in seconds convert back to whole samples exactly
+    private static final double SAMPLE_RATE = 512;
+    // More frames than one transpose chunk, so the upload is rewritten in several passes
+    private static final int FRAMES = 70_000;
+    private static final int SPIKE_FRAME = 51_234;
+
+    @TempDir
+    Path root;
+
+    private EcgWaveformStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new EcgWaveformStore(new EcgWaveformProperties(root, DataSize.ofMegabytes(10), 10_000));
+        store.init();
+        store.store(EXAM, new ByteArrayInputStream(interleaved()), LEADS, SAMPLE_RATE, 4.88);
+    }
+
+    @Test
+    void headerRoundTrips() {
+        EcgWaveformInfo info = store.info(EXAM);
+
+        assertEquals(new EcgWaveformInfo(EXAM, LEADS, SAMPLE_RATE, 4.88, FRAMES, FRAMES / SAMPLE_RATE), info);
+    }
+
+    @Test
+    void readsRawSamplesOfEveryLead() {
+        EcgWaveformSlice slice = store.read(EXAM, null, seconds(512), seconds(522), 100);
+
+        assertFalse(slice.envelope());
+        assertEquals(512, slice.fromSample());
+        assertEquals(522, slice.toSample());
+        assertEquals(10, slice.points());
+        assertEquals(LEADS, slice.leads().stream().map(LeadTrace::lead).toList());
+        for (int lead = 0; lead < LEADS.size(); lead++) {
+            LeadTrace trace = slice.leads().get(lead);
+            assertArrayEquals(expected(lead, 512, 522), trace.samples());
+            assertNull(trace.min());
+            assertNull(trace.max());
+        }
+    }
+
+    @Test
+    void readsSelectedLeadsInRequestOrder() {
+        EcgWaveformSlice slice = store.read(EXAM, List.of("v1", " I"), null, seconds(5), 100);
+
+        assertEquals(List.of("V1", "I"), slice.leads().stream().map(LeadTrace::lead).toList());
+        assertArrayEquals(expected(2, 0, 5), slice.leads().get(0).samples());
+        assertArrayEquals(expected(0, 0, 5), slice.leads().get(1).samples());
+    }
+
+    @Test
+    void readsWindowSpanningTransposeChunks() {
+        long from = 32 * 1024 - 20;
+        EcgWaveformSlice slice = store.read(EXAM, List.of("II"), seconds(from), seconds(from + 40), 20);
+
+        assertFalse(slice.envelope());
+        assertArrayEquals(expected(1, from, from + 40), slice.leads().get(0).samples());
+    }
+
+    @Test
+    void readsEndOfRecording() {
+        EcgWaveformSlice slice = store.read(EXAM, List.of("V1"), seconds(FRAMES - 3), null, 10);
+
+        assertEquals(FRAMES, slice.toSample());
+        assertArrayEquals(expected(2, FRAMES - 3, FRAMES), slice.leads().get(0).samples());
+    }
+
+    @Test
+    void summarisesLongWindowsAsMinMaxEnvelope() {
+        int width = 7;
+        EcgWaveformSlice slice = store.read(EXAM, null, null, null, width);
+
+        assertTrue(slice.envelope());
+        assertEquals(width, slice.points());
+        for (int lead = 0; lead < LEADS.size(); lead++) {
+            LeadTrace trace = slice.leads().get(lead);
+            assertNull(trace.samples());
+            for (int column = 0; column < width; column++) {
+                short[] values = expected(lead, (long) column * FRAMES / width, (long) (column + 1) * FRAMES / width);
+                Arrays.sort(values);
+                assertEquals(values[0], trace.min()[column], "min of lead " + lead + " column " + column);
+                assertEquals(values[values.length - 1], trace.max()[column], "max of lead " + lead + " column " + column);
+            }
+        }
+    }
+
+    @Test
+    void envelopeKeepsIsolatedPeaks() {
+        EcgWaveformSlice slice = store.read(EXAM, List.of("II"), null, null, 10);
+
+        int column = (int) ((long) SPIKE_FRAME * 10 / FRAMES);
+        assertEquals(Short.MAX_VALUE, slice.leads().get(0).max()[column]);
+        assertEquals(Short.MIN_VALUE, slice.leads().get(0).min()[column]);
+    }
+
+    @Test
+    void rejectsPartialFrames() {
+        byte[] content = Arrays.copyOf(interleaved(), LEADS.size() * Short.BYTES * 10 + 1);
+
+        assertThrows(BadRequestException.class,
+                () -> store.store(EXAM, new ByteArrayInputStream(content), LEADS, SAMPLE_RATE, 4.88));
+        assertEquals(FRAMES, store.info(EXAM).samplesPerLead());
+    }
+
+    @Test
+    void rejectsUnknownLeadsAndExams() {
+        assertThrows(BadRequestException.class, () -> store.read(EXAM, List.of("aVR"), null, null, 100));
+        assertThrows(ResourceNotFoundException.class, () -> store.read(UUID.randomUUID(), null, null, null, 100));
+    }
+
+    /**
+     * A distinct ramp per lead, plus a one-sample peak and trough on lead II
+     */
+    private static short sample(int lead, long frame) {
+        if (lead == 1 && frame == SPIKE_FRAME) {
+            return Short.MAX_VALUE;
+        }
+        if (lead == 1 && frame == SPIKE_FRAME + 1) {
+            return Short.MIN_VALUE;
+        }
+        return (short) (lead * 4000 + frame % 3000 - 1500);
+    }
+
+    private static double seconds(long frame) {
+        return frame / SAMPLE_RATE;
+    }
+
+    private static short[] expected(int lead, long from, long to) {
+        short[] values = new short[(int) (to - from)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sample(lead, from + i);
+        }
+        return values;
+    }
+
+    private static byte[] interleaved() {
+        ByteBuffer buffer = ByteBuffer.allocate(FRAMES * LEADS.size() * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int frame = 0; frame < FRAMES; frame++) {
+            for (int lead = 0; lead < LEADS.size(); lead++) {
+                buffer.putShort(sample(lead, frame));
+            }
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,113 @@
+package com.medinsights.patient_service.services.interactions;
+
+import com.medinsights.patient_service.entities.AlertSeverity;
+import com.medinsights.patient_service.services.interactions.DrugInteractionIndex.InteractionRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks one prescription against a patient's active treatments, on a synthetic table of
+ * 2,000 drugs and 50,000 interactions.
+ *
+ * Not a unit test: run its main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrugInteractionIndexBenchmark {
+
+    private static final int DRUGS = 2_000;
+    private static final int INTERACTIONS = 50_000;
+    private static final int ACTIVE_TREATMENTS = 10;
+    private static final AlertSeverity[] SEVERITIES = AlertSeverity.values();
+
+    private DrugInteractionIndex index;
+    private String prescribed;
+    private String[] activeTreatments;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<InteractionRow> rows = new ArrayList<>(INTERACTIONS);
+        for (int i = 0; i < INTERACTIONS; i++) {
+            int a = random.nextInt(DRUGS);
+            int b = random.nextInt(DRUGS);
+            if (a != b) {
+                rows.add(new InteractionRow(drug(a), drug(b), SEVERITIES[random.nextInt(SEVERITIES.length)], "Interaction " + i));
+            }
+        }
+        Map<String, String> aliases = new HashMap<>();
+        for (int i = 0; i < DRUGS; i += 4) {
+            aliases.put("brand " + drug(i), drug(i));
+        }
+        index = DrugInteractionIndex.build(rows, aliases);
+
+        // Medications as written on prescriptions: accents, dose and form
+        InteractionRow first = rows.get(0);
+        prescribed = first.drugA().toUpperCase() + " 500 mg (comprimé)";
+        activeTreatments = new String[ACTIVE_TREATMENTS];
+        activeTreatments[0] = first.drugB() + " 20 mg";
+        for (int i = 1; i < ACTIVE_TREATMENTS; i++) {
+            activeTreatments[i] = drug(random.nextInt(DRUGS)) + " " + (i * 10) + " mg";
+        }
+    }
+
+    @Benchmark
+    public void checkPrescription(Blackhole blackhole) {
+        int id = index.idOf(prescribed);
+        for (String active : activeTreatments) {
+            int interaction = index.find(id, index.idOf(active));
+            if (interaction >= 0) {
+                blackhole.consume(index.severity(interaction));
+            }
+        }
+    }
+
+    @Benchmark
+    public int findPair() {
+        return index.find(17, 1_234);
+    }
+
+    @Benchmark
+    public String normalize() {
+        return DrugInteractionIndex.normalize(prescribed);
+    }
+
+    /**
+     * Letters only, as digits start the dose part of a medication name
+     */
+    private static String drug(int i) {
+        StringBuilder name = new StringBuilder("drug");
+        do {
+            name.append((char) ('a' + i % 26));
+            i /= 26;
+        } while (i > 0);
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DrugInteractionIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
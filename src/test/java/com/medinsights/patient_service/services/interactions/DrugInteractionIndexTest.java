@@ -0,0 +1,91 @@
+package com.medinsights.patient_service.services.interactions;
+
+import com.medinsights.patient_service.entities.AlertSeverity;
+import com.medinsights.patient_service.services.interactions.DrugInteractionIndex.InteractionRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DrugInteractionIndexTest {
+
+    private static final DrugInteractionIndex INDEX = DrugInteractionIndex.build(
+            List.of(
+                    new InteractionRow("Warfarin", "Aspirin", AlertSeverity.HIGH, "Bleeding risk"),
+                    new InteractionRow("simvastatin", "clarithromycin", AlertSeverity.CRITICAL, "Rhabdomyolysis"),
+                    new InteractionRow("aspirin", "WARFARIN", AlertSeverity.LOW, "Duplicate row, ignored")),
+            Map.of(
+                    "Coumadine", "warfarin",
+                    "Aspirine", "aspirin",
+                    "Acide acétylsalicylique", "aspirin",
+                    "Doliprane", "paracetamol"));
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "Warfarin                      | warfarin",
+            "Warfarine 5 mg                | warfarine",
+            "  Métformine   (Glucophage)   | metformine",
+            "Acide ACÉTYLSALICYLIQUE       | acide acetylsalicylique",
+            "Amoxicilline/acide clavulanique | amoxicilline",
+            "Paracétamol 1g, 3x/j          | paracetamol",
+            "co-amoxiclav                  | co amoxiclav",
+            "Lévothyroxine sodique 75µg    | levothyroxine sodique",
+    })
+    void normalizeDropsAccentsCaseDoseAndForm(String name, String expected) {
+        assertEquals(expected, DrugInteractionIndex.normalize(name));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "warfarin                | warfarin",
+            "WARFARIN 5 mg           | warfarin",
+            "warfarin sodium         | warfarin",
+            "Coumadine 2 mg          | warfarin",
+            "Aspirine                | aspirin",
+            "Acide acétylsalicylique | aspirin",
+            "aspirin (Kardegic) 75mg | aspirin",
+    })
+    void idOfResolvesAliasesDosesAndFirstWord(String medication, String drug) {
+        int id = INDEX.idOf(medication);
+        assertEquals(INDEX.idOf(drug), id);
+    }
+
+    @Test
+    void unknownMedicationsHaveNoId() {
+        assertEquals(-1, INDEX.idOf(null));
+        assertEquals(-1, INDEX.idOf("paracetamol"));
+        // An alias of a drug in no interaction is not indexed
+        assertEquals(-1, INDEX.idOf("Doliprane 1000 mg"));
+        assertEquals(-1, INDEX.idOf("Simvastatine"));
+    }
+
+    @Test
+    void findsInteractionsInEitherOrderThroughAliases() {
+        int warfarin = INDEX.idOf("Coumadine 2 mg");
+        int aspirin = INDEX.idOf("Aspirine");
+        assertNotEquals(-1, warfarin);
+        assertNotEquals(-1, aspirin);
+
+        int interaction = INDEX.find(warfarin, aspirin);
+        assertTrue(interaction >= 0);
+        assertEquals(interaction, INDEX.find(aspirin, warfarin));
+        assertEquals(AlertSeverity.HIGH, INDEX.severity(interaction));
+        assertEquals("Bleeding risk", INDEX.description(interaction));
+
+        assertEquals(-1, INDEX.find(warfarin, INDEX.idOf("clarithromycin")));
+        assertEquals(-1, INDEX.find(warfarin, warfarin));
+        assertEquals(-1, INDEX.find(warfarin, -1));
+    }
+
+    @Test
+    void duplicatePairsKeepTheirFirstRow() {
+        assertEquals(2, INDEX.interactionCount());
+        assertEquals(4, INDEX.drugCount());
+    }
+}
@@ -0,0 +1,55 @@
+package com.medinsights.patient_service.services.streaming;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamEventIdsTest {
+
+    @Test
+    void writesConsecutiveIdsAsRuns() {
+        assertEquals(List.of("3,7-9,12-13"), StreamEventIds.encode(List.of(9L, 7L, 3L, 8L, 13L, 12L, 8L), 100));
+        assertEquals(List.of("42"), StreamEventIds.encode(List.of(42L), 100));
+        assertEquals(List.of(), StreamEventIds.encode(List.of(), 100));
+    }
+
+    @Test
+    void decodesRunsInAscendingOrder() {
+        assertEquals(List.of(3L, 7L, 8L, 9L, 12L, 13L), StreamEventIds.decode("3,7-9,12-13"));
+        assertEquals(List.of(42L), StreamEventIds.decode("42"));
+    }
+
+    @Test
+    void aThousandConsecutiveIdsFitInOneMessage() {
+        List<Long> ids = LongStream.rangeClosed(1_000_000_000L, 1_000_000_999L).boxed().toList();
+        List<String> messages = StreamEventIds.encode(ids, 50);
+        assertEquals(List.of("1000000000-1000000999"), messages);
+        assertEquals(ids, StreamEventIds.decode(messages.get(0)));
+    }
+
+    @Test
+    void splitsScatteredIdsAcrossMessagesOfBoundedLength() {
+        List<Long> ids = LongStream.range(0, 500).map(i -> 1_000 + i * 2).boxed().toList();
+        List<String> messages = StreamEventIds.encode(ids, 64);
+        assertTrue(messages.size() > 1);
+
+        List<Long> decoded = new ArrayList<>();
+        for (String message : messages) {
+            assertTrue(message.length() <= 64, message);
+            decoded.addAll(StreamEventIds.decode(message));
+        }
+        assertEquals(ids, decoded);
+    }
+
+    @Test
+    void rejectsMalformedMessages() {
+        assertThrows(NumberFormatException.class, () -> StreamEventIds.decode("12-x"));
+        assertThrows(NumberFormatException.class, () -> StreamEventIds.decode(""));
+    }
+}
@@ -0,0 +1,93 @@
+package com.medinsights.patient_service.services.treatment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencyExpressionTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 30);
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "2x/day                            | PT24H 08:00,20:00",
+            "BID                               | PT24H 08:00,20:00",
+            "twice daily                       | PT24H 08:00,20:00",
+            "3 fois par jour                   | PT24H 08:00,14:00,20:00",
+            "3 fois/24h                        | PT24H 08:00,14:00,20:00",
+            "2x/24h                            | PT24H 08:00,20:00",
+            "4 prises par 24 h                 | PT24H 08:00,12:00,16:00,20:00",
+            "1 comprimé 2 fois par jour        | PT24H 08:00,20:00",
+            "08:00, 20:00                      | PT24H 08:00,20:00",
+            "8h et 20h                         | PT24H 08:00,20:00",
+            "matin et soir                     | PT24H 08:00,20:00",
+            "tous les soirs                    | PT24H 20:00",
+            "tous les matins et tous les soirs | PT24H 08:00,20:00",
+            "at bedtime                        | PT24H 22:00",
+            "every evening                     | PT24H 20:00",
+            "daily                             | PT24H 08:00",
+            "1 comprimé tous les jours         | PT24H 08:00",
+            "chaque jour                       | PT24H 08:00",
+            "every 6 hours                     | PT6H 02:00",
+            "q8h                               | PT8H 00:00",
+            "toutes les 6 heures               | PT6H 02:00",
+            "1 cp /8h                          | PT8H 00:00",
+            "hourly                            | PT1H 00:00",
+            "every other day                   | PT48H 08:00",
+            "tous les 3 jours                  | PT72H 08:00",
+            "weekly                            | PT168H 08:00",
+            "as needed                         | AS_NEEDED",
+            "si besoin, 3 fois par jour max    | AS_NEEDED",
+    })
+    void parsesFrequencies(String frequency, String schedule) {
+        assertEquals(schedule, FrequencyExpression.parse(frequency).map(FrequencyExpression::toString).orElse(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "with food", "every 80 hours", "selon protocole"})
+    void rejectsUnknownFrequencies(String frequency) {
+        assertEquals(Optional.empty(), FrequencyExpression.parse(frequency));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"BID", "3 fois/24h", "matin midi et soir", "q8h", "every 6 hours", "every other day",
+            "weekly", "tous les soirs", "5x/day"})
+    void doseNumbersRoundTrip(String frequency) {
+        FrequencyExpression schedule = FrequencyExpression.parse(frequency).orElseThrow();
+        LocalDateTime previous = null;
+        for (long ordinal = 0; ordinal < 500; ordinal++) {
+            LocalDateTime dose = schedule.doseAt(START, ordinal);
+            assertTrue(previous == null || dose.isAfter(previous), frequency + ": doses out of order at " + ordinal);
+            assertEquals(ordinal, schedule.firstDoseAtOrAfter(START, dose), frequency + " at " + dose);
+            assertEquals(ordinal, schedule.doseNumberAt(START, dose), frequency + " at " + dose);
+            assertEquals(ordinal + 1, schedule.firstDoseAtOrAfter(START, dose.plusSeconds(1)), frequency + " after " + dose);
+            assertEquals(-1L, schedule.doseNumberAt(START, dose.plusMinutes(1)), frequency + " after " + dose);
+            previous = dose;
+        }
+    }
+
+    @Test
+    void dosesBeforeTheStartAreNumberedZero() {
+        FrequencyExpression schedule = FrequencyExpression.parse("BID").orElseThrow();
+
+        assertEquals(0, schedule.firstDoseAtOrAfter(START, START.minusDays(3).atTime(12, 0)));
+        assertEquals(0, schedule.firstDoseAtOrAfter(START, START.atStartOfDay()));
+        assertEquals(START.atTime(8, 0), schedule.doseAt(START, 0));
+        assertEquals(START.plusDays(10).atTime(20, 0), schedule.doseAt(START, 21));
+        assertEquals(21, schedule.firstDoseAtOrAfter(START, START.plusDays(10).atTime(8, 0, 30)));
+    }
+
+    @Test
+    void asNeededHasNoDoses() {
+        assertEquals(0, FrequencyExpression.AS_NEEDED.dosesPerCycle());
+        assertTrue(!FrequencyExpression.AS_NEEDED.isScheduled());
+    }
+}
@@ -0,0 +1,101 @@
+package com.medinsights.patient_service.services.vitalsigns;
+
+import com.medinsights.patient_service.dto.vitalsigns.VitalSignsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VitalSignsBlockCodecTest {
+
+    private static final UUID PATIENT = UUID.fromString("6b1f3c1e-2f7a-4d7e-9a43-0d7c1f0e5a11");
+    private static final UUID NURSE = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID DOCTOR = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Test
+    void emptyBlockRoundTrips() {
+        assertEquals(List.of(), VitalSignsBlockCodec.decode(PATIENT, VitalSignsBlockCodec.encode(List.of())));
+    }
+
+    @Test
+    void singleReadingRoundTrips() {
+        VitalSignsResponse reading = reading(LocalDateTime.of(2025, 3, 1, 8, 0), 120, 80, 72, 37.2, 71.5,
+                "Après le petit déjeuner", NURSE, null);
+
+        assertEquals(List.of(reading), VitalSignsBlockCodec.decode(PATIENT, VitalSignsBlockCodec.encode(List.of(reading))));
+    }
+
+    @Test
+    void missingValuesNotesAndUsersRoundTrip() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<VitalSignsResponse> readings = List.of(
+                reading(start, 118, 76, null, null, 70.0, null, NURSE, null),
+                reading(start.plusHours(6), null, null, 64, 36.8, null, "", NURSE, DOCTOR),
+                reading(start.plusHours(12), 131, 88, 90, 38.4, 70.2, "Fièvre, à surveiller", null, null),
+                reading(start.plusDays(3).plusMinutes(17), 131, 88, 90, 38.4, 70.2, null, DOCTOR, NURSE));
+
+        assertEquals(readings, VitalSignsBlockCodec.decode(PATIENT, VitalSignsBlockCodec.encode(readings)));
+    }
+
+    @Test
+    void readingsAreStoredInMeasurementOrder() {
+        LocalDateTime start = LocalDateTime.of(2024, 11, 5, 9, 30);
+        List<VitalSignsResponse> readings = new ArrayList<>(List.of(
+                reading(start.plusDays(2), 125, 82, 70, 36.9, 80.0, null, NURSE, null),
+                reading(start, 121, 79, 68, 36.7, 80.4, null, NURSE, null),
+                reading(start.plusDays(1), 140, 95, 88, 37.0, 80.1, null, NURSE, null)));
+
+        List<VitalSignsResponse> decoded = VitalSignsBlockCodec.decode(PATIENT, VitalSignsBlockCodec.encode(readings));
+
+        readings.sort(Comparator.comparing(VitalSignsResponse::measurementDate));
+        assertEquals(readings, decoded);
+    }
+
+    @Test
+    void irregularTimestampsAndValuesRoundTrip() {
+        Random random = new Random(7);
+        LocalDateTime time = LocalDateTime.of(2023, 6, 15, 0, 0);
+        List<VitalSignsResponse> readings = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // From identical deltas to gaps of months, to exercise every delta-of-delta width
+            time = time.plus(switch (i % 5) {
+                case 0 -> 3_600_000L;
+                case 1 -> random.nextInt(1_000);
+                case 2 -> random.nextInt(100_000_000);
+                case 3 -> 86_400_000L * random.nextInt(120);
+                default -> 3_600_000L + random.nextInt(5);
+            }, ChronoUnit.MILLIS);
+            readings.add(reading(time,
+                    random.nextBoolean() ? 90 + random.nextInt(90) : null,
+                    60 + random.nextInt(50),
+                    random.nextInt(4) == 0 ? null : 40 + random.nextInt(120),
+                    random.nextInt(3) == 0 ? -0.0 : 35 + random.nextDouble() * 6,
+                    random.nextBoolean() ? 70.0 : 40 + random.nextDouble() * 100,
+                    random.nextInt(10) == 0 ? "note " + i : null,
+                    random.nextBoolean() ? NURSE : DOCTOR,
+                    random.nextInt(5) == 0 ? NURSE : null));
+        }
+
+        assertEquals(readings, VitalSignsBlockCodec.decode(PATIENT, VitalSignsBlockCodec.encode(readings)));
+    }
+
+    private static VitalSignsResponse reading(LocalDateTime measuredAt, Integer systolic, Integer diastolic,
+                                              Integer heartRate, Double temperature, Double weight,
+                                              String notes, UUID createdBy, UUID updatedBy) {
+        Instant createdAt = measuredAt.toInstant(ZoneOffset.UTC).plusSeconds(90);
+        Instant updatedAt = updatedBy != null ? createdAt.plusMillis(1_234) : createdAt;
+        return new VitalSignsResponse(UUID.nameUUIDFromBytes(measuredAt.toString().getBytes()), PATIENT, measuredAt,
+                systolic, diastolic, heartRate, temperature, weight, 175.0, weight != null ? weight / 3.0625 : null,
+                heartRate != null ? 16 : null, 97, heartRate != null ? null : 5.4, notes,
+                createdAt, updatedAt, createdBy, updatedBy);
+    }
+}